@@ -1,11 +1,18 @@
 package com.example.notificationconfig;
 
+import com.example.notificationconfig.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 @EnableFeignClients(basePackages = "com.example.notificationconfig")
+@EnableScheduling
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class NotificationConfigApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,17 @@
+package com.example.notificationconfig.audit;
+
+import java.time.Instant;
+
+/**
+ * One outbound notification attempt, as written to {@code notification_audit}.
+ */
+public record AuditRecord(
+        Instant occurredAt,
+        String tenantId,
+        String eventName,
+        String subscriberId,
+        String transactionId,
+        boolean success,
+        String error,
+        long latencyMillis
+) {}
@@ -0,0 +1,279 @@
+package com.example.notificationconfig.audit;
+
+import com.example.notificationconfig.config.AuditProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit trail for outbound notifications.
+ * <p>
+ * {@link #record} only places the record in a lock-free {@link AuditRingBuffer}, so auditing adds no I/O to the
+ * request path. A background thread writes the buffer to {@code notification_audit} with JDBC batch inserts whenever
+ * {@code flushSize} records are buffered or the oldest has waited {@code flushInterval}; with
+ * {@code reWriteBatchedInserts=true} on the PostgreSQL URL each batch becomes a few multi-row inserts.
+ * <p>
+ * Loss is bounded: records are dropped (and counted) only while the buffer is full. Batches the database rejects, and
+ * records still buffered when the shutdown timeout expires, are spilled to JSON-lines files that are inserted on the
+ * next start, unless the shutdown policy is {@code DROP}. Auditing stays off unless the spill directory is an absolute
+ * path, so spill files never land in whatever the working directory happens to be.
+ */
+@Component
+public class AuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    static final String INSERT_SQL = "INSERT INTO notification_audit "
+            + "(occurred_at, tenant_id, event_name, subscriber_id, transaction_id, success, error, latency_millis) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SPILL_SUFFIX = ".jsonl";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditProperties properties;
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final AtomicLong spillSequence = new AtomicLong();
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter spilled;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private volatile List<AuditRecord> leftover = List.of();
+
+    public AuditWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+        this.dropped = Counter.builder("notification.audit.records").tag("outcome", "dropped").register(meterRegistry);
+        this.written = Counter.builder("notification.audit.records").tag("outcome", "written").register(meterRegistry);
+        this.spilled = Counter.builder("notification.audit.records").tag("outcome", "spilled").register(meterRegistry);
+        this.flushTimer = Timer.builder("notification.audit.flush").register(meterRegistry);
+        Gauge.builder("notification.audit.buffer.depth", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String spillDirectory = properties.getSpillDirectory();
+        if (spillDirectory == null || spillDirectory.isBlank() || !Paths.get(spillDirectory).isAbsolute()) {
+            logger.error("notification.audit.spill-directory must be an absolute path, not '{}'; notifications will not be audited.", spillDirectory);
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Buffers the record for writing. Never blocks.
+     *
+     * @return {@code false} if the record was dropped because the buffer is full or auditing is off.
+     */
+    public boolean record(AuditRecord record) {
+        if (!running) {
+            return false;
+        }
+        if (!buffer.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        if (buffer.size() >= properties.getFlushSize()) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting records and writes what is buffered, within the shutdown timeout.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(current);
+        try {
+            current.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            // The writer is still busy with a slow batch; it stops after that batch and hands the rest over.
+            current.interrupt();
+            try {
+                current.join(properties.getShutdownTimeout().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (current.isAlive()) {
+            logger.error("Audit writer did not stop; {} buffered audit records may be lost.", buffer.size());
+            return;
+        }
+        List<AuditRecord> remaining = new ArrayList<>(leftover);
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (remaining.isEmpty()) {
+            return;
+        }
+        if (properties.getShutdownPolicy() == AuditProperties.ShutdownPolicy.SPILL) {
+            spill(remaining);
+        } else {
+            dropped.increment(remaining.size());
+            logger.warn("Dropped {} audit records still buffered at shutdown.", remaining.size());
+        }
+    }
+
+    private void runWriter() {
+        replaySpillFiles();
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        long parkNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(flushIntervalNanos / 10, TimeUnit.MILLISECONDS.toNanos(50)));
+        List<AuditRecord> batch = new ArrayList<>(properties.getFlushSize());
+        long batchStartedNanos = 0;
+        long deadlineNanos = Long.MAX_VALUE;
+        while (true) {
+            if (!running && deadlineNanos == Long.MAX_VALUE) {
+                deadlineNanos = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+            }
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() > deadlineNanos) {
+                // Shutdown timed out; whatever is left in the buffer is handled by stop().
+                buffer.drainTo(batch, Integer.MAX_VALUE);
+                leftover = new ArrayList<>(batch);
+                return;
+            }
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, properties.getFlushSize() - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartedNanos = System.nanoTime();
+            }
+            boolean full = batch.size() >= properties.getFlushSize();
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStartedNanos >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+            written.increment(batch.size());
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} audit records, spilling them to disk: {}", batch.size(), e.getMessage());
+            spill(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void insert(List<AuditRecord> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, record) -> {
+            statement.setTimestamp(1, Timestamp.from(record.occurredAt()));
+            statement.setString(2, record.tenantId());
+            statement.setString(3, record.eventName());
+            statement.setString(4, record.subscriberId());
+            statement.setString(5, record.transactionId());
+            statement.setBoolean(6, record.success());
+            statement.setString(7, record.error());
+            statement.setLong(8, record.latencyMillis());
+        });
+    }
+
+    /**
+     * Appends the records to a new spill file and forces it to disk.
+     */
+    private void spill(List<AuditRecord> records) {
+        Path directory = Paths.get(properties.getSpillDirectory());
+        Path file = directory.resolve("audit-" + System.currentTimeMillis() + "-" + spillSequence.incrementAndGet() + SPILL_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+            StringBuilder lines = new StringBuilder();
+            for (AuditRecord record : records) {
+                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            spilled.increment(records.size());
+            logger.warn("Spilled {} audit records to {}.", records.size(), file);
+        } catch (IOException e) {
+            dropped.increment(records.size());
+            logger.error("Failed to spill {} audit records to {}; they are lost: {}", records.size(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts records spilled by a previous run and deletes each file once it is in the database.
+     */
+    private void replaySpillFiles() {
+        Path directory = Paths.get(properties.getSpillDirectory());
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SPILL_SUFFIX)) {
+            for (Path file : files) {
+                List<AuditRecord> records = new ArrayList<>();
+                try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isBlank()) {
+                            records.add(objectMapper.readValue(line, AuditRecord.class));
+                        }
+                    }
+                }
+                for (int from = 0; from < records.size(); from += properties.getFlushSize()) {
+                    insert(records.subList(from, Math.min(records.size(), from + properties.getFlushSize())));
+                }
+                Files.delete(file);
+                written.increment(records.size());
+                logger.info("Replayed {} spilled audit records from {}.", records.size(), file);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to replay spilled audit records from {}; will retry on next start: {}", directory, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.notificationconfig.client;
+
+import com.example.notificationconfig.config.NovuProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Sends a second attempt of a call that has not succeeded within a high percentile of recent latencies, and takes
+ * whichever attempt succeeds first.
+ * <p>
+ * The hedge delay is the configured percentile of the latencies of the last {@code samples} successful calls, kept
+ * between {@code minDelay} and {@code maxDelay}; until that many are known, nothing is hedged. Hedges are paid from a
+ * budget that every call adds {@code budget} of a hedge to, up to {@code maxBurst}, so however slow Novu gets, hedging
+ * adds at most that fraction to the load on it. A first attempt that fails before the hedge is sent fails the call: a
+ * hedge is not a retry. Once both attempts are out, the call fails only if both do, with the first attempt's error.
+ * When the call completes, the other attempt is cancelled.
+ * <p>
+ * Ported from the notification service's {@code com.notification.novu.Hedger}, which also hedges the blocking Novu
+ * SDK; the hedging logic is the same and fixes should be made in both.
+ */
+final class Hedger {
+
+    private static final long TOKEN = 1_000_000;
+
+    private final NovuProperties.Hedging settings;
+    private final long[] latencies;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final Counter sent;
+    private final Counter won;
+    private final Counter denied;
+
+    private volatile long delayNanos;
+
+    Hedger(NovuProperties.Hedging settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.latencies = new long[Math.max(1, settings.getSamples())];
+        this.sent = Counter.builder("notification.novu.hedges").tag("result", "sent").register(meterRegistry);
+        this.won = Counter.builder("notification.novu.hedges").tag("result", "won").register(meterRegistry);
+        this.denied = Counter.builder("notification.novu.hedges").tag("result", "over-budget").register(meterRegistry);
+        Gauge.builder("notification.novu.hedge.delay", this, hedger -> hedger.delayNanos / 1_000_000.0)
+                .baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    /**
+     * @param attempt Sends one attempt; called once, or twice if the call is hedged. Must not block.
+     */
+    <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> attempt) {
+        long start = System.nanoTime();
+        deposit();
+        CompletableFuture<T> first = attempt.get();
+        long delay = delayNanos;
+        if (delay <= 0) {
+            return first.whenComplete((value, error) -> {
+                if (error == null) {
+                    record(System.nanoTime() - start);
+                }
+            });
+        }
+        return new Call<>(attempt, first, start, delay).result;
+    }
+
+    /**
+     * @return The current hedge delay, or 0 while too few latencies are known to hedge.
+     */
+    long delayNanos() {
+        return delayNanos;
+    }
+
+    void record(long latencyNanos) {
+        long count = recorded.getAndIncrement();
+        latencies[(int) (count % latencies.length)] = latencyNanos;
+        // Recomputed every tenth of the window: a sort of a thousand longs every hundred calls.
+        if (count + 1 >= latencies.length && (count + 1) % Math.max(1, latencies.length / 10) == 0) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(settings.getPercentile() / 100 * sorted.length) - 1);
+            long percentile = sorted[Math.max(0, index)];
+            delayNanos = Math.max(settings.getMinDelay().toNanos(), Math.min(settings.getMaxDelay().toNanos(), percentile));
+        }
+    }
+
+    private void deposit() {
+        long credit = (long) (settings.getBudget() * TOKEN);
+        long max = settings.getMaxBurst() * TOKEN;
+        tokens.getAndUpdate(current -> Math.min(max, current + credit));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private final class Call<T> {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Supplier<CompletableFuture<T>> attempt;
+        private final CompletableFuture<T> first;
+        private final long start;
+
+        // Guarded by this.
+        private CompletableFuture<T> hedge;
+        private Throwable firstError;
+        private boolean hedgeFailed;
+
+        Call(Supplier<CompletableFuture<T>> attempt, CompletableFuture<T> first, long start, long delayNanos) {
+            this.attempt = attempt;
+            this.first = first;
+            this.start = start;
+            result.whenComplete((value, error) -> cancelAttempts());
+            first.whenComplete(this::onFirst);
+            if (!result.isDone()) {
+                CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(this::sendHedge);
+            }
+        }
+
+        private void sendHedge() {
+            synchronized (this) {
+                if (result.isDone() || firstError != null) {
+                    return;
+                }
+                if (!withdraw()) {
+                    denied.increment();
+                    return;
+                }
+                sent.increment();
+                try {
+                    hedge = attempt.get();
+                } catch (RuntimeException e) {
+                    hedge = CompletableFuture.failedFuture(e);
+                }
+            }
+            hedge.whenComplete(this::onHedge);
+            if (result.isDone()) {
+                // The call completed while the hedge was being sent, after cancelAttempts looked for it.
+                hedge.cancel(true);
+            }
+        }
+
+        private void onFirst(T value, Throwable error) {
+            if (error == null) {
+                succeed(value, false);
+                return;
+            }
+            synchronized (this) {
+                firstError = error;
+                if (hedge != null && !hedgeFailed) {
+                    return;
+                }
+            }
+            result.completeExceptionally(error);
+        }
+
+        private void onHedge(T value, Throwable error) {
+            if (error == null) {
+                succeed(value, true);
+                return;
+            }
+            Throwable failure;
+            synchronized (this) {
+                hedgeFailed = true;
+                failure = firstError;
+            }
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private void succeed(T value, boolean hedged) {
+            if (result.complete(value)) {
+                record(System.nanoTime() - start);
+                if (hedged) {
+                    won.increment();
+                }
+            }
+        }
+
+        private void cancelAttempts() {
+            first.cancel(true);
+            CompletableFuture<T> second;
+            synchronized (this) {
+                second = hedge;
+            }
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.notificationconfig.client;
+
+import com.example.notificationconfig.config.NovuProperties;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
+import com.example.notificationconfig.exception.NovuTriggerException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link NovuClient} for {@code POST /v1/events/trigger}.
+ * <p>
+ * Feign calls block a thread until Novu answers. This client sends through a Reactor Netty {@link WebClient}, so many
+ * triggers can be in flight without a thread each. Concurrency is bounded by the connection pool: at most
+ * {@code novu.max-connections} triggers are on the wire and {@code novu.max-pending-acquires} wait for a connection;
+ * beyond that triggers fail at once, which is what lets callers push back on their own producers. Like
+ * {@link com.example.notificationconfig.config.FeignConfig}, it reads the host and API key from {@link NovuProperties}
+ * on every call, so a refresh applies to the next trigger.
+ * <p>
+ * With {@code novu.hedging.enabled}, {@link #triggerEvent} sends a trigger that Novu has not acknowledged within a high
+ * percentile of recent latencies a second time, and the first acknowledgement wins (see {@link Hedger}). Both
+ * attempts carry the same {@code Idempotency-Key}, so Novu runs the workflow once even if both arrive.
+ */
+@Component
+public class NovuAsyncClient {
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final NovuProperties novuProperties;
+    private final Hedger hedger;
+
+    public NovuAsyncClient(WebClient.Builder webClientBuilder, NovuProperties novuProperties, MeterRegistry meterRegistry) {
+        this.novuProperties = novuProperties;
+        this.hedger = new Hedger(novuProperties.getHedging(), meterRegistry);
+        this.connectionProvider = ConnectionProvider.builder("novu")
+                .maxConnections(novuProperties.getMaxConnections())
+                .pendingAcquireMaxCount(novuProperties.getMaxPendingAcquires())
+                .pendingAcquireTimeout(novuProperties.getPendingAcquireTimeout())
+                .build();
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                        .responseTimeout(novuProperties.getRequestTimeout())))
+                .build();
+    }
+
+    /**
+     * @return A {@link Mono} of Novu's response, failing with a {@link NovuTriggerException} if Novu answered with an
+     * error status, could not be reached, or no connection became free in time. Nothing is sent until it is
+     * subscribed.
+     */
+    public Mono<TriggerEventResponse> trigger(TriggerEventRequest request) {
+        return trigger(request, null);
+    }
+
+    /**
+     * @param idempotencyKey Sent as {@code Idempotency-Key} unless {@code null}; Novu answers every request carrying
+     *                       the same key with the outcome of the first.
+     */
+    public Mono<TriggerEventResponse> trigger(TriggerEventRequest request, String idempotencyKey) {
+        return Mono.defer(() -> webClient.post()
+                        .uri(novuProperties.getApiHost() + "/v1/events/trigger")
+                        .header("Authorization", "ApiKey " + novuProperties.getSecretKey())
+                        .headers(headers -> {
+                            if (idempotencyKey != null) {
+                                headers.set("Idempotency-Key", idempotencyKey);
+                            }
+                        })
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(TriggerEventResponse.class))
+                .onErrorMap(error -> !(error instanceof NovuTriggerException), NovuAsyncClient::toTriggerException);
+    }
+
+    /**
+     * @return A future completed with Novu's response, or exceptionally with a {@link NovuTriggerException}. Hedged
+     * if {@linkplain #isHedging() enabled}.
+     */
+    public CompletableFuture<TriggerEventResponse> triggerEvent(TriggerEventRequest request) {
+        if (!hedger.isEnabled()) {
+            return trigger(request).toFuture();
+        }
+        String idempotencyKey = UUID.randomUUID().toString();
+        return hedger.call(() -> trigger(request, idempotencyKey).toFuture());
+    }
+
+    /**
+     * @return Whether {@link #triggerEvent} hedges slow triggers.
+     */
+    public boolean isHedging() {
+        return hedger.isEnabled();
+    }
+
+    @PreDestroy
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    private static NovuTriggerException toTriggerException(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return new NovuTriggerException(response.getStatusCode().value(),
+                    "Novu trigger failed with HTTP " + response.getStatusCode().value() + ": " + response.getResponseBodyAsString(), error);
+        }
+        return new NovuTriggerException(-1, "Novu trigger failed: " + error.getMessage(), error);
+    }
+}
@@ -2,19 +2,19 @@ package com.example.notificationconfig.client;
 
 import com.example.notificationconfig.config.FeignConfig;
 import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(name = "NovuClient",
-        url = "${novu.api-host}/v1", // Corrected to use novu.api-host and append /v1
+        // URL comes from spring.cloud.openfeign.client.config.NovuClient.url so that it can be refreshed
         configuration = { FeignConfig.class })
 public interface NovuClient {
 
     @PostMapping(
             value = "/events/trigger",
-            consumes = "application/json",
-            headers = "Authorization=ApiKey ${novu.secret-key}"
-    )
-    void triggerEvent(@RequestBody TriggerEventRequest request);
+            consumes = "application/json"
+    ) // Authorization header is added by FeignConfig
+    TriggerEventResponse triggerEvent(@RequestBody TriggerEventRequest request);
 }
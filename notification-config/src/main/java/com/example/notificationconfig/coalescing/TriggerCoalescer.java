@@ -0,0 +1,204 @@
+package com.example.notificationconfig.coalescing;
+
+import com.example.notificationconfig.config.CoalescingProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets identical triggers share one call to Novu.
+ * <p>
+ * Triggers are identical if they are for the same tenant, event, subscriber, address, phone, send time and payload;
+ * the payload is compared by content, whatever the order of its keys, except that a {@link RawJsonPayload} passed
+ * through as it was received is compared byte for byte. A trigger that arrives while an identical one is in flight
+ * waits for it and gets its result. A trigger that arrives within {@code resultTtl} after an identical one succeeded
+ * gets that result at once. Failures are shared with the triggers that were waiting, but not cached, so a retry after
+ * a failure is sent again.
+ */
+@Component
+public class TriggerCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriggerCoalescer.class);
+
+    private final CoalescingProperties properties;
+    private final ObjectWriter payloadWriter;
+    private final Map<Key, CompletableFuture<NotificationResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, Entry> results;
+    private final Counter inFlightHits;
+    private final Counter cacheHits;
+
+    public TriggerCoalescer(CoalescingProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.payloadWriter = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        // Insertion order is expiry order, as every entry lives for the same time.
+        this.results = new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > properties.getMaxCachedResults();
+            }
+        };
+        this.inFlightHits = Counter.builder("notification.trigger.coalesced").tag("source", "in-flight").register(meterRegistry);
+        this.cacheHits = Counter.builder("notification.trigger.coalesced").tag("source", "cache").register(meterRegistry);
+        Gauge.builder("notification.trigger.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code trigger} unless an identical trigger is in flight or has just succeeded, in which case its result is
+     * returned instead. {@code trigger} runs on the calling thread.
+     *
+     * @param tenantId The tenant the trigger is sent for.
+     * @param trigger  Sends the trigger.
+     * @return A future of its own for each caller, so cancelling one does not affect the others.
+     */
+    public CompletableFuture<NotificationResult> coalesce(String tenantId, EventRequest eventRequest,
+                                                          Supplier<CompletableFuture<NotificationResult>> trigger) {
+        Key key = properties.isEnabled() ? key(tenantId, eventRequest) : null;
+        if (key == null) {
+            return trigger.get();
+        }
+        NotificationResult cached = cached(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<NotificationResult> shared = new CompletableFuture<>();
+        CompletableFuture<NotificationResult> existing = inFlight.putIfAbsent(key, shared);
+        if (existing != null) {
+            inFlightHits.increment();
+            logger.debug("Event '{}' for subscriber {} joined an identical trigger in flight.", eventRequest.getName(), eventRequest.getSubscriberId());
+            return existing.copy();
+        }
+        // An identical trigger may have completed between the cache lookup and taking its place.
+        cached = cached(key);
+        if (cached != null) {
+            inFlight.remove(key, shared);
+            shared.complete(cached);
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        CompletableFuture<NotificationResult> result;
+        try {
+            result = trigger.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, error) -> {
+            // Cached before leaving the in-flight map, so an identical trigger always finds one or the other.
+            if (error == null && value != null) {
+                remember(key, value);
+            }
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error);
+            } else {
+                shared.complete(value);
+            }
+        });
+        return shared.copy();
+    }
+
+    /**
+     * @return Number of results currently cached, including expired ones not evicted yet.
+     */
+    public int cachedResults() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    private NotificationResult cached(Key key) {
+        synchronized (results) {
+            Entry entry = results.get(key);
+            return entry != null && System.nanoTime() - entry.expiresAtNanos < 0 ? entry.result : null;
+        }
+    }
+
+    private void remember(Key key, NotificationResult result) {
+        long ttl = properties.getResultTtl().toNanos();
+        if (ttl <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        synchronized (results) {
+            Iterator<Entry> eldest = results.values().iterator();
+            while (eldest.hasNext() && now - eldest.next().expiresAtNanos >= 0) {
+                eldest.remove();
+            }
+            // Re-inserted, so the entry moves to the end of the expiry order.
+            results.remove(key);
+            results.put(key, new Entry(result, now + ttl));
+        }
+    }
+
+    /**
+     * @return SHA-256 of the canonical trigger, or {@code null} if it cannot be hashed and must not be coalesced.
+     */
+    private Key key(String tenantId, EventRequest eventRequest) {
+        if (eventRequest == null) {
+            return null;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, tenantId);
+        update(digest, eventRequest.getName());
+        update(digest, eventRequest.getSubscriberId());
+        update(digest, eventRequest.getEmail());
+        update(digest, eventRequest.getPhone());
+        update(digest, eventRequest.getSendAt() != null ? eventRequest.getSendAt().toString() : null);
+        update(digest, eventRequest.getDelaySeconds() != null ? eventRequest.getDelaySeconds().toString() : null);
+        if (eventRequest.getPayload() instanceof RawJsonPayload raw) {
+            digest.update(raw.json());
+        } else if (eventRequest.getPayload() != null) {
+            try {
+                digest.update(payloadWriter.writeValueAsBytes(eventRequest.getPayload()));
+            } catch (JsonProcessingException e) {
+                logger.debug("Event '{}' not coalesced: payload cannot be serialized: {}", eventRequest.getName(), e.getMessage());
+                return null;
+            }
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new Key(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+    }
+
+    /**
+     * Adds a field, length-prefixed so that no two sequences of fields hash the same input.
+     */
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private record Key(long h0, long h1, long h2, long h3) {}
+
+    private record Entry(NotificationResult result, long expiresAtNanos) {}
+}
@@ -0,0 +1,56 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the write-behind audit trail, bound from {@code notification.audit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.audit")
+public class AuditProperties {
+
+    public enum ShutdownPolicy {
+        /**
+         * Records still buffered when the shutdown timeout expires are written to {@link #spillDirectory} and inserted
+         * on the next start.
+         */
+        SPILL,
+        /**
+         * Records still buffered when the shutdown timeout expires are discarded and counted.
+         */
+        DROP
+    }
+
+    private boolean enabled = false;
+
+    /**
+     * Ring buffer capacity (rounded up to a power of two). Records are dropped and counted while it is full.
+     */
+    private int bufferSize = 65536;
+
+    /**
+     * Maximum rows per batch insert. A batch is written as soon as this many records are buffered.
+     */
+    private int flushSize = 500;
+
+    /**
+     * Maximum time a record waits in the buffer before being written.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long shutdown keeps writing buffered records before applying {@link #shutdownPolicy}.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    private ShutdownPolicy shutdownPolicy = ShutdownPolicy.SPILL;
+
+    /**
+     * Absolute path of the directory records are spilled to on shutdown or when the database rejects a batch.
+     * Auditing stays off while it is unset or relative.
+     */
+    private String spillDirectory = "";
+}
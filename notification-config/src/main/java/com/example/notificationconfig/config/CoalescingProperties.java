@@ -0,0 +1,30 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for coalescing identical triggers, bound from {@code notification.coalescing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * Whether identical concurrent triggers share one call to Novu.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long the result of a successful trigger is returned for identical triggers arriving after it completed.
+     * Zero only coalesces triggers that overlap the call.
+     */
+    private Duration resultTtl = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of results held; the oldest are evicted first.
+     */
+    private int maxCachedResults = 10_000;
+}
@@ -0,0 +1,54 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Settings for per-subscriber digests, bound from {@code notification.digest.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.digest")
+public class DigestProperties {
+
+    /**
+     * Whether events are aggregated at all. When disabled every event is triggered individually.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long a digest stays open after its first event before it is emitted.
+     */
+    private Duration window = Duration.ofSeconds(10);
+
+    /**
+     * Number of events after which a digest is emitted without waiting for the window to close.
+     */
+    private int maxEvents = 50;
+
+    /**
+     * Maximum number of open digests. Events that would open a further digest are triggered individually.
+     */
+    private int maxOpenDigests = 10000;
+
+    /**
+     * How long shutdown waits for the digests still open to be sent.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Event names to aggregate. Empty means every event.
+     */
+    private Set<String> events = new HashSet<>();
+
+    /**
+     * @param eventName The event name.
+     * @return Whether events with this name are aggregated.
+     */
+    public boolean appliesTo(String eventName) {
+        return enabled && (events.isEmpty() || events.contains(eventName));
+    }
+}
@@ -1,7 +1,23 @@
 package com.example.notificationconfig.config;
 
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * Feign settings for {@link com.example.notificationconfig.client.NovuClient}.
+ * <p>
+ * The API key is read from {@link NovuProperties} on every request rather than baked into the client, so a rotated
+ * key applies to the next call after a configuration refresh. The base URL is refreshable too (see
+ * {@code spring.cloud.openfeign.client.refresh-enabled}); calls in flight complete against the old one. The
+ * {@code refresh} actuator endpoint is not exposed over HTTP by default, as nothing authenticates it; expose it only
+ * on a management port that is not reachable from outside.
+ */
 @Configuration
 public class FeignConfig {
+
+    @Bean
+    public RequestInterceptor novuAuthorizationInterceptor(NovuProperties novuProperties) {
+        return template -> template.header("Authorization", "ApiKey " + novuProperties.getSecretKey());
+    }
 }
@@ -0,0 +1,49 @@
+package com.example.notificationconfig.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Reads request bodies encoded as Smile, Jackson's binary form of JSON, as well as JSON. Field names and numbers are
+ * not spelled out, and names repeated across objects are written once, so large payloads are smaller and cheaper to
+ * parse. Clients opt in with {@code Content-Type: application/x-jackson-smile}.
+ * <p>
+ * Spring registers Smile support of its own when Smile is on the class path, with a mapper that knows nothing of the
+ * application's Jackson settings. The mappers here are built by Boot's {@link Jackson2ObjectMapperBuilder}, like the
+ * JSON mapper, so they have the same modules, mix-ins and features; a passed-through payload is read into a
+ * {@code RawJsonPayload} whichever of the two formats it came in. Gzip request bodies are inflated before they reach
+ * either, by {@code GzipRequestFilter} or {@code GzipWebFilter}.
+ */
+@Configuration
+public class IngestFormatsConfig {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smileMapper(builder));
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper smileMapper = smileMapper(builder);
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        };
+    }
+
+    private static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory()).build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for compressed request bodies, bound from {@code notification.ingest.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.ingest")
+public class IngestProperties {
+
+    /**
+     * Largest request body accepted once inflated. A gzip body that inflates beyond it is rejected as unreadable, so a
+     * small compressed request cannot make the application inflate gigabytes.
+     */
+    private DataSize maxInflatedSize = DataSize.ofMegabytes(10);
+}
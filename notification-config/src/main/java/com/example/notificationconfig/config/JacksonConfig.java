@@ -0,0 +1,25 @@
+package com.example.notificationconfig.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs Blackbird into the application's {@code ObjectMapper}, used by the controllers and by the Feign and
+ * WebClient codecs. Bean serializers and deserializers then get and set properties through lambdas generated once per
+ * accessor instead of through reflection. Types with a serializer of their own, such as {@code TriggerEventRequest},
+ * are not affected.
+ * <p>
+ * Enabled by {@code notification.jackson.blackbird}; off in native images, which cannot generate classes at runtime.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.jackson.blackbird", havingValue = "true", matchIfMissing = true)
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
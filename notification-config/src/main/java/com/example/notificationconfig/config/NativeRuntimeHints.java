@@ -0,0 +1,35 @@
+package com.example.notificationconfig.config;
+
+import com.example.notificationconfig.audit.AuditRecord;
+import com.example.notificationconfig.client.NovuClient;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and proxy hints for the native image that Spring AOT does not infer.
+ * <p>
+ * Types read or written by controllers get binding hints automatically; these are the ones serialized elsewhere: the
+ * trigger request and response exchanged with Novu by Feign and the WebClient, events taken from queues and the audit
+ * spill files. Feign builds {@link NovuClient} as a JDK proxy and reads its annotations at runtime. Jackson creates
+ * the serializers named in annotations, such as those of {@link RawJsonPayload} and {@link TriggerEventRequest},
+ * reflectively.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                EventRequest.class, TriggerEventRequest.class, TriggerEventResponse.class, AuditRecord.class);
+        hints.reflection().registerType(NovuClient.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        hints.reflection().registerType(RawJsonPayload.Serializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(RawJsonPayload.Deserializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(TriggerEventRequest.Serializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.proxies().registerJdkProxy(NovuClient.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Novu connection settings, bound from {@code novu.*}. Rebound in place when the configuration is refreshed.
+ */
+@Data
+@ConfigurationProperties(prefix = "novu")
+public class NovuProperties {
+
+    /**
+     * API key sent with every request to Novu.
+     */
+    private String secretKey;
+
+    /**
+     * Base URL of the Novu API.
+     */
+    private String apiHost = "https://api.novu.co";
+
+    private String appIdentifier;
+
+    /**
+     * Maximum time to wait for Novu to acknowledge a trigger sent asynchronously.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Maximum number of connections the non-blocking client keeps open to Novu, and so the number of triggers sent
+     * concurrently.
+     */
+    private int maxConnections = 500;
+
+    /**
+     * Maximum number of triggers waiting for a connection. Beyond it triggers fail at once instead of queueing.
+     */
+    private int maxPendingAcquires = 5000;
+
+    /**
+     * Maximum time a trigger waits for a connection.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    private Hedging hedging = new Hedging();
+
+    /**
+     * Hedging of triggers: a trigger that has not been acknowledged within a high percentile of recent latencies is
+     * sent a second time, with the same idempotency key, and the first acknowledgement wins.
+     */
+    @Data
+    public static class Hedging {
+
+        private boolean enabled = false;
+
+        /**
+         * Percentile of recent trigger latencies after which the hedge is sent.
+         */
+        private double percentile = 95;
+
+        /**
+         * Bounds of the hedge delay, whatever the percentile.
+         */
+        private Duration minDelay = Duration.ofMillis(20);
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+
+        /**
+         * Number of recent latencies the percentile is taken from. Nothing is hedged until this many are known.
+         */
+        private int samples = 1000;
+
+        /**
+         * Hedges allowed per trigger, on average: 0.03 adds at most 3% to the load on Novu.
+         */
+        private double budget = 0.03;
+
+        /**
+         * Maximum number of hedges that may be saved up while Novu is fast and then spent at once.
+         */
+        private int maxBurst = 10;
+    }
+}
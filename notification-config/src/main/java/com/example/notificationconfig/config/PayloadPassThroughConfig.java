@@ -0,0 +1,34 @@
+package com.example.notificationconfig.config;
+
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Binds the payload of incoming events as a {@link RawJsonPayload}, which is written to Novu as the bytes it was read
+ * as, instead of as maps that are rebuilt and serialized again. Enabled by {@code notification.payload.pass-through}.
+ * <p>
+ * Applies to every use of the application's {@code ObjectMapper}: both controllers, and the Feign and WebClient
+ * encoders, which write a {@link RawJsonPayload} out as it is whichever way it was bound.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.payload.pass-through", havingValue = "true")
+public class PayloadPassThroughConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer payloadPassThrough() {
+        return builder -> builder.mixIn(EventRequest.class, PassThroughPayload.class);
+    }
+
+    abstract static class PassThroughPayload {
+
+        @JsonDeserialize(using = RawJsonPayload.Deserializer.class)
+        abstract void setPayload(Map<String, Object> payload);
+    }
+}
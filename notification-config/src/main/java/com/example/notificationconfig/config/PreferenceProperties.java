@@ -0,0 +1,35 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the subscriber preference near-cache, bound from {@code notification.preferences.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.preferences")
+public class PreferenceProperties {
+
+    /**
+     * How long a subscriber's preferences are cached. Changes made through this instance apply at once; changes made
+     * through other instances apply on the next change poll; this bounds staleness if polls fail.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of subscribers whose preferences are cached; the least recently used are evicted.
+     */
+    private int maxCachedSubscribers = 100_000;
+
+    /**
+     * How often preference changes made through other instances are polled.
+     */
+    private long changePollMillis = 15_000;
+
+    /**
+     * How far back each poll re-reads changes, to cover transactions that commit late.
+     */
+    private Duration changeOverlap = Duration.ofMinutes(1);
+}
@@ -0,0 +1,30 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the reactive trigger endpoints, bound from {@code notification.reactive.*}. Only used when the
+ * application runs as a reactive web application (the {@code reactive} profile).
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.reactive")
+public class ReactiveProperties {
+
+    /**
+     * Maximum number of triggers accepted but not yet acknowledged by Novu, across all requests. Single triggers beyond
+     * it are answered with 503 and a {@code Retry-After} header; streams stop reading their request body until triggers
+     * complete.
+     */
+    private int maxInFlight = 2000;
+
+    /**
+     * Maximum number of triggers in flight per streamed request.
+     */
+    private int streamConcurrency = 64;
+
+    /**
+     * Seconds suggested to clients in {@code Retry-After} when the endpoint is saturated.
+     */
+    private int retryAfterSeconds = 1;
+}
@@ -0,0 +1,28 @@
+package com.example.notificationconfig.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * WebFlux settings for the {@code reactive} profile.
+ * <p>
+ * Controllers shared with the servlet edition, such as {@link com.example.notificationconfig.controller.DeliveryController},
+ * return plain values and query the database. They are run on a bounded pool instead of the event loop, so a slow query
+ * cannot stall the reactive trigger endpoints.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    private static final int BLOCKING_CONCURRENCY = 64;
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("webflux-blocking-");
+        executor.setConcurrencyLimit(BLOCKING_CONCURRENCY);
+        configurer.setExecutor(executor);
+    }
+}
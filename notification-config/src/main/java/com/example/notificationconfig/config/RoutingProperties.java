@@ -0,0 +1,50 @@
+package com.example.notificationconfig.config;
+
+import com.example.notificationconfig.routing.Channel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for per-channel routing, bound from {@code notification.routing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.routing")
+public class RoutingProperties {
+
+    /**
+     * Whether events with channel rules are split into one trigger per channel. When disabled every event is sent as
+     * a single trigger.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often channel rules are reloaded from the database.
+     */
+    private long ruleRefreshMillis = 30_000;
+
+    /**
+     * Concurrency budget per channel. Channels not listed get the defaults of {@link ChannelBudget}.
+     */
+    private Map<Channel, ChannelBudget> channels = new EnumMap<>(Channel.class);
+
+    public ChannelBudget budgetFor(Channel channel) {
+        return channels.getOrDefault(channel, new ChannelBudget());
+    }
+
+    @Data
+    public static class ChannelBudget {
+
+        /**
+         * Maximum number of triggers of the channel waiting for Novu at once.
+         */
+        private int maxInFlight = 100;
+
+        /**
+         * Maximum number of triggers waiting for an in-flight slot. Beyond that, triggers of the channel fail at once.
+         */
+        private int maxQueued = 1000;
+    }
+}
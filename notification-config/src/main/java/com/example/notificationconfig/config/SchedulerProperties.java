@@ -0,0 +1,70 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for scheduled and delayed sends, bound from {@code notification.scheduler.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Whether this instance dispatches due notifications. Instances with this off still accept scheduled requests.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Timer wheel resolution. Also the polling interval of the dispatch loop.
+     */
+    private long tickMillis = 100;
+
+    private int wheelSize = 512;
+
+    private int wheelLevels = 4;
+
+    /**
+     * Pending rows due within this window are held in memory by the timer wheel.
+     */
+    private Duration preloadHorizon = Duration.ofMinutes(10);
+
+    private long preloadIntervalMillis = 60_000;
+
+    /**
+     * Maximum number of rows claimed and dispatched per batch.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Rows claimed longer than this without being dispatched are released for another instance to pick up. An
+     * instance renews the claims of the rows it is still sending on every preload, so this must be well above
+     * {@code preloadIntervalMillis}.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Pending rows this far past their due time are swept into the wheel even if another instance loaded them.
+     */
+    private Duration overdueGrace = Duration.ofSeconds(30);
+
+    private int maxAttempts = 3;
+
+    /**
+     * Base delay before retrying a failed send; doubles with each attempt.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Delay before retrying a send rejected by the tenant's quota.
+     */
+    private Duration throttleRetryDelay = Duration.ofSeconds(1);
+
+    /**
+     * Times a send may be put off for throttling before the row is failed. With the default delay, about ten minutes
+     * of continuous throttling.
+     */
+    private int maxThrottledRetries = 600;
+}
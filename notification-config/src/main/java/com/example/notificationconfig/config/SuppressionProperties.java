@@ -0,0 +1,28 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the suppression list admin API, bound from {@code notification.suppression.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.suppression")
+public class SuppressionProperties {
+
+    /**
+     * Shared secret expected in the {@code X-Admin-Token} header of suppression admin calls. Empty disables the admin
+     * API.
+     */
+    private String adminToken = "";
+
+    /**
+     * Maximum number of rows per batched upsert during a bulk import.
+     */
+    private int importBatchSize = 1000;
+
+    /**
+     * Number of rejected lines echoed back in an import result.
+     */
+    private int maxRejectedSamples = 20;
+}
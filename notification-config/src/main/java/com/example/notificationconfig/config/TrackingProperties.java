@@ -0,0 +1,36 @@
+package com.example.notificationconfig.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for delivery tracking, bound from {@code notification.tracking.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.tracking")
+public class TrackingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of updates waiting to be written. Webhook calls are rejected with 503 while it is full, so that
+     * Novu retries them later.
+     */
+    private int queueCapacity = 100_000;
+
+    /**
+     * Maximum number of rows per batched upsert.
+     */
+    private int batchSize = 1000;
+
+    /**
+     * How long the writer waits for more updates before writing a partial batch.
+     */
+    private long flushIntervalMillis = 200;
+
+    /**
+     * Shared secret expected in the {@code X-Webhook-Secret} header of webhook calls. The webhook endpoints
+     * are disabled while it is empty.
+     */
+    private String webhookSecret = "";
+}
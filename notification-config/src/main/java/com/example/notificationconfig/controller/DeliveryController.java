@@ -0,0 +1,117 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.config.TrackingProperties;
+import com.example.notificationconfig.dto.DeliveryStatusEvent;
+import com.example.notificationconfig.entity.DeliveryRecord;
+import com.example.notificationconfig.repository.DeliveryRecordRepository;
+import com.example.notificationconfig.tracking.DeliveryTracker;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1")
+public class DeliveryController {
+
+    static final String WEBHOOK_SECRET_HEADER = "X-Webhook-Secret";
+
+    private final DeliveryTracker deliveryTracker;
+    private final DeliveryRecordRepository deliveryRecordRepository;
+    private final TrackingProperties trackingProperties;
+
+    public DeliveryController(DeliveryTracker deliveryTracker, DeliveryRecordRepository deliveryRecordRepository,
+                              TrackingProperties trackingProperties) {
+        this.deliveryTracker = deliveryTracker;
+        this.deliveryRecordRepository = deliveryRecordRepository;
+        this.trackingProperties = trackingProperties;
+    }
+
+    /**
+     * Novu status webhook. The update is queued and written asynchronously; 503 asks Novu to retry later. Without a
+     * configured {@code notification.tracking.webhook-secret} the endpoint is disabled and answers 404.
+     */
+    @PostMapping("/webhooks/novu")
+    public ResponseEntity<Void> receiveStatus(@RequestHeader(value = WEBHOOK_SECRET_HEADER, required = false) String secret,
+                                              @Valid @RequestBody DeliveryStatusEvent event) {
+        return receiveStatuses(secret, List.of(event));
+    }
+
+    /**
+     * Batched variant of {@link #receiveStatus} for senders that can group updates. Entries without a transaction id
+     * or status are skipped. On 503 the whole batch may be resent; the upserts are idempotent.
+     */
+    @PostMapping("/webhooks/novu/batch")
+    public ResponseEntity<Void> receiveStatuses(@RequestHeader(value = WEBHOOK_SECRET_HEADER, required = false) String secret,
+                                                @RequestBody List<DeliveryStatusEvent> events) {
+        String expected = trackingProperties.getWebhookSecret();
+        if (expected == null || expected.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (secret == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        for (DeliveryStatusEvent event : events) {
+            if (isBlank(event.transactionId()) || isBlank(event.status())) {
+                continue;
+            }
+            if (!deliveryTracker.recordStatus(event)) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/deliveries/{transactionId}")
+    public ResponseEntity<DeliveryRecord> getDelivery(@PathVariable String transactionId) {
+        return ResponseEntity.of(deliveryRecordRepository.findById(transactionId));
+    }
+
+    /**
+     * Looks deliveries up by message id, or by subscriber and/or creation time range (newest first). The time range
+     * defaults to the last 24 hours.
+     */
+    @GetMapping("/deliveries")
+    public ResponseEntity<List<DeliveryRecord>> findDeliveries(
+            @RequestParam(required = false) String messageId,
+            @RequestParam(required = false) String subscriberId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        if (messageId != null) {
+            return ResponseEntity.ok(deliveryRecordRepository.findByMessageId(messageId));
+        }
+        Instant until = to != null ? to : Instant.now();
+        Instant since = from != null ? from : until.minus(1, ChronoUnit.DAYS);
+        PageRequest pageable = PageRequest.of(page, Math.min(Math.max(size, 1), 1000), Sort.by(Sort.Direction.DESC, "createdAt"));
+        if (subscriberId != null) {
+            return ResponseEntity.ok(deliveryRecordRepository
+                    .findBySubscriberIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(subscriberId, since, until, pageable)
+                    .getContent());
+        }
+        return ResponseEntity.ok(deliveryRecordRepository
+                .findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(since, until, pageable)
+                .getContent());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,26 +1,40 @@
 package com.example.notificationconfig.controller;
 
 import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.scheduler.NotificationScheduler;
 import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.TenantContext;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Instant;
+import java.util.UUID;
+
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/v1/notify")
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationScheduler notificationScheduler;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, NotificationScheduler notificationScheduler) {
         this.notificationService = notificationService;
+        this.notificationScheduler = notificationScheduler;
     }
 
     @PostMapping("/trigger")
     public ResponseEntity<String> triggerNotificationEvent(@Valid @RequestBody EventRequest eventRequest) {
+        Instant sendAt = eventRequest.resolveSendAt(Instant.now());
+        if (sendAt != null && sendAt.isAfter(Instant.now())) {
+            UUID id = notificationScheduler.schedule(eventRequest, sendAt, TenantContext.current());
+            return ResponseEntity.accepted().body("Notification Scheduled: " + id);
+        }
         notificationService.sendNotificationEvent(eventRequest);
         return ResponseEntity.ok("Notification Triggered");
     }
@@ -0,0 +1,65 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.dto.PreferenceChange;
+import com.example.notificationconfig.dto.PreferenceEntry;
+import com.example.notificationconfig.preference.PreferenceService;
+import com.example.notificationconfig.repository.SubscriberChannelPreferenceRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1")
+public class PreferenceController {
+
+    private static final int MAX_PAGE_SIZE = 10_000;
+
+    private final PreferenceService preferenceService;
+    private final SubscriberChannelPreferenceRepository preferenceRepository;
+
+    public PreferenceController(PreferenceService preferenceService, SubscriberChannelPreferenceRepository preferenceRepository) {
+        this.preferenceService = preferenceService;
+        this.preferenceRepository = preferenceRepository;
+    }
+
+    @GetMapping("/subscribers/{subscriberId}/preferences")
+    public ResponseEntity<List<PreferenceEntry>> getPreferences(@PathVariable String subscriberId) {
+        return ResponseEntity.ok(preferenceService.getPreferences(subscriberId));
+    }
+
+    /**
+     * Sets the listed workflow/channel combinations; others keep their current setting.
+     */
+    @PutMapping("/subscribers/{subscriberId}/preferences")
+    public ResponseEntity<Void> updatePreferences(@PathVariable String subscriberId, @RequestBody List<PreferenceEntry> entries) {
+        preferenceService.updatePreferences(subscriberId, entries);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Lists preference rows changed at or after {@code since}, oldest first, for caches that need to drop the
+     * subscribers concerned. The next page starts at the last change's {@code updatedAt} and {@code id}, passed as
+     * {@code since} and {@code after}. A page shorter than {@code limit} is the last one.
+     */
+    @GetMapping("/preferences/changes")
+    public ResponseEntity<List<PreferenceChange>> listChanges(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                                              @RequestParam(required = false) UUID after,
+                                                              @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(preferenceRepository
+                .findChanges(since, after != null ? after : new UUID(0, 0), PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)))
+                .stream()
+                .map(PreferenceChange::of)
+                .toList());
+    }
+}
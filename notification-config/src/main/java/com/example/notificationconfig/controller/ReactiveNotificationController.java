@@ -0,0 +1,162 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.config.IngestFormatsConfig;
+import com.example.notificationconfig.config.ReactiveProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.example.notificationconfig.dto.TriggerOutcome;
+import com.example.notificationconfig.exception.TenantQuotaExceededException;
+import com.example.notificationconfig.scheduler.NotificationScheduler;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.TenantContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * WebFlux edition of {@link NotificationController}, active when the application runs as a reactive web application
+ * ({@code spring.main.web-application-type=reactive}, set by the {@code reactive} profile).
+ * <p>
+ * No thread waits on Novu: triggers go through {@link NotificationService#sendNotificationEventAsync}, which keeps
+ * tenant dispatch, digests, tracking and audit, and reaches Novu over the non-blocking client. Backpressure runs end
+ * to end. At most {@code notification.reactive.max-in-flight} triggers are outstanding; beyond that single triggers
+ * get 503 with {@code Retry-After}, and streamed triggers wait for a slot, which stops the server from reading more of
+ * the request body and so slows the producer down at TCP level.
+ */
+@RestController
+@RequestMapping("/api/v1/notify")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveNotificationController {
+
+    private static final Duration SLOT_RETRY_DELAY = Duration.ofMillis(10);
+
+    private final NotificationService notificationService;
+    private final NotificationScheduler notificationScheduler;
+    private final Validator validator;
+    private final ReactiveProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ReactiveNotificationController(NotificationService notificationService, NotificationScheduler notificationScheduler,
+                                          Validator validator, ReactiveProperties properties) {
+        this.notificationService = notificationService;
+        this.notificationScheduler = notificationScheduler;
+        this.validator = validator;
+        this.properties = properties;
+    }
+
+    @PostMapping("/trigger")
+    public Mono<ResponseEntity<String>> triggerNotificationEvent(@Valid @RequestBody Mono<EventRequest> eventRequest,
+                                                                 @RequestHeader(value = TenantContext.HEADER, required = false) String tenantHeader) {
+        String tenantId = TenantContext.normalize(tenantHeader);
+        return eventRequest.flatMap(request -> {
+            Instant sendAt = request.resolveSendAt(Instant.now());
+            if (sendAt != null && sendAt.isAfter(Instant.now())) {
+                return schedule(request, sendAt, tenantId)
+                        .map(id -> ResponseEntity.accepted().body("Notification Scheduled: " + id));
+            }
+            if (!tryAcquireSlot()) {
+                return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfterSeconds()))
+                        .body("Too many notifications in flight"));
+            }
+            return send(request, tenantId)
+                    .doFinally(signal -> inFlight.decrementAndGet())
+                    .thenReturn(ResponseEntity.ok("Notification Triggered"));
+        });
+    }
+
+    /**
+     * Triggers a stream of newline-delimited JSON events and answers with one {@link TriggerOutcome} line per event, in
+     * request order. Invalid or throttled events are reported on their line without failing the stream. The events may
+     * also come as a sequence of Smile values; either may be gzip-compressed.
+     */
+    @PostMapping(value = "/trigger/stream", consumes = {MediaType.APPLICATION_NDJSON_VALUE, IngestFormatsConfig.APPLICATION_SMILE_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<TriggerOutcome> triggerNotificationEvents(@RequestBody Flux<EventRequest> eventRequests,
+                                                          @RequestHeader(value = TenantContext.HEADER, required = false) String tenantHeader) {
+        String tenantId = TenantContext.normalize(tenantHeader);
+        return eventRequests.index()
+                .flatMapSequential(indexed -> trigger(indexed.getT1(), indexed.getT2(), tenantId), properties.getStreamConcurrency());
+    }
+
+    private Mono<TriggerOutcome> trigger(long index, EventRequest request, String tenantId) {
+        Set<ConstraintViolation<EventRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return Mono.just(new TriggerOutcome(index, TriggerOutcome.Status.INVALID, null,
+                    violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "))));
+        }
+        Instant sendAt = request.resolveSendAt(Instant.now());
+        if (sendAt != null && sendAt.isAfter(Instant.now())) {
+            return schedule(request, sendAt, tenantId)
+                    .map(id -> new TriggerOutcome(index, TriggerOutcome.Status.SCHEDULED, id.toString(), null));
+        }
+        return Mono.fromCallable(this::tryAcquireSlot)
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(Integer.MAX_VALUE, attempts -> attempts.delayElements(SLOT_RETRY_DELAY))
+                .then(send(request, tenantId).doFinally(signal -> inFlight.decrementAndGet()))
+                .map(result -> new TriggerOutcome(index, outcomeStatus(result.recipients().get(0).status()), result.transactionId(), null))
+                .onErrorResume(error -> Mono.just(new TriggerOutcome(index,
+                        error instanceof TenantQuotaExceededException ? TriggerOutcome.Status.THROTTLED : TriggerOutcome.Status.FAILED,
+                        null, String.valueOf(error.getMessage()))));
+    }
+
+    private static TriggerOutcome.Status outcomeStatus(NotificationResult.Status status) {
+        return switch (status) {
+            case DIGESTED -> TriggerOutcome.Status.DIGESTED;
+            case SKIPPED -> TriggerOutcome.Status.SKIPPED;
+            case FAILED -> TriggerOutcome.Status.FAILED;
+            case TRIGGERED -> TriggerOutcome.Status.TRIGGERED;
+        };
+    }
+
+    private Mono<NotificationResult> send(EventRequest request, String tenantId) {
+        return Mono.defer(() -> {
+            TenantContext.set(tenantId);
+            try {
+                return Mono.fromFuture(notificationService.sendNotificationEventAsync(request));
+            } finally {
+                TenantContext.clear();
+            }
+        });
+    }
+
+    /**
+     * Scheduling writes to the database, so it runs off the event loop.
+     */
+    private Mono<UUID> schedule(EventRequest request, Instant sendAt, String tenantId) {
+        return Mono.fromCallable(() -> notificationScheduler.schedule(request, sendAt, tenantId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private boolean tryAcquireSlot() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= properties.getMaxInFlight()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.config.SuppressionProperties;
+import com.example.notificationconfig.dto.SuppressionEntry;
+import com.example.notificationconfig.dto.SuppressionImportResult;
+import com.example.notificationconfig.entity.EmailSuppression;
+import com.example.notificationconfig.suppression.SuppressionImporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admin API for maintaining the suppression list. Changes reach the notification service on its next poll.
+ * <p>
+ * Every call needs the {@code notification.suppression.admin-token} in the {@value #ADMIN_TOKEN_HEADER} header.
+ * Without a configured token the API is disabled and answers 404.
+ */
+@RestController
+@RequestMapping("/api/v1/suppressions")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SuppressionAdminController {
+
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final SuppressionImporter suppressionImporter;
+    private final SuppressionProperties suppressionProperties;
+
+    public SuppressionAdminController(SuppressionImporter suppressionImporter, SuppressionProperties suppressionProperties) {
+        this.suppressionImporter = suppressionImporter;
+        this.suppressionProperties = suppressionProperties;
+    }
+
+    /**
+     * Bulk import: one address per line, optionally followed by {@code ,REASON}. The body is streamed, so files of
+     * millions of lines are fine. Re-running an import is harmless.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<SuppressionImportResult> importSuppressions(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                                                      @RequestParam(defaultValue = "MANUAL") EmailSuppression.Reason reason,
+                                                                      InputStream body) throws IOException {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(suppressionImporter.importLines(reader, reason));
+        }
+    }
+
+    @PutMapping
+    public ResponseEntity<Void> suppress(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                         @RequestBody SuppressionEntry entry) {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        EmailSuppression.Reason reason = entry.reason() != null ? entry.reason() : EmailSuppression.Reason.MANUAL;
+        return suppressionImporter.suppress(entry.email(), reason)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.badRequest().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> remove(@RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token,
+                                       @RequestParam String email) {
+        HttpStatus denied = checkToken(token);
+        if (denied != null) {
+            return ResponseEntity.status(denied).build();
+        }
+        return suppressionImporter.remove(email) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * @return The status to refuse the call with, or {@code null} if the token matches.
+     */
+    private HttpStatus checkToken(String token) {
+        String expected = suppressionProperties.getAdminToken();
+        if (expected == null || expected.isEmpty()) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (token == null || !MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return HttpStatus.UNAUTHORIZED;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.dto.SuppressionChange;
+import com.example.notificationconfig.dto.SuppressionEntry;
+import com.example.notificationconfig.repository.EmailSuppressionRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/suppressions")
+public class SuppressionController {
+
+    private static final int MAX_PAGE_SIZE = 50_000;
+
+    private final EmailSuppressionRepository suppressionRepository;
+
+    public SuppressionController(EmailSuppressionRepository suppressionRepository) {
+        this.suppressionRepository = suppressionRepository;
+    }
+
+    /**
+     * Lists suppressed addresses in address order, starting after {@code after}. A page shorter than {@code limit} is
+     * the last one.
+     */
+    @GetMapping
+    public ResponseEntity<List<SuppressionEntry>> listSuppressions(@RequestParam(defaultValue = "") String after,
+                                                                   @RequestParam(defaultValue = "10000") int limit) {
+        return ResponseEntity.ok(suppressionRepository
+                .findByActiveTrueAndEmailGreaterThanOrderByEmailAsc(after, pageOf(limit))
+                .stream()
+                .map(SuppressionEntry::of)
+                .toList());
+    }
+
+    /**
+     * Lists additions and removals made at or after {@code since}, oldest first. The next page starts at the last
+     * change's {@code updatedAt} and {@code email}, passed as {@code since} and {@code after}. A page shorter than
+     * {@code limit} is the last one.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<List<SuppressionChange>> listChanges(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+                                                               @RequestParam(defaultValue = "") String after,
+                                                               @RequestParam(defaultValue = "10000") int limit) {
+        return ResponseEntity.ok(suppressionRepository
+                .findChanges(since, after, pageOf(limit))
+                .stream()
+                .map(SuppressionChange::of)
+                .toList());
+    }
+
+    private static PageRequest pageOf(int limit) {
+        return PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+}
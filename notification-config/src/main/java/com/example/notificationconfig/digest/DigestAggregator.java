@@ -0,0 +1,215 @@
+package com.example.notificationconfig.digest;
+
+import com.example.notificationconfig.config.DigestProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.FairTenantDispatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collapses bursts of the same event for the same subscriber into a single trigger.
+ * <p>
+ * The first event for a (tenant, subscriber, event name) opens a digest. Further matching events are added to it
+ * until the window closes or {@code maxEvents} is reached, at which point one trigger is sent with the most recent
+ * event's recipient and payload, extended with {@value #COUNT_KEY} and {@value #EVENTS_KEY} (the payloads of every
+ * collapsed event, oldest first). A digest holding a single event is sent unchanged.
+ * <p>
+ * Open digests live in memory only: events accepted into a digest are lost if the instance stops abruptly. On a
+ * regular shutdown all open digests are sent, and shutdown waits up to {@code shutdownTimeout} for them before the
+ * dispatcher stops. From then on {@link #offer} declines every event, so callers send them directly.
+ */
+@Component
+public class DigestAggregator {
+
+    public static final String COUNT_KEY = "digestCount";
+    public static final String EVENTS_KEY = "digestEvents";
+
+    private static final Logger logger = LoggerFactory.getLogger(DigestAggregator.class);
+
+    private final NotificationService notificationService;
+    private final FairTenantDispatcher dispatcher;
+    private final DigestProperties properties;
+    private final ConcurrentHashMap<Key, Digest> digests = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final Counter collapsed;
+    private final Counter emitted;
+
+    private volatile boolean closed;
+
+    public DigestAggregator(@Qualifier("novuNotificationService") NotificationService notificationService,
+                            FairTenantDispatcher dispatcher,
+                            DigestProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.notificationService = notificationService;
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.collapsed = Counter.builder("notification.digest.events").tag("outcome", "collapsed").register(meterRegistry);
+        this.emitted = Counter.builder("notification.digest.events").tag("outcome", "emitted").register(meterRegistry);
+        Gauge.builder("notification.digest.open", digests, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Adds the event to its subscriber's digest.
+     *
+     * @return {@code true} if the event was taken into a digest, {@code false} if the caller should send it itself
+     * because aggregation does not apply to it, too many digests are open or the aggregator has been flushed for
+     * shutdown.
+     */
+    public boolean offer(String tenantId, EventRequest eventRequest) {
+        if (closed || !properties.appliesTo(eventRequest.getName())) {
+            return false;
+        }
+        Key key = new Key(tenantId, eventRequest.getSubscriberId(), eventRequest.getName());
+        if (!digests.containsKey(key) && digests.size() >= properties.getMaxOpenDigests()) {
+            return false;
+        }
+        Digest[] full = new Digest[1];
+        boolean[] declined = new boolean[1];
+        digests.compute(key, (k, digest) -> {
+            // Checked again under the key's lock: flush removes every digest after setting it.
+            if (closed) {
+                declined[0] = true;
+                return digest;
+            }
+            if (digest == null) {
+                digest = new Digest(k);
+                Digest opened = digest;
+                try {
+                    digest.timeout = timer.schedule(() -> close(opened), properties.getWindow().toMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Flushed between the check and here.
+                    declined[0] = true;
+                    return null;
+                }
+            }
+            digest.events.add(eventRequest);
+            if (digest.events.size() >= properties.getMaxEvents()) {
+                full[0] = digest;
+                return null;
+            }
+            return digest;
+        });
+        if (declined[0]) {
+            return false;
+        }
+        if (full[0] != null) {
+            full[0].timeout.cancel(false);
+            emit(full[0]);
+        }
+        return true;
+    }
+
+    private void close(Digest digest) {
+        if (digests.remove(digest.key, digest)) {
+            emit(digest);
+        }
+    }
+
+    /**
+     * @return A future completed once the digest has been sent, or has failed and been logged.
+     */
+    private CompletableFuture<Void> emit(Digest digest) {
+        EventRequest merged = merge(digest.events);
+        collapsed.increment(digest.events.size() - 1);
+        emitted.increment();
+        CompletableFuture<Void> sent;
+        try {
+            sent = dispatcher.submit(digest.key.tenantId, 1, () -> notificationService.sendNotificationEvent(merged));
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.exceptionally(error -> {
+            logger.error("Failed to send digest of {} '{}' events to subscriber {}: {}",
+                    digest.events.size(), digest.key.eventName, digest.key.subscriberId, error.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Builds the single trigger sent for a digest.
+     */
+    static EventRequest merge(List<EventRequest> events) {
+        EventRequest latest = events.get(events.size() - 1);
+        if (events.size() == 1) {
+            return latest;
+        }
+        HashMap<String, Object> payload = latest.getPayload() != null ? new HashMap<>(latest.getPayload()) : new HashMap<>();
+        List<Map<String, Object>> collapsedPayloads = new ArrayList<>(events.size());
+        for (EventRequest event : events) {
+            collapsedPayloads.add(event.getPayload() != null ? event.getPayload() : Map.of());
+        }
+        payload.put(COUNT_KEY, events.size());
+        payload.put(EVENTS_KEY, collapsedPayloads);
+        return new EventRequest(latest.getName(), latest.getSubscriberId(), latest.getEmail(), latest.getPhone(), payload);
+    }
+
+    /**
+     * Emits every open digest and waits for them to be sent. Called on shutdown, before the dispatcher it depends on
+     * stops and rejects what is still queued.
+     */
+    @PreDestroy
+    public void flush() {
+        closed = true;
+        timer.shutdownNow();
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (Digest digest : new ArrayList<>(digests.values())) {
+            if (digests.remove(digest.key, digest)) {
+                sends.add(emit(digest));
+            }
+        }
+        if (sends.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                    .get(properties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            logger.info("Sent {} open digests on shutdown.", sends.size());
+        } catch (TimeoutException e) {
+            logger.warn("{} of {} open digests were not sent within {} of shutdown.",
+                    sends.stream().filter(send -> !send.isDone()).count(), sends.size(), properties.getShutdownTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // Failures are logged per digest.
+        }
+    }
+
+    private record Key(String tenantId, String subscriberId, String eventName) {
+    }
+
+    private static final class Digest {
+        private final Key key;
+        private final List<EventRequest> events = new ArrayList<>();
+        private ScheduledFuture<?> timeout;
+
+        private Digest(Key key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.notificationconfig.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Instant;
+
+/**
+ * A delivery status update posted to the Novu webhook endpoint.
+ */
+public record DeliveryStatusEvent(
+        @NotBlank(message = "Transaction ID is required")
+        String transactionId,
+        String messageId, // Optional, provider/Novu message id
+        String subscriberId, // Optional
+        String channel, // Optional, e.g. email, sms
+        @NotBlank(message = "Status is required")
+        String status,
+        Instant timestamp, // Optional; time of acceptance if absent
+        String detail // Optional, e.g. provider error
+) {}
@@ -2,11 +2,13 @@ package com.example.notificationconfig.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.HashMap;
+import java.time.Instant;
+import java.util.Map;
 
 @Data
 @AllArgsConstructor
@@ -23,5 +25,27 @@ public class EventRequest {
     String email;
 
     String phone; // Optional
-    HashMap<String, Object> payload; // Optional, or can have specific validation if needed
+    Map<String, Object> payload; // Optional; a read-only RawJsonPayload when bound in pass-through mode
+
+    Instant sendAt; // Optional, ISO-8601; sent immediately if absent or in the past
+
+    @PositiveOrZero(message = "Delay must not be negative")
+    Long delaySeconds; // Optional, relative to acceptance; ignored if sendAt is set
+
+    public EventRequest(String name, String subscriberId, String email, String phone, Map<String, Object> payload) {
+        this(name, subscriberId, email, phone, payload, null, null);
+    }
+
+    /**
+     * Resolves {@code sendAt}/{@code delaySeconds} into an absolute send time, or {@code null} to send immediately.
+     */
+    public Instant resolveSendAt(Instant acceptedAt) {
+        if (sendAt != null) {
+            return sendAt;
+        }
+        if (delaySeconds != null && delaySeconds > 0) {
+            return acceptedAt.plusSeconds(delaySeconds);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.notificationconfig.dto;
+
+import com.example.notificationconfig.routing.Channel;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of {@link com.example.notificationconfig.service.NotificationService#sendNotificationEventAsync}.
+ *
+ * @param transactionId Novu's transaction id, or {@code null} if the event was taken into a digest. For events routed
+ *                      per channel, the transaction id of the first channel that was triggered.
+ * @param recipients    The status of each subscriber the event was addressed to.
+ * @param latency       Time from the call until Novu acknowledged the trigger, or the digest took the event. For events
+ *                      routed per channel, until every channel was acknowledged or failed.
+ * @param channels      The outcome per channel for events routed per channel; empty otherwise.
+ */
+public record NotificationResult(String transactionId, List<RecipientStatus> recipients, Duration latency, List<ChannelResult> channels) {
+
+    public enum Status {
+        /**
+         * Novu acknowledged the trigger.
+         */
+        TRIGGERED,
+        /**
+         * The event was added to a digest, which is triggered when its window closes.
+         */
+        DIGESTED,
+        /**
+         * The trigger failed. Only reported per channel; the event fails as a whole only if every channel failed.
+         */
+        FAILED,
+        /**
+         * Nothing was sent: the subscriber opted out of the channel, or of every channel the event is routed to, or has
+         * no contact for it.
+         */
+        SKIPPED
+    }
+
+    public NotificationResult(String transactionId, List<RecipientStatus> recipients, Duration latency) {
+        this(transactionId, recipients, latency, List.of());
+    }
+
+    public record RecipientStatus(String subscriberId, String email, Status status) {}
+
+    /**
+     * @param transactionId Novu's transaction id for the channel's trigger, if triggered.
+     * @param error         Why the trigger failed; {@code null} otherwise.
+     */
+    public record ChannelResult(Channel channel, Status status, String transactionId, String error) {}
+
+    public static NotificationResult of(EventRequest eventRequest, String transactionId, Status status, long startNanos) {
+        return new NotificationResult(transactionId,
+                List.of(new RecipientStatus(eventRequest.getSubscriberId(), eventRequest.getEmail(), status)),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.notificationconfig.dto;
+
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A changed preference row, as served to caches that need to drop the subscriber's cached preferences.
+ */
+public record PreferenceChange(UUID id, String subscriberId, Instant updatedAt) {
+
+    public static PreferenceChange of(SubscriberChannelPreference preference) {
+        return new PreferenceChange(preference.getId(), preference.getSubscriberId(), preference.getUpdatedAt());
+    }
+}
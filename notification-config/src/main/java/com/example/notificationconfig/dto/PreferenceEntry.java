@@ -0,0 +1,15 @@
+package com.example.notificationconfig.dto;
+
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.routing.Channel;
+
+/**
+ * A subscriber's choice for one workflow ({@code "*"} for every workflow) on one channel ({@code null} for every
+ * channel).
+ */
+public record PreferenceEntry(String workflowId, Channel channel, boolean enabled) {
+
+    public static PreferenceEntry of(SubscriberChannelPreference preference) {
+        return new PreferenceEntry(preference.getWorkflowId(), preference.getChannel(), preference.isEnabled());
+    }
+}
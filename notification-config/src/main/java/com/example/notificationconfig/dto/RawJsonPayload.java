@@ -0,0 +1,213 @@
+package com.example.notificationconfig.dto;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A JSON object payload kept as the UTF-8 bytes it was read as, to be passed through to Novu unchanged.
+ * <p>
+ * Binding a payload into maps costs a map entry, a key and a value object per field, and Feign or the WebClient then
+ * walk them all again to write the trigger. With {@code notification.payload.pass-through}, the payload of an
+ * {@link EventRequest} is instead copied token by token into one byte array and written out as a raw value, whatever
+ * its depth. It is still a read-only {@link Map}, so the few paths that read fields, such as digests and the
+ * scheduler, work unchanged: the bytes are parsed into maps on first access.
+ */
+@JsonSerialize(using = RawJsonPayload.Serializer.class)
+public final class RawJsonPayload extends AbstractMap<String, Object> {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final ObjectMapper PARSER = new ObjectMapper(JSON);
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP = new TypeReference<>() { };
+
+    private final byte[] json;
+    private volatile Map<String, Object> parsed;
+
+    /**
+     * @param json A JSON object, UTF-8 encoded. Not copied; must not be modified afterwards.
+     */
+    public RawJsonPayload(byte[] json) {
+        this.json = json;
+    }
+
+    public static RawJsonPayload of(String json) {
+        return new RawJsonPayload(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The payload as UTF-8 encoded JSON. Not a copy; must not be modified.
+     */
+    public byte[] json() {
+        return json;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> map = parsed;
+        if (map == null) {
+            try {
+                map = Collections.unmodifiableMap(PARSER.readValue(json, MAP));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Payload is not a JSON object", e);
+            }
+            parsed = map;
+        }
+        return map.entrySet();
+    }
+
+    @Override
+    public String toString() {
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a JSON object into a {@link RawJsonPayload}. Values are copied to the output buffer as they are read,
+     * without creating an object per field; from a binary format, the payload is re-encoded as JSON.
+     */
+    public static class Deserializer extends StdDeserializer<RawJsonPayload> {
+
+        public Deserializer() {
+            super(RawJsonPayload.class);
+        }
+
+        @Override
+        public RawJsonPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!parser.isExpectedStartObjectToken()) {
+                return (RawJsonPayload) context.handleUnexpectedToken(RawJsonPayload.class, parser);
+            }
+            ByteArrayBuilder bytes = new ByteArrayBuilder();
+            try (JsonGenerator generator = JSON.createGenerator(bytes)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return new RawJsonPayload(bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Writes the payload bytes as they are. The UTF-8 generators used for request bodies copy them straight into their
+     * output buffer.
+     */
+    public static class Serializer extends StdSerializer<RawJsonPayload> {
+
+        public Serializer() {
+            super(RawJsonPayload.class);
+        }
+
+        @Override
+        public void serialize(RawJsonPayload payload, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(new Utf8(payload.json));
+        }
+    }
+
+    /**
+     * Raw UTF-8 bytes as a {@link SerializableString}. Only the unquoted forms are used for raw values; the quoted ones
+     * are delegated to a decoded copy.
+     */
+    private static final class Utf8 implements SerializableString {
+
+        private final byte[] bytes;
+
+        Utf8(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public String getValue() {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            return quoted().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return bytes;
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return quoted().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return quoted().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return quoted().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (bytes.length > buffer.length - offset) {
+                return -1;
+            }
+            System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+            return bytes.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return quoted().appendUnquoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return quoted().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return quoted().putQuotedUTF8(buffer);
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (bytes.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(bytes);
+            return bytes.length;
+        }
+
+        private SerializedString quoted() {
+            return new SerializedString(getValue());
+        }
+    }
+}
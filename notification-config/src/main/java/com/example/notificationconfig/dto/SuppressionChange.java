@@ -0,0 +1,15 @@
+package com.example.notificationconfig.dto;
+
+import com.example.notificationconfig.entity.EmailSuppression;
+
+import java.time.Instant;
+
+/**
+ * An addition to ({@code active}) or removal from the suppression list, as served to the notification service.
+ */
+public record SuppressionChange(String email, EmailSuppression.Reason reason, boolean active, Instant updatedAt) {
+
+    public static SuppressionChange of(EmailSuppression suppression) {
+        return new SuppressionChange(suppression.getEmail(), suppression.getReason(), suppression.isActive(), suppression.getUpdatedAt());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.notificationconfig.dto;
+
+import com.example.notificationconfig.entity.EmailSuppression;
+
+/**
+ * One suppressed address, as served to the notification service.
+ */
+public record SuppressionEntry(String email, EmailSuppression.Reason reason) {
+
+    public static SuppressionEntry of(EmailSuppression suppression) {
+        return new SuppressionEntry(suppression.getEmail(), suppression.getReason());
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.notificationconfig.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk suppression import.
+ *
+ * @param imported Addresses added or re-activated, after de-duplication within each batch.
+ * @param rejected Lines that were not a valid address or named an unknown reason.
+ * @param samples  The first rejected lines, for fixing the input.
+ */
+public record SuppressionImportResult(long imported, long rejected, List<String> samples) {
+}
@@ -1,9 +1,19 @@
 package com.example.notificationconfig.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import lombok.Builder;
+
+import java.io.IOException;
 import java.util.Map;
 
 @Builder
+@JsonSerialize(using = TriggerEventRequest.Serializer.class)
 public record TriggerEventRequest(
         String name,
         To to,
@@ -11,4 +21,65 @@ public record TriggerEventRequest(
 ) {
     @Builder
     public record To(String subscriberId, String email, String phone) {}
+
+    /**
+     * Writes a trigger, recipient included, with property names encoded once for all requests instead of looking up
+     * and calling each accessor of a bean serializer. The output is the bean serializer's: the same properties in the
+     * same order, and nulls written unless the mapper's default property inclusion leaves them out. The payload is
+     * written by the serializer for its type, so a {@link RawJsonPayload} is still copied out as it is.
+     */
+    public static class Serializer extends StdSerializer<TriggerEventRequest> {
+
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString TO = new SerializedString("to");
+        private static final SerializableString PAYLOAD = new SerializedString("payload");
+        private static final SerializableString SUBSCRIBER_ID = new SerializedString("subscriberId");
+        private static final SerializableString EMAIL = new SerializedString("email");
+        private static final SerializableString PHONE = new SerializedString("phone");
+
+        public Serializer() {
+            super(TriggerEventRequest.class);
+        }
+
+        @Override
+        public void serialize(TriggerEventRequest request, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            boolean nulls = writesNulls(provider);
+            generator.writeStartObject(request);
+            writeString(generator, NAME, request.name(), nulls);
+            if (request.to() != null) {
+                generator.writeFieldName(TO);
+                generator.writeStartObject(request.to());
+                writeString(generator, SUBSCRIBER_ID, request.to().subscriberId(), nulls);
+                writeString(generator, EMAIL, request.to().email(), nulls);
+                writeString(generator, PHONE, request.to().phone(), nulls);
+                generator.writeEndObject();
+            } else if (nulls) {
+                generator.writeFieldName(TO);
+                generator.writeNull();
+            }
+            if (request.payload() != null) {
+                generator.writeFieldName(PAYLOAD);
+                provider.defaultSerializeValue(request.payload(), generator);
+            } else if (nulls) {
+                generator.writeFieldName(PAYLOAD);
+                generator.writeNull();
+            }
+            generator.writeEndObject();
+        }
+
+        private static boolean writesNulls(SerializerProvider provider) {
+            JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion().getValueInclusion();
+            return inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+        }
+
+        private static void writeString(JsonGenerator generator, SerializableString field, String value, boolean nulls) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                generator.writeString(value);
+            } else if (nulls) {
+                generator.writeFieldName(field);
+                generator.writeNull();
+            }
+        }
+    }
 }
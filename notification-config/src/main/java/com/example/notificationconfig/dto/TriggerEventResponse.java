@@ -0,0 +1,13 @@
+package com.example.notificationconfig.dto;
+
+/**
+ * Response body of Novu's {@code POST /v1/events/trigger}.
+ */
+public record TriggerEventResponse(Data data) {
+
+    public record Data(Boolean acknowledged, String status, String transactionId) {}
+
+    public String transactionId() {
+        return data != null ? data.transactionId() : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.notificationconfig.dto;
+
+/**
+ * One line of the response to a streamed trigger request, in the order of the request lines.
+ *
+ * @param index         Zero-based position of the event in the request stream.
+ * @param status        What happened to the event.
+ * @param transactionId Novu's transaction id when triggered, or the scheduled notification's id when scheduled.
+ * @param error         Why the event was not accepted; {@code null} otherwise.
+ */
+public record TriggerOutcome(long index, Status status, String transactionId, String error) {
+
+    public enum Status {
+        TRIGGERED, DIGESTED, SCHEDULED, SKIPPED, INVALID, THROTTLED, FAILED
+    }
+}
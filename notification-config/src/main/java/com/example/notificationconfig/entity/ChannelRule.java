@@ -0,0 +1,51 @@
+package com.example.notificationconfig.entity;
+
+import com.example.notificationconfig.routing.Channel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Routes an event to one channel: events named {@code eventName} are delivered on {@code channel} by triggering the
+ * Novu workflow {@code workflowId}. Events without any enabled rule are triggered as a single workflow named after the
+ * event, as before channel routing.
+ */
+@Entity
+@Table(name = "channel_rule", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_channel_rule_event_channel", columnNames = {"event_name", "channel"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "event_name", nullable = false)
+    private String eventName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Channel channel;
+
+    @Column(name = "workflow_id", nullable = false)
+    private String workflowId;
+
+    @Column(nullable = false)
+    private boolean enabled;
+}
@@ -0,0 +1,71 @@
+package com.example.notificationconfig.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Latest known delivery state of one Novu trigger, keyed by its transaction id.
+ * <p>
+ * Rows are written by {@link com.example.notificationconfig.tracking.DeliveryTracker} with batched upserts, not through
+ * JPA; the entity is used for lookups and for schema generation.
+ */
+@Entity
+@Table(name = "delivery_record", indexes = {
+        @Index(name = "idx_delivery_record_message_id", columnList = "message_id"),
+        @Index(name = "idx_delivery_record_subscriber_created_at", columnList = "subscriber_id, created_at"),
+        @Index(name = "idx_delivery_record_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryRecord {
+
+    public static final String STATUS_TRIGGERED = "TRIGGERED";
+
+    @Id
+    @Column(name = "transaction_id", length = 128)
+    private String transactionId;
+
+    @Column(name = "tenant_id")
+    private String tenantId;
+
+    @Column(name = "subscriber_id")
+    private String subscriberId;
+
+    @Column(name = "event_name")
+    private String eventName;
+
+    @Column(name = "message_id", length = 128)
+    private String messageId;
+
+    @Column(length = 32)
+    private String channel;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(length = 1000)
+    private String detail;
+
+    /**
+     * Time of the status update that produced {@link #status}. Older updates arriving late do not overwrite it.
+     */
+    @Column(name = "last_event_at", nullable = false)
+    private Instant lastEventAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,59 @@
+package com.example.notificationconfig.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * An email address that must not be sent to. The notification service loads the whole table into memory and checks
+ * every recipient against it before calling Novu.
+ * <p>
+ * Addresses are stored in canonical form: trimmed, lower-cased, with an ASCII (punycode) domain. Removing a
+ * suppression only marks the row inactive and bumps {@code updatedAt}, so that the notification service sees the
+ * removal when it polls for changes. Bulk imports are written by
+ * {@link com.example.notificationconfig.suppression.SuppressionImporter} with batched upserts, not through JPA.
+ */
+@Entity
+@Table(name = "email_suppression", indexes = {
+        @Index(name = "idx_email_suppression_updated_at", columnList = "updated_at, email")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmailSuppression {
+
+    public enum Reason {
+        BOUNCE, COMPLAINT, UNSUBSCRIBE, MANUAL
+    }
+
+    @Id
+    @Column(length = 320)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Reason reason;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @ColumnDefault("true")
+    @Column(nullable = false)
+    private boolean active;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.example.notificationconfig.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Audit trail of outbound Novu triggers. Rows are inserted in batches by
+ * {@link com.example.notificationconfig.audit.AuditWriter}; the entity defines the schema.
+ */
+@Entity
+@Table(name = "notification_audit", indexes = {
+        @Index(name = "idx_notification_audit_occurred_at", columnList = "occurred_at"),
+        @Index(name = "idx_notification_audit_subscriber_occurred_at", columnList = "subscriber_id, occurred_at")
+})
+@Data
+@NoArgsConstructor
+public class NotificationAudit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "tenant_id")
+    private String tenantId;
+
+    @Column(name = "event_name")
+    private String eventName;
+
+    @Column(name = "subscriber_id")
+    private String subscriberId;
+
+    @Column(name = "transaction_id", length = 128)
+    private String transactionId;
+
+    @Column(nullable = false)
+    private boolean success;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(name = "latency_millis", nullable = false)
+    private long latencyMillis;
+}
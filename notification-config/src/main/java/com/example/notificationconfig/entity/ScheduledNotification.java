@@ -0,0 +1,96 @@
+package com.example.notificationconfig.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A notification trigger accepted for delivery at a later time.
+ */
+@Entity
+@Table(name = "scheduled_notification", indexes = {
+        @Index(name = "idx_scheduled_notification_status_due_at", columnList = "status, due_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledNotification {
+
+    public enum Status {
+        PENDING,
+        CLAIMED,
+        DISPATCHED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private String tenantId;
+
+    @Column(name = "event_name", nullable = false)
+    private String eventName;
+
+    @Column(name = "subscriber_id", nullable = false)
+    private String subscriberId;
+
+    private String email;
+
+    private String phone;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, Object> payload;
+
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    private int attempts;
+
+    /**
+     * Times the send was put off because the tenant was throttled or the service was stopping. Not counted in
+     * {@code attempts}; {@code null} on rows stored before it existed.
+     */
+    @Column(name = "throttled_retries")
+    private Integer throttledRetries;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    /**
+     * Instance that claimed the row for dispatch, so that concurrent schedulers never send it twice.
+     */
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claimed_at")
+    private Instant claimedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+}
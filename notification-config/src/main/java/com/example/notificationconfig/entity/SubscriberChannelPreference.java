@@ -0,0 +1,60 @@
+package com.example.notificationconfig.entity;
+
+import com.example.notificationconfig.routing.Channel;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A subscriber's choice for one workflow on one channel. {@link #ANY_WORKFLOW} as workflow and {@code null} as channel
+ * apply to every workflow and every channel. Combinations without a row are enabled. Rows are never deleted, only
+ * re-enabled, so that every change shows up in the {@code updated_at} change feed.
+ */
+@Entity
+@Table(name = "subscriber_channel_preference", indexes = {
+        @Index(name = "idx_subscriber_channel_preference_subscriber", columnList = "subscriber_id"),
+        @Index(name = "idx_subscriber_channel_preference_updated_at", columnList = "updated_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubscriberChannelPreference {
+
+    public static final String ANY_WORKFLOW = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "subscriber_id", nullable = false)
+    private String subscriberId;
+
+    @ColumnDefault("'*'")
+    @Column(name = "workflow_id", nullable = false)
+    private String workflowId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Channel channel;
+
+    @Column(nullable = false)
+    private boolean enabled;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.example.notificationconfig.exception;
+
+import com.example.notificationconfig.routing.Channel;
+import lombok.Getter;
+
+/**
+ * A channel already has as many triggers in flight and waiting as its budget allows; the trigger was not sent.
+ */
+@Getter
+public class ChannelSaturatedException extends RuntimeException {
+
+    private final Channel channel;
+
+    public ChannelSaturatedException(Channel channel, String message) {
+        super(message);
+        this.channel = channel;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.notificationconfig.exception;
+
+import lombok.Getter;
+
+/**
+ * Novu rejected a trigger sent through {@link com.example.notificationconfig.client.NovuAsyncClient}, or it could
+ * not be sent. The Feign client reports the same failures as {@code FeignException}.
+ */
+@Getter
+public class NovuTriggerException extends RuntimeException {
+
+    /**
+     * HTTP status returned by Novu, or {@code -1} if no response was received.
+     */
+    private final int status;
+
+    public NovuTriggerException(int status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+}
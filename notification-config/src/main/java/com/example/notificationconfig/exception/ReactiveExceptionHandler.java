@@ -0,0 +1,67 @@
+package com.example.notificationconfig.exception;
+
+import com.example.notificationconfig.dto.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive counterpart of {@link GlobalExceptionHandler}, producing the same error bodies when the application runs as
+ * a reactive web application.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(WebExchangeBindException ex, ServerWebExchange exchange) {
+        String message = ex.getBindingResult().getAllErrors().stream()
+                .map(error -> error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        logger.error("Validation Failed for request {}: {}", exchange.getRequest().getPath(), message);
+        return error(HttpStatus.BAD_REQUEST, "Validation Failed", message, exchange);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(ServerWebInputException ex, ServerWebExchange exchange) {
+        // Malformed JSON or Smile, or a corrupt or oversized gzip body.
+        String message = ex.getMostSpecificCause().getMessage();
+        logger.warn("Unreadable body for request {}: {}", exchange.getRequest().getPath(), message);
+        return error(HttpStatus.BAD_REQUEST, "Bad Request", message, exchange);
+    }
+
+    @ExceptionHandler(TenantQuotaExceededException.class)
+    public ResponseEntity<ErrorResponse> handleTenantQuotaExceeded(TenantQuotaExceededException ex, ServerWebExchange exchange) {
+        logger.warn("Tenant '{}' throttled for request {}: {}", ex.getTenantId(), exchange.getRequest().getPath(), ex.getMessage());
+        return error(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(NovuTriggerException.class)
+    public ResponseEntity<ErrorResponse> handleNovuTriggerException(NovuTriggerException ex, ServerWebExchange exchange) {
+        logger.error("Novu trigger failed for request {}: {}", exchange.getRequest().getPath(), ex.getMessage());
+        return error(HttpStatus.BAD_GATEWAY, "Bad Gateway", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalExceptions(Exception ex, ServerWebExchange exchange) {
+        logger.error("Internal Server Error for request {}: {}", exchange.getRequest().getPath(), ex.getMessage(), ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", ex.getMessage(), exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(HttpStatus status, String error, String message, ServerWebExchange exchange) {
+        return new ResponseEntity<>(new ErrorResponse(LocalDateTime.now(), status.value(), error, message,
+                exchange.getRequest().getPath().value()), status);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.notificationconfig.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TenantQuotaExceededException extends RuntimeException {
+
+    private final String tenantId;
+
+    public TenantQuotaExceededException(String tenantId, String message) {
+        super(message);
+        this.tenantId = tenantId;
+    }
+}
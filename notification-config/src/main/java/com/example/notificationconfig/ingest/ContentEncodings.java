@@ -0,0 +1,27 @@
+package com.example.notificationconfig.ingest;
+
+/**
+ * The {@code Content-Encoding} values request bodies are accepted in.
+ */
+final class ContentEncodings {
+
+    static final String ACCEPTED = "gzip";
+
+    private ContentEncodings() {
+    }
+
+    /**
+     * @return Whether the body is not encoded: no header, an empty one or {@code identity}.
+     */
+    static boolean isIdentity(String contentEncoding) {
+        return contentEncoding == null || contentEncoding.isBlank() || "identity".equalsIgnoreCase(contentEncoding.trim());
+    }
+
+    /**
+     * @return Whether the body is gzip-compressed; {@code x-gzip} is the same coding (RFC 9110, section 8.4.1.3).
+     */
+    static boolean isGzip(String contentEncoding) {
+        String coding = contentEncoding.trim();
+        return "gzip".equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding);
+    }
+}
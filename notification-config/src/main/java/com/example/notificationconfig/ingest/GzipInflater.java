@@ -0,0 +1,182 @@
+package com.example.notificationconfig.ingest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Inflates a gzip stream (RFC 1952) handed over in chunks as they arrive, for request bodies that must not block a
+ * thread while waiting for more input. Each chunk yields what can be inflated from it; a header or trailer split
+ * across chunks is completed by the next one. Concatenated members are inflated one after the other, as by
+ * {@link java.util.zip.GZIPInputStream}. The CRC and length in each member's trailer are checked.
+ * <p>
+ * Not thread-safe. {@link #end()} releases the native inflater and must be called when done.
+ */
+final class GzipInflater {
+
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private enum State { HEADER, BODY, TRAILER }
+
+    private final Inflater inflater = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer = new byte[8192];
+    private final long maxInflatedBytes;
+    // Header or trailer bytes read so far.
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private State state = State.HEADER;
+    private long memberBytes;
+    private long inflatedBytes;
+    private int members;
+
+    GzipInflater(long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    /**
+     * @return The bytes inflated from this chunk; empty if it only completed a header, or more input is needed first.
+     * @throws ZipException If the input is not gzip, is corrupt, or inflates to more than the limit.
+     */
+    byte[] inflate(byte[] input) throws ZipException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(input.length * 4, 64 * 1024));
+        int offset = 0;
+        while (offset < input.length) {
+            switch (state) {
+                case HEADER -> offset = readHeader(input, offset);
+                case BODY -> offset = readBody(input, offset, out);
+                case TRAILER -> offset = readTrailer(input, offset);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws ZipException If the input ended within a member, or before the first one.
+     */
+    void finish() throws ZipException {
+        if (state != State.HEADER || pending.size() > 0 || members == 0) {
+            throw new ZipException("Truncated gzip stream");
+        }
+    }
+
+    void end() {
+        inflater.end();
+    }
+
+    private int readHeader(byte[] input, int offset) throws ZipException {
+        int before = pending.size();
+        pending.write(input, offset, input.length - offset);
+        byte[] header = pending.toByteArray();
+        int length = headerLength(header);
+        if (length < 0) {
+            return input.length;
+        }
+        pending.reset();
+        state = State.BODY;
+        return offset + length - before;
+    }
+
+    /**
+     * @return The length of the member header at the start of {@code header}, or -1 if it is incomplete.
+     */
+    private static int headerLength(byte[] header) throws ZipException {
+        if (header.length >= 2 && ((header[0] & 0xff) != 0x1f || (header[1] & 0xff) != 0x8b)) {
+            throw new ZipException("Not in gzip format");
+        }
+        if (header.length < HEADER_LENGTH) {
+            return -1;
+        }
+        if (header[2] != 8) {
+            throw new ZipException("Unsupported gzip compression method " + header[2]);
+        }
+        int flags = header[3];
+        int position = HEADER_LENGTH;
+        if ((flags & FEXTRA) != 0) {
+            if (header.length < position + 2) {
+                return -1;
+            }
+            position += 2 + ((header[position] & 0xff) | (header[position + 1] & 0xff) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            position = skipZeroTerminated(header, position);
+        }
+        if ((flags & FCOMMENT) != 0 && position >= 0) {
+            position = skipZeroTerminated(header, position);
+        }
+        if ((flags & FHCRC) != 0 && position >= 0) {
+            position += 2;
+        }
+        return position >= 0 && position <= header.length ? position : -1;
+    }
+
+    private static int skipZeroTerminated(byte[] header, int position) {
+        for (int i = position; i < header.length; i++) {
+            if (header[i] == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int readBody(byte[] input, int offset, ByteArrayOutputStream out) throws ZipException {
+        inflater.setInput(input, offset, input.length - offset);
+        try {
+            // Inflated until it returns nothing: output may still be buffered when all input has been taken.
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0) {
+                    if (inflater.finished() || inflater.needsInput()) {
+                        break;
+                    }
+                    throw new ZipException("Corrupt gzip stream: preset dictionary required");
+                }
+                crc.update(buffer, 0, n);
+                memberBytes += n;
+                inflatedBytes += n;
+                if (inflatedBytes > maxInflatedBytes) {
+                    throw new ZipException("Request body exceeds " + maxInflatedBytes + " bytes once inflated");
+                }
+                out.write(buffer, 0, n);
+            }
+        } catch (DataFormatException e) {
+            ZipException corrupt = new ZipException("Corrupt gzip stream: " + e.getMessage());
+            corrupt.initCause(e);
+            throw corrupt;
+        }
+        if (!inflater.finished()) {
+            return input.length;
+        }
+        state = State.TRAILER;
+        return input.length - inflater.getRemaining();
+    }
+
+    private int readTrailer(byte[] input, int offset) throws ZipException {
+        int length = Math.min(TRAILER_LENGTH - pending.size(), input.length - offset);
+        pending.write(input, offset, length);
+        if (pending.size() == TRAILER_LENGTH) {
+            byte[] trailer = pending.toByteArray();
+            if (littleEndianInt(trailer, 0) != (int) crc.getValue() || littleEndianInt(trailer, 4) != (int) memberBytes) {
+                throw new ZipException("Corrupt gzip stream: trailer does not match the inflated data");
+            }
+            members++;
+            memberBytes = 0;
+            crc.reset();
+            inflater.reset();
+            pending.reset();
+            // Another member may follow.
+            state = State.HEADER;
+        }
+        return offset + length;
+    }
+
+    private static int littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.notificationconfig.ingest;
+
+import com.example.notificationconfig.config.IngestProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.zip.ZipException;
+
+/**
+ * Reactive counterpart of {@link GzipRequestFilter}. Each chunk of a gzip body is inflated as it arrives, on the thread
+ * that received it, by a {@link GzipInflater}; nothing blocks, and the body is still only read as fast as it is
+ * consumed, so backpressure on streamed triggers reaches the client as before. A corrupt body, or one that inflates
+ * beyond {@code notification.ingest.max-inflated-size}, fails decoding and is answered with 400.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class GzipWebFilter implements WebFilter {
+
+    private final IngestProperties properties;
+
+    public GzipWebFilter(IngestProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String contentEncoding = exchange.getRequest().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (ContentEncodings.isIdentity(contentEncoding)) {
+            return chain.filter(exchange);
+        }
+        if (!ContentEncodings.isGzip(contentEncoding)) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.ACCEPT_ENCODING, ContentEncodings.ACCEPTED);
+            return exchange.getResponse().setComplete();
+        }
+        ServerHttpRequest request = new InflatingRequest(exchange.getRequest(), properties.getMaxInflatedSize().toBytes());
+        return chain.filter(exchange.mutate().request(request).build());
+    }
+
+    private static final class InflatingRequest extends ServerHttpRequestDecorator {
+
+        private final long maxInflatedBytes;
+        private final HttpHeaders headers;
+
+        InflatingRequest(ServerHttpRequest request, long maxInflatedBytes) {
+            super(request);
+            this.maxInflatedBytes = maxInflatedBytes;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(request.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return Flux.using(() -> new GzipInflater(maxInflatedBytes),
+                    inflater -> getDelegate().getBody()
+                            .<DataBuffer>handle((buffer, sink) -> {
+                                try {
+                                    byte[] compressed = new byte[buffer.readableByteCount()];
+                                    buffer.read(compressed);
+                                    byte[] inflated = inflater.inflate(compressed);
+                                    if (inflated.length > 0) {
+                                        sink.next(DefaultDataBufferFactory.sharedInstance.wrap(inflated));
+                                    }
+                                } catch (ZipException e) {
+                                    sink.error(new DecodingException("Invalid gzip request body: " + e.getMessage(), e));
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                            })
+                            .concatWith(Mono.defer(() -> {
+                                try {
+                                    inflater.finish();
+                                    return Mono.empty();
+                                } catch (ZipException e) {
+                                    return Mono.error(new DecodingException("Invalid gzip request body: " + e.getMessage(), e));
+                                }
+                            })),
+                    GzipInflater::end);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.notificationconfig.mapper;
 
 import com.example.notificationconfig.dto.EventRequest;
 import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.routing.Channel;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -17,4 +18,20 @@ public class EventRequestMapper {
                 .payload(eventRequest.getPayload())
                 .build();
     }
+
+    /**
+     * Maps the event to the trigger of one channel's workflow. Only the contact the channel needs is passed on, so
+     * that the workflow cannot reach the subscriber on another channel.
+     */
+    public TriggerEventRequest toChannelTriggerEventRequest(EventRequest eventRequest, Channel channel, String workflowId) {
+        return TriggerEventRequest.builder()
+                .name(workflowId)
+                .to(TriggerEventRequest.To.builder()
+                        .email(channel == Channel.EMAIL ? eventRequest.getEmail() : null)
+                        .phone(channel == Channel.SMS ? eventRequest.getPhone() : null)
+                        .subscriberId(eventRequest.getSubscriberId())
+                        .build())
+                .payload(eventRequest.getPayload())
+                .build();
+    }
 }
@@ -0,0 +1,57 @@
+package com.example.notificationconfig.preference;
+
+import com.example.notificationconfig.dto.PreferenceEntry;
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.repository.SubscriberChannelPreferenceRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads and writes subscriber preferences. Writes publish a {@link PreferencesChangedEvent} once committed, so that
+ * this instance's cache drops the subscriber at once; other instances and the notification service pick the change up
+ * from the {@code updated_at} change feed.
+ */
+@Service
+public class PreferenceService {
+
+    private final SubscriberChannelPreferenceRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PreferenceService(SubscriberChannelPreferenceRepository repository, ApplicationEventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PreferenceEntry> getPreferences(String subscriberId) {
+        return repository.findBySubscriberId(subscriberId).stream().map(PreferenceEntry::of).toList();
+    }
+
+    /**
+     * Sets the given combinations; combinations not listed keep their current setting.
+     */
+    @Transactional
+    public void updatePreferences(String subscriberId, List<PreferenceEntry> entries) {
+        Instant now = Instant.now();
+        for (PreferenceEntry entry : entries) {
+            String workflowId = entry.workflowId() != null && !entry.workflowId().isBlank()
+                    ? entry.workflowId()
+                    : SubscriberChannelPreference.ANY_WORKFLOW;
+            SubscriberChannelPreference preference = repository
+                    .findBySubscriberIdAndWorkflowIdAndChannel(subscriberId, workflowId, entry.channel())
+                    .orElseGet(() -> SubscriberChannelPreference.builder()
+                            .subscriberId(subscriberId)
+                            .workflowId(workflowId)
+                            .channel(entry.channel())
+                            .build());
+            preference.setEnabled(entry.enabled());
+            preference.setUpdatedAt(now);
+            repository.save(preference);
+        }
+        eventPublisher.publishEvent(new PreferencesChangedEvent(subscriberId));
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.notificationconfig.preference;
+
+/**
+ * Published after a subscriber's preferences were changed through this instance.
+ */
+public record PreferencesChangedEvent(String subscriberId) {}
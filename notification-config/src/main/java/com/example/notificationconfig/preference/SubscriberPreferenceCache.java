@@ -0,0 +1,144 @@
+package com.example.notificationconfig.preference;
+
+import com.example.notificationconfig.config.PreferenceProperties;
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.repository.SubscriberChannelPreferenceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Near-cache of subscriber preferences, so that checking a trigger against them does not cost a query.
+ * <p>
+ * At most {@code maxCachedSubscribers} subscribers are held, the least recently used being evicted, each for at most
+ * {@code ttl}. Entries are dropped as soon as the preferences change: at once for changes made through this instance,
+ * which publish a {@link PreferencesChangedEvent}, and within {@code changePollMillis} for changes made elsewhere,
+ * which are read from the {@code updated_at} change feed.
+ */
+@Component
+public class SubscriberPreferenceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriberPreferenceCache.class);
+
+    private static final int CHANGE_PAGE_SIZE = 1000;
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final SubscriberChannelPreferenceRepository repository;
+    private final PreferenceProperties properties;
+    private final Map<String, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    private Instant changesSince;
+
+    public SubscriberPreferenceCache(SubscriberChannelPreferenceRepository repository, PreferenceProperties properties, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.changesSince = Instant.now().minus(properties.getChangeOverlap());
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > properties.getMaxCachedSubscribers();
+            }
+        };
+        this.hits = Counter.builder("notification.preferences.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("notification.preferences.lookups").tag("result", "miss").register(meterRegistry);
+        this.invalidations = Counter.builder("notification.preferences.invalidations").register(meterRegistry);
+        Gauge.builder("notification.preferences.cached", this, SubscriberPreferenceCache::size).register(meterRegistry);
+    }
+
+    /**
+     * @return The subscriber's preferences; loaded from the database if not cached or expired.
+     */
+    public SubscriberPreferences get(String subscriberId) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(subscriberId);
+            if (entry != null && now - entry.expiresAtNanos < 0) {
+                hits.increment();
+                return entry.preferences;
+            }
+        }
+        misses.increment();
+        // Loaded outside the lock; concurrent misses for the same subscriber both query, which is harmless.
+        SubscriberPreferences preferences = SubscriberPreferences.of(repository.findBySubscriberId(subscriberId));
+        synchronized (entries) {
+            entries.put(subscriberId, new Entry(preferences, now + properties.getTtl().toNanos()));
+        }
+        return preferences;
+    }
+
+    /**
+     * Drops the cached preferences of a subscriber, so the next lookup reads them again.
+     */
+    public void invalidate(String subscriberId) {
+        synchronized (entries) {
+            if (entries.remove(subscriberId) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPreferencesChanged(PreferencesChangedEvent event) {
+        invalidate(event.subscriberId());
+    }
+
+    /**
+     * Drops subscribers whose preferences were changed through other instances.
+     */
+    @Scheduled(initialDelayString = "${notification.preferences.change-poll-millis:15000}",
+            fixedDelayString = "${notification.preferences.change-poll-millis:15000}")
+    public void pollChanges() {
+        Instant since = changesSince;
+        Instant latest = null;
+        UUID after = FIRST_ID;
+        try {
+            while (true) {
+                List<SubscriberChannelPreference> page = repository.findChanges(since, after, PageRequest.of(0, CHANGE_PAGE_SIZE));
+                for (SubscriberChannelPreference change : page) {
+                    invalidate(change.getSubscriberId());
+                    latest = change.getUpdatedAt();
+                }
+                if (page.size() < CHANGE_PAGE_SIZE) {
+                    break;
+                }
+                since = page.get(page.size() - 1).getUpdatedAt();
+                after = page.get(page.size() - 1).getId();
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Failed to poll preference changes; cached entries expire within {}: {}", properties.getTtl(), e.getMessage());
+            return;
+        }
+        if (latest != null) {
+            // Re-read a short window each time: a transaction may commit after rows with later timestamps were seen.
+            Instant next = latest.minus(properties.getChangeOverlap());
+            if (next.isAfter(changesSince)) {
+                changesSince = next;
+            }
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry(SubscriberPreferences preferences, long expiresAtNanos) {}
+}
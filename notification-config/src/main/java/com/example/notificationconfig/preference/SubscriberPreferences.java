@@ -0,0 +1,54 @@
+package com.example.notificationconfig.preference;
+
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.routing.Channel;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The workflow and channel combinations one subscriber has opted out of. Immutable.
+ */
+public final class SubscriberPreferences {
+
+    public static final SubscriberPreferences NONE = new SubscriberPreferences(Set.of());
+
+    private static final String ANY_CHANNEL = "*";
+
+    private final Set<String> optedOut;
+
+    private SubscriberPreferences(Set<String> optedOut) {
+        this.optedOut = optedOut;
+    }
+
+    public static SubscriberPreferences of(Collection<SubscriberChannelPreference> preferences) {
+        Set<String> optedOut = new HashSet<>();
+        for (SubscriberChannelPreference preference : preferences) {
+            if (!preference.isEnabled()) {
+                optedOut.add(key(preference.getWorkflowId(), preference.getChannel() != null ? preference.getChannel().name() : ANY_CHANNEL));
+            }
+        }
+        return optedOut.isEmpty() ? NONE : new SubscriberPreferences(Set.copyOf(optedOut));
+    }
+
+    /**
+     * @param channel The channel, or {@code null} for a trigger that may deliver on any channel of the workflow, which
+     *                is only skipped if the subscriber opted out of every channel.
+     * @return {@code true} if the subscriber opted out of the workflow on the channel.
+     */
+    public boolean isOptedOut(String workflowId, Channel channel) {
+        if (optedOut.isEmpty()) {
+            return false;
+        }
+        String any = SubscriberChannelPreference.ANY_WORKFLOW;
+        if (optedOut.contains(key(workflowId, ANY_CHANNEL)) || optedOut.contains(key(any, ANY_CHANNEL))) {
+            return true;
+        }
+        return channel != null && (optedOut.contains(key(workflowId, channel.name())) || optedOut.contains(key(any, channel.name())));
+    }
+
+    private static String key(String workflowId, String channel) {
+        return workflowId + '\u0000' + channel;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.notificationconfig.repository;
+
+import com.example.notificationconfig.entity.ChannelRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ChannelRuleRepository extends JpaRepository<ChannelRule, UUID> {
+
+    List<ChannelRule> findByEnabledTrue();
+}
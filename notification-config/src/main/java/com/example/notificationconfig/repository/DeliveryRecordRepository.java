@@ -0,0 +1,20 @@
+package com.example.notificationconfig.repository;
+
+import com.example.notificationconfig.entity.DeliveryRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface DeliveryRecordRepository extends JpaRepository<DeliveryRecord, String> {
+
+    List<DeliveryRecord> findByMessageId(String messageId);
+
+    Slice<DeliveryRecord> findBySubscriberIdAndCreatedAtGreaterThanEqualAndCreatedAtLessThan(String subscriberId, Instant from, Instant to, Pageable pageable);
+
+    Slice<DeliveryRecord> findByCreatedAtGreaterThanEqualAndCreatedAtLessThan(Instant from, Instant to, Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.example.notificationconfig.repository;
+
+import com.example.notificationconfig.entity.EmailSuppression;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailSuppressionRepository extends JpaRepository<EmailSuppression, String> {
+
+    /**
+     * Keyset page of active suppressions in address order, for loading the whole list without offset scans.
+     */
+    List<EmailSuppression> findByActiveTrueAndEmailGreaterThanOrderByEmailAsc(String after, Pageable pageable);
+
+    /**
+     * Keyset page of additions and removals in {@code (updatedAt, email)} order, starting after the given position.
+     */
+    @Query("SELECT s FROM EmailSuppression s WHERE s.updatedAt > :since OR (s.updatedAt = :since AND s.email > :after) "
+            + "ORDER BY s.updatedAt ASC, s.email ASC")
+    List<EmailSuppression> findChanges(@Param("since") Instant since, @Param("after") String after, Pageable pageable);
+}
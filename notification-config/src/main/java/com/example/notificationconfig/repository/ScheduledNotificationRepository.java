@@ -0,0 +1,70 @@
+package com.example.notificationconfig.repository;
+
+import com.example.notificationconfig.entity.ScheduledNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ScheduledNotificationRepository extends JpaRepository<ScheduledNotification, UUID> {
+
+    /**
+     * Id and due time only, for loading the timer wheel without materializing payloads.
+     */
+    interface DueRef {
+        UUID getId();
+
+        Instant getDueAt();
+    }
+
+    Slice<DueRef> findByStatusAndDueAtGreaterThanEqualAndDueAtLessThan(
+            ScheduledNotification.Status status, Instant from, Instant to, Pageable pageable);
+
+    Slice<DueRef> findByStatusAndDueAtLessThan(ScheduledNotification.Status status, Instant before, Pageable pageable);
+
+    /**
+     * Atomically claims pending rows for one scheduler instance. Rows already claimed elsewhere are skipped.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.CLAIMED, "
+            + "s.claimedBy = :owner, s.claimedAt = :now "
+            + "where s.id in :ids and s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.PENDING")
+    int claim(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.DISPATCHED, "
+            + "s.dispatchedAt = :now, s.claimedBy = null, s.claimedAt = null where s.id in :ids")
+    int markDispatched(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    List<ScheduledNotification> findByIdInAndClaimedByAndStatus(Collection<UUID> ids, String claimedBy, ScheduledNotification.Status status);
+
+    /**
+     * Refreshes the claim on rows this instance is still dispatching, so that they are not taken for stale.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.claimedAt = :now "
+            + "where s.id in :ids and s.claimedBy = :owner "
+            + "and s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.CLAIMED")
+    int renewClaims(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Returns rows claimed by an instance that stopped before dispatching them.
+     */
+    @Transactional
+    @Modifying
+    @Query("update ScheduledNotification s set s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.PENDING, "
+            + "s.claimedBy = null, s.claimedAt = null "
+            + "where s.status = com.example.notificationconfig.entity.ScheduledNotification.Status.CLAIMED and s.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,32 @@
+package com.example.notificationconfig.repository;
+
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.routing.Channel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface SubscriberChannelPreferenceRepository extends JpaRepository<SubscriberChannelPreference, UUID> {
+
+    List<SubscriberChannelPreference> findBySubscriberId(String subscriberId);
+
+    /**
+     * A {@code null} channel matches the row that applies to every channel.
+     */
+    Optional<SubscriberChannelPreference> findBySubscriberIdAndWorkflowIdAndChannel(String subscriberId, String workflowId, Channel channel);
+
+    /**
+     * Keyset page of changed rows in {@code (updatedAt, id)} order, starting after the given position.
+     */
+    @Query("SELECT p FROM SubscriberChannelPreference p WHERE p.updatedAt > :since OR (p.updatedAt = :since AND p.id > :after) "
+            + "ORDER BY p.updatedAt ASC, p.id ASC")
+    List<SubscriberChannelPreference> findChanges(@Param("since") Instant since, @Param("after") UUID after, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.example.notificationconfig.routing;
+
+/**
+ * A delivery channel. Each channel of an event is triggered as its own Novu workflow, so channels are delivered, and
+ * fail, independently of each other.
+ */
+public enum Channel {
+    EMAIL, SMS, PUSH, IN_APP
+}
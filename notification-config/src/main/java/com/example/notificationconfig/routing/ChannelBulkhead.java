@@ -0,0 +1,98 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.exception.ChannelSaturatedException;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Limits the asynchronous calls of one channel to {@code maxInFlight} at a time, with up to {@code maxQueued} more
+ * waiting for a slot. Waiting calls hold no thread: a call is started by whichever call completes before it. Calls
+ * beyond the queue fail at once with a {@link ChannelSaturatedException}.
+ */
+final class ChannelBulkhead {
+
+    private final Channel channel;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Queue<Runnable> queued = new ArrayDeque<>();
+
+    private int inFlight;
+    private long rejected;
+
+    ChannelBulkhead(Channel channel, int maxInFlight, int maxQueued) {
+        this.channel = channel;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.maxQueued = Math.max(0, maxQueued);
+    }
+
+    /**
+     * @param call Starts the call; invoked once a slot is free, possibly on the thread that completed another call.
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> start(call, result);
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                if (queued.size() >= maxQueued) {
+                    rejected++;
+                    return CompletableFuture.failedFuture(new ChannelSaturatedException(channel,
+                            "Channel " + channel + " has " + inFlight + " triggers in flight and " + queued.size() + " waiting."));
+                }
+                queued.add(start);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized int queued() {
+        return queued.size();
+    }
+
+    synchronized long rejected() {
+        return rejected;
+    }
+
+    private <T> void start(Supplier<CompletableFuture<T>> call, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, error) -> {
+            release();
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
+    }
+
+    /**
+     * Hands the slot of a completed call to the next waiting call, if any.
+     */
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = queued.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        if (next != null) {
+            next.run();
+        }
+    }
+}
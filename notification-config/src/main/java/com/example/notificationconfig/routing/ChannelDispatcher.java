@@ -0,0 +1,50 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.client.NovuAsyncClient;
+import com.example.notificationconfig.config.RoutingProperties;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends per-channel triggers through {@link NovuAsyncClient}, each channel within its own concurrency budget.
+ * <p>
+ * Channels share the Novu connection pool but not their budgets: when SMS triggers pile up behind a slow provider,
+ * they wait in the SMS queue, and email triggers keep being sent at once.
+ */
+@Component
+public class ChannelDispatcher {
+
+    private final NovuAsyncClient novuAsyncClient;
+    private final Map<Channel, ChannelBulkhead> bulkheads = new EnumMap<>(Channel.class);
+
+    public ChannelDispatcher(NovuAsyncClient novuAsyncClient, RoutingProperties properties, MeterRegistry meterRegistry) {
+        this.novuAsyncClient = novuAsyncClient;
+        for (Channel channel : Channel.values()) {
+            RoutingProperties.ChannelBudget budget = properties.budgetFor(channel);
+            ChannelBulkhead bulkhead = new ChannelBulkhead(channel, budget.getMaxInFlight(), budget.getMaxQueued());
+            bulkheads.put(channel, bulkhead);
+            String tag = channel.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("notification.channel.inflight", bulkhead, ChannelBulkhead::inFlight).tag("channel", tag).register(meterRegistry);
+            Gauge.builder("notification.channel.queued", bulkhead, ChannelBulkhead::queued).tag("channel", tag).register(meterRegistry);
+            FunctionCounter.builder("notification.channel.rejected", bulkhead, ChannelBulkhead::rejected).tag("channel", tag).register(meterRegistry);
+        }
+    }
+
+    /**
+     * @return A future completed with Novu's response, or exceptionally with a
+     * {@link com.example.notificationconfig.exception.NovuTriggerException} if the trigger failed or a
+     * {@link com.example.notificationconfig.exception.ChannelSaturatedException} if the channel is over its budget.
+     */
+    public CompletableFuture<TriggerEventResponse> dispatch(Channel channel, TriggerEventRequest request) {
+        return bulkheads.get(channel).submit(() -> novuAsyncClient.triggerEvent(request));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.dto.TriggerEventRequest;
+
+import java.util.List;
+
+/**
+ * How an event is delivered per channel.
+ *
+ * @param legs    One trigger per channel to deliver on, in channel order.
+ * @param skipped Channels with a rule that are not delivered on, because the subscriber opted out or has no contact
+ *                for them.
+ */
+public record ChannelPlan(List<Leg> legs, List<Channel> skipped) {
+
+    public record Leg(Channel channel, TriggerEventRequest request) {}
+}
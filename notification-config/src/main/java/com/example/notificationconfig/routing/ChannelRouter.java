@@ -0,0 +1,78 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.config.RoutingProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.entity.ChannelRule;
+import com.example.notificationconfig.mapper.EventRequestMapper;
+import com.example.notificationconfig.preference.SubscriberPreferenceCache;
+import com.example.notificationconfig.preference.SubscriberPreferences;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decides which channels an event is delivered on: every channel with an enabled {@link ChannelRule} for the event,
+ * except those where the subscriber opted out of the rule's workflow and those it has no contact for (a phone number
+ * for SMS; the email address is always present).
+ */
+@Component
+public class ChannelRouter {
+
+    private final ChannelRuleCache ruleCache;
+    private final SubscriberPreferenceCache preferenceCache;
+    private final EventRequestMapper eventRequestMapper;
+    private final RoutingProperties properties;
+
+    public ChannelRouter(ChannelRuleCache ruleCache, SubscriberPreferenceCache preferenceCache,
+                         EventRequestMapper eventRequestMapper, RoutingProperties properties) {
+        this.ruleCache = ruleCache;
+        this.preferenceCache = preferenceCache;
+        this.eventRequestMapper = eventRequestMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * @return The per-channel plan, or empty if the event has no channel rules and is sent as a single trigger.
+     */
+    public Optional<ChannelPlan> route(EventRequest eventRequest) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+        List<ChannelRule> rules = ruleCache.rulesFor(eventRequest.getName());
+        if (rules.isEmpty()) {
+            return Optional.empty();
+        }
+        SubscriberPreferences preferences = preferenceCache.get(eventRequest.getSubscriberId());
+        List<ChannelPlan.Leg> legs = new ArrayList<>(rules.size());
+        List<Channel> skipped = new ArrayList<>(0);
+        for (ChannelRule rule : rules) {
+            Channel channel = rule.getChannel();
+            if (preferences.isOptedOut(rule.getWorkflowId(), channel) || !isReachable(eventRequest, channel)) {
+                skipped.add(channel);
+            } else {
+                legs.add(new ChannelPlan.Leg(channel, eventRequestMapper.toChannelTriggerEventRequest(eventRequest, channel, rule.getWorkflowId())));
+            }
+        }
+        return Optional.of(new ChannelPlan(legs, skipped));
+    }
+
+    /**
+     * For events without channel rules, which are sent as a single trigger of the workflow named after the event.
+     *
+     * @return {@code true} if the subscriber opted out of that workflow on every channel.
+     */
+    public boolean isOptedOut(EventRequest eventRequest) {
+        return properties.isEnabled() && preferenceCache.get(eventRequest.getSubscriberId()).isOptedOut(eventRequest.getName(), null);
+    }
+
+    private static boolean isReachable(EventRequest eventRequest, Channel channel) {
+        return switch (channel) {
+            case EMAIL -> eventRequest.getEmail() != null && !eventRequest.getEmail().isBlank();
+            case SMS -> eventRequest.getPhone() != null && !eventRequest.getPhone().isBlank();
+            // Novu holds the device tokens and inbox of the subscriber.
+            case PUSH, IN_APP -> true;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.entity.ChannelRule;
+import com.example.notificationconfig.repository.ChannelRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The enabled channel rules, grouped by event name. The table is small and read on every trigger, so it is held in
+ * memory and reloaded every {@code notification.routing.rule-refresh-millis}. If a reload fails the previous rules
+ * stay in use.
+ */
+@Component
+public class ChannelRuleCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChannelRuleCache.class);
+
+    private final ChannelRuleRepository repository;
+
+    private volatile Map<String, List<ChannelRule>> rulesByEvent = Map.of();
+
+    public ChannelRuleCache(ChannelRuleRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * @return The enabled rules for the event, in channel order; empty if the event is not routed per channel.
+     */
+    public List<ChannelRule> rulesFor(String eventName) {
+        return rulesByEvent.getOrDefault(eventName, List.of());
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${notification.routing.rule-refresh-millis:30000}")
+    public void refresh() {
+        List<ChannelRule> rules;
+        try {
+            rules = repository.findByEnabledTrue();
+        } catch (DataAccessException e) {
+            logger.warn("Failed to load channel rules; keeping the previous ones: {}", e.getMessage());
+            return;
+        }
+        Map<String, List<ChannelRule>> grouped = new HashMap<>();
+        for (ChannelRule rule : rules) {
+            grouped.computeIfAbsent(rule.getEventName(), name -> new ArrayList<>()).add(rule);
+        }
+        grouped.replaceAll((name, eventRules) -> {
+            eventRules.sort((a, b) -> a.getChannel().compareTo(b.getChannel()));
+            return List.copyOf(eventRules);
+        });
+        rulesByEvent = Map.copyOf(grouped);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.notificationconfig.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel (Varghese &amp; Lauck) holding items until their deadline.
+ * <p>
+ * Level 0 has {@code wheelSize} slots of one tick each; every higher level has {@code wheelSize} slots each spanning
+ * a full rotation of the level below. Scheduling is O(1), and advancing by one tick only touches the current slot
+ * of level 0 plus, on a rotation boundary, the one slot of the level above that is cascaded down. The cost of a tick
+ * therefore depends on how many items fall due, not on how many are pending. Items beyond the top level's range wait
+ * in an overflow list that is re-examined once per top-level rotation.
+ * <p>
+ * Not thread-safe; callers synchronize externally.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int mask;
+    private final int levels;
+    private final ArrayDeque<Entry<T>>[][] slots;
+    private final ArrayDeque<Entry<T>> overflow = new ArrayDeque<>();
+    private final ArrayDeque<T> ready = new ArrayDeque<>();
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis Duration of one tick, i.e. the scheduling resolution.
+     * @param wheelSize  Slots per level; rounded up to a power of two.
+     * @param levels     Number of levels. The range covered is {@code wheelSize^levels} ticks.
+     * @param nowMillis  Current time in epoch millis.
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMillis, int wheelSize, int levels, long nowMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Invalid timer wheel geometry");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = 32 - Integer.numberOfLeadingZeros(wheelSize - 1);
+        this.mask = (1 << wheelBits) - 1;
+        this.levels = levels;
+        this.slots = new ArrayDeque[levels][1 << wheelBits];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code item} to become due at {@code deadlineMillis}. Deadlines in the past become due on the next
+     * {@link #advance(long)}.
+     */
+    public void schedule(T item, long deadlineMillis) {
+        size++;
+        place(new Entry<>(item, deadlineMillis / tickMillis));
+    }
+
+    /**
+     * Advances the wheel to {@code nowMillis} and returns every item that has become due, in deadline order.
+     */
+    public List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & ((1L << (wheelBits * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            if (levels * wheelBits < 63 && (currentTick & ((1L << (wheelBits * levels)) - 1)) == 0) {
+                replaceAll(overflow);
+            }
+            ArrayDeque<Entry<T>> due = slots[0][(int) (currentTick & mask)];
+            if (due != null) {
+                Entry<T> entry;
+                while ((entry = due.pollFirst()) != null) {
+                    ready.addLast(entry.item);
+                }
+            }
+        }
+        List<T> result = new ArrayList<>(ready);
+        size -= result.size();
+        ready.clear();
+        return result;
+    }
+
+    /**
+     * @return Number of items scheduled and not yet returned by {@link #advance(long)}.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void place(Entry<T> entry) {
+        if (entry.deadlineTick <= currentTick) {
+            ready.addLast(entry.item);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            int shift = wheelBits * level;
+            if ((entry.deadlineTick >>> shift) - (currentTick >>> shift) <= mask) {
+                int slot = (int) ((entry.deadlineTick >>> shift) & mask);
+                ArrayDeque<Entry<T>> bucket = slots[level][slot];
+                if (bucket == null) {
+                    bucket = new ArrayDeque<>();
+                    slots[level][slot] = bucket;
+                }
+                bucket.addLast(entry);
+                return;
+            }
+        }
+        overflow.addLast(entry);
+    }
+
+    private void cascade(int level) {
+        int slot = (int) ((currentTick >>> (wheelBits * level)) & mask);
+        ArrayDeque<Entry<T>> bucket = slots[level][slot];
+        if (bucket != null && !bucket.isEmpty()) {
+            replaceAll(bucket);
+        }
+    }
+
+    private void replaceAll(ArrayDeque<Entry<T>> bucket) {
+        int count = bucket.size();
+        for (int i = 0; i < count; i++) {
+            place(bucket.pollFirst());
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.notificationconfig.scheduler;
+
+import com.example.notificationconfig.config.SchedulerProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.entity.ScheduledNotification;
+import com.example.notificationconfig.exception.TenantQuotaExceededException;
+import com.example.notificationconfig.repository.ScheduledNotificationRepository;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.FairTenantDispatcher;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Persists scheduled notifications and dispatches them when due.
+ * <p>
+ * Every scheduled trigger is stored in {@code scheduled_notification} so that nothing is lost on restart. Rows due
+ * within the preload horizon are also held in a {@link HierarchicalTimerWheel}, so the dispatch loop does O(1) work
+ * per tick and only touches the database for rows that are actually due. Due rows are claimed in batches with a
+ * conditional update, which makes it safe to run several instances against the same table.
+ * <p>
+ * The dispatch loop never waits for sends: each batch is handed to the {@link FairTenantDispatcher}, and its outcome is
+ * written back on a thread of its own once every send in it has finished. A slow provider therefore delays neither
+ * the next tick nor the other {@code @Scheduled} jobs. Until then the batch's rows stay claimed, and every preload
+ * renews their claim, so that a slow batch is not mistaken for one abandoned by a stopped instance and sent again.
+ */
+@Component
+public class NotificationScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationScheduler.class);
+
+    private final ScheduledNotificationRepository repository;
+    private final NotificationService notificationService;
+    private final FairTenantDispatcher dispatcher;
+    private final SchedulerProperties properties;
+    private final HierarchicalTimerWheel<UUID> wheel;
+    private final ExecutorService outcomes;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    /**
+     * Rows claimed by this instance whose outcome is not yet written back.
+     */
+    private final Set<UUID> sending = ConcurrentHashMap.newKeySet();
+
+    private Instant loadedUntil = Instant.EPOCH;
+
+    public NotificationScheduler(ScheduledNotificationRepository repository,
+                                 @Qualifier("novuNotificationService") NotificationService notificationService,
+                                 FairTenantDispatcher dispatcher,
+                                 SchedulerProperties properties) {
+        this.repository = repository;
+        this.notificationService = notificationService;
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        this.wheel = new HierarchicalTimerWheel<>(properties.getTickMillis(), properties.getWheelSize(),
+                properties.getWheelLevels(), System.currentTimeMillis());
+        this.outcomes = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-scheduler-outcomes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Writes back the outcome of batches whose sends have finished. Rows of batches still sending stay claimed and
+     * are released for another attempt after {@code claimTimeout}.
+     */
+    @PreDestroy
+    public void stop() {
+        outcomes.shutdown();
+        try {
+            if (!outcomes.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Scheduled notification outcomes still pending at shutdown; their rows are released after {}.", properties.getClaimTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stores the trigger for delivery at {@code dueAt}.
+     *
+     * @return The id of the scheduled notification.
+     */
+    public UUID schedule(EventRequest eventRequest, Instant dueAt, String tenantId) {
+        ScheduledNotification scheduled = repository.save(ScheduledNotification.builder()
+                .tenantId(tenantId)
+                .eventName(eventRequest.getName())
+                .subscriberId(eventRequest.getSubscriberId())
+                .email(eventRequest.getEmail())
+                .phone(eventRequest.getPhone())
+                .payload(eventRequest.getPayload())
+                .dueAt(dueAt)
+                .status(ScheduledNotification.Status.PENDING)
+                .createdAt(Instant.now())
+                .build());
+        if (dueAt.isBefore(Instant.now().plus(properties.getPreloadHorizon()))) {
+            synchronized (wheel) {
+                wheel.schedule(scheduled.getId(), dueAt.toEpochMilli());
+            }
+        }
+        logger.debug("Scheduled event '{}' for subscriber {} at {} (id {}).", eventRequest.getName(), eventRequest.getSubscriberId(), dueAt, scheduled.getId());
+        return scheduled.getId();
+    }
+
+    /**
+     * Renews the claims of rows this instance is still sending, loads pending rows that fall within the preload
+     * horizon into the timer wheel, sweeps up overdue rows and releases claims abandoned by stopped instances.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${notification.scheduler.preload-interval-millis:60000}")
+    public void preload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        renewClaims(now);
+        int released = repository.releaseStaleClaims(now.minus(properties.getClaimTimeout()));
+        if (released > 0) {
+            logger.warn("Released {} scheduled notifications claimed more than {} ago.", released, properties.getClaimTimeout());
+        }
+        Instant horizon = now.plus(properties.getPreloadHorizon());
+        int loaded = load(pageable -> repository.findByStatusAndDueAtGreaterThanEqualAndDueAtLessThan(
+                ScheduledNotification.Status.PENDING, loadedUntil, horizon, pageable));
+        loaded += load(pageable -> repository.findByStatusAndDueAtLessThan(
+                ScheduledNotification.Status.PENDING, now.minus(properties.getOverdueGrace()), pageable));
+        loadedUntil = horizon;
+        logger.debug("Preloaded {} scheduled notifications due before {}; {} pending in timer wheel.", loaded, horizon, wheelSize());
+    }
+
+    private void renewClaims(Instant now) {
+        List<UUID> ids = new ArrayList<>(sending);
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            repository.renewClaims(ids.subList(from, Math.min(ids.size(), from + properties.getBatchSize())), instanceId, now);
+        }
+    }
+
+    private int load(Function<Pageable, Slice<ScheduledNotificationRepository.DueRef>> query) {
+        int loaded = 0;
+        Pageable pageable = PageRequest.of(0, properties.getBatchSize(), Sort.by("dueAt"));
+        Slice<ScheduledNotificationRepository.DueRef> slice;
+        do {
+            slice = query.apply(pageable);
+            synchronized (wheel) {
+                for (ScheduledNotificationRepository.DueRef ref : slice) {
+                    wheel.schedule(ref.getId(), ref.getDueAt().toEpochMilli());
+                }
+            }
+            loaded += slice.getNumberOfElements();
+            pageable = slice.nextPageable();
+        } while (slice.hasNext());
+        return loaded;
+    }
+
+    /**
+     * Advances the timer wheel and dispatches everything that has fallen due, in batches, without waiting for the sends.
+     */
+    @Scheduled(fixedDelayString = "${notification.scheduler.tick-millis:100}")
+    public void tick() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<UUID> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        for (int from = 0; from < due.size(); from += properties.getBatchSize()) {
+            dispatchBatch(due.subList(from, Math.min(due.size(), from + properties.getBatchSize())));
+        }
+    }
+
+    private void dispatchBatch(List<UUID> ids) {
+        Instant now = Instant.now();
+        if (repository.claim(ids, instanceId, now) == 0) {
+            return;
+        }
+        List<ScheduledNotification> claimed = repository.findByIdInAndClaimedByAndStatus(ids, instanceId, ScheduledNotification.Status.CLAIMED);
+        List<UUID> claimedIds = new ArrayList<>(claimed.size());
+        claimed.forEach(row -> claimedIds.add(row.getId()));
+        sending.addAll(claimedIds);
+
+        List<CompletableFuture<Throwable>> sends = new ArrayList<>(claimed.size());
+        for (ScheduledNotification row : claimed) {
+            CompletableFuture<Void> sent;
+            try {
+                sent = dispatcher.submit(row.getTenantId(), 1, () -> notificationService.sendNotificationEvent(toEventRequest(row)));
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            sends.add(sent.handle((ignored, error) -> error));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0]))
+                .thenRunAsync(() -> recordOutcomes(claimed, sends), outcomes)
+                .exceptionally(error -> {
+                    logger.error("Failed to record the outcome of {} scheduled notifications; their rows are released after {}: {}",
+                            claimed.size(), properties.getClaimTimeout(), error.getMessage());
+                    return null;
+                })
+                .whenComplete((ignored, error) -> claimedIds.forEach(sending::remove));
+    }
+
+    /**
+     * Marks sent rows dispatched and reschedules or fails the others. Runs once every send of the batch has finished.
+     */
+    private void recordOutcomes(List<ScheduledNotification> claimed, List<CompletableFuture<Throwable>> sends) {
+        List<UUID> dispatched = new ArrayList<>();
+        List<ScheduledNotification> retried = new ArrayList<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            ScheduledNotification row = claimed.get(i);
+            // Already complete.
+            Throwable error = sends.get(i).join();
+            if (error == null) {
+                dispatched.add(row.getId());
+            } else {
+                retried.add(applyFailure(row, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error));
+            }
+        }
+
+        if (!dispatched.isEmpty()) {
+            repository.markDispatched(dispatched, Instant.now());
+        }
+        if (!retried.isEmpty()) {
+            repository.saveAll(retried);
+            Instant horizon = Instant.now().plus(properties.getPreloadHorizon());
+            synchronized (wheel) {
+                for (ScheduledNotification row : retried) {
+                    if (row.getStatus() == ScheduledNotification.Status.PENDING && row.getDueAt().isBefore(horizon)) {
+                        wheel.schedule(row.getId(), row.getDueAt().toEpochMilli());
+                    }
+                }
+            }
+        }
+        logger.info("Dispatched {} scheduled notifications; {} rescheduled or failed.", dispatched.size(), retried.size());
+    }
+
+    private ScheduledNotification applyFailure(ScheduledNotification row, Throwable error) {
+        row.setClaimedBy(null);
+        row.setClaimedAt(null);
+        if (error instanceof TenantQuotaExceededException || error instanceof RejectedExecutionException) {
+            // Not a delivery failure: the tenant is throttled or we are shutting down. Try again shortly, for a while.
+            int throttled = (row.getThrottledRetries() != null ? row.getThrottledRetries() : 0) + 1;
+            row.setThrottledRetries(throttled);
+            if (throttled <= properties.getMaxThrottledRetries()) {
+                row.setStatus(ScheduledNotification.Status.PENDING);
+                row.setDueAt(Instant.now().plus(properties.getThrottleRetryDelay()));
+                return row;
+            }
+            String message = "Still throttled after " + properties.getMaxThrottledRetries() + " retries: " + error.getMessage();
+            row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            row.setStatus(ScheduledNotification.Status.FAILED);
+            logger.error("Scheduled notification {} failed: {}", row.getId(), message);
+            return row;
+        }
+        row.setAttempts(row.getAttempts() + 1);
+        String message = String.valueOf(error.getMessage());
+        row.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (row.getAttempts() < properties.getMaxAttempts()) {
+            Duration backoff = properties.getRetryBackoff().multipliedBy(1L << (row.getAttempts() - 1));
+            row.setStatus(ScheduledNotification.Status.PENDING);
+            row.setDueAt(Instant.now().plus(backoff));
+            logger.warn("Scheduled notification {} failed (attempt {}), retrying in {}: {}", row.getId(), row.getAttempts(), backoff, message);
+        } else {
+            row.setStatus(ScheduledNotification.Status.FAILED);
+            logger.error("Scheduled notification {} failed after {} attempts: {}", row.getId(), row.getAttempts(), message);
+        }
+        return row;
+    }
+
+    private static EventRequest toEventRequest(ScheduledNotification row) {
+        return new EventRequest(row.getEventName(), row.getSubscriberId(), row.getEmail(), row.getPhone(),
+                row.getPayload() != null ? new HashMap<>(row.getPayload()) : null);
+    }
+
+    private int wheelSize() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+}
@@ -1,9 +1,19 @@
 package com.example.notificationconfig.service;
 
 import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public interface NotificationService {
     void sendNotificationEvent(EventRequest eventRequest);
+
+    /**
+     * Triggers the event without blocking the caller, so that many triggers can be in flight at once.
+     *
+     * @return A future completed once Novu has acknowledged the trigger, or exceptionally if it failed.
+     */
+    CompletableFuture<NotificationResult> sendNotificationEventAsync(EventRequest eventRequest);
 }
@@ -1,26 +1,253 @@
 package com.example.notificationconfig.serviceImpl;
 
+import com.example.notificationconfig.audit.AuditRecord;
+import com.example.notificationconfig.audit.AuditWriter;
+import com.example.notificationconfig.client.NovuAsyncClient;
 import com.example.notificationconfig.client.NovuClient;
+import com.example.notificationconfig.coalescing.TriggerCoalescer;
 import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
 import com.example.notificationconfig.mapper.EventRequestMapper;
+import com.example.notificationconfig.routing.Channel;
+import com.example.notificationconfig.routing.ChannelDispatcher;
+import com.example.notificationconfig.routing.ChannelPlan;
+import com.example.notificationconfig.routing.ChannelRouter;
 import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.TenantContext;
+import com.example.notificationconfig.tracking.DeliveryTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Triggers events in Novu. Nothing is sent to Novu for subscribers who opted out of the workflow or channel.
+ * Events without channel rules are sent as one trigger of the workflow named after the event; synchronous sends go
+ * through the blocking {@link NovuClient}, unless {@link NovuAsyncClient} hedges triggers.
+ * Events with channel rules are sent as one trigger per channel, chosen by the {@link ChannelRouter}; the channels are
+ * sent concurrently through the {@link ChannelDispatcher}, each within its own concurrency budget, and are tracked and
+ * audited as each one completes. Identical triggers sent while one is in flight, or shortly after it succeeded, share
+ * its call and result through the {@link TriggerCoalescer}.
+ */
 @Service
 public class NovuNotificationService implements NotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(NovuNotificationService.class);
+
     private final NovuClient novuClient;
+    private final NovuAsyncClient novuAsyncClient;
     private final EventRequestMapper eventRequestMapper;
+    private final DeliveryTracker deliveryTracker;
+    private final AuditWriter auditWriter;
+    private final ChannelRouter channelRouter;
+    private final ChannelDispatcher channelDispatcher;
+    private final TriggerCoalescer triggerCoalescer;
 
     @Autowired
-    public NovuNotificationService(NovuClient novuClient, EventRequestMapper eventRequestMapper) {
+    public NovuNotificationService(NovuClient novuClient, NovuAsyncClient novuAsyncClient, EventRequestMapper eventRequestMapper,
+                                  DeliveryTracker deliveryTracker, AuditWriter auditWriter,
+                                  ChannelRouter channelRouter, ChannelDispatcher channelDispatcher,
+                                  TriggerCoalescer triggerCoalescer) {
         this.novuClient = novuClient;
+        this.novuAsyncClient = novuAsyncClient;
         this.eventRequestMapper = eventRequestMapper;
+        this.deliveryTracker = deliveryTracker;
+        this.auditWriter = auditWriter;
+        this.channelRouter = channelRouter;
+        this.channelDispatcher = channelDispatcher;
+        this.triggerCoalescer = triggerCoalescer;
     }
 
+    /**
+     * For events routed per channel, waits until every channel has been acknowledged or failed, and throws only if
+     * every channel failed.
+     */
     @Override
     public void sendNotificationEvent(EventRequest eventRequest) {
-        novuClient.triggerEvent(eventRequestMapper.toTriggerEventRequest(eventRequest));
+        String tenantId = TenantContext.current();
+        try {
+            triggerCoalescer.coalesce(tenantId, eventRequest, () -> {
+                try {
+                    return CompletableFuture.completedFuture(send(eventRequest, tenantId));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private NotificationResult send(EventRequest eventRequest, String tenantId) {
+        long start = System.nanoTime();
+        Optional<ChannelPlan> plan = channelRouter.route(eventRequest);
+        if (plan.isPresent()) {
+            try {
+                return sendPerChannel(eventRequest, plan.get(), tenantId, start).join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+        if (channelRouter.isOptedOut(eventRequest)) {
+            logger.debug("Event '{}' not sent: subscriber {} opted out of it.", eventRequest.getName(), eventRequest.getSubscriberId());
+            return NotificationResult.of(eventRequest, null, NotificationResult.Status.SKIPPED, start);
+        }
+        TriggerEventResponse response;
+        try {
+            TriggerEventRequest triggerEventRequest = eventRequestMapper.toTriggerEventRequest(eventRequest);
+            // Hedging needs both attempts in flight without a thread each, which only the non-blocking client offers.
+            response = novuAsyncClient.isHedging()
+                    ? novuAsyncClient.triggerEvent(triggerEventRequest).join()
+                    : novuClient.triggerEvent(triggerEventRequest);
+        } catch (RuntimeException e) {
+            RuntimeException failure = unwrap(e);
+            audit(eventRequest, tenantId, null, failure, start);
+            throw failure;
+        }
+        String transactionId = response != null ? response.transactionId() : null;
+        if (transactionId != null) {
+            deliveryTracker.recordTriggered(tenantId, eventRequest.getSubscriberId(), eventRequest.getName(), transactionId);
+        }
+        audit(eventRequest, tenantId, transactionId, null, start);
+        return NotificationResult.of(eventRequest, transactionId, NotificationResult.Status.TRIGGERED, start);
+    }
+
+    /**
+     * Sends the trigger through {@link NovuAsyncClient}. Tracking and audit happen when Novu answers, on behalf of the
+     * tenant bound when the call was made.
+     */
+    @Override
+    public CompletableFuture<NotificationResult> sendNotificationEventAsync(EventRequest eventRequest) {
+        String tenantId = TenantContext.current();
+        return triggerCoalescer.coalesce(tenantId, eventRequest, () -> sendAsync(eventRequest, tenantId));
+    }
+
+    private CompletableFuture<NotificationResult> sendAsync(EventRequest eventRequest, String tenantId) {
+        long start = System.nanoTime();
+        Optional<ChannelPlan> plan;
+        boolean optedOut;
+        try {
+            plan = channelRouter.route(eventRequest);
+            optedOut = plan.isEmpty() && channelRouter.isOptedOut(eventRequest);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (plan.isPresent()) {
+            return sendPerChannel(eventRequest, plan.get(), tenantId, start);
+        }
+        if (optedOut) {
+            logger.debug("Event '{}' not sent: subscriber {} opted out of it.", eventRequest.getName(), eventRequest.getSubscriberId());
+            return CompletableFuture.completedFuture(NotificationResult.of(eventRequest, null, NotificationResult.Status.SKIPPED, start));
+        }
+        CompletableFuture<TriggerEventResponse> response;
+        try {
+            response = novuAsyncClient.triggerEvent(eventRequestMapper.toTriggerEventRequest(eventRequest));
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.handle((triggerResponse, error) -> {
+            if (error != null) {
+                RuntimeException failure = unwrap(error);
+                audit(eventRequest, tenantId, null, failure, start);
+                throw failure;
+            }
+            String transactionId = triggerResponse != null ? triggerResponse.transactionId() : null;
+            if (transactionId != null) {
+                deliveryTracker.recordTriggered(tenantId, eventRequest.getSubscriberId(), eventRequest.getName(), transactionId);
+            }
+            audit(eventRequest, tenantId, transactionId, null, start);
+            return NotificationResult.of(eventRequest, transactionId, NotificationResult.Status.TRIGGERED, start);
+        });
+    }
+
+    /**
+     * Sends every leg of the plan at once. Each leg is tracked and audited when it completes, so a slow channel does
+     * not hold back the others. The returned future completes when every leg has completed, and fails only if every
+     * leg failed.
+     */
+    private CompletableFuture<NotificationResult> sendPerChannel(EventRequest eventRequest, ChannelPlan plan, String tenantId, long start) {
+        if (plan.legs().isEmpty()) {
+            logger.debug("Event '{}' for subscriber {} not sent: channels {} skipped.", eventRequest.getName(), eventRequest.getSubscriberId(), plan.skipped());
+            return CompletableFuture.completedFuture(perChannelResult(eventRequest, List.of(), plan.skipped(), start));
+        }
+        List<CompletableFuture<LegOutcome>> outcomes = new ArrayList<>(plan.legs().size());
+        for (ChannelPlan.Leg leg : plan.legs()) {
+            CompletableFuture<TriggerEventResponse> response;
+            try {
+                response = channelDispatcher.dispatch(leg.channel(), leg.request());
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            outcomes.add(response.handle((triggerResponse, error) -> {
+                if (error != null) {
+                    RuntimeException failure = unwrap(error);
+                    audit(eventRequest, tenantId, null, failure, start);
+                    return new LegOutcome(new NotificationResult.ChannelResult(leg.channel(), NotificationResult.Status.FAILED,
+                            null, String.valueOf(failure.getMessage())), failure);
+                }
+                String transactionId = triggerResponse != null ? triggerResponse.transactionId() : null;
+                if (transactionId != null) {
+                    deliveryTracker.recordTriggered(tenantId, eventRequest.getSubscriberId(), eventRequest.getName(), transactionId);
+                }
+                audit(eventRequest, tenantId, transactionId, null, start);
+                return new LegOutcome(new NotificationResult.ChannelResult(leg.channel(), NotificationResult.Status.TRIGGERED,
+                        transactionId, null), null);
+            }));
+        }
+        return CompletableFuture.allOf(outcomes.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            List<LegOutcome> completed = outcomes.stream().map(CompletableFuture::join).toList();
+            if (completed.stream().allMatch(outcome -> outcome.failure() != null)) {
+                throw completed.get(0).failure();
+            }
+            return perChannelResult(eventRequest, completed, plan.skipped(), start);
+        });
+    }
+
+    private static NotificationResult perChannelResult(EventRequest eventRequest, List<LegOutcome> outcomes, List<Channel> skipped, long start) {
+        List<NotificationResult.ChannelResult> channels = new ArrayList<>(outcomes.size() + skipped.size());
+        String transactionId = null;
+        for (LegOutcome outcome : outcomes) {
+            channels.add(outcome.result());
+            if (transactionId == null) {
+                transactionId = outcome.result().transactionId();
+            }
+        }
+        for (Channel channel : skipped) {
+            channels.add(new NotificationResult.ChannelResult(channel, NotificationResult.Status.SKIPPED, null, null));
+        }
+        NotificationResult.Status status = outcomes.isEmpty() ? NotificationResult.Status.SKIPPED : NotificationResult.Status.TRIGGERED;
+        return new NotificationResult(transactionId,
+                List.of(new NotificationResult.RecipientStatus(eventRequest.getSubscriberId(), eventRequest.getEmail(), status)),
+                Duration.ofNanos(System.nanoTime() - start), channels);
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() instanceof RuntimeException cause
+                ? cause
+                : error instanceof RuntimeException runtime ? runtime : new CompletionException(error);
+    }
+
+    private record LegOutcome(NotificationResult.ChannelResult result, RuntimeException failure) {}
+
+    private void audit(EventRequest eventRequest, String tenantId, String transactionId, RuntimeException error, long startNanos) {
+        if (eventRequest == null) {
+            return;
+        }
+        String message = error != null ? String.valueOf(error.getMessage()) : null;
+        auditWriter.record(new AuditRecord(Instant.now(), tenantId, eventRequest.getName(),
+                eventRequest.getSubscriberId(), transactionId, error == null,
+                message != null && message.length() > 1000 ? message.substring(0, 1000) : message,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
     }
 }
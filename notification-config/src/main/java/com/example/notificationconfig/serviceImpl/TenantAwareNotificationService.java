@@ -0,0 +1,78 @@
+package com.example.notificationconfig.serviceImpl;
+
+import com.example.notificationconfig.digest.DigestAggregator;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.FairTenantDispatcher;
+import com.example.notificationconfig.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Routes every trigger through the {@link FairTenantDispatcher}, charging it to the tenant bound in
+ * {@link TenantContext}, before handing it to the Novu-backed service. Events that qualify for a digest are handed to
+ * the {@link DigestAggregator} instead, which dispatches the combined trigger later.
+ */
+@Service
+@Primary
+public class TenantAwareNotificationService implements NotificationService {
+
+    private final NotificationService delegate;
+    private final FairTenantDispatcher dispatcher;
+    private final DigestAggregator digestAggregator;
+
+    public TenantAwareNotificationService(@Qualifier("novuNotificationService") NotificationService delegate,
+                                          FairTenantDispatcher dispatcher,
+                                          DigestAggregator digestAggregator) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+        this.digestAggregator = digestAggregator;
+    }
+
+    @Override
+    public void sendNotificationEvent(EventRequest eventRequest) {
+        String tenantId = TenantContext.current();
+        if (digestAggregator.offer(tenantId, eventRequest)) {
+            return;
+        }
+        dispatcher.dispatch(tenantId, 1, () -> delegate.sendNotificationEvent(eventRequest));
+    }
+
+    /**
+     * Queues the trigger with the dispatcher and returns at once. The dispatcher worker only starts the delegate's
+     * asynchronous call and is free again while Novu answers. Digested events complete immediately.
+     *
+     * @throws com.example.notificationconfig.exception.TenantQuotaExceededException if the tenant is over quota.
+     */
+    @Override
+    public CompletableFuture<NotificationResult> sendNotificationEventAsync(EventRequest eventRequest) {
+        long start = System.nanoTime();
+        String tenantId = TenantContext.current();
+        if (digestAggregator.offer(tenantId, eventRequest)) {
+            return CompletableFuture.completedFuture(NotificationResult.of(eventRequest, null, NotificationResult.Status.DIGESTED, start));
+        }
+        CompletableFuture<NotificationResult> result = new CompletableFuture<>();
+        dispatcher.submit(tenantId, 1, () -> delegate.sendNotificationEventAsync(eventRequest)
+                        .whenComplete((notificationResult, error) -> complete(result, notificationResult, error)))
+                .whenComplete((ignored, error) -> {
+                    // The task itself failed before the trigger was sent.
+                    if (error != null) {
+                        complete(result, null, error);
+                    }
+                });
+        return result;
+    }
+
+    private static void complete(CompletableFuture<NotificationResult> result, NotificationResult value, Throwable error) {
+        if (error == null) {
+            result.complete(value);
+        } else {
+            result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        }
+    }
+}
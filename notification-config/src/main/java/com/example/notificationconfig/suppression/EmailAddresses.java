@@ -0,0 +1,42 @@
+package com.example.notificationconfig.suppression;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Canonical form of email addresses, as stored in {@code email_suppression}. Must match the notification service's
+ * canonical form, which it uses to look recipients up.
+ */
+public final class EmailAddresses {
+
+    private EmailAddresses() {
+    }
+
+    /**
+     * Trims the address and lower-cases it, converts an internationalized domain to its ASCII (punycode) form and drops
+     * a trailing dot from the domain.
+     *
+     * @return The canonical address, or {@code null} if {@code address} is not of the form {@code local@domain}.
+     */
+    public static String canonicalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String trimmed = address.trim();
+        int at = trimmed.lastIndexOf('@');
+        if (at <= 0 || at == trimmed.length() - 1) {
+            return null;
+        }
+        String local = trimmed.substring(0, at).toLowerCase(Locale.ROOT);
+        String domain = trimmed.substring(at + 1);
+        if (domain.endsWith(".")) {
+            domain = domain.substring(0, domain.length() - 1);
+        }
+        try {
+            domain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            // Not a valid IDN; store it as typed.
+        }
+        return local + "@" + domain.toLowerCase(Locale.ROOT);
+    }
+}
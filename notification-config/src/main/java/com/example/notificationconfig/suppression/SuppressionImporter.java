@@ -0,0 +1,151 @@
+package com.example.notificationconfig.suppression;
+
+import com.example.notificationconfig.config.SuppressionProperties;
+import com.example.notificationconfig.dto.SuppressionImportResult;
+import com.example.notificationconfig.entity.EmailSuppression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes suppressions in bulk.
+ * <p>
+ * Imports are streamed: lines are read, canonicalized and written in batches of {@code importBatchSize} upserts, so a
+ * file of millions of addresses never sits in memory. Importing an address that is already suppressed updates its
+ * reason and re-activates it if it was removed. Each batch bumps {@code updated_at}, which is how the notification
+ * service picks imported addresses up without a full reload.
+ */
+@Component
+public class SuppressionImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuppressionImporter.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO email_suppression (email, reason, active, created_at, updated_at)
+            VALUES (?, ?, true, ?, ?)
+            ON CONFLICT (email) DO UPDATE SET
+                reason = EXCLUDED.reason,
+                active = true,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String DEACTIVATE_SQL = "UPDATE email_suppression SET active = false, updated_at = ? WHERE email = ? AND active";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SuppressionProperties properties;
+
+    public SuppressionImporter(JdbcTemplate jdbcTemplate, SuppressionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Imports one address per line, optionally followed by a comma and a {@link EmailSuppression.Reason reason}.
+     * Blank lines, lines starting with {@code #} and a leading {@code email} header are skipped.
+     *
+     * @param defaultReason Reason for lines that do not name one.
+     */
+    public SuppressionImportResult importLines(Reader input, EmailSuppression.Reason defaultReason) throws IOException {
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        int batchSize = Math.max(1, properties.getImportBatchSize());
+        // Keyed by address: one multi-row upsert cannot touch the same row twice.
+        Map<String, EmailSuppression.Reason> batch = new LinkedHashMap<>();
+        List<String> samples = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+        long start = System.nanoTime();
+        boolean first = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.strip();
+            boolean header = first && trimmed.toLowerCase(Locale.ROOT).startsWith("email");
+            first = false;
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || header) {
+                continue;
+            }
+            int comma = trimmed.indexOf(',');
+            String email = EmailAddresses.canonicalize(comma < 0 ? trimmed : trimmed.substring(0, comma));
+            EmailSuppression.Reason reason = comma < 0 ? defaultReason : reason(trimmed.substring(comma + 1), defaultReason);
+            if (email == null || reason == null) {
+                rejected++;
+                if (samples.size() < properties.getMaxRejectedSamples()) {
+                    samples.add(line);
+                }
+                continue;
+            }
+            batch.put(email, reason);
+            if (batch.size() >= batchSize) {
+                imported += write(batch);
+            }
+        }
+        imported += write(batch);
+        logger.info("Imported {} suppressed addresses ({} rejected) in {} ms.", imported, rejected, (System.nanoTime() - start) / 1_000_000);
+        return new SuppressionImportResult(imported, rejected, samples);
+    }
+
+    /**
+     * Suppresses a single address.
+     *
+     * @return {@code false} if the address is not valid.
+     */
+    public boolean suppress(String address, EmailSuppression.Reason reason) {
+        String email = EmailAddresses.canonicalize(address);
+        if (email == null) {
+            return false;
+        }
+        Map<String, EmailSuppression.Reason> batch = new LinkedHashMap<>();
+        batch.put(email, reason);
+        write(batch);
+        return true;
+    }
+
+    /**
+     * Lifts the suppression of an address.
+     *
+     * @return {@code false} if the address was not suppressed.
+     */
+    public boolean remove(String address) {
+        String email = EmailAddresses.canonicalize(address);
+        return email != null && jdbcTemplate.update(DEACTIVATE_SQL, Timestamp.from(Instant.now()), email) > 0;
+    }
+
+    private int write(Map<String, EmailSuppression.Reason> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Map.Entry<String, EmailSuppression.Reason>> rows = new ArrayList<>(batch.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(1, row.getKey());
+            statement.setString(2, row.getValue().name());
+            statement.setTimestamp(3, now);
+            statement.setTimestamp(4, now);
+        });
+        batch.clear();
+        return rows.size();
+    }
+
+    private static EmailSuppression.Reason reason(String value, EmailSuppression.Reason defaultReason) {
+        String name = value.strip();
+        if (name.isEmpty()) {
+            return defaultReason;
+        }
+        try {
+            return EmailSuppression.Reason.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
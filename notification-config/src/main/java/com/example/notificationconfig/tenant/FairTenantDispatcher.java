@@ -0,0 +1,340 @@
+package com.example.notificationconfig.tenant;
+
+import com.example.notificationconfig.config.TenantDispatchProperties;
+import com.example.notificationconfig.exception.TenantQuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Schedules notification dispatches fairly across tenants.
+ * <p>
+ * Each tenant is admitted through its own {@link TokenBucket} and queued separately. A fixed pool of
+ * worker threads drains the tenant queues using deficit round robin (DRR), so under contention every
+ * tenant receives throughput proportional to its configured weight, regardless of how much work a
+ * single tenant has queued. Worker count and quotas follow {@link TenantDispatchProperties} when the configuration is
+ * refreshed, without dropping queued work. The cost of a dispatch is the number of outbound Novu calls it makes,
+ * capped at the tenant's burst so that a large dispatch can still be admitted.
+ */
+@Component
+public class FairTenantDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(FairTenantDispatcher.class);
+
+    private final TenantDispatchProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, TenantQueue> queues = new ConcurrentHashMap<>();
+    private final Deque<TenantQueue> activeTenants = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final List<Worker> workers = new ArrayList<>();
+
+    private volatile boolean running;
+    private int workerSequence;
+
+    public FairTenantDispatcher(TenantDispatchProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        resizeWorkers();
+        logger.info("Started tenant dispatcher with {} workers and DRR quantum {}.", properties.getWorkerThreads(), properties.getQuantum());
+    }
+
+    @PreDestroy
+    public void stop() {
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+            for (TenantQueue queue : activeTenants) {
+                DispatchTask task;
+                while ((task = queue.tasks.pollFirst()) != null) {
+                    queue.depth.decrementAndGet();
+                    task.future.completeExceptionally(new RejectedExecutionException("Tenant dispatcher is shutting down."));
+                }
+            }
+            activeTenants.clear();
+            workers.forEach(worker -> worker.thread.interrupt());
+            workers.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the current {@link TenantDispatchProperties} after a configuration refresh. Surplus workers finish the
+     * task they are running before they exit, and tenant quotas and weights change in place, so nothing queued is
+     * lost.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reconfigure() {
+        if (!running) {
+            return;
+        }
+        lock.lock();
+        try {
+            resizeWorkers();
+            for (TenantQueue queue : queues.values()) {
+                queue.applyQuota();
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Reconfigured tenant dispatcher: {} workers, DRR quantum {}, {} tenants.", properties.getWorkerThreads(), properties.getQuantum(), queues.size());
+    }
+
+    private void resizeWorkers() {
+        lock.lock();
+        try {
+            int target = Math.max(1, properties.getWorkerThreads());
+            while (workers.size() < target) {
+                Worker worker = new Worker("tenant-dispatch-" + workerSequence++);
+                workers.add(worker);
+                worker.thread.start();
+            }
+            while (workers.size() > target) {
+                workers.remove(workers.size() - 1).retired = true;
+            }
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Dispatches the task on behalf of the tenant and blocks until it has run.
+     *
+     * @param tenantId The tenant the work is charged to.
+     * @param cost     The number of cost units (outbound calls) the task consumes.
+     * @param task     The work to run.
+     * @throws TenantQuotaExceededException if the tenant is over quota or its queue is full.
+     */
+    public void dispatch(String tenantId, int cost, Runnable task) {
+        try {
+            submit(tenantId, cost, task).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues the task on behalf of the tenant.
+     *
+     * @param tenantId The tenant the work is charged to.
+     * @param cost     The number of cost units (outbound calls) the task consumes.
+     * @param task     The work to run.
+     * @return A future completed once the task has run.
+     * @throws TenantQuotaExceededException if the tenant is over quota or its queue is full.
+     */
+    public CompletableFuture<Void> submit(String tenantId, int cost, Runnable task) {
+        if (!running) {
+            throw new RejectedExecutionException("Tenant dispatcher is not running.");
+        }
+        TenantQueue queue = queueFor(tenantId);
+        int normalizedCost = Math.max(1, cost);
+        DispatchTask dispatchTask = new DispatchTask(queue, task, normalizedCost);
+        lock.lock();
+        try {
+            // Checked before tokens are taken, so work turned away for a full queue does not use up the tenant's rate.
+            if (queue.tasks.size() >= properties.getMaxQueuedPerTenant()) {
+                queue.queueFull.increment();
+                throw new TenantQuotaExceededException(queue.tenantId, "Tenant '" + queue.tenantId + "' has too many queued notifications.");
+            }
+            // A dispatch costing more than the burst could never be admitted; it takes the whole burst instead.
+            if (!queue.bucket.tryAcquire(Math.min(normalizedCost, queue.bucket.capacity()))) {
+                queue.rateLimited.increment();
+                throw new TenantQuotaExceededException(queue.tenantId, "Tenant '" + queue.tenantId + "' exceeded its dispatch rate.");
+            }
+            queue.tasks.addLast(dispatchTask);
+            queue.depth.incrementAndGet();
+            if (!queue.active) {
+                queue.active = true;
+                activeTenants.addLast(queue);
+            }
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+        return dispatchTask.future;
+    }
+
+    private TenantQueue queueFor(String tenantId) {
+        String key = tenantId == null || tenantId.isBlank() ? TenantContext.DEFAULT_TENANT : tenantId;
+        TenantQueue queue = queues.get(key);
+        if (queue != null) {
+            return queue;
+        }
+        if (queues.size() >= properties.getMaxTenants() && !properties.getQuotas().containsKey(key)) {
+            logger.warn("Tenant limit of {} reached; charging tenant '{}' to the default tenant.", properties.getMaxTenants(), key);
+            key = TenantContext.DEFAULT_TENANT;
+        }
+        return queues.computeIfAbsent(key, TenantQueue::new);
+    }
+
+    /**
+     * Picks the next task using deficit round robin. A tenant at the head of the round is credited
+     * {@code quantum * weight} once per visit and served while its deficit covers the next task's cost;
+     * otherwise it moves to the back of the round, keeping its remaining deficit.
+     */
+    private DispatchTask nextTask(Worker worker) throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                while (running && !worker.retired && activeTenants.isEmpty()) {
+                    workAvailable.await();
+                }
+                if (!running || worker.retired) {
+                    return null;
+                }
+                TenantQueue queue = activeTenants.peekFirst();
+                if (!queue.credited) {
+                    queue.deficit += (long) properties.getQuantum() * queue.weight;
+                    queue.credited = true;
+                }
+                DispatchTask head = queue.tasks.peekFirst();
+                if (head.cost > queue.deficit) {
+                    queue.credited = false;
+                    activeTenants.addLast(activeTenants.pollFirst());
+                    continue;
+                }
+                queue.tasks.pollFirst();
+                queue.depth.decrementAndGet();
+                queue.deficit -= head.cost;
+                if (queue.tasks.isEmpty()) {
+                    queue.deficit = 0;
+                    queue.credited = false;
+                    queue.active = false;
+                    activeTenants.pollFirst();
+                }
+                return head;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker(Worker worker) {
+        while (running && !worker.retired) {
+            DispatchTask task;
+            try {
+                task = nextTask(worker);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+            task.run();
+        }
+    }
+
+    private final class Worker {
+        private final Thread thread;
+        private volatile boolean retired;
+
+        private Worker(String name) {
+            this.thread = new Thread(() -> runWorker(this), name);
+            this.thread.setDaemon(true);
+        }
+    }
+
+    private final class TenantQueue {
+        private final String tenantId;
+        private final TokenBucket bucket;
+        private final Deque<DispatchTask> tasks = new ArrayDeque<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final Counter dispatched;
+        private final Counter failed;
+        private final Counter rateLimited;
+        private final Counter queueFull;
+        private final Timer queueWait;
+
+        // Guarded by lock
+        private int weight;
+        private boolean active;
+        private boolean credited;
+        private long deficit;
+
+        private TenantQueue(String tenantId) {
+            TenantDispatchProperties.Quota quota = properties.quotaFor(tenantId);
+            this.tenantId = tenantId;
+            this.bucket = new TokenBucket(quota.getBurst(), quota.getRatePerSecond());
+            this.weight = Math.max(1, quota.getWeight());
+            this.dispatched = Counter.builder("notification.tenant.dispatched").tag("tenant", tenantId).register(meterRegistry);
+            this.failed = Counter.builder("notification.tenant.failed").tag("tenant", tenantId).register(meterRegistry);
+            this.rateLimited = Counter.builder("notification.tenant.rejected").tag("tenant", tenantId).tag("reason", "rate").register(meterRegistry);
+            this.queueFull = Counter.builder("notification.tenant.rejected").tag("tenant", tenantId).tag("reason", "queue-full").register(meterRegistry);
+            this.queueWait = Timer.builder("notification.tenant.queue.wait").tag("tenant", tenantId).register(meterRegistry);
+            Gauge.builder("notification.tenant.queue.depth", depth, AtomicInteger::get).tag("tenant", tenantId).register(meterRegistry);
+        }
+
+        private void applyQuota() {
+            TenantDispatchProperties.Quota quota = properties.quotaFor(tenantId);
+            bucket.reconfigure(quota.getBurst(), quota.getRatePerSecond());
+            weight = Math.max(1, quota.getWeight());
+        }
+    }
+
+    private static final class DispatchTask {
+        private final TenantQueue queue;
+        private final Runnable task;
+        private final int cost;
+        private final long enqueuedNanos = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private DispatchTask(TenantQueue queue, Runnable task, int cost) {
+            this.queue = queue;
+            this.task = task;
+            this.cost = cost;
+        }
+
+        private void run() {
+            queue.queueWait.record(System.nanoTime() - enqueuedNanos, TimeUnit.NANOSECONDS);
+            TenantContext.set(queue.tenantId);
+            try {
+                task.run();
+                queue.dispatched.increment();
+                future.complete(null);
+            } catch (Throwable t) {
+                queue.failed.increment();
+                future.completeExceptionally(t);
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.notificationconfig.tenant;
+
+/**
+ * Holds the tenant (business unit) on whose behalf the current thread is dispatching notifications.
+ * Populated by {@link TenantContextFilter} from the {@value #HEADER} request header; reactive endpoints bind it only
+ * around the calls that read it, as their requests are not tied to one thread.
+ */
+public final class TenantContext {
+
+    /**
+     * HTTP header carrying the tenant identifier.
+     */
+    public static final String HEADER = "X-Tenant-Id";
+
+    /**
+     * Tenant used when the caller does not identify itself.
+     */
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Binds the given tenant to the current thread. Blank values fall back to {@link #DEFAULT_TENANT}.
+     *
+     * @param tenantId The tenant identifier, possibly {@code null}.
+     */
+    public static void set(String tenantId) {
+        CURRENT.set(normalize(tenantId));
+    }
+
+    /**
+     * @return The tenant identifier as it would be bound by {@link #set}.
+     */
+    public static String normalize(String tenantId) {
+        return tenantId == null || tenantId.isBlank() ? DEFAULT_TENANT : tenantId.trim();
+    }
+
+    /**
+     * @return The tenant bound to the current thread, or {@link #DEFAULT_TENANT} if none is bound.
+     */
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Removes the tenant binding from the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
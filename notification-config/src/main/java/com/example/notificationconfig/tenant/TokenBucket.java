@@ -0,0 +1,98 @@
+package com.example.notificationconfig.tenant;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket enforcing a tenant's sustained rate and burst allowance.
+ * Tokens refill continuously at {@code refillPerSecond} up to {@code capacity}.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final LongSupplier nanoClock;
+
+    private double capacity;
+    private double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity        Maximum number of tokens (the burst size).
+     * @param refillPerSecond Tokens added per second (the sustained rate).
+     */
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(double capacity, double refillPerSecond, LongSupplier nanoClock) {
+        validate(capacity, refillPerSecond);
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes {@code permits} tokens if they are available.
+     *
+     * @param permits Number of tokens to take.
+     * @return {@code true} if the tokens were taken, {@code false} if the tenant is over quota.
+     */
+    public synchronized boolean tryAcquire(double permits) {
+        refill();
+        if (tokens < permits) {
+            return false;
+        }
+        tokens -= permits;
+        return true;
+    }
+
+    /**
+     * @return The number of tokens currently available.
+     */
+    public synchronized double availableTokens() {
+        refill();
+        return tokens;
+    }
+
+    /**
+     * @return The maximum number of tokens, and so the most a single {@link #tryAcquire} can take.
+     */
+    public synchronized double capacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the burst size and sustained rate in place. Tokens already accumulated are kept, up to the new capacity.
+     *
+     * @param capacity        New maximum number of tokens.
+     * @param refillPerSecond New number of tokens added per second.
+     */
+    public synchronized void reconfigure(double capacity, double refillPerSecond) {
+        validate(capacity, refillPerSecond);
+        refill();
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.tokens = Math.min(tokens, capacity);
+    }
+
+    private static void validate(double capacity, double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive.");
+        }
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
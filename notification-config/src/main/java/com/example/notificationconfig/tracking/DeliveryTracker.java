@@ -0,0 +1,264 @@
+package com.example.notificationconfig.tracking;
+
+import com.example.notificationconfig.config.TrackingProperties;
+import com.example.notificationconfig.dto.DeliveryStatusEvent;
+import com.example.notificationconfig.entity.DeliveryRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records what happened to each Novu trigger in {@code delivery_record}.
+ * <p>
+ * Callers only enqueue updates; a single writer thread drains the queue, merges updates for the same transaction
+ * and writes each batch with one JDBC batch of upserts. A webhook status only replaces the stored one if it is at least
+ * as recent, so webhooks arriving out of order converge on the latest state. {@code TRIGGERED} is recorded when Novu
+ * answers the trigger, on this service's clock, so it is not ordered against the provider's timestamps: any webhook
+ * status replaces it, and it never replaces one, whether it is recorded before or after the webhook arrives.
+ */
+@Component
+public class DeliveryTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliveryTracker.class);
+
+    /**
+     * Whether the incoming row replaces the stored status: a provider status always replaces {@code TRIGGERED}, is
+     * never replaced by it, and otherwise the more recent of two statuses of the same kind wins.
+     */
+    private static final String SUPERSEDES = """
+            (EXCLUDED.status <> 'TRIGGERED' AND delivery_record.status = 'TRIGGERED'
+             OR (EXCLUDED.status = 'TRIGGERED') = (delivery_record.status = 'TRIGGERED')
+                AND EXCLUDED.last_event_at >= delivery_record.last_event_at)""";
+
+    static final String UPSERT_SQL = """
+            INSERT INTO delivery_record (transaction_id, tenant_id, subscriber_id, event_name, message_id, channel,
+                                         status, detail, last_event_at, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (transaction_id) DO UPDATE SET
+                tenant_id = COALESCE(delivery_record.tenant_id, EXCLUDED.tenant_id),
+                subscriber_id = COALESCE(delivery_record.subscriber_id, EXCLUDED.subscriber_id),
+                event_name = COALESCE(delivery_record.event_name, EXCLUDED.event_name),
+                message_id = COALESCE(EXCLUDED.message_id, delivery_record.message_id),
+                channel = COALESCE(EXCLUDED.channel, delivery_record.channel),
+                status = CASE WHEN %1$s THEN EXCLUDED.status ELSE delivery_record.status END,
+                detail = CASE WHEN %1$s THEN EXCLUDED.detail ELSE delivery_record.detail END,
+                last_event_at = CASE WHEN %1$s THEN EXCLUDED.last_event_at ELSE delivery_record.last_event_at END,
+                created_at = LEAST(EXCLUDED.created_at, delivery_record.created_at),
+                updated_at = EXCLUDED.updated_at
+            """.formatted(SUPERSEDES);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TrackingProperties properties;
+    private final BlockingQueue<DeliveryUpdate> queue;
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter writeFailures;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public DeliveryTracker(JdbcTemplate jdbcTemplate, TrackingProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.accepted = Counter.builder("notification.tracking.updates").tag("outcome", "accepted").register(meterRegistry);
+        this.dropped = Counter.builder("notification.tracking.updates").tag("outcome", "dropped").register(meterRegistry);
+        this.written = Counter.builder("notification.tracking.rows").tag("outcome", "written").register(meterRegistry);
+        this.writeFailures = Counter.builder("notification.tracking.rows").tag("outcome", "failed").register(meterRegistry);
+        this.flushTimer = Timer.builder("notification.tracking.flush").register(meterRegistry);
+        Gauge.builder("notification.tracking.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            logger.info("Delivery tracking is disabled.");
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "delivery-tracker");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer after writing everything still queued.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<DeliveryUpdate> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    /**
+     * Records that Novu accepted a trigger. Never blocks; the update is dropped if the queue is full. Novu's response
+     * carries no timestamp, so the update is stamped with the local time, which only orders it against other
+     * {@code TRIGGERED} updates.
+     */
+    public void recordTriggered(String tenantId, String subscriberId, String eventName, String transactionId) {
+        if (transactionId == null || transactionId.isBlank()) {
+            return;
+        }
+        Instant now = Instant.now();
+        offer(new DeliveryUpdate(transactionId, tenantId, subscriberId, eventName, null, null,
+                DeliveryRecord.STATUS_TRIGGERED, null, now, now));
+    }
+
+    /**
+     * Records a status update received from Novu.
+     *
+     * @return {@code false} if the update could not be queued and the sender should retry.
+     */
+    public boolean recordStatus(DeliveryStatusEvent event) {
+        Instant now = Instant.now();
+        return offer(new DeliveryUpdate(event.transactionId(), null, event.subscriberId(), null, event.messageId(),
+                event.channel(), event.status().toUpperCase(Locale.ROOT), truncate(event.detail()),
+                event.timestamp() != null ? event.timestamp() : now, now));
+    }
+
+    private boolean offer(DeliveryUpdate update) {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (running && queue.offer(update)) {
+            accepted.increment();
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void runWriter() {
+        List<DeliveryUpdate> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                DeliveryUpdate first = queue.poll(properties.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<DeliveryUpdate> batch) {
+        Collection<DeliveryUpdate> rows = coalesce(batch);
+        long start = System.nanoTime();
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(rows), rows.size(), (statement, row) -> {
+                statement.setString(1, row.transactionId());
+                statement.setString(2, row.tenantId());
+                statement.setString(3, row.subscriberId());
+                statement.setString(4, row.eventName());
+                statement.setString(5, row.messageId());
+                statement.setString(6, row.channel());
+                statement.setString(7, row.status());
+                statement.setString(8, row.detail());
+                statement.setTimestamp(9, Timestamp.from(row.eventAt()));
+                statement.setTimestamp(10, Timestamp.from(row.receivedAt()));
+                statement.setTimestamp(11, now);
+            });
+            written.increment(rows.size());
+        } catch (RuntimeException e) {
+            writeFailures.increment(rows.size());
+            logger.error("Failed to write {} delivery records: {}", rows.size(), e.getMessage(), e);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Merges updates for the same transaction so that each batch writes every row once.
+     */
+    static Collection<DeliveryUpdate> coalesce(List<DeliveryUpdate> batch) {
+        Map<String, DeliveryUpdate> rows = new LinkedHashMap<>();
+        for (DeliveryUpdate update : batch) {
+            rows.merge(update.transactionId(), update, DeliveryUpdate::merge);
+        }
+        return rows.values();
+    }
+
+    private static String truncate(String detail) {
+        return detail != null && detail.length() > 1000 ? detail.substring(0, 1000) : detail;
+    }
+
+    record DeliveryUpdate(String transactionId, String tenantId, String subscriberId, String eventName,
+                          String messageId, String channel, String status, String detail,
+                          Instant eventAt, Instant receivedAt) {
+
+        /**
+         * Combines two updates for the same transaction the way the upsert would.
+         */
+        DeliveryUpdate merge(DeliveryUpdate other) {
+            boolean otherWins = other.supersedes(this);
+            DeliveryUpdate newer = otherWins ? other : this;
+            DeliveryUpdate older = otherWins ? this : other;
+            return new DeliveryUpdate(transactionId,
+                    tenantId != null ? tenantId : other.tenantId,
+                    subscriberId != null ? subscriberId : other.subscriberId,
+                    eventName != null ? eventName : other.eventName,
+                    other.messageId != null ? other.messageId : messageId,
+                    other.channel != null ? other.channel : channel,
+                    newer.status,
+                    newer.detail,
+                    newer.eventAt,
+                    older.receivedAt.isBefore(newer.receivedAt) ? older.receivedAt : newer.receivedAt);
+        }
+
+        /**
+         * Mirrors {@link DeliveryTracker#SUPERSEDES}.
+         */
+        boolean supersedes(DeliveryUpdate stored) {
+            if (isTriggered() != stored.isTriggered()) {
+                return stored.isTriggered();
+            }
+            return !eventAt.isBefore(stored.eventAt);
+        }
+
+        private boolean isTriggered() {
+            return DeliveryRecord.STATUS_TRIGGERED.equals(status);
+        }
+    }
+}
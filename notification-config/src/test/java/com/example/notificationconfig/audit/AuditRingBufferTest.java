@@ -0,0 +1,60 @@
+package com.example.notificationconfig.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditRingBufferTest {
+
+    @Test
+    void offer_fullBuffer_isRejectedUntilDrained() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertTrue(buffer.offer(4));
+        buffer.drainTo(drained, 10);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), drained);
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void concurrentProducers_loseNothingWhileThereIsRoom() throws Exception {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(1 << 14);
+        int producers = 4;
+        int perProducer = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(base + i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+        assertEquals(producers * perProducer, drained.stream().distinct().count());
+    }
+}
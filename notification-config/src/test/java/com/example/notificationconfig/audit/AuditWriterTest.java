@@ -0,0 +1,118 @@
+package com.example.notificationconfig.audit;
+
+import com.example.notificationconfig.config.AuditProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path spillDirectory;
+
+    private AuditProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuditProperties();
+        properties.setEnabled(true);
+        properties.setFlushSize(3);
+        properties.setFlushInterval(Duration.ofMinutes(1));
+        properties.setShutdownTimeout(Duration.ofSeconds(2));
+        properties.setSpillDirectory(spillDirectory.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_flushSizeReached_writesOneBatch() {
+        AuditWriter auditWriter = new AuditWriter(jdbcTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        auditWriter.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(auditWriter.record(record("sub-" + i)));
+            }
+
+            ArgumentCaptor<List<AuditRecord>> batch = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate, timeout(1000)).batchUpdate(eq(AuditWriter.INSERT_SQL), batch.capture(), eq(3), any(ParameterizedPreparedStatementSetter.class));
+            assertEquals(List.of("sub-0", "sub-1", "sub-2"), batch.getValue().stream().map(AuditRecord::subscriberId).toList());
+        } finally {
+            auditWriter.stop();
+        }
+    }
+
+    @Test
+    void stop_databaseUnavailable_spillsRecordsAndReplaysThemOnNextStart() throws IOException {
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(jdbcTemplate).batchUpdate(eq(AuditWriter.INSERT_SQL), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        AuditWriter auditWriter = new AuditWriter(jdbcTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        auditWriter.start();
+        auditWriter.record(record("sub-1"));
+        auditWriter.stop();
+
+        List<Path> spillFiles = spillFiles();
+        assertEquals(1, spillFiles.size());
+        assertTrue(Files.readString(spillFiles.get(0)).contains("sub-1"));
+
+        reset(jdbcTemplate);
+        AuditWriter restarted = new AuditWriter(jdbcTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        restarted.start();
+        restarted.stop();
+
+        verify(jdbcTemplate).batchUpdate(eq(AuditWriter.INSERT_SQL), anyList(), eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertTrue(spillFiles().isEmpty());
+    }
+
+    @Test
+    void start_relativeSpillDirectory_leavesAuditingOff() {
+        properties.setSpillDirectory("audit-spill");
+        AuditWriter auditWriter = new AuditWriter(jdbcTemplate, objectMapper, properties, new SimpleMeterRegistry());
+        auditWriter.start();
+
+        assertFalse(auditWriter.record(record("sub-1")));
+        auditWriter.stop();
+    }
+
+    private List<Path> spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.toList();
+        }
+    }
+
+    private static AuditRecord record(String subscriberId) {
+        return new AuditRecord(Instant.now(), "tenant-a", "alert", subscriberId, null, true, null, 5);
+    }
+}
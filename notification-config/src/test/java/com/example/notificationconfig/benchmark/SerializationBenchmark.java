@@ -0,0 +1,97 @@
+package com.example.notificationconfig.benchmark;
+
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Compares the ways a trigger can be written to Novu: the generic bean serializer with reflective accessors, the same
+ * with Blackbird's generated accessors, the precompiled {@link TriggerEventRequest.Serializer}, and the latter with a
+ * payload passed through as {@link RawJsonPayload}. All but the last write the same bytes, which is checked first.
+ * <p>
+ * Not part of the regular build. Run with {@code mvn test -Dtest=SerializationBenchmark -Dbenchmark=true}; set the
+ * number of writes per round with {@code -Dbenchmark.iterations}. Time and bytes allocated per write are printed, the
+ * best of {@link #ROUNDS} rounds after as many of warm-up.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SerializationBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final int ROUNDS = 5;
+    private static final String PAYLOAD = "{\"order\":{\"id\":\"o-1842\",\"total\":129.5,\"currency\":\"EUR\","
+            + "\"items\":[{\"sku\":\"A-1\",\"qty\":2,\"price\":49.75},{\"sku\":\"B-7\",\"qty\":1,\"price\":30.0}]},"
+            + "\"customer\":{\"firstName\":\"Ada\",\"tier\":\"gold\"},\"trackingUrl\":\"https://example.com/t/o-1842\"}";
+
+    @Test
+    void triggerSerialization() throws Exception {
+        TriggerEventRequest.To to = new TriggerEventRequest.To("sub-1", "bench@example.com", null);
+        TriggerEventRequest mapped = new TriggerEventRequest("order-shipped", to, new LinkedHashMap<>(RawJsonPayload.of(PAYLOAD)));
+        TriggerEventRequest raw = new TriggerEventRequest("order-shipped", to, RawJsonPayload.of(PAYLOAD));
+
+        ObjectWriter reflection = new ObjectMapper().addMixIn(TriggerEventRequest.class, BeanSerialized.class).writer();
+        ObjectWriter blackbird = new ObjectMapper().registerModule(new BlackbirdModule())
+                .addMixIn(TriggerEventRequest.class, BeanSerialized.class).writer();
+        ObjectWriter precompiled = new ObjectMapper().writer();
+        byte[] expected = reflection.writeValueAsBytes(mapped);
+        assertArrayEquals(expected, blackbird.writeValueAsBytes(mapped));
+        assertArrayEquals(expected, precompiled.writeValueAsBytes(mapped));
+        assertArrayEquals(expected, precompiled.writeValueAsBytes(raw));
+
+        List<Result> results = List.of(
+                measure("reflection", reflection, mapped),
+                measure("blackbird", blackbird, mapped),
+                measure("precompiled", precompiled, mapped),
+                measure("raw payload", precompiled, raw));
+        System.out.printf("%nTrigger serialization, %d bytes, best of %d rounds of %d writes%n", expected.length, ROUNDS, ITERATIONS);
+        results.forEach(System.out::println);
+    }
+
+    private static Result measure(String name, ObjectWriter writer, TriggerEventRequest request) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < 2 * ROUNDS; round++) {
+            long allocated = threads.getThreadAllocatedBytes(id);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += writer.writeValueAsBytes(request).length;
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated = threads.getThreadAllocatedBytes(id) - allocated;
+            if (round >= ROUNDS) {
+                bestNanos = Math.min(bestNanos, (double) elapsed / ITERATIONS);
+                bestBytes = Math.min(bestBytes, (double) allocated / ITERATIONS);
+            }
+        }
+        if (sink == 0) {
+            throw new IllegalStateException("Nothing written");
+        }
+        return new Result(name, bestNanos, bestBytes);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class BeanSerialized {
+    }
+
+    private record Result(String serializer, double nanosPerWrite, double bytesPerWrite) {
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %8.0f ns/write   %7.0f B allocated/write", serializer, nanosPerWrite, bytesPerWrite);
+        }
+    }
+}
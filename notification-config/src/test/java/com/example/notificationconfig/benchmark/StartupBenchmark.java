@@ -0,0 +1,152 @@
+package com.example.notificationconfig.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Compares the time from process start to the first answer on {@code /actuator/health/liveness} of the build variants:
+ * the plain jar, the extracted jar, the extracted jar with its CDS archive ({@code -Pcds}) and the native image
+ * ({@code -Pnative}). Variants that have not been built are skipped.
+ * <p>
+ * Not part of the regular build. Build the variants first, e.g. {@code mvn -Pcds,native package native:compile
+ * -DskipTests}, then run {@code mvn test -Dtest=StartupBenchmark -Dbenchmark=true}; set the number of starts per
+ * variant with {@code -Dbenchmark.runs}. The applications start without a database: Hibernate skips reading JDBC
+ * metadata and the scheduler is off.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("benchmark.runs", 5);
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+    private static final Path TARGET = Paths.get("target");
+    private static final List<String> APPLICATION_ARGUMENTS = List.of(
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+            "--notification.scheduler.enabled=false",
+            "--management.endpoint.health.probes.enabled=true",
+            "--novu.secret-key=benchmark",
+            "--logging.level.com.example.notificationconfig=WARN");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void startupTime() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Variant> variants = new ArrayList<>();
+        Path jar = applicationJar(TARGET);
+        if (jar != null) {
+            variants.add(new Variant("jar", List.of(java, "-jar", jar.toString()), List.of()));
+        }
+        Path extracted = applicationJar(TARGET.resolve("cds"));
+        if (extracted != null) {
+            variants.add(new Variant("extracted", List.of(java, "-jar", extracted.toString()), List.of()));
+            Path archive = TARGET.resolve("cds").resolve("application.jsa");
+            if (Files.exists(archive)) {
+                variants.add(new Variant("cds", List.of(java, "-XX:SharedArchiveFile=" + archive, "-jar", extracted.toString()), List.of()));
+            }
+        }
+        Path nativeImage = TARGET.resolve("notification-config");
+        if (Files.isExecutable(nativeImage)) {
+            variants.add(new Variant("native", List.of(nativeImage.toString()), List.of("--spring.profiles.active=aot")));
+        }
+        assertFalse(variants.isEmpty(), "Nothing to compare; build the application first.");
+
+        List<Result> results = new ArrayList<>();
+        for (Variant variant : variants) {
+            start(variant); // warm the file system cache
+            long[] millis = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                millis[i] = start(variant);
+            }
+            results.add(Result.of(variant.name(), millis));
+        }
+        System.out.printf("%nTime to first liveness answer, %d starts per variant%n", RUNS);
+        results.forEach(System.out::println);
+    }
+
+    /**
+     * @return Milliseconds from launching the process to the first HTTP answer.
+     */
+    private long start(Variant variant) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(variant.command());
+        command.addAll(APPLICATION_ARGUMENTS);
+        command.addAll(variant.arguments());
+        command.add("--server.port=" + port);
+        URI liveness = URI.create("http://localhost:" + port + "/actuator/health/liveness");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(TARGET.resolve("startup-benchmark.log").toFile()))
+                .start();
+        try {
+            while (System.nanoTime() - start < START_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant.name() + " exited with " + process.exitValue() + "; see target/startup-benchmark.log");
+                }
+                try {
+                    client.send(HttpRequest.newBuilder(liveness).GET().build(), HttpResponse.BodyHandlers.discarding());
+                    return (System.nanoTime() - start) / 1_000_000;
+                } catch (ConnectException e) {
+                    Thread.sleep(5);
+                }
+            }
+            throw new IllegalStateException(variant.name() + " did not start within " + START_TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static Path applicationJar(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith("notification-config-") && name.endsWith(".jar");
+            }).findFirst().orElse(null);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> command, List<String> arguments) {}
+
+    private record Result(String variant, long minMillis, long medianMillis, long maxMillis) {
+
+        static Result of(String variant, long[] millis) {
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            return new Result(variant, sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s min %6d ms   median %6d ms   max %6d ms", variant, minMillis, medianMillis, maxMillis);
+        }
+    }
+}
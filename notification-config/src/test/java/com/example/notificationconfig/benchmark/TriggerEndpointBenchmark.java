@@ -0,0 +1,162 @@
+package com.example.notificationconfig.benchmark;
+
+import com.example.notificationconfig.NotificationConfigApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares {@code POST /api/v1/notify/trigger} on the servlet stack with the reactive edition, against a stub Novu that
+ * answers every trigger after {@link #NOVU_LATENCY_MILLIS}.
+ * <p>
+ * Not part of the regular build. Run with
+ * {@code mvn test -Dtest=TriggerEndpointBenchmark -Dbenchmark=true}; tune the load with {@code -Dbenchmark.requests}
+ * and {@code -Dbenchmark.concurrency}. Throughput and latency percentiles of both stacks are printed.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TriggerEndpointBenchmark {
+
+    private static final int NOVU_LATENCY_MILLIS = 50;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1_000);
+    private static final String BODY = "{\"name\":\"bench-event\",\"subscriberId\":\"sub-1\",\"email\":\"bench@example.com\",\"payload\":{}}";
+
+    private static HttpServer novu;
+    private static ExecutorService novuExecutor;
+
+    @BeforeAll
+    static void startNovuStub() throws Exception {
+        byte[] response = "{\"data\":{\"acknowledged\":true,\"status\":\"processed\",\"transactionId\":\"tx-bench\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        novuExecutor = Executors.newCachedThreadPool();
+        novu = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        novu.setExecutor(novuExecutor);
+        novu.createContext("/v1/events/trigger", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(NOVU_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(201, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        novu.start();
+    }
+
+    @AfterAll
+    static void stopNovuStub() {
+        novu.stop(0);
+        novuExecutor.shutdownNow();
+    }
+
+    @Test
+    void servletVersusReactive() throws Exception {
+        Result servlet = run(WebApplicationType.SERVLET);
+        Result reactive = run(WebApplicationType.REACTIVE);
+        System.out.printf("%nTrigger endpoint, %d requests, %d concurrent, Novu latency %d ms%n", REQUESTS, CONCURRENCY, NOVU_LATENCY_MILLIS);
+        System.out.println(servlet);
+        System.out.println(reactive);
+        assertEquals(0, servlet.errors, "servlet errors");
+        assertEquals(0, reactive.errors, "reactive errors");
+    }
+
+    private Result run(WebApplicationType type) throws Exception {
+        try (ConfigurableApplicationContext context = start(type)) {
+            URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/notify/trigger");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            load(client, uri, Math.min(REQUESTS, 2_000)); // warm-up
+            return load(client, uri, REQUESTS).named(type.name().toLowerCase());
+        }
+    }
+
+    private ConfigurableApplicationContext start(WebApplicationType type) {
+        return new SpringApplicationBuilder(NotificationConfigApplication.class)
+                .web(type)
+                .profiles(type == WebApplicationType.REACTIVE ? "reactive" : "default")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + type + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "logging.level.com.example.notificationconfig=WARN",
+                        "novu.api-host=http://localhost:" + novu.getAddress().getPort(),
+                        "novu.secret-key=benchmark",
+                        "notification.tenant.defaults.rate-per-second=1000000",
+                        "notification.tenant.defaults.burst=1000000",
+                        "notification.tenant.max-queued-per-tenant=1000000",
+                        "notification.scheduler.enabled=false",
+                        "notification.reactive.max-in-flight=1000000")
+                .run();
+    }
+
+    private static Result load(HttpClient client, URI uri, int requests) throws InterruptedException {
+        Semaphore permits = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<CompletableFuture<?>> calls = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            int call = i;
+            long sent = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                    .build();
+            calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[call] = System.nanoTime() - sent;
+                        if (error != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                        permits.release();
+                    }));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).handle((ignored, error) -> null).join();
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(null, requests * 1_000_000_000d / elapsed,
+                latencies[requests / 2] / 1_000_000d, latencies[(int) (requests * 0.99)] / 1_000_000d, errors.get());
+    }
+
+    private record Result(String stack, double throughput, double p50Millis, double p99Millis, int errors) {
+
+        Result named(String name) {
+            return new Result(name, throughput, p50Millis, p99Millis, errors);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s %8.0f req/s   p50 %7.1f ms   p99 %7.1f ms   errors %d", stack, throughput, p50Millis, p99Millis, errors);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.notificationconfig.client;
+
+import com.example.notificationconfig.config.NovuProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ported with {@link Hedger} from the notification service's {@code HedgerTest}.
+ */
+class HedgerTest {
+
+    private NovuProperties.Hedging settings;
+    private final List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        settings = new NovuProperties.Hedging();
+        settings.setEnabled(true);
+        settings.setSamples(10);
+        settings.setMinDelay(Duration.ofMillis(1));
+        settings.setMaxDelay(Duration.ofMillis(20));
+        settings.setBudget(1);
+    }
+
+    @Test
+    void delay_isThePercentileOfRecentLatencies_withinBounds() {
+        Hedger hedger = new Hedger(settings, new SimpleMeterRegistry());
+        assertEquals(0, hedger.delayNanos());
+
+        for (int i = 1; i <= 10; i++) {
+            hedger.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), hedger.delayNanos());
+
+        for (int i = 0; i < 10; i++) {
+            hedger.record(TimeUnit.SECONDS.toNanos(5));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), hedger.delayNanos());
+    }
+
+    @Test
+    void nothingIsHedged_untilLatenciesAreKnown() throws Exception {
+        Hedger hedger = new Hedger(settings, new SimpleMeterRegistry());
+
+        CompletableFuture<String> call = hedger.call(this::attempt);
+        Thread.sleep(50);
+        attempts.get(0).complete("tx-1");
+
+        assertEquals("tx-1", call.get());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void slowFirstAttempt_isHedged_andTheFirstSuccessWins() throws Exception {
+        Hedger hedger = warmed();
+
+        CompletableFuture<String> call = hedger.call(this::attempt);
+        waitForAttempts(2);
+        attempts.get(1).complete("tx-hedge");
+
+        assertEquals("tx-hedge", call.get(1, TimeUnit.SECONDS));
+        assertTrue(attempts.get(0).isCancelled());
+    }
+
+    @Test
+    void exhaustedBudget_sendsNoHedge() throws Exception {
+        settings.setBudget(0);
+        Hedger hedger = warmed();
+
+        CompletableFuture<String> call = hedger.call(this::attempt);
+        Thread.sleep(50);
+        attempts.get(0).complete("tx-1");
+
+        assertEquals("tx-1", call.get());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void firstAttemptFailingBeforeTheDelay_failsTheCallWithoutAHedge() throws Exception {
+        settings.setMinDelay(Duration.ofMillis(50));
+        settings.setMaxDelay(Duration.ofMillis(50));
+        Hedger hedger = warmed();
+        IllegalStateException failure = new IllegalStateException("rejected");
+
+        CompletableFuture<String> call = hedger.call(this::attempt);
+        attempts.get(0).completeExceptionally(failure);
+        Thread.sleep(100);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, call::get);
+        assertSame(failure, thrown.getCause());
+        assertEquals(1, attempts.size());
+    }
+
+    @Test
+    void failedHedge_leavesTheFirstAttemptToAnswer() throws Exception {
+        Hedger hedger = warmed();
+
+        CompletableFuture<String> call = hedger.call(this::attempt);
+        waitForAttempts(2);
+        attempts.get(1).completeExceptionally(new IllegalStateException("conflict"));
+        assertFalse(call.isDone());
+        attempts.get(0).complete("tx-1");
+
+        assertEquals("tx-1", call.get(1, TimeUnit.SECONDS));
+    }
+
+    private Hedger warmed() {
+        Hedger hedger = new Hedger(settings, new SimpleMeterRegistry());
+        for (int i = 0; i < settings.getSamples(); i++) {
+            hedger.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return hedger;
+    }
+
+    private CompletableFuture<String> attempt() {
+        CompletableFuture<String> attempt = new CompletableFuture<>();
+        attempts.add(attempt);
+        return attempt;
+    }
+
+    private void waitForAttempts(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (attempts.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, attempts.size());
+    }
+}
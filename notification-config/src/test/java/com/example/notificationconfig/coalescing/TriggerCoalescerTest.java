@@ -0,0 +1,131 @@
+package com.example.notificationconfig.coalescing;
+
+import com.example.notificationconfig.config.CoalescingProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TriggerCoalescerTest {
+
+    private CoalescingProperties properties;
+    private TriggerCoalescer coalescer;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CoalescingProperties();
+        properties.setResultTtl(Duration.ofMinutes(1));
+        coalescer = new TriggerCoalescer(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void identicalTriggersInFlight_shareOneCall() {
+        CompletableFuture<NotificationResult> response = new CompletableFuture<>();
+
+        CompletableFuture<NotificationResult> first = coalescer.coalesce("acme", request(false), () -> count(response));
+        CompletableFuture<NotificationResult> second = coalescer.coalesce("acme", request(false), () -> count(response));
+        assertFalse(second.isDone());
+        NotificationResult result = result("tx-1");
+        response.complete(result);
+
+        assertEquals(1, calls.get());
+        assertSame(result, first.join());
+        assertSame(result, second.join());
+    }
+
+    @Test
+    void payloadKeyOrder_doesNotMatter() {
+        coalescer.coalesce("acme", request(false), () -> count(CompletableFuture.completedFuture(result("tx-1")))).join();
+        NotificationResult repeated = coalescer.coalesce("acme", request(true), () -> count(CompletableFuture.completedFuture(result("tx-2")))).join();
+
+        assertEquals(1, calls.get());
+        assertEquals("tx-1", repeated.transactionId());
+    }
+
+    @Test
+    void differentTenantOrPayload_isSentSeparately() {
+        coalescer.coalesce("acme", request(false), () -> count(CompletableFuture.completedFuture(result("tx-1")))).join();
+        coalescer.coalesce("other", request(false), () -> count(CompletableFuture.completedFuture(result("tx-2")))).join();
+        EventRequest changed = request(false);
+        changed.getPayload().put("orderId", "o-2");
+        coalescer.coalesce("acme", changed, () -> count(CompletableFuture.completedFuture(result("tx-3")))).join();
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void failure_isSharedButNotCached() {
+        CompletableFuture<NotificationResult> response = new CompletableFuture<>();
+        CompletableFuture<NotificationResult> first = coalescer.coalesce("acme", request(false), () -> count(response));
+        CompletableFuture<NotificationResult> second = coalescer.coalesce("acme", request(false), () -> count(response));
+        response.completeExceptionally(new IllegalStateException("Novu unavailable"));
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+        NotificationResult retried = coalescer.coalesce("acme", request(false), () -> count(CompletableFuture.completedFuture(result("tx-2")))).join();
+
+        assertEquals(2, calls.get());
+        assertEquals("tx-2", retried.transactionId());
+    }
+
+    @Test
+    void expiredResult_isNotReturned() {
+        properties.setResultTtl(Duration.ZERO);
+
+        coalescer.coalesce("acme", request(false), () -> count(CompletableFuture.completedFuture(result("tx-1")))).join();
+        coalescer.coalesce("acme", request(false), () -> count(CompletableFuture.completedFuture(result("tx-2")))).join();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, coalescer.cachedResults());
+    }
+
+    @Test
+    void cancellingOneCaller_doesNotAffectTheOthers() {
+        CompletableFuture<NotificationResult> response = new CompletableFuture<>();
+        CompletableFuture<NotificationResult> first = coalescer.coalesce("acme", request(false), () -> count(response));
+        CompletableFuture<NotificationResult> second = coalescer.coalesce("acme", request(false), () -> count(response));
+
+        assertTrue(first.cancel(true));
+        response.complete(result("tx-1"));
+
+        assertEquals("tx-1", second.join().transactionId());
+    }
+
+    private CompletableFuture<NotificationResult> count(CompletableFuture<NotificationResult> response) {
+        calls.incrementAndGet();
+        return response;
+    }
+
+    private static EventRequest request(boolean reversed) {
+        LinkedHashMap<String, Object> payload = new LinkedHashMap<>();
+        if (reversed) {
+            payload.put("items", Map.of("count", 2));
+            payload.put("orderId", "o-1");
+        } else {
+            payload.put("orderId", "o-1");
+            payload.put("items", Map.of("count", 2));
+        }
+        return new EventRequest("order-shipped", "sub-1", "user@example.com", null, payload);
+    }
+
+    private static NotificationResult result(String transactionId) {
+        return NotificationResult.of(request(false), transactionId, NotificationResult.Status.TRIGGERED, System.nanoTime());
+    }
+}
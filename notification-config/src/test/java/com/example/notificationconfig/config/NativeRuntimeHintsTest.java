@@ -0,0 +1,50 @@
+package com.example.notificationconfig.config;
+
+import com.example.notificationconfig.client.NovuClient;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registersBindingHintsForNovuPayloads() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(EventRequest.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TriggerEventRequest.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TriggerEventResponse.class).test(hints));
+        // Nested types are reached through the properties.
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TriggerEventResponse.Data.class).test(hints));
+    }
+
+    @Test
+    void registersRawPayloadSerializers() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RawJsonPayload.Serializer.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RawJsonPayload.Deserializer.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void registersTriggerSerializer() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(TriggerEventRequest.Serializer.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void registersFeignClientProxy() {
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(NovuClient.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(NovuClient.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.notificationconfig.config;
+
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.RawJsonPayload;
+import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.mapper.EventRequestMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayloadPassThroughConfigTest {
+
+    private static final String PAYLOAD = "{\"order\":{\"id\":\"o-1\",\"items\":[{\"sku\":\"A\",\"qty\":2,\"price\":9.5}],"
+            + "\"note\":\"café \\\"fragile\\\"\"},\"gift\":true,\"coupon\":null}";
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new PayloadPassThroughConfig().payloadPassThrough().customize(builder);
+        objectMapper = builder.build();
+    }
+
+    @Test
+    void payload_isPassedThroughToTheTriggerUnchanged() throws Exception {
+        EventRequest eventRequest = objectMapper.readValue(
+                "{\"name\":\"order-shipped\",\"subscriberId\":\"sub-1\",\"email\":\"a@example.com\",\"payload\":" + PAYLOAD + "}",
+                EventRequest.class);
+
+        assertInstanceOf(RawJsonPayload.class, eventRequest.getPayload());
+        TriggerEventRequest trigger = new EventRequestMapper().toTriggerEventRequest(eventRequest);
+        String body = objectMapper.writeValueAsString(trigger);
+        assertEquals("{\"name\":\"order-shipped\",\"to\":{\"subscriberId\":\"sub-1\",\"email\":\"a@example.com\",\"phone\":null},"
+                + "\"payload\":" + PAYLOAD + "}", body);
+        assertEquals(objectMapper.readTree(body), new ObjectMapper().readTree(new ObjectMapper().writeValueAsBytes(trigger)));
+    }
+
+    @Test
+    void payload_canStillBeReadAsAMap() throws Exception {
+        EventRequest eventRequest = objectMapper.readValue("{\"payload\":" + PAYLOAD + "}", EventRequest.class);
+
+        Map<String, Object> payload = eventRequest.getPayload();
+        assertEquals(true, payload.get("gift"));
+        assertEquals(3, payload.size());
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> items = (List<Map<String, Object>>) ((Map<String, Object>) payload.get("order")).get("items");
+        assertEquals(2, items.get(0).get("qty"));
+        assertThrows(UnsupportedOperationException.class, () -> payload.put("gift", false));
+    }
+
+    @Test
+    void missingPayload_staysNull_andOtherTypesAreRejected() throws Exception {
+        assertNull(objectMapper.readValue("{\"payload\":null}", EventRequest.class).getPayload());
+        assertThrows(MismatchedInputException.class, () -> objectMapper.readValue("{\"payload\":[1,2]}", EventRequest.class));
+    }
+}
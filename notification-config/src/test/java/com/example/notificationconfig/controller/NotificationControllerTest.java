@@ -1,24 +1,38 @@
 package com.example.notificationconfig.controller;
 
 import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.scheduler.NotificationScheduler;
 import com.example.notificationconfig.service.NotificationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never; // Added import
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +48,9 @@ public class NotificationControllerTest { // Renamed class
     @MockBean
     private NotificationService notificationService;
 
+    @MockBean
+    private NotificationScheduler notificationScheduler;
+
     @Test
     void triggerNotificationEvent_validRequest_shouldReturnOk() throws Exception {
         // Arrange
@@ -51,6 +68,41 @@ public class NotificationControllerTest { // Renamed class
         verify(notificationService).sendNotificationEvent(any(EventRequest.class));
     }
 
+    @Test
+    void triggerNotificationEvent_futureSendAt_shouldScheduleAndReturnAccepted() throws Exception {
+        // Arrange
+        Instant sendAt = Instant.parse("2099-01-01T09:00:00Z");
+        EventRequest scheduledRequest = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>(), sendAt, null);
+        UUID scheduledId = UUID.randomUUID();
+        when(notificationScheduler.schedule(any(EventRequest.class), eq(sendAt), eq("default"))).thenReturn(scheduledId);
+
+        // Act
+        ResultActions result = mockMvc.perform(post("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(scheduledRequest)));
+
+        // Assert
+        result.andExpect(status().isAccepted())
+              .andExpect(content().string("Notification Scheduled: " + scheduledId));
+        verify(notificationService, never()).sendNotificationEvent(any(EventRequest.class));
+    }
+
+    @Test
+    void triggerNotificationEvent_negativeDelay_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        EventRequest invalidRequest = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>(), null, -5L);
+
+        // Act
+        ResultActions result = mockMvc.perform(post("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(invalidRequest)));
+
+        // Assert
+        result.andExpect(status().isBadRequest())
+              .andExpect(jsonPath("$.message").value("Delay must not be negative"));
+        verify(notificationScheduler, never()).schedule(any(), any(), any());
+    }
+
     @Test
     void triggerNotificationEvent_missingEventName_shouldReturnBadRequest() throws Exception {
         // Arrange
@@ -118,4 +170,65 @@ public class NotificationControllerTest { // Renamed class
               .andExpect(jsonPath("$.message").value("Email is required")); // Or "Email is required, Email should be valid" if both are triggered
         verify(notificationService, never()).sendNotificationEvent(any(EventRequest.class));
     }
+
+    @Test
+    void triggerNotificationEvent_gzipBody_isInflated() throws Exception {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>(Map.of("orderId", "o-1")));
+
+        mockMvc.perform(post("/api/v1/notify/trigger")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(objectMapper.writeValueAsBytes(request))))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Notification Triggered"));
+
+        verify(notificationService).sendNotificationEvent(argThat(sent -> "o-1".equals(sent.getPayload().get("orderId"))));
+    }
+
+    @Test
+    void triggerNotificationEvent_smileBody_isRead() throws Exception {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>(Map.of("orderId", "o-1")));
+
+        mockMvc.perform(post("/api/v1/notify/trigger")
+                        .contentType("application/x-jackson-smile")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(new ObjectMapper(new SmileFactory()).writeValueAsBytes(request))))
+                .andExpect(status().isOk());
+
+        verify(notificationService).sendNotificationEvent(argThat(sent -> "sub-123".equals(sent.getSubscriberId())
+                && "o-1".equals(sent.getPayload().get("orderId"))));
+    }
+
+    @Test
+    void triggerNotificationEvent_unsupportedContentEncoding_shouldReturnUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/notify/trigger")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(new byte[] {1, 2, 3}))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        verify(notificationService, never()).sendNotificationEvent(any(EventRequest.class));
+    }
+
+    @Test
+    void triggerNotificationEvent_truncatedGzipBody_shouldReturnBadRequest() throws Exception {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>());
+        byte[] body = gzip(objectMapper.writeValueAsBytes(request));
+
+        mockMvc.perform(post("/api/v1/notify/trigger")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(Arrays.copyOf(body, body.length / 2)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+        verify(notificationService, never()).sendNotificationEvent(any(EventRequest.class));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
 }
@@ -0,0 +1,215 @@
+package com.example.notificationconfig.controller;
+
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
+import com.example.notificationconfig.dto.TriggerOutcome;
+import com.example.notificationconfig.exception.TenantQuotaExceededException;
+import com.example.notificationconfig.scheduler.NotificationScheduler;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveNotificationController.class)
+class ReactiveNotificationControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    @MockBean
+    private NotificationScheduler notificationScheduler;
+
+    @Test
+    void triggerNotificationEvent_validRequest_sendsAsynchronouslyForHeaderTenant() {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>());
+        AtomicReference<String> tenant = new AtomicReference<>();
+        when(notificationService.sendNotificationEventAsync(any(EventRequest.class))).thenAnswer(invocation -> {
+            tenant.set(TenantContext.current());
+            return CompletableFuture.completedFuture(triggered("tx-1"));
+        });
+
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .header(TenantContext.HEADER, "payments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Notification Triggered");
+
+        assertEquals("payments", tenant.get());
+        verify(notificationService, never()).sendNotificationEvent(any());
+    }
+
+    @Test
+    void triggerNotificationEvent_missingEventName_shouldReturnBadRequest() {
+        EventRequest request = new EventRequest(null, "sub-123", "test@example.com", null, new HashMap<>());
+
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.message").isEqualTo("Event name is required");
+        verify(notificationService, never()).sendNotificationEventAsync(any());
+    }
+
+    @Test
+    void triggerNotificationEvent_tenantOverQuota_shouldReturnTooManyRequests() {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>());
+        when(notificationService.sendNotificationEventAsync(any(EventRequest.class)))
+                .thenThrow(new TenantQuotaExceededException("default", "Tenant 'default' exceeded its dispatch rate."));
+
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(429);
+    }
+
+    @Test
+    void triggerNotificationEvents_stream_reportsOneOutcomePerEventInOrder() throws Exception {
+        EventRequest first = new EventRequest("test-event", "sub-1", "one@example.com", null, new HashMap<>());
+        EventRequest invalid = new EventRequest("test-event", "sub-2", "not-an-email", null, new HashMap<>());
+        EventRequest throttled = new EventRequest("test-event", "sub-3", "three@example.com", null, new HashMap<>());
+        when(notificationService.sendNotificationEventAsync(argThat(request -> request != null && "sub-1".equals(request.getSubscriberId()))))
+                // Completes after the later events, which must not reorder the response.
+                .thenReturn(CompletableFuture.supplyAsync(() -> triggered("tx-1"), CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS)));
+        when(notificationService.sendNotificationEventAsync(argThat(request -> request != null && "sub-3".equals(request.getSubscriberId()))))
+                .thenReturn(CompletableFuture.failedFuture(new TenantQuotaExceededException("default", "over quota")));
+        String body = objectMapper.writeValueAsString(first) + "\n"
+                + objectMapper.writeValueAsString(invalid) + "\n"
+                + objectMapper.writeValueAsString(throttled) + "\n";
+
+        List<TriggerOutcome> outcomes = webTestClient.mutate().responseTimeout(Duration.ofSeconds(5)).build()
+                .post().uri("/api/v1/notify/trigger/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TriggerOutcome.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(3, outcomes.size());
+        assertEquals(new TriggerOutcome(0, TriggerOutcome.Status.TRIGGERED, "tx-1", null), outcomes.get(0));
+        assertEquals(TriggerOutcome.Status.INVALID, outcomes.get(1).status());
+        assertEquals("Email should be valid", outcomes.get(1).error());
+        assertEquals(TriggerOutcome.Status.THROTTLED, outcomes.get(2).status());
+    }
+
+    @Test
+    void triggerNotificationEvent_smileGzipBody_isInflatedAndRead() throws Exception {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>());
+        when(notificationService.sendNotificationEventAsync(any(EventRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(triggered("tx-1")));
+
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .contentType(MediaType.parseMediaType("application/x-jackson-smile"))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .bodyValue(gzip(new ObjectMapper(new SmileFactory()).writeValueAsBytes(request)))
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(notificationService).sendNotificationEventAsync(argThat(sent -> "sub-123".equals(sent.getSubscriberId())));
+    }
+
+    @Test
+    void triggerNotificationEvents_gzipStream_isInflatedAsItArrives() throws Exception {
+        when(notificationService.sendNotificationEventAsync(any(EventRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(triggered("tx-1")));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            body.append(objectMapper.writeValueAsString(new EventRequest("test-event", "sub-" + i, "user" + i + "@example.com", null, new HashMap<>()))).append('\n');
+        }
+
+        List<TriggerOutcome> outcomes = webTestClient.mutate().responseTimeout(Duration.ofSeconds(5)).build()
+                .post().uri("/api/v1/notify/trigger/stream")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(gzip(body.toString().getBytes(StandardCharsets.UTF_8)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TriggerOutcome.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals(50, outcomes.size());
+        assertEquals(TriggerOutcome.Status.TRIGGERED, outcomes.get(49).status());
+    }
+
+    @Test
+    void triggerNotificationEvent_unsupportedContentEncoding_shouldReturnUnsupportedMediaType() {
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "br")
+                .bodyValue(new byte[] {1, 2, 3})
+                .exchange()
+                .expectStatus().isEqualTo(415)
+                .expectHeader().valueEquals(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        verify(notificationService, never()).sendNotificationEventAsync(any());
+    }
+
+    @Test
+    void triggerNotificationEvent_truncatedGzipBody_shouldReturnBadRequest() throws Exception {
+        EventRequest request = new EventRequest("test-event", "sub-123", "test@example.com", null, new HashMap<>());
+        byte[] body = gzip(objectMapper.writeValueAsBytes(request));
+
+        webTestClient.post().uri("/api/v1/notify/trigger")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .bodyValue(Arrays.copyOf(body, body.length / 2))
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(notificationService, never()).sendNotificationEventAsync(any());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static NotificationResult triggered(String transactionId) {
+        return new NotificationResult(transactionId,
+                List.of(new NotificationResult.RecipientStatus("sub-1", "one@example.com", NotificationResult.Status.TRIGGERED)),
+                Duration.ZERO);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.notificationconfig.digest;
+
+import com.example.notificationconfig.config.DigestProperties;
+import com.example.notificationconfig.config.TenantDispatchProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.FairTenantDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DigestAggregatorTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private FairTenantDispatcher dispatcher;
+    private DigestProperties properties;
+    private DigestAggregator digestAggregator;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new FairTenantDispatcher(new TenantDispatchProperties(), new SimpleMeterRegistry());
+        dispatcher.start();
+        properties = new DigestProperties();
+        properties.setEnabled(true);
+        properties.setMaxEvents(3);
+        properties.setWindow(Duration.ofMinutes(1));
+        digestAggregator = new DigestAggregator(notificationService, dispatcher, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        digestAggregator.flush();
+        dispatcher.stop();
+    }
+
+    @Test
+    void offer_maxEventsReached_emitsOneMergedTrigger() {
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(digestAggregator.offer("tenant-a", event("alert", i)));
+        }
+
+        ArgumentCaptor<EventRequest> captor = ArgumentCaptor.forClass(EventRequest.class);
+        verify(notificationService, timeout(1000)).sendNotificationEvent(captor.capture());
+        Map<String, Object> payload = captor.getValue().getPayload();
+        assertEquals(3, payload.get(DigestAggregator.COUNT_KEY));
+        assertEquals(3, payload.get("seq"));
+        assertEquals(3, ((List<?>) payload.get(DigestAggregator.EVENTS_KEY)).size());
+    }
+
+    @Test
+    void offer_windowCloses_emitsBufferedEvents() {
+        properties.setWindow(Duration.ofMillis(50));
+
+        digestAggregator.offer("tenant-a", event("alert", 1));
+        digestAggregator.offer("tenant-a", event("alert", 2));
+
+        ArgumentCaptor<EventRequest> captor = ArgumentCaptor.forClass(EventRequest.class);
+        verify(notificationService, timeout(1000)).sendNotificationEvent(captor.capture());
+        assertEquals(2, captor.getValue().getPayload().get(DigestAggregator.COUNT_KEY));
+    }
+
+    @Test
+    void offer_eventNotConfiguredForDigest_isLeftToCaller() {
+        properties.getEvents().add("alert");
+
+        assertFalse(digestAggregator.offer("tenant-a", event("password-reset", 1)));
+        verify(notificationService, never()).sendNotificationEvent(any());
+    }
+
+    @Test
+    void offer_afterFlush_isLeftToCaller() {
+        digestAggregator.offer("tenant-a", event("alert", 1));
+        digestAggregator.flush();
+        verify(notificationService, timeout(1000)).sendNotificationEvent(any());
+
+        assertFalse(digestAggregator.offer("tenant-a", event("alert", 2)));
+        assertFalse(digestAggregator.offer("tenant-b", event("alert", 3)));
+    }
+
+    @Test
+    void closingTheContext_sendsOpenDigestsBeforeTheDispatcherStops() {
+        NotificationService novu = mock(NotificationService.class);
+        AtomicBoolean sent = new AtomicBoolean();
+        doAnswer(invocation -> {
+            // Slow enough that a dispatcher stopping right after the flush would interrupt it.
+            Thread.sleep(200);
+            sent.set(true);
+            return null;
+        }).when(novu).sendNotificationEvent(any(EventRequest.class));
+
+        new ApplicationContextRunner()
+                .withBean("novuNotificationService", NotificationService.class, () -> novu)
+                .withBean(SimpleMeterRegistry.class)
+                .withBean(TenantDispatchProperties.class)
+                .withBean(DigestProperties.class, () -> properties)
+                .withBean(FairTenantDispatcher.class)
+                .withBean(DigestAggregator.class)
+                .run(context -> {
+                    assertTrue(context.getBean(DigestAggregator.class).offer("tenant-a", event("alert", 1)));
+                    assertTrue(context.getBean(DigestAggregator.class).offer("tenant-a", event("alert", 2)));
+                    verify(novu, never()).sendNotificationEvent(any());
+                });
+
+        assertTrue(sent.get());
+        ArgumentCaptor<EventRequest> captor = ArgumentCaptor.forClass(EventRequest.class);
+        verify(novu).sendNotificationEvent(captor.capture());
+        assertEquals(2, captor.getValue().getPayload().get(DigestAggregator.COUNT_KEY));
+    }
+
+    @Test
+    void merge_singleEvent_isSentUnchanged() {
+        EventRequest only = event("alert", 1);
+
+        assertEquals(only, DigestAggregator.merge(List.of(only)));
+    }
+
+    private static EventRequest event(String name, int seq) {
+        HashMap<String, Object> payload = new HashMap<>();
+        payload.put("seq", seq);
+        return new EventRequest(name, "sub-123", "test@example.com", null, payload);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.notificationconfig.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TriggerEventRequestTest {
+
+    private static final TriggerEventRequest.To TO = new TriggerEventRequest.To("sub-1", "a@example.com", "+15550100");
+
+    @Test
+    void serializer_writesWhatTheBeanSerializerWrites() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("order", Map.of("id", "o-1", "items", List.of(Map.of("sku", "A", "qty", 2))));
+        payload.put("note", "café \"fragile\"\n");
+        payload.put("coupon", null);
+        TriggerEventRequest request = new TriggerEventRequest("order-shipped", TO, payload);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(beanMapper(objectMapper).writeValueAsString(request), objectMapper.writeValueAsString(request));
+        assertArrayEquals(beanMapper(objectMapper).writeValueAsBytes(request), objectMapper.writeValueAsBytes(request));
+    }
+
+    @Test
+    void serializer_writesNullsUnlessTheMapperLeavesThemOut() throws Exception {
+        List<TriggerEventRequest> requests = List.of(
+                new TriggerEventRequest(null, null, null),
+                new TriggerEventRequest("order-shipped", new TriggerEventRequest.To("sub-1", null, null), null));
+
+        ObjectMapper always = new ObjectMapper();
+        ObjectMapper nonNull = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        for (TriggerEventRequest request : requests) {
+            assertEquals(beanMapper(always).writeValueAsString(request), always.writeValueAsString(request));
+            assertEquals(beanMapper(nonNull).writeValueAsString(request), nonNull.writeValueAsString(request));
+        }
+        assertEquals("{\"name\":\"order-shipped\",\"to\":{\"subscriberId\":\"sub-1\"}}", nonNull.writeValueAsString(requests.get(1)));
+    }
+
+    @Test
+    void serializer_copiesARawPayloadOut() throws Exception {
+        String payload = "{\"b\":1,\"a\":[true,null]}";
+
+        String body = new ObjectMapper().writeValueAsString(new TriggerEventRequest("order-shipped", TO, RawJsonPayload.of(payload)));
+
+        assertEquals("{\"name\":\"order-shipped\",\"to\":{\"subscriberId\":\"sub-1\",\"email\":\"a@example.com\","
+                + "\"phone\":\"+15550100\"},\"payload\":" + payload + "}", body);
+    }
+
+    /**
+     * The same mapper, with the generic bean serializer for triggers.
+     */
+    static ObjectMapper beanMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy().addMixIn(TriggerEventRequest.class, BeanSerialized.class);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    abstract static class BeanSerialized {
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.notificationconfig.ingest;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipInflaterTest {
+
+    private static final byte[] DATA = ndjson();
+
+    @Test
+    void inflate_anyChunking_yieldsTheOriginalBody() throws Exception {
+        byte[] compressed = gzip(DATA);
+
+        for (int chunk : new int[] {1, 2, 3, 7, 100, 4096, compressed.length}) {
+            assertArrayEquals(DATA, inflate(compressed, chunk, Long.MAX_VALUE), "chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void inflate_optionalHeaderFieldsSplitAcrossChunks_areSkipped() throws Exception {
+        byte[] compressed = withOptionalHeaderFields(gzip(DATA));
+
+        for (int chunk : new int[] {1, 5, 11, 13}) {
+            assertArrayEquals(DATA, inflate(compressed, chunk, Long.MAX_VALUE), "chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void inflate_concatenatedMembers_areInflatedInTurn() throws Exception {
+        byte[] first = gzip("abc".getBytes(StandardCharsets.UTF_8));
+        byte[] second = withOptionalHeaderFields(gzip("def".getBytes(StandardCharsets.UTF_8)));
+        byte[] both = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, both, first.length, second.length);
+
+        for (int chunk = 1; chunk <= both.length; chunk++) {
+            assertEquals("abcdef", new String(inflate(both, chunk, Long.MAX_VALUE), StandardCharsets.UTF_8), "chunks of " + chunk);
+        }
+    }
+
+    @Test
+    void finish_truncatedOrEmptyInput_throws() throws Exception {
+        byte[] compressed = gzip(DATA);
+
+        assertMessage("Truncated", assertThrows(ZipException.class, () -> inflate(Arrays.copyOf(compressed, compressed.length - 1), 100, Long.MAX_VALUE)));
+        assertMessage("Truncated", assertThrows(ZipException.class, () -> inflate(new byte[0], 100, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void inflate_invalidInput_throws() throws Exception {
+        byte[] compressed = gzip(DATA);
+        byte[] badTrailer = compressed.clone();
+        badTrailer[badTrailer.length - 6] ^= 1;
+        byte[] corrupt = compressed.clone();
+        Arrays.fill(corrupt, 20, 60, (byte) 0xff);
+
+        assertMessage("Not in gzip format", assertThrows(ZipException.class, () -> inflate(DATA, 3, Long.MAX_VALUE)));
+        assertMessage("trailer", assertThrows(ZipException.class, () -> inflate(badTrailer, 100, Long.MAX_VALUE)));
+        assertMessage("Corrupt", assertThrows(ZipException.class, () -> inflate(corrupt, 50, Long.MAX_VALUE)));
+    }
+
+    @Test
+    void inflate_beyondTheLimit_throws() throws Exception {
+        byte[] compressed = gzip(DATA);
+
+        assertMessage("exceeds 1000 bytes", assertThrows(ZipException.class, () -> inflate(compressed, 4096, 1000)));
+        assertArrayEquals(DATA, inflate(compressed, 4096, DATA.length));
+    }
+
+    private static byte[] inflate(byte[] compressed, int chunk, long maxInflatedBytes) throws ZipException {
+        GzipInflater inflater = new GzipInflater(maxInflatedBytes);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (int i = 0; i < compressed.length; i += chunk) {
+                out.writeBytes(inflater.inflate(Arrays.copyOfRange(compressed, i, Math.min(compressed.length, i + chunk))));
+            }
+            inflater.finish();
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void assertMessage(String expected, ZipException e) {
+        assertTrue(e.getMessage().contains(expected), e.getMessage());
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * The same member with an extra field, a file name, a comment and a header CRC, none of which GZIPOutputStream writes.
+     */
+    private static byte[] withOptionalHeaderFields(byte[] member) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(member, 0, 3);
+        out.write(2 | 4 | 8 | 16);
+        out.write(member, 4, 6);
+        out.writeBytes(new byte[] {3, 0, 1, 2, 3});
+        out.writeBytes("events.ndjson\0".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes("nightly export\0".getBytes(StandardCharsets.US_ASCII));
+        out.writeBytes(new byte[] {0, 0});
+        out.write(member, 10, member.length - 10);
+        return out.toByteArray();
+    }
+
+    private static byte[] ndjson() {
+        Random random = new Random(1);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            body.append("{\"name\":\"order-shipped\",\"subscriberId\":\"sub-").append(random.nextInt(1_000))
+                    .append("\",\"payload\":{\"orderId\":").append(random.nextInt()).append("}}\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
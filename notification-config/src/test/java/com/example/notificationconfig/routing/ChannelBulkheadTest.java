@@ -0,0 +1,66 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.exception.ChannelSaturatedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelBulkheadTest {
+
+    @Test
+    void submit_queuesBeyondMaxInFlight_andStartsQueuedCallsAsSlotsFree() throws Exception {
+        ChannelBulkhead bulkhead = new ChannelBulkhead(Channel.SMS, 1, 1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+
+        CompletableFuture<String> firstResult = bulkhead.submit(() -> {
+            started.incrementAndGet();
+            return first;
+        });
+        CompletableFuture<String> secondResult = bulkhead.submit(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("second");
+        });
+
+        assertEquals(1, started.get());
+        assertEquals(1, bulkhead.queued());
+        first.complete("first");
+        assertEquals("first", firstResult.get());
+        assertEquals("second", secondResult.get());
+        assertEquals(2, started.get());
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    @Test
+    void submit_rejectsBeyondTheQueue() {
+        ChannelBulkhead bulkhead = new ChannelBulkhead(Channel.SMS, 1, 0);
+        CompletableFuture<String> blocked = bulkhead.submit(CompletableFuture::new);
+
+        CompletableFuture<String> rejected = bulkhead.submit(() -> CompletableFuture.completedFuture("never"));
+
+        assertFalse(blocked.isDone());
+        ExecutionException thrown = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(ChannelSaturatedException.class, thrown.getCause());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void submit_callThatThrows_releasesItsSlot() {
+        ChannelBulkhead bulkhead = new ChannelBulkhead(Channel.EMAIL, 1, 0);
+
+        CompletableFuture<String> failed = bulkhead.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, bulkhead.inFlight());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.notificationconfig.routing;
+
+import com.example.notificationconfig.config.RoutingProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.entity.ChannelRule;
+import com.example.notificationconfig.entity.SubscriberChannelPreference;
+import com.example.notificationconfig.mapper.EventRequestMapper;
+import com.example.notificationconfig.preference.SubscriberPreferenceCache;
+import com.example.notificationconfig.preference.SubscriberPreferences;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChannelRouterTest {
+
+    @Mock
+    private ChannelRuleCache ruleCache;
+
+    @Mock
+    private SubscriberPreferenceCache preferenceCache;
+
+    private ChannelRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new ChannelRouter(ruleCache, preferenceCache, new EventRequestMapper(), new RoutingProperties());
+    }
+
+    @Test
+    void route_eventWithoutRules_isNotRouted() {
+        when(ruleCache.rulesFor("welcome")).thenReturn(List.of());
+
+        assertTrue(router.route(event(null)).isEmpty());
+        verifyNoInteractions(preferenceCache);
+    }
+
+    @Test
+    void route_skipsOptedOutAndUnreachableChannels() {
+        when(ruleCache.rulesFor("welcome")).thenReturn(List.of(
+                rule(Channel.EMAIL, "welcome-email"), rule(Channel.SMS, "welcome-sms"), rule(Channel.PUSH, "welcome-push")));
+        when(preferenceCache.get("sub-1")).thenReturn(SubscriberPreferences.of(List.of(optOut(SubscriberChannelPreference.ANY_WORKFLOW, Channel.PUSH))));
+
+        ChannelPlan plan = router.route(event(null)).orElseThrow();
+
+        assertEquals(1, plan.legs().size());
+        ChannelPlan.Leg email = plan.legs().get(0);
+        assertEquals(Channel.EMAIL, email.channel());
+        assertEquals("welcome-email", email.request().name());
+        assertEquals("one@example.com", email.request().to().email());
+        assertEquals(List.of(Channel.SMS, Channel.PUSH), plan.skipped());
+    }
+
+    @Test
+    void route_smsLeg_carriesOnlyThePhoneNumber() {
+        when(ruleCache.rulesFor("welcome")).thenReturn(List.of(rule(Channel.SMS, "welcome-sms")));
+        when(preferenceCache.get("sub-1")).thenReturn(SubscriberPreferences.NONE);
+
+        ChannelPlan.Leg sms = router.route(event("+15550100")).orElseThrow().legs().get(0);
+
+        assertEquals("+15550100", sms.request().to().phone());
+        assertNull(sms.request().to().email());
+        assertEquals("sub-1", sms.request().to().subscriberId());
+    }
+
+    @Test
+    void route_skipsChannelsOptedOutForTheWorkflowOnly() {
+        when(ruleCache.rulesFor("welcome")).thenReturn(List.of(rule(Channel.EMAIL, "welcome-email"), rule(Channel.SMS, "welcome-sms")));
+        when(preferenceCache.get("sub-1")).thenReturn(SubscriberPreferences.of(List.of(optOut("welcome-email", Channel.EMAIL))));
+
+        ChannelPlan plan = router.route(event("+15550100")).orElseThrow();
+
+        assertEquals(Channel.SMS, plan.legs().get(0).channel());
+        assertEquals(List.of(Channel.EMAIL), plan.skipped());
+    }
+
+    @Test
+    void isOptedOut_unroutedEvent_honoursWorkflowWideOptOut() {
+        when(preferenceCache.get("sub-1")).thenReturn(
+                SubscriberPreferences.of(List.of(optOut("welcome", null))),
+                SubscriberPreferences.of(List.of(optOut("welcome", Channel.EMAIL))));
+
+        assertTrue(router.isOptedOut(event(null)));
+        // Without rules the channels Novu will use are not known here, so a single-channel opt-out does not apply.
+        assertFalse(router.isOptedOut(event(null)));
+    }
+
+    private static SubscriberChannelPreference optOut(String workflowId, Channel channel) {
+        return SubscriberChannelPreference.builder().subscriberId("sub-1").workflowId(workflowId).channel(channel).enabled(false).build();
+    }
+
+    private static EventRequest event(String phone) {
+        return new EventRequest("welcome", "sub-1", "one@example.com", phone, new HashMap<>());
+    }
+
+    private static ChannelRule rule(Channel channel, String workflowId) {
+        return ChannelRule.builder().eventName("welcome").channel(channel).workflowId(workflowId).enabled(true).build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.notificationconfig.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+    @Test
+    void advance_returnsItemsOnlyOnceTheyAreDue() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 3, 0);
+        wheel.schedule("b", 50);
+        wheel.schedule("a", 20);
+
+        assertTrue(wheel.advance(10).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(20));
+        assertEquals(List.of("b"), wheel.advance(100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_cascadesItemsFromHigherLevels() {
+        // 8 slots x 3 levels of 10 ms ticks covers 5.12 s; 3 s lands on level 2.
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 3, 0);
+        wheel.schedule("later", 3_000);
+        wheel.schedule("soon", 700);
+
+        assertEquals(List.of("soon"), wheel.advance(2_990));
+        assertEquals(List.of("later"), wheel.advance(3_000));
+    }
+
+    @Test
+    void advance_releasesOverflowItemsBeyondTheWheelRange() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 4, 2, 0);
+        wheel.schedule("far", 1_000);
+
+        assertTrue(wheel.advance(990).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(1_000));
+    }
+
+    @Test
+    void schedule_pastDeadline_isDueOnNextAdvance() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 8, 2, 1_000);
+        wheel.schedule("overdue", 500);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("overdue"), wheel.advance(1_000));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.notificationconfig.scheduler;
+
+import com.example.notificationconfig.config.SchedulerProperties;
+import com.example.notificationconfig.config.TenantDispatchProperties;
+import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.entity.ScheduledNotification;
+import com.example.notificationconfig.exception.TenantQuotaExceededException;
+import com.example.notificationconfig.repository.ScheduledNotificationRepository;
+import com.example.notificationconfig.service.NotificationService;
+import com.example.notificationconfig.tenant.FairTenantDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationSchedulerTest {
+
+    @Mock
+    private ScheduledNotificationRepository repository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    private FairTenantDispatcher dispatcher;
+    private SchedulerProperties properties;
+    private NotificationScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new FairTenantDispatcher(new TenantDispatchProperties(), new SimpleMeterRegistry());
+        dispatcher.start();
+        properties = new SchedulerProperties();
+        properties.setTickMillis(10);
+        scheduler = new NotificationScheduler(repository, notificationService, dispatcher, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+        dispatcher.stop();
+    }
+
+    @Test
+    void tick_slowSend_returnsWithoutWaitingAndRecordsTheOutcomeOnceSent() throws Exception {
+        UUID id = UUID.randomUUID();
+        EventRequest event = new EventRequest("reminder", "sub-1", "one@example.com", null, new HashMap<>());
+        when(repository.save(any(ScheduledNotification.class))).thenAnswer(invocation -> {
+            ScheduledNotification row = invocation.getArgument(0);
+            row.setId(id);
+            return row;
+        });
+        scheduler.schedule(event, Instant.now(), "tenant-a");
+        ScheduledNotification claimed = ScheduledNotification.builder()
+                .id(id).tenantId("tenant-a").eventName("reminder").subscriberId("sub-1").email("one@example.com")
+                .status(ScheduledNotification.Status.CLAIMED).build();
+        when(repository.claim(anyCollection(), anyString(), any(Instant.class))).thenReturn(1);
+        when(repository.findByIdInAndClaimedByAndStatus(anyCollection(), anyString(), eq(ScheduledNotification.Status.CLAIMED)))
+                .thenReturn(List.of(claimed));
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch providerAnswers = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sendStarted.countDown();
+            providerAnswers.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(notificationService).sendNotificationEvent(any(EventRequest.class));
+        Thread.sleep(50);
+
+        CompletableFuture.runAsync(scheduler::tick).get(1, TimeUnit.SECONDS);
+
+        assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+        verify(repository, never()).markDispatched(anyCollection(), any(Instant.class));
+        providerAnswers.countDown();
+        verify(repository, timeout(5000)).markDispatched(eq(List.of(id)), any(Instant.class));
+    }
+
+    @Test
+    void preload_whileABatchIsStillSending_renewsItsClaimsBeforeReleasingStaleOnes() throws Exception {
+        UUID id = claimDueRow(ScheduledNotification.builder());
+        CountDownLatch sendStarted = new CountDownLatch(1);
+        CountDownLatch providerAnswers = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sendStarted.countDown();
+            providerAnswers.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(notificationService).sendNotificationEvent(any(EventRequest.class));
+        when(repository.findByStatusAndDueAtGreaterThanEqualAndDueAtLessThan(any(), any(), any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        when(repository.findByStatusAndDueAtLessThan(any(), any(), any())).thenReturn(new SliceImpl<>(List.of()));
+        scheduler.tick();
+        assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+
+        scheduler.preload();
+
+        verify(repository).renewClaims(eq(List.of(id)), anyString(), any(Instant.class));
+        providerAnswers.countDown();
+        verify(repository, timeout(5000)).markDispatched(eq(List.of(id)), any(Instant.class));
+    }
+
+    @Test
+    void tick_throttledPastTheLimit_failsTheRow() throws Exception {
+        properties.setMaxThrottledRetries(2);
+        claimDueRow(ScheduledNotification.builder().throttledRetries(2));
+        doThrow(new TenantQuotaExceededException("tenant-a", "over quota"))
+                .when(notificationService).sendNotificationEvent(any(EventRequest.class));
+
+        scheduler.tick();
+
+        verify(repository, timeout(5000)).saveAll(argThat((List<ScheduledNotification> rows) -> rows.size() == 1
+                && rows.get(0).getStatus() == ScheduledNotification.Status.FAILED
+                && rows.get(0).getThrottledRetries() == 3));
+    }
+
+    private UUID claimDueRow(ScheduledNotification.ScheduledNotificationBuilder claimed) throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        EventRequest event = new EventRequest("reminder", "sub-1", "one@example.com", null, new HashMap<>());
+        when(repository.save(any(ScheduledNotification.class))).thenAnswer(invocation -> {
+            ScheduledNotification row = invocation.getArgument(0);
+            row.setId(id);
+            return row;
+        });
+        scheduler.schedule(event, Instant.now(), "tenant-a");
+        when(repository.claim(anyCollection(), anyString(), any(Instant.class))).thenReturn(1);
+        when(repository.findByIdInAndClaimedByAndStatus(anyCollection(), anyString(), eq(ScheduledNotification.Status.CLAIMED)))
+                .thenReturn(List.of(claimed.id(id).tenantId("tenant-a").eventName("reminder").subscriberId("sub-1")
+                        .email("one@example.com").status(ScheduledNotification.Status.CLAIMED).build()));
+        Thread.sleep(50);
+        return id;
+    }
+}
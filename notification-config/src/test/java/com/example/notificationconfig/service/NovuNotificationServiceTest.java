@@ -1,20 +1,42 @@
 package com.example.notificationconfig.service;
 
+import com.example.notificationconfig.audit.AuditWriter;
+import com.example.notificationconfig.client.NovuAsyncClient;
 import com.example.notificationconfig.client.NovuClient;
+import com.example.notificationconfig.coalescing.TriggerCoalescer;
+import com.example.notificationconfig.config.CoalescingProperties;
 import com.example.notificationconfig.dto.EventRequest;
+import com.example.notificationconfig.dto.NotificationResult;
 import com.example.notificationconfig.dto.TriggerEventRequest;
+import com.example.notificationconfig.dto.TriggerEventResponse;
+import com.example.notificationconfig.exception.NovuTriggerException;
 import com.example.notificationconfig.mapper.EventRequestMapper;
+import com.example.notificationconfig.routing.Channel;
+import com.example.notificationconfig.routing.ChannelDispatcher;
+import com.example.notificationconfig.routing.ChannelPlan;
+import com.example.notificationconfig.routing.ChannelRouter;
 import com.example.notificationconfig.serviceImpl.NovuNotificationService;
+import com.example.notificationconfig.tracking.DeliveryTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.*;
@@ -25,9 +47,27 @@ public class NovuNotificationServiceTest {
     @Mock
     private NovuClient novuClient;
 
+    @Mock
+    private NovuAsyncClient novuAsyncClient;
+
     @Mock
     private EventRequestMapper eventRequestMapper;
 
+    @Mock
+    private DeliveryTracker deliveryTracker;
+
+    @Mock
+    private AuditWriter auditWriter;
+
+    @Mock
+    private ChannelRouter channelRouter;
+
+    @Mock
+    private ChannelDispatcher channelDispatcher;
+
+    @Spy
+    private TriggerCoalescer triggerCoalescer = new TriggerCoalescer(new CoalescingProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+
     @InjectMocks
     private NovuNotificationService novuNotificationService;
 
@@ -48,7 +88,7 @@ public class NovuNotificationServiceTest {
     void sendNotificationEvent_success() {
         // Arrange
         when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
-        doNothing().when(novuClient).triggerEvent(triggerEventRequest);
+        when(novuClient.triggerEvent(triggerEventRequest)).thenReturn(new TriggerEventResponse(new TriggerEventResponse.Data(true, "processed", "tx-123")));
 
         // Act
         novuNotificationService.sendNotificationEvent(eventRequest);
@@ -56,6 +96,8 @@ public class NovuNotificationServiceTest {
         // Assert
         verify(eventRequestMapper, times(1)).toTriggerEventRequest(eventRequest);
         verify(novuClient, times(1)).triggerEvent(triggerEventRequest);
+        verify(deliveryTracker).recordTriggered("default", "sub-123", "test-event", "tx-123");
+        verify(auditWriter).record(argThat(record -> record.success() && "tx-123".equals(record.transactionId())));
     }
 
     @Test
@@ -73,6 +115,8 @@ public class NovuNotificationServiceTest {
 
         verify(eventRequestMapper, times(1)).toTriggerEventRequest(eventRequest);
         verify(novuClient, times(1)).triggerEvent(triggerEventRequest);
+        verify(deliveryTracker, never()).recordTriggered(any(), any(), any(), any());
+        verify(auditWriter).record(argThat(record -> !record.success()));
     }
 
     @Test
@@ -112,4 +156,154 @@ public class NovuNotificationServiceTest {
 
         verify(novuClient, never()).triggerEvent(any());
     }
+
+    @Test
+    void sendNotificationEvent_hedging_sendsThroughTheNonBlockingClient() {
+        when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
+        when(novuAsyncClient.isHedging()).thenReturn(true);
+        when(novuAsyncClient.triggerEvent(triggerEventRequest))
+                .thenReturn(CompletableFuture.failedFuture(new NovuTriggerException(502, "Bad gateway", null)));
+
+        assertThrows(NovuTriggerException.class, () -> novuNotificationService.sendNotificationEvent(eventRequest));
+
+        verify(novuClient, never()).triggerEvent(any());
+        verify(auditWriter).record(argThat(record -> !record.success() && "Bad gateway".equals(record.error())));
+    }
+
+    @Test
+    void sendNotificationEventAsync_success_completesWithTransactionId() throws Exception {
+        when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
+        when(novuAsyncClient.triggerEvent(triggerEventRequest)).thenReturn(CompletableFuture.completedFuture(
+                new TriggerEventResponse(new TriggerEventResponse.Data(true, "processed", "tx-123"))));
+
+        NotificationResult result = novuNotificationService.sendNotificationEventAsync(eventRequest).get();
+
+        assertEquals("tx-123", result.transactionId());
+        assertEquals(NotificationResult.Status.TRIGGERED, result.recipients().get(0).status());
+        assertEquals("sub-123", result.recipients().get(0).subscriberId());
+        verify(novuClient, never()).triggerEvent(any());
+        verify(deliveryTracker).recordTriggered("default", "sub-123", "test-event", "tx-123");
+        verify(auditWriter).record(argThat(record -> record.success() && "tx-123".equals(record.transactionId())));
+    }
+
+    @Test
+    void sendNotificationEventAsync_novuRejects_completesExceptionally() {
+        when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
+        when(novuAsyncClient.triggerEvent(triggerEventRequest))
+                .thenReturn(CompletableFuture.failedFuture(new NovuTriggerException(401, "Unauthorized", null)));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> novuNotificationService.sendNotificationEventAsync(eventRequest).get());
+
+        assertInstanceOf(NovuTriggerException.class, thrown.getCause());
+        verify(deliveryTracker, never()).recordTriggered(any(), any(), any(), any());
+        verify(auditWriter).record(argThat(record -> !record.success()));
+    }
+
+    @Test
+    void sendNotificationEventAsync_identicalTriggersInFlight_shareOneCall() throws Exception {
+        when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
+        CompletableFuture<TriggerEventResponse> response = new CompletableFuture<>();
+        when(novuAsyncClient.triggerEvent(triggerEventRequest)).thenReturn(response);
+        EventRequest duplicate = new EventRequest("test-event", "sub-123", "test@example.com", "1234567890", new HashMap<>());
+
+        CompletableFuture<NotificationResult> first = novuNotificationService.sendNotificationEventAsync(eventRequest);
+        CompletableFuture<NotificationResult> second = novuNotificationService.sendNotificationEventAsync(duplicate);
+        response.complete(new TriggerEventResponse(new TriggerEventResponse.Data(true, "processed", "tx-123")));
+        NotificationResult repeated = novuNotificationService.sendNotificationEventAsync(duplicate).get();
+
+        assertEquals("tx-123", first.get().transactionId());
+        assertEquals("tx-123", second.get().transactionId());
+        assertEquals("tx-123", repeated.transactionId());
+        verify(novuAsyncClient, times(1)).triggerEvent(any());
+        verify(deliveryTracker, times(1)).recordTriggered("default", "sub-123", "test-event", "tx-123");
+        verify(auditWriter, times(1)).record(any());
+    }
+
+    @Test
+    void sendNotificationEvent_failedTrigger_isSentAgainOnRetry() {
+        when(eventRequestMapper.toTriggerEventRequest(eventRequest)).thenReturn(triggerEventRequest);
+        when(novuClient.triggerEvent(triggerEventRequest))
+                .thenThrow(new NovuTriggerException(503, "Unavailable", null))
+                .thenReturn(new TriggerEventResponse(new TriggerEventResponse.Data(true, "processed", "tx-123")));
+
+        assertThrows(NovuTriggerException.class, () -> novuNotificationService.sendNotificationEvent(eventRequest));
+        novuNotificationService.sendNotificationEvent(eventRequest);
+
+        verify(novuClient, times(2)).triggerEvent(triggerEventRequest);
+        verify(deliveryTracker).recordTriggered("default", "sub-123", "test-event", "tx-123");
+    }
+
+    @Test
+    void sendNotificationEventAsync_routedEvent_sendsChannelsIndependently() throws Exception {
+        TriggerEventRequest emailTrigger = TriggerEventRequest.builder().name("test-event-email").build();
+        TriggerEventRequest smsTrigger = TriggerEventRequest.builder().name("test-event-sms").build();
+        when(channelRouter.route(eventRequest)).thenReturn(Optional.of(new ChannelPlan(
+                List.of(new ChannelPlan.Leg(Channel.EMAIL, emailTrigger), new ChannelPlan.Leg(Channel.SMS, smsTrigger)),
+                List.of(Channel.PUSH))));
+        CompletableFuture<TriggerEventResponse> slowSms = new CompletableFuture<>();
+        when(channelDispatcher.dispatch(Channel.EMAIL, emailTrigger)).thenReturn(CompletableFuture.completedFuture(
+                new TriggerEventResponse(new TriggerEventResponse.Data(true, "processed", "tx-email"))));
+        when(channelDispatcher.dispatch(Channel.SMS, smsTrigger)).thenReturn(slowSms);
+
+        CompletableFuture<NotificationResult> future = novuNotificationService.sendNotificationEventAsync(eventRequest);
+
+        // The email leg is tracked while the SMS leg is still waiting for Novu.
+        verify(deliveryTracker).recordTriggered("default", "sub-123", "test-event", "tx-email");
+        assertFalse(future.isDone());
+        slowSms.completeExceptionally(new NovuTriggerException(502, "Bad gateway", null));
+
+        NotificationResult result = future.get();
+        assertEquals("tx-email", result.transactionId());
+        assertEquals(NotificationResult.Status.TRIGGERED, result.recipients().get(0).status());
+        assertEquals(List.of(
+                new NotificationResult.ChannelResult(Channel.EMAIL, NotificationResult.Status.TRIGGERED, "tx-email", null),
+                new NotificationResult.ChannelResult(Channel.SMS, NotificationResult.Status.FAILED, null, "Bad gateway"),
+                new NotificationResult.ChannelResult(Channel.PUSH, NotificationResult.Status.SKIPPED, null, null)), result.channels());
+        verify(novuAsyncClient, never()).triggerEvent(any());
+        verify(auditWriter, times(2)).record(any());
+    }
+
+    @Test
+    void sendNotificationEvent_routedEvent_everyChannelFails_throws() {
+        TriggerEventRequest emailTrigger = TriggerEventRequest.builder().name("test-event-email").build();
+        when(channelRouter.route(eventRequest)).thenReturn(Optional.of(new ChannelPlan(
+                List.of(new ChannelPlan.Leg(Channel.EMAIL, emailTrigger)), List.of())));
+        when(channelDispatcher.dispatch(Channel.EMAIL, emailTrigger))
+                .thenReturn(CompletableFuture.failedFuture(new NovuTriggerException(500, "Novu down", null)));
+
+        assertThrows(NovuTriggerException.class, () -> novuNotificationService.sendNotificationEvent(eventRequest));
+
+        verify(novuClient, never()).triggerEvent(any());
+        verify(auditWriter).record(argThat(record -> !record.success()));
+    }
+
+    @Test
+    void sendNotificationEventAsync_routedEvent_everyChannelOptedOut_isSkipped() throws Exception {
+        when(channelRouter.route(eventRequest)).thenReturn(Optional.of(new ChannelPlan(List.of(), List.of(Channel.EMAIL))));
+
+        NotificationResult result = novuNotificationService.sendNotificationEventAsync(eventRequest).get();
+
+        assertEquals(NotificationResult.Status.SKIPPED, result.recipients().get(0).status());
+        verifyNoInteractions(channelDispatcher, novuAsyncClient, auditWriter);
+    }
+
+    @Test
+    void sendNotificationEventAsync_subscriberOptedOutOfWorkflow_sendsNothing() throws Exception {
+        when(channelRouter.isOptedOut(eventRequest)).thenReturn(true);
+
+        NotificationResult result = novuNotificationService.sendNotificationEventAsync(eventRequest).get();
+
+        assertEquals(NotificationResult.Status.SKIPPED, result.recipients().get(0).status());
+        verifyNoInteractions(novuAsyncClient, deliveryTracker, auditWriter);
+    }
+
+    @Test
+    void sendNotificationEvent_subscriberOptedOutOfWorkflow_sendsNothing() {
+        when(channelRouter.isOptedOut(eventRequest)).thenReturn(true);
+
+        novuNotificationService.sendNotificationEvent(eventRequest);
+
+        verifyNoInteractions(novuClient, deliveryTracker, auditWriter);
+    }
 }
@@ -0,0 +1,72 @@
+package com.example.notificationconfig.suppression;
+
+import com.example.notificationconfig.config.SuppressionProperties;
+import com.example.notificationconfig.dto.SuppressionImportResult;
+import com.example.notificationconfig.entity.EmailSuppression;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SuppressionImporterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void canonicalize_matchesTheNotificationServiceForm() {
+        assertEquals("john.doe@example.com", EmailAddresses.canonicalize("  John.Doe@Example.COM. "));
+        assertEquals("user@xn--mnchen-3ya.de", EmailAddresses.canonicalize("user@München.de"));
+        assertNull(EmailAddresses.canonicalize("not-an-address"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importLines_canonicalizesDeduplicatesAndWritesInBatches() throws Exception {
+        SuppressionProperties properties = new SuppressionProperties();
+        properties.setImportBatchSize(2);
+        SuppressionImporter importer = new SuppressionImporter(jdbcTemplate, properties);
+        String csv = """
+                email,reason
+                A@Example.com,bounce
+                a@example.com
+                # comment
+
+                b@example.com,COMPLAINT
+                broken
+                c@example.com,unknown
+                d@example.com
+                """;
+
+        SuppressionImportResult result = importer.importLines(new StringReader(csv), EmailSuppression.Reason.UNSUBSCRIBE);
+
+        assertEquals(3, result.imported());
+        assertEquals(2, result.rejected());
+        assertEquals(List.of("broken", "c@example.com,unknown"), result.samples());
+        ArgumentCaptor<Collection<Map.Entry<String, EmailSuppression.Reason>>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<Map.Entry<String, EmailSuppression.Reason>> rows = new ArrayList<>();
+        batches.getAllValues().forEach(rows::addAll);
+        assertEquals(List.of(Map.entry("a@example.com", EmailSuppression.Reason.UNSUBSCRIBE),
+                Map.entry("b@example.com", EmailSuppression.Reason.COMPLAINT),
+                Map.entry("d@example.com", EmailSuppression.Reason.UNSUBSCRIBE)), rows);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.notificationconfig.tracking;
+
+import com.example.notificationconfig.config.TrackingProperties;
+import com.example.notificationconfig.dto.DeliveryStatusEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryTrackerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void coalesce_keepsLatestStatusAndEarliestKnownFields() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        DeliveryTracker.DeliveryUpdate triggered = new DeliveryTracker.DeliveryUpdate("tx-1", "tenant-a", "sub-1", "alert",
+                null, null, "TRIGGERED", null, t0, t0);
+        DeliveryTracker.DeliveryUpdate delivered = new DeliveryTracker.DeliveryUpdate("tx-1", null, "sub-1", null,
+                "msg-1", "email", "DELIVERED", null, t0.plusSeconds(5), t0.plusSeconds(6));
+        DeliveryTracker.DeliveryUpdate lateSent = new DeliveryTracker.DeliveryUpdate("tx-1", null, null, null,
+                null, "email", "SENT", null, t0.plusSeconds(2), t0.plusSeconds(7));
+
+        Collection<DeliveryTracker.DeliveryUpdate> rows = DeliveryTracker.coalesce(List.of(triggered, delivered, lateSent));
+
+        assertEquals(1, rows.size());
+        DeliveryTracker.DeliveryUpdate row = rows.iterator().next();
+        assertEquals("DELIVERED", row.status());
+        assertEquals("tenant-a", row.tenantId());
+        assertEquals("alert", row.eventName());
+        assertEquals("msg-1", row.messageId());
+        assertEquals(t0.plusSeconds(5), row.eventAt());
+    }
+
+    @Test
+    void coalesce_providerStatusStampedBeforeTheTrigger_stillReplacesTriggered() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        DeliveryTracker.DeliveryUpdate sent = new DeliveryTracker.DeliveryUpdate("tx-1", null, "sub-1", null,
+                "msg-1", "email", "SENT", null, t0, t0.plusSeconds(1));
+        DeliveryTracker.DeliveryUpdate triggered = new DeliveryTracker.DeliveryUpdate("tx-1", "tenant-a", "sub-1", "alert",
+                null, null, "TRIGGERED", null, t0.plusSeconds(2), t0.plusSeconds(2));
+
+        for (List<DeliveryTracker.DeliveryUpdate> order : List.of(List.of(sent, triggered), List.of(triggered, sent))) {
+            DeliveryTracker.DeliveryUpdate row = DeliveryTracker.coalesce(order).iterator().next();
+            assertEquals("SENT", row.status());
+            assertEquals(t0, row.eventAt());
+            assertEquals("tenant-a", row.tenantId());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordStatus_writesQueuedUpdatesInOneBatch() {
+        TrackingProperties properties = new TrackingProperties();
+        properties.setFlushIntervalMillis(10);
+        DeliveryTracker tracker = new DeliveryTracker(jdbcTemplate, properties, new SimpleMeterRegistry());
+        tracker.start();
+        try {
+            assertTrue(tracker.recordStatus(new DeliveryStatusEvent("tx-1", "msg-1", "sub-1", "email", "delivered", null, null)));
+        } finally {
+            tracker.stop();
+        }
+
+        ArgumentCaptor<List<DeliveryTracker.DeliveryUpdate>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(1000)).batchUpdate(eq(DeliveryTracker.UPSERT_SQL), rows.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals("DELIVERED", rows.getValue().get(0).status());
+    }
+
+    @Test
+    void recordStatus_trackerNotRunning_isRejectedSoSenderRetries() {
+        DeliveryTracker tracker = new DeliveryTracker(jdbcTemplate, new TrackingProperties(), new SimpleMeterRegistry());
+
+        assertFalse(tracker.recordStatus(new DeliveryStatusEvent("tx-1", null, null, null, "sent", null, null)));
+    }
+}
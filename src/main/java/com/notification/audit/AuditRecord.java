@@ -0,0 +1,24 @@
+package com.notification.audit;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * One outbound email attempt, as written to the audit log.
+ */
+@Value
+@Builder
+public class AuditRecord {
+    Instant occurredAt;
+    String tenantId;
+    String provider;
+    String recipient;
+    int recipientCount;
+    String subject;
+    String transactionId;
+    boolean success;
+    String error;
+    long latencyMillis;
+}
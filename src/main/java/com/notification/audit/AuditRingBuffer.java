@@ -0,0 +1,92 @@
+package com.notification.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer ring buffer.
+ * <p>
+ * Each slot carries a sequence number telling producers and the consumer whose turn it is, so {@link #offer} is a
+ * single CAS on the tail in the uncontended case and never blocks; a full buffer is reported to the caller instead.
+ * Only one thread may call {@link #drainTo}.
+ */
+class AuditRingBuffer<T> {
+
+    private final int mask;
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    /**
+     * @param capacity Requested capacity; rounded up to a power of two.
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer is full.
+     */
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} published items to {@code target}, oldest first. Consumer thread only.
+     *
+     * @return The number of items moved.
+     */
+    int drainTo(List<T> target, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(slots.get(index));
+            slots.set(index, null);
+            sequences.set(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * @return Approximate number of items in the buffer.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,194 @@
+package com.notification.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.AuditProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit log for outbound emails.
+ * <p>
+ * {@link #record} only places the record in a lock-free {@link AuditRingBuffer}, so auditing adds no I/O to the
+ * send path. A background thread appends the buffer to a daily JSON-lines file whenever {@code flushSize} records are
+ * buffered or the oldest has waited {@code flushInterval}, syncing the file once per batch rather than once per
+ * record. This service has no database; the files are meant to be shipped by the log pipeline.
+ * <p>
+ * Loss is bounded: records are dropped (and counted) only while the buffer is full, when a batch cannot be written, or
+ * when they are still buffered after the shutdown timeout.
+ */
+@Component
+public class AuditWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditWriter.class);
+
+    private final ObjectMapper objectMapper;
+    private final AuditProperties properties;
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final Counter dropped;
+    private final Counter written;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+    private volatile List<AuditRecord> leftover = new ArrayList<>();
+
+    public AuditWriter(ObjectMapper objectMapper, AuditProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.buffer = new AuditRingBuffer<>(properties.getBufferSize());
+        this.dropped = Counter.builder("notification.audit.records").tag("outcome", "dropped").register(meterRegistry);
+        this.written = Counter.builder("notification.audit.records").tag("outcome", "written").register(meterRegistry);
+        this.flushTimer = Timer.builder("notification.audit.flush").register(meterRegistry);
+        Gauge.builder("notification.audit.buffer.depth", buffer, AuditRingBuffer::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getDirectory() == null || properties.getDirectory().isBlank() || !Paths.get(properties.getDirectory()).isAbsolute()) {
+            logger.error("notification.audit.directory must be an absolute path, not '{}'; email sends will not be audited.", properties.getDirectory());
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Buffers the record for writing. Never blocks.
+     *
+     * @param record The audit record.
+     * @return {@code false} if the record was dropped because the buffer is full or auditing is off.
+     */
+    public boolean record(AuditRecord record) {
+        if (!running) {
+            return false;
+        }
+        if (!buffer.offer(record)) {
+            dropped.increment();
+            return false;
+        }
+        if (buffer.size() >= properties.getFlushSize()) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting records and writes what is buffered, within the shutdown timeout.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread current = writer;
+        if (current == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(current);
+        try {
+            current.join(properties.getShutdownTimeout().toMillis());
+            if (current.isAlive()) {
+                current.interrupt();
+                current.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            logger.error("Audit writer did not stop; {} buffered audit records may be lost.", buffer.size());
+            return;
+        }
+        List<AuditRecord> remaining = new ArrayList<>(leftover);
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            dropped.increment(remaining.size());
+            logger.warn("Dropped {} audit records still buffered after the {} shutdown timeout.", remaining.size(), properties.getShutdownTimeout());
+        }
+    }
+
+    private void runWriter() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        long parkNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(flushIntervalNanos / 10, TimeUnit.MILLISECONDS.toNanos(50)));
+        List<AuditRecord> batch = new ArrayList<>(properties.getFlushSize());
+        long batchStartedNanos = 0;
+        long deadlineNanos = Long.MAX_VALUE;
+        while (true) {
+            if (!running && deadlineNanos == Long.MAX_VALUE) {
+                deadlineNanos = System.nanoTime() + properties.getShutdownTimeout().toNanos();
+            }
+            if (Thread.currentThread().isInterrupted() || System.nanoTime() > deadlineNanos) {
+                // Shutdown timed out; whatever is left is handed to stop().
+                buffer.drainTo(batch, Integer.MAX_VALUE);
+                leftover = new ArrayList<>(batch);
+                return;
+            }
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, properties.getFlushSize() - batch.size());
+            if (wasEmpty && !batch.isEmpty()) {
+                batchStartedNanos = System.nanoTime();
+            }
+            boolean full = batch.size() >= properties.getFlushSize();
+            boolean due = !batch.isEmpty() && System.nanoTime() - batchStartedNanos >= flushIntervalNanos;
+            if (full || due || (!running && !batch.isEmpty())) {
+                write(batch);
+                batch.clear();
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+
+    private void write(List<AuditRecord> batch) {
+        long start = System.nanoTime();
+        Path directory = Paths.get(properties.getDirectory());
+        Path file = directory.resolve("audit-" + LocalDate.now(ZoneOffset.UTC) + ".jsonl");
+        try {
+            Files.createDirectories(directory);
+            StringBuilder lines = new StringBuilder();
+            for (AuditRecord record : batch) {
+                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+            written.increment(batch.size());
+        } catch (IOException e) {
+            dropped.increment(batch.size());
+            logger.error("Failed to write {} audit records to {}: {}", batch.size(), file, e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the write-behind email audit log, bound from {@code notification.audit.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.audit")
+public class AuditProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Ring buffer capacity (rounded up to a power of two). Records are dropped and counted while it is full.
+     */
+    private int bufferSize = 65536;
+
+    /**
+     * Maximum records per write. A batch is written and synced as soon as this many records are buffered.
+     */
+    private int flushSize = 500;
+
+    /**
+     * Maximum time a record waits in the buffer before being written.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long shutdown keeps writing buffered records. Records still buffered after that are dropped and counted.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Absolute path of the directory holding the daily {@code audit-yyyy-MM-dd.jsonl} files. Auditing stays off while
+     * it is unset or relative.
+     */
+    private String directory = "";
+}
@@ -0,0 +1,25 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for draining in-flight work on shutdown, bound from {@code notification.drain.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.drain")
+public class DrainProperties {
+
+    /**
+     * How long queued and running dispatches get to finish. Work still queued after that is handed back to SQS.
+     * Keep it below {@code spring.lifecycle.timeout-per-shutdown-phase} and the pod's termination grace period.
+     */
+    private Duration timeout = Duration.ofSeconds(20);
+
+    /**
+     * How long to wait for SQS listener threads to hand their messages back once dispatching has stopped.
+     */
+    private Duration handBackTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,162 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for email providers and the routing between them, bound from {@code notification.providers.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.providers")
+public class EmailProviderProperties {
+
+    private Routing routing = new Routing();
+
+    private Smtp smtp = new Smtp();
+
+    private Novu novu = new Novu();
+
+    @Data
+    public static class Routing {
+
+        /**
+         * Consecutive failures after which a provider is taken out of rotation.
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * How long a failing provider stays out of rotation before it is tried again.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Smoothing factor for the exponentially weighted moving average of provider latency.
+         */
+        private double latencyEwmaAlpha = 0.2;
+
+        /**
+         * Static routing weights keyed by provider name. Providers without an entry have weight 1.
+         */
+        private Map<String, Integer> weights = new HashMap<>();
+    }
+
+    @Data
+    public static class Smtp {
+
+        /**
+         * Whether the direct SMTP provider is registered.
+         */
+        private boolean enabled = false;
+
+        private String host = "localhost";
+
+        private int port = 25;
+
+        /**
+         * Use implicit TLS (SMTPS, usually port 465).
+         */
+        private boolean ssl = false;
+
+        /**
+         * Username for AUTH PLAIN. Authentication is skipped when blank.
+         */
+        private String username;
+
+        private String password;
+
+        /**
+         * Envelope sender and From header.
+         */
+        private String from = "no-reply@localhost";
+
+        /**
+         * Name announced in EHLO.
+         */
+        private String heloName = "localhost";
+
+        /**
+         * Maximum number of open connections to the SMTP server.
+         */
+        private int poolSize = 8;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Maximum time to wait for a free pooled connection.
+         */
+        private Duration borrowTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Idle connections older than this are closed instead of reused.
+         */
+        private Duration maxIdle = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class Novu {
+
+        /**
+         * Base URL of the Novu API used by asynchronous sends. The Novu SDK keeps its own default for blocking sends.
+         */
+        private String baseUrl = "https://api.novu.co";
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Maximum time to wait for Novu to acknowledge one trigger.
+         */
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Threads running the attempts of hedged blocking triggers sent through the Novu SDK. While all are busy, a
+         * trigger is sent on the caller's thread without a hedge, and hedges are not sent.
+         */
+        private int sdkHedgeThreads = 64;
+
+        private Hedging hedging = new Hedging();
+    }
+
+    /**
+     * Hedging of Novu triggers, asynchronous ones and those sent through the Novu SDK: a trigger that has not been
+     * acknowledged within a high percentile of recent latencies is sent a second time, with the same idempotency key
+     * or transaction id, and the first acknowledgement wins.
+     */
+    @Data
+    public static class Hedging {
+
+        private boolean enabled = false;
+
+        /**
+         * Percentile of recent trigger latencies after which the hedge is sent.
+         */
+        private double percentile = 95;
+
+        /**
+         * Bounds of the hedge delay, whatever the percentile.
+         */
+        private Duration minDelay = Duration.ofMillis(20);
+
+        private Duration maxDelay = Duration.ofSeconds(2);
+
+        /**
+         * Number of recent latencies the percentile is taken from. Nothing is hedged until this many are known.
+         */
+        private int samples = 1000;
+
+        /**
+         * Hedges allowed per trigger, on average: 0.03 adds at most 3% to the load on Novu.
+         */
+        private double budget = 0.03;
+
+        /**
+         * Maximum number of hedges that may be saved up while Novu is fast and then spent at once.
+         */
+        private int maxBurst = 10;
+    }
+}
@@ -0,0 +1,26 @@
+package com.notification.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Reads request bodies encoded as Smile, Jackson's binary form of JSON, as well as JSON. Field names and numbers are
+ * not spelled out, and names repeated across objects are written once, so large requests are smaller and cheaper to
+ * parse. Clients opt in with {@code Content-Type: application/x-jackson-smile}; SQS producers with the
+ * {@code ContentType} message attribute, see {@code SqsMessageDecoder}.
+ * <p>
+ * Spring MVC registers a Smile converter of its own when Smile is on the class path, with a mapper that knows nothing
+ * of the application's Jackson settings. This one is built by Boot's {@link Jackson2ObjectMapperBuilder}, like the
+ * JSON mapper, so it has the same modules and features, {@code EmailRequest}'s dates included.
+ */
+@Configuration
+public class IngestFormatsConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
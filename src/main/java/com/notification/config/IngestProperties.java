@@ -0,0 +1,19 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for compressed request bodies and SQS messages, bound from {@code notification.ingest.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.ingest")
+public class IngestProperties {
+
+    /**
+     * Largest request body or SQS message accepted once inflated. A gzip body that inflates beyond it is rejected as
+     * unreadable, so a small compressed message cannot make the application inflate gigabytes.
+     */
+    private DataSize maxInflatedSize = DataSize.ofMegabytes(10);
+}
@@ -0,0 +1,23 @@
+package com.notification.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs Blackbird into the application's {@code ObjectMapper}, so bean serializers and deserializers get and set
+ * properties through lambdas generated once per accessor instead of through reflection. This covers the request body,
+ * SQS messages, the spool and the audit log; {@code EmailRequest} and Novu trigger bodies have serializers of their own.
+ * Enabled by {@code notification.jackson.blackbird}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "notification.jackson.blackbird", havingValue = "true", matchIfMissing = true)
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,37 +1,74 @@
 package com.notification.config;
 
 import co.novu.sdk.Novu;
-import co.novu.sdk.NovuConfig;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Objects;
+
+/**
+ * Builds the Novu client. {@code novu.api.key} and {@code novu.workflow.trigger.id} are re-read whenever the
+ * configuration is refreshed (e.g. through the {@code refresh} actuator endpoint); if either changed, a new client is
+ * swapped in through {@link RefreshableNovuClient} while sends already in progress finish on the old one.
+ */
 @Configuration
 public class NovuConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(NovuConfig.class);
 
-    @Value("${novu.api.key}")
-    private String novuApiKey;
+    static final String API_KEY_PROPERTY = "novu.api.key";
+    static final String WORKFLOW_TRIGGER_ID_PROPERTY = "novu.workflow.trigger.id";
+    static final String DEFAULT_WORKFLOW_TRIGGER_ID = "default-email-workflow";
+
+    private final Environment environment;
+    private RefreshableNovuClient novuClient;
+
+    public NovuConfig(Environment environment) {
+        this.environment = environment;
+    }
 
     // Optional: Configure backend URL if needed, though SDK usually has a default
     // @Value("${novu.backend.url:https://api.novu.co}")
     // private String novuBackendUrl;
 
     @Bean
-    public co.novu.sdk.NovuConfig novuSdkConfig() { // Renamed for clarity, returns the SDK's config object
+    public RefreshableNovuClient novuClient() {
+        co.novu.sdk.NovuConfig novuSdkConfig = novuSdkConfig(environment.getRequiredProperty(API_KEY_PROPERTY));
+        novuClient = new RefreshableNovuClient(novu(novuSdkConfig), novuSdkConfig, workflowTriggerId());
+        return novuClient;
+    }
+
+    /**
+     * Swaps in a new client if the API key or workflow changed in the refreshed configuration.
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void refreshNovuClient() {
+        String novuApiKey = environment.getRequiredProperty(API_KEY_PROPERTY);
+        String workflowTriggerId = workflowTriggerId();
+        if (Objects.equals(novuApiKey, novuClient.getApiKey()) && Objects.equals(workflowTriggerId, novuClient.getWorkflowTriggerId())) {
+            return;
+        }
+        co.novu.sdk.NovuConfig novuSdkConfig = novuSdkConfig(novuApiKey);
+        novuClient.swap(novu(novuSdkConfig), novuSdkConfig, workflowTriggerId);
+    }
+
+    private String workflowTriggerId() {
+        return environment.getProperty(WORKFLOW_TRIGGER_ID_PROPERTY, DEFAULT_WORKFLOW_TRIGGER_ID);
+    }
+
+    private co.novu.sdk.NovuConfig novuSdkConfig(String novuApiKey) { // Returns the SDK's config object
         if (novuApiKey == null || novuApiKey.isEmpty() || "YOUR_NOVU_API_KEY".equals(novuApiKey)) {
             logger.warn("Novu API key is not configured or is using the default placeholder. Novu service might not be fully functional.");
         }
-        // This bean provides the NovuConfig object, which can be injected elsewhere (like the service)
-        // if direct access to API key or other config details is needed from it.
         return new co.novu.sdk.NovuConfig(novuApiKey);
     }
 
-    @Bean
-    public Novu novu(co.novu.sdk.NovuConfig novuSdkConfig) { // Takes the NovuConfig bean as a parameter
+    private Novu novu(co.novu.sdk.NovuConfig novuSdkConfig) {
         // Configuration based on Novu SDK v1.6.0 (co.novu:novu-java)
         // The Novu client is instantiated with a NovuConfig object.
 
@@ -0,0 +1,55 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the subscriber preference cache, bound from {@code notification.preferences.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.preferences")
+public class PreferenceProperties {
+
+    /**
+     * Whether recipients who opted out of the email channel in notification-config are skipped.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Base URL of the notification-config service, which owns the preference table.
+     */
+    private String sourceUrl = "http://localhost:8081";
+
+    /**
+     * How long a subscriber's preferences are used before they are fetched again, should a change be missed.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Subscribers held at most; the least recently used are evicted beyond this.
+     */
+    private int maxCachedSubscribers = 100_000;
+
+    /**
+     * How often changed preferences are polled, to drop the subscribers concerned from the cache.
+     */
+    private Duration pollInterval = Duration.ofSeconds(15);
+
+    /**
+     * How far back each poll re-reads changes, to cover transactions that commit late and clock skew between the
+     * two services.
+     */
+    private Duration changeOverlap = Duration.ofMinutes(1);
+
+    /**
+     * Timeout of a preference lookup. Sends wait on it for subscribers that are not cached.
+     */
+    private Duration requestTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How long a subscriber whose preferences could not be fetched is sent to without asking again.
+     */
+    private Duration failureTtl = Duration.ofSeconds(30);
+}
@@ -0,0 +1,209 @@
+package com.notification.config;
+
+import co.novu.api.events.pojos.Subscriber;
+import co.novu.api.events.requests.TriggerEventRequest;
+import co.novu.sdk.Novu;
+import co.novu.sdk.NovuConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the Novu client together with the settings it was built from, and lets them be replaced at runtime.
+ * <p>
+ * Callers {@link #acquire() acquire} a {@link Lease} for the duration of one send and see one consistent client,
+ * API key and workflow id throughout, even if the client is {@link #swap swapped} in the meantime. A replaced client
+ * is retired rather than discarded: calls already running on it complete normally, and it is released once the last
+ * lease on it is closed.
+ * <p>
+ * The Novu SDK builds its own HTTP clients and exposes neither them nor a way to close them, so a drained client is
+ * simply dropped. Its idle dispatcher threads end after a minute and its pooled connections are evicted after five,
+ * which bounds what a retired client holds on to without reaching into the SDK's internals.
+ */
+public class RefreshableNovuClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshableNovuClient.class);
+
+    /**
+     * Workflow triggered by {@link #warmUp}. No such workflow exists, so Novu answers without sending anything.
+     */
+    static final String WARM_UP_WORKFLOW = "warm-up-no-such-workflow";
+
+    private final AtomicReference<Generation> current;
+
+    public RefreshableNovuClient(Novu novu, NovuConfig novuConfig, String workflowTriggerId) {
+        this.current = new AtomicReference<>(new Generation(1, novu, novuConfig, workflowTriggerId));
+    }
+
+    /**
+     * Leases the current client. The lease must be closed when the call is done.
+     */
+    public Lease acquire() {
+        while (true) {
+            Generation generation = current.get();
+            generation.inFlight.incrementAndGet();
+            if (generation == current.get()) {
+                return new Lease(generation);
+            }
+            // Swapped between the read and the increment; give the retired client back and take the new one.
+            generation.release();
+        }
+    }
+
+    /**
+     * Atomically replaces the client. New leases use the new client immediately; calls in flight on the old one
+     * finish undisturbed.
+     */
+    public void swap(Novu novu, NovuConfig novuConfig, String workflowTriggerId) {
+        Generation next = new Generation(current.get().number + 1, novu, novuConfig, workflowTriggerId);
+        Generation previous = current.getAndSet(next);
+        logger.info("Swapped Novu client to generation {} (workflow '{}'); draining generation {} with {} calls in flight.",
+                next.number, workflowTriggerId, previous.number, previous.inFlight.get());
+        previous.retire();
+    }
+
+    /**
+     * @return The workflow id of the current client.
+     */
+    public String getWorkflowTriggerId() {
+        return current.get().workflowTriggerId;
+    }
+
+    /**
+     * @return The API key of the current client.
+     */
+    public String getApiKey() {
+        NovuConfig novuConfig = current.get().novuConfig;
+        return novuConfig != null ? novuConfig.getApiKey() : null;
+    }
+
+    /**
+     * Opens up to {@code connections} connections through the current Novu client ahead of the first send, by
+     * triggering {@link #WARM_UP_WORKFLOW} that many times at once through the SDK. Novu turns the triggers down
+     * without sending anything, and the connections they opened stay pooled in the SDK's HTTP client.
+     *
+     * @return The number of triggers Novu answered or turned down within {@code timeout}; 0 if no API key is set.
+     */
+    public int warmUp(int connections, Duration timeout) throws InterruptedException {
+        try (Lease lease = acquire()) {
+            Novu novu = lease.getNovu();
+            String apiKey = lease.getNovuConfig() != null ? lease.getNovuConfig().getApiKey() : null;
+            if (novu == null || apiKey == null || apiKey.isEmpty() || "YOUR_NOVU_API_KEY".equals(apiKey)) {
+                logger.info("Novu API key is not configured; the Novu client's connections are not warmed up.");
+                return 0;
+            }
+            Callable<Object> trigger = () -> novu.triggerEvent(warmUpTrigger());
+            ExecutorService executor = Executors.newFixedThreadPool(connections, runnable -> {
+                Thread thread = new Thread(runnable, "novu-warm-up");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                int answered = 0;
+                // Triggers still running at the timeout are cancelled; the connections that did open are kept.
+                for (Future<Object> call : executor.invokeAll(Collections.nCopies(connections, trigger), timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    if (!call.isCancelled()) {
+                        answered++;
+                    }
+                }
+                return answered;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static TriggerEventRequest warmUpTrigger() {
+        Subscriber subscriber = new Subscriber();
+        subscriber.setSubscriberId("warm-up");
+        List<Subscriber> to = new ArrayList<>();
+        to.add(subscriber);
+        TriggerEventRequest request = new TriggerEventRequest();
+        request.setName(WARM_UP_WORKFLOW);
+        request.setPayload(new HashMap<>());
+        request.setTo(to);
+        return request;
+    }
+
+    /**
+     * A client borrowed for one send.
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final Generation generation;
+        private boolean closed;
+
+        private Lease(Generation generation) {
+            this.generation = generation;
+        }
+
+        public Novu getNovu() {
+            return generation.novu;
+        }
+
+        public NovuConfig getNovuConfig() {
+            return generation.novuConfig;
+        }
+
+        public String getWorkflowTriggerId() {
+            return generation.workflowTriggerId;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                generation.release();
+            }
+        }
+    }
+
+    private static final class Generation {
+        private final long number;
+        private final Novu novu;
+        private final NovuConfig novuConfig;
+        private final String workflowTriggerId;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicBoolean drained = new AtomicBoolean();
+        private volatile boolean retired;
+
+        private Generation(long number, Novu novu, NovuConfig novuConfig, String workflowTriggerId) {
+            this.number = number;
+            this.novu = novu;
+            this.novuConfig = novuConfig;
+            this.workflowTriggerId = workflowTriggerId;
+        }
+
+        private void retire() {
+            retired = true;
+            if (inFlight.get() == 0) {
+                drained();
+            }
+        }
+
+        private void release() {
+            if (inFlight.decrementAndGet() == 0 && retired) {
+                drained();
+            }
+        }
+
+        private void drained() {
+            if (drained.compareAndSet(false, true)) {
+                logger.info("Novu client generation {} drained.", number);
+            }
+        }
+    }
+}
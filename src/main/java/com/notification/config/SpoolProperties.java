@@ -0,0 +1,66 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the local spool that holds email requests while every provider is failing, bound from
+ * {@code notification.spool.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.spool")
+public class SpoolProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Absolute path of the directory holding the spool segments, the replay checkpoint and the dead-letter file. The
+     * spool stays off while it is unset or relative.
+     */
+    private String directory = "";
+
+    /**
+     * Size of one memory-mapped segment file. A single request must fit in one segment.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Upper bound on disk used by unreplayed segments. Requests are refused (and fail as before) beyond it.
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+
+    /**
+     * How often appended records are synced to disk. All appends within one interval share a single sync.
+     */
+    private Duration syncInterval = Duration.ofMillis(10);
+
+    /**
+     * How long an append waits for its sync before the request is refused.
+     */
+    private Duration syncTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How often the replay worker looks for new records while the spool is empty.
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Delay before the first retry after a replay fails. Doubles on each further failure up to {@code maxBackoff}.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    /**
+     * Replays of one request after which it is moved to the dead-letter file instead of being retried again.
+     */
+    private int maxAttempts = 20;
+
+    /**
+     * Age after which a request that fails to replay is moved to the dead-letter file, however few attempts it had.
+     */
+    private Duration maxAge = Duration.ofHours(24);
+}
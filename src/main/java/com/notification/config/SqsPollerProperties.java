@@ -0,0 +1,78 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the adaptive SQS poller, bound from {@code notification.sqs.poller.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.sqs.poller")
+public class SqsPollerProperties {
+
+    /**
+     * Whether the adaptive poller consumes the queue. Disable it and set {@code cloud.aws.sqs.listener.auto-startup}
+     * to {@code true} to fall back to the fixed listener container.
+     */
+    private boolean enabled = true;
+
+    private int minPollers = 1;
+
+    private int maxPollers = 32;
+
+    /**
+     * Messages requested per receive call (SQS allows at most 10).
+     */
+    private int maxMessagesPerPoll = 10;
+
+    /**
+     * Queue backlog that justifies one more poller.
+     */
+    private int messagesPerPoller = 100;
+
+    /**
+     * Long-poll wait while the queue is empty. Up to 20 seconds; longer waits mean fewer empty receives.
+     */
+    private Duration idleWaitTime = Duration.ofSeconds(20);
+
+    /**
+     * Long-poll wait while the queue has a backlog, kept short so retired pollers and shutdown respond quickly.
+     */
+    private Duration busyWaitTime = Duration.ofSeconds(1);
+
+    /**
+     * How often queue depth is sampled and the number of pollers adjusted.
+     */
+    private Duration adjustInterval = Duration.ofSeconds(5);
+
+    /**
+     * Processing latency above which no pollers are added, since more concurrency would only slow each message down.
+     */
+    private Duration targetLatency = Duration.ofSeconds(2);
+
+    /**
+     * Dispatches queued or running per dispatcher worker above which pollers are shed, leaving the backlog in SQS
+     * rather than in memory.
+     */
+    private double maxDispatchBacklogPerWorker = 2.0;
+
+    /**
+     * Pause after a failed receive call.
+     */
+    private Duration errorBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Threads processing messages of a FIFO queue. Each runs one message group at a time.
+     */
+    private int fifoWorkers = 16;
+
+    /**
+     * Message groups of a FIFO queue received and not yet processed, above which the pollers stop receiving. Messages
+     * for groups already in flight are always accepted. Pollers reserve room for a receive's groups before making it,
+     * so with fewer than {@code maxMessagesPerPoll} places left they ask for fewer messages. Groups beyond
+     * {@code fifoWorkers} wait for a worker with their visibility timeout extended.
+     */
+    private int maxInFlightGroups = 64;
+}
@@ -0,0 +1,67 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the recipient suppression list, bound from {@code notification.suppression.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.suppression")
+public class SuppressionProperties {
+
+    /**
+     * Whether suppressed addresses (bounces, unsubscribes) are loaded and skipped. Duplicate recipients are removed
+     * either way.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Base URL of the notification-config service, which owns the suppression table.
+     */
+    private String sourceUrl = "http://localhost:8081";
+
+    /**
+     * How often the whole list is reloaded, which rebuilds the compact structures and folds in the changes polled
+     * since the previous load.
+     */
+    private Duration refreshInterval = Duration.ofHours(1);
+
+    /**
+     * How often additions and removals are polled between full loads.
+     */
+    private Duration pollInterval = Duration.ofSeconds(15);
+
+    /**
+     * How far back each poll re-reads changes, to cover transactions that commit late and clock skew between the
+     * two services. Re-reading a change is harmless.
+     */
+    private Duration changeOverlap = Duration.ofMinutes(1);
+
+    /**
+     * Changes polled since the last full load, beyond which the whole list is reloaded early instead of growing the
+     * map that holds them.
+     */
+    private int maxPendingChanges = 100_000;
+
+    /**
+     * How long startup waits for the first full load. Until one succeeds every address counts as not suppressed, so
+     * the instance is not reported ready before it; once this elapses startup carries on with an empty list and a
+     * warning. Zero does not wait.
+     */
+    private Duration initialLoadTimeout = Duration.ofMinutes(2);
+
+    /**
+     * Entries fetched per request while loading.
+     */
+    private int pageSize = 10_000;
+
+    private Duration requestTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Target false positive rate of the Bloom filter. False positives only cost an exact lookup.
+     */
+    private double falsePositiveRate = 0.01;
+}
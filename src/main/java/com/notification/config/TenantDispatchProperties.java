@@ -0,0 +1,72 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for tenant-aware dispatch, bound from {@code notification.tenant.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.tenant")
+public class TenantDispatchProperties {
+
+    /**
+     * Number of worker threads shared by all tenants. This is the overall dispatch concurrency.
+     */
+    private int workerThreads = 16;
+
+    /**
+     * Deficit-round-robin quantum: cost units a tenant may consume per round, multiplied by its weight.
+     */
+    private int quantum = 10;
+
+    /**
+     * Maximum number of queued dispatches per tenant before new work is rejected.
+     */
+    private int maxQueuedPerTenant = 1000;
+
+    /**
+     * Maximum number of distinct tenants tracked. Further unknown tenants share the default tenant's queue.
+     */
+    private int maxTenants = 1000;
+
+    /**
+     * Quota applied to tenants without an explicit entry in {@link #quotas}.
+     */
+    private Quota defaults = new Quota();
+
+    /**
+     * Per-tenant quota overrides, keyed by tenant identifier.
+     */
+    private Map<String, Quota> quotas = new HashMap<>();
+
+    /**
+     * @param tenantId The tenant identifier.
+     * @return The quota configured for the tenant, or {@link #defaults}.
+     */
+    public Quota quotaFor(String tenantId) {
+        return quotas.getOrDefault(tenantId, defaults);
+    }
+
+    @Data
+    public static class Quota {
+
+        /**
+         * Sustained cost units per second admitted for the tenant.
+         */
+        private double ratePerSecond = 50;
+
+        /**
+         * Burst size: cost units the tenant may use at once after being idle.
+         */
+        private double burst = 100;
+
+        /**
+         * Relative share of worker throughput under contention.
+         */
+        private int weight = 1;
+    }
+}
@@ -0,0 +1,21 @@
+package com.notification.config;
+
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides the OpenTelemetry {@link Tracer}. It is backed by whatever registered the global instance, normally the
+ * OpenTelemetry Java agent, which also instruments the HTTP client the Novu SDK uses; without one, spans are no-ops.
+ */
+@Configuration
+public class TracingConfig {
+
+    static final String INSTRUMENTATION_NAME = "notification-service";
+
+    @Bean
+    public Tracer tracer() {
+        return GlobalOpenTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+}
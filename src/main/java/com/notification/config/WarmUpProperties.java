@@ -0,0 +1,39 @@
+package com.notification.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the warm-up run before the instance takes traffic, bound from {@code notification.warm-up.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "notification.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Synthetic requests deserialized, validated, mapped to a Novu trigger and serialized. A few thousand get the hot
+     * paths compiled by the JIT.
+     */
+    private int iterations = 5000;
+
+    /**
+     * Connections to Novu opened ahead of the first trigger, through the Novu SDK client and through the asynchronous
+     * trigger client; 0 to skip.
+     */
+    private int novuConnections = 4;
+
+    /**
+     * Path requested from Novu to open the asynchronous trigger client's connections. It only needs to answer,
+     * whatever the status.
+     */
+    private String novuPath = "/v1/health-check";
+
+    /**
+     * Upper bound on the whole warm-up. The instance starts taking traffic after this even if warm-up is not done.
+     */
+    private Duration timeout = Duration.ofSeconds(20);
+}
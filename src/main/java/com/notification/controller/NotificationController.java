@@ -1,7 +1,13 @@
 package com.notification.controller;
 
 import com.notification.dto.EmailRequest;
+import com.notification.exception.EmailSendingException;
+import com.notification.exception.TenantQuotaExceededException;
+import com.notification.recipient.RecipientNormalizer;
+import com.notification.scheduling.ScheduledEmailPublisher;
 import com.notification.service.EmailSenderService;
+import com.notification.spool.EmailSpool;
+import com.notification.tenant.TenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +19,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.validation.Valid;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * REST Controller for handling notification requests, such as sending emails.
@@ -24,37 +32,75 @@ public class NotificationController {
     private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
 
     private final EmailSenderService emailSenderService;
+    private final ScheduledEmailPublisher scheduledEmailPublisher;
+    private final EmailSpool emailSpool;
+    private final RecipientNormalizer recipientNormalizer;
 
     /**
      * Constructs a NotificationController with the necessary EmailSenderService.
      *
-     * @param emailSenderService The service responsible for sending emails.
+     * @param emailSenderService      The service responsible for sending emails.
+     * @param scheduledEmailPublisher Enqueues emails whose send time lies in the future.
+     * @param emailSpool              Holds emails that could not be sent until they can be replayed.
+     * @param recipientNormalizer     Keeps emails to suppressed addresses off the queue.
      */
     @Autowired
-    public NotificationController(EmailSenderService emailSenderService) {
+    public NotificationController(EmailSenderService emailSenderService, ScheduledEmailPublisher scheduledEmailPublisher, EmailSpool emailSpool,
+                                  RecipientNormalizer recipientNormalizer) {
         this.emailSenderService = emailSenderService;
+        this.scheduledEmailPublisher = scheduledEmailPublisher;
+        this.emailSpool = emailSpool;
+        this.recipientNormalizer = recipientNormalizer;
     }
 
     /**
      * API endpoint to trigger sending an email.
      * Accepts an {@link EmailRequest} and uses the {@link EmailSenderService} to dispatch the email.
+     * Requests with a future {@code sendAt} or a positive {@code delaySeconds} are scheduled instead, unless every
+     * recipient is suppressed. Suppressed recipients of emails sent now are dropped by the sender service.
+     * If sending fails, or the instance is shutting down, the request is spooled locally and replayed once sending
+     * works again.
      *
      * @param emailRequest The {@link EmailRequest} containing details for the email to be sent.
      *                     The request body is validated based on annotations in {@link EmailRequest}.
      * @return A {@link ResponseEntity} indicating the outcome of the operation.
-     *         Returns HTTP 202 (Accepted) if the email request is successfully processed for sending.
+     *         Returns HTTP 202 (Accepted) if the email request is successfully processed for sending
+     *         or spooled for later delivery.
      *         Returns HTTP 400 (Bad Request) if the input validation fails.
+     *         Returns HTTP 429 (Too Many Requests) if the calling tenant is over its dispatch quota.
+     *         Returns HTTP 503 (Service Unavailable) if the instance is shutting down and the email could not be spooled.
      *         Returns HTTP 500 (Internal Server Error) if an unexpected error occurs during email processing.
      */
     @PostMapping("/email")
     public ResponseEntity<String> sendEmail(@Valid @RequestBody EmailRequest emailRequest) {
         logger.info("Received request to send email to: {}", emailRequest.getTo());
         try {
-            emailSenderService.sendEmail(emailRequest);
+            Instant sendAt = emailRequest.resolveSendAt(Instant.now());
+            if (sendAt != null && sendAt.isAfter(Instant.now())) {
+                if (recipientNormalizer.isFullySuppressed(emailRequest)) {
+                    logger.info("Not scheduling email to {}: every recipient is suppressed.", emailRequest.getTo());
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body("Email request accepted; every recipient is suppressed, nothing was scheduled.");
+                }
+                scheduledEmailPublisher.schedule(emailRequest, sendAt, TenantContext.current());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body("Email request scheduled for " + sendAt + ".");
+            }
+            try {
+                emailSenderService.sendEmail(emailRequest);
+            } catch (EmailSendingException | RejectedExecutionException e) {
+                if (!emailSpool.append(emailRequest, TenantContext.current())) {
+                    throw e;
+                }
+                logger.warn("Email to {} could not be sent ({}); spooled for replay.", emailRequest.getTo(), e.getMessage());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body("Email request accepted and queued for delivery.");
+            }
             logger.info("Email request for {} processed successfully.", emailRequest.getTo());
             // Using 202 Accepted as email sending is often asynchronous.
             // The request is accepted for processing, not necessarily sent and delivered instantly.
             return ResponseEntity.status(HttpStatus.ACCEPTED).body("Email request accepted for processing.");
+        } catch (TenantQuotaExceededException | RejectedExecutionException e) {
+            // Let the GlobalExceptionHandler translate throttling into a 429 so the tenant can back off, and shutdown
+            // into a 503 so the client retries against another instance.
+            throw e;
         } catch (Exception e) {
             // Specific exceptions like EmailSendingException or InvalidRequestException
             // will be handled by the GlobalExceptionHandler.
@@ -1,5 +1,12 @@
 package com.notification.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -7,6 +14,9 @@ import lombok.Builder;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -16,7 +26,8 @@ import java.util.Map;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
+@JsonSerialize(using = EmailRequest.Serializer.class)
 public class EmailRequest {
 
     /**
@@ -56,4 +67,120 @@ public class EmailRequest {
      * For example, {"userName": "John Doe", "orderNumber": "12345"}
      */
     private Map<String, Object> emailVariables;
+
+    /**
+     * The time at which the email should be sent (ISO-8601, e.g. "2030-01-01T09:00:00Z"). Optional.
+     * If absent or in the past, the email is sent immediately.
+     */
+    private Instant sendAt;
+
+    /**
+     * Delay in seconds before the email is sent, relative to when the request is accepted. Optional.
+     * Ignored if {@link #sendAt} is set.
+     */
+    @PositiveOrZero(message = "Delay must not be negative.")
+    private Long delaySeconds;
+
+    /**
+     * Resolves {@link #sendAt} and {@link #delaySeconds} into an absolute send time.
+     *
+     * @param acceptedAt The time the request was accepted, used as the base for {@link #delaySeconds}.
+     * @return The time the email is due, or {@code null} if it should be sent immediately.
+     */
+    public Instant resolveSendAt(Instant acceptedAt) {
+        if (sendAt != null) {
+            return sendAt;
+        }
+        if (delaySeconds != null && delaySeconds > 0) {
+            return acceptedAt.plusSeconds(delaySeconds);
+        }
+        return null;
+    }
+
+    /**
+     * Writes an email request, as queued for scheduled sends and spooled to disk, with property names encoded once for
+     * all requests instead of looking up and calling each getter of a bean serializer. The output is the bean
+     * serializer's: the same properties in the same order, and nulls written unless the mapper's default property
+     * inclusion leaves them out. The send time and variables are written by the serializers the mapper has for them.
+     */
+    public static class Serializer extends StdSerializer<EmailRequest> {
+
+        private static final SerializableString TO = new SerializedString("to");
+        private static final SerializableString CC = new SerializedString("cc");
+        private static final SerializableString BCC = new SerializedString("bcc");
+        private static final SerializableString SUBJECT = new SerializedString("subject");
+        private static final SerializableString BODY = new SerializedString("body");
+        private static final SerializableString SIGNATURE = new SerializedString("signature");
+        private static final SerializableString EMAIL_VARIABLES = new SerializedString("emailVariables");
+        private static final SerializableString SEND_AT = new SerializedString("sendAt");
+        private static final SerializableString DELAY_SECONDS = new SerializedString("delaySeconds");
+
+        public Serializer() {
+            super(EmailRequest.class);
+        }
+
+        @Override
+        public void serialize(EmailRequest request, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            JsonInclude.Include inclusion = provider.getConfig().getDefaultPropertyInclusion().getValueInclusion();
+            boolean nulls = inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS;
+            generator.writeStartObject(request);
+            writeString(generator, TO, request.to, nulls);
+            writeStrings(generator, CC, request.cc, nulls);
+            writeStrings(generator, BCC, request.bcc, nulls);
+            writeString(generator, SUBJECT, request.subject, nulls);
+            writeString(generator, BODY, request.body, nulls);
+            writeString(generator, SIGNATURE, request.signature, nulls);
+            writeValue(generator, provider, EMAIL_VARIABLES, request.emailVariables, nulls);
+            writeValue(generator, provider, SEND_AT, request.sendAt, nulls);
+            if (request.delaySeconds != null) {
+                generator.writeFieldName(DELAY_SECONDS);
+                generator.writeNumber(request.delaySeconds);
+            } else if (nulls) {
+                generator.writeFieldName(DELAY_SECONDS);
+                generator.writeNull();
+            }
+            generator.writeEndObject();
+        }
+
+        private static void writeString(JsonGenerator generator, SerializableString field, String value, boolean nulls) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                generator.writeString(value);
+            } else if (nulls) {
+                generator.writeFieldName(field);
+                generator.writeNull();
+            }
+        }
+
+        private static void writeStrings(JsonGenerator generator, SerializableString field, List<String> values, boolean nulls) throws IOException {
+            if (values == null) {
+                if (nulls) {
+                    generator.writeFieldName(field);
+                    generator.writeNull();
+                }
+                return;
+            }
+            generator.writeFieldName(field);
+            generator.writeStartArray(values, values.size());
+            for (String value : values) {
+                if (value != null) {
+                    generator.writeString(value);
+                } else {
+                    generator.writeNull();
+                }
+            }
+            generator.writeEndArray();
+        }
+
+        private static void writeValue(JsonGenerator generator, SerializerProvider provider, SerializableString field, Object value,
+                                       boolean nulls) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                provider.defaultSerializeValue(value, generator);
+            } else if (nulls) {
+                generator.writeFieldName(field);
+                generator.writeNull();
+            }
+        }
+    }
 }
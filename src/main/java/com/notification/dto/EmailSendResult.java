@@ -0,0 +1,87 @@
+package com.notification.dto;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of an asynchronous send, completed once the provider has acknowledged (or rejected) every recipient.
+ */
+@Value
+@Builder(toBuilder = true)
+public class EmailSendResult {
+
+    /**
+     * Name of the provider that delivered the email.
+     */
+    String provider;
+
+    /**
+     * The provider's transaction id for the main recipient, or {@code null} if the provider does not issue one.
+     */
+    String transactionId;
+
+    /**
+     * One entry per recipient, main recipient first, then CC and BCC recipients in request order, then suppressed
+     * recipients, which were not sent to.
+     */
+    @Singular
+    List<Recipient> recipients;
+
+    /**
+     * Time from the start of the send to the last recipient's acknowledgment.
+     */
+    Duration latency;
+
+    /**
+     * @return {@code true} if every recipient that was sent to was accepted by the provider.
+     */
+    public boolean isFullyAccepted() {
+        return recipients.stream().noneMatch(recipient -> recipient.getStatus() == Status.FAILED);
+    }
+
+    public enum RecipientType {
+        TO, CC, BCC
+    }
+
+    public enum Status {
+        ACCEPTED, FAILED, SUPPRESSED,
+
+        /**
+         * The recipient opted out of emails from the workflow; nothing was sent to it.
+         */
+        OPTED_OUT
+    }
+
+    @Value
+    @Builder
+    public static class Recipient {
+
+        String address;
+
+        /**
+         * Position of the recipient in the request; {@code null} for suppressed recipients.
+         */
+        RecipientType type;
+
+        Status status;
+
+        /**
+         * The provider's transaction id for this recipient, if it issued one.
+         */
+        String transactionId;
+
+        /**
+         * Why the provider did not accept the recipient; {@code null} when accepted.
+         */
+        String error;
+
+        /**
+         * Time from the start of the send to this recipient's acknowledgment.
+         */
+        Duration latency;
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -53,6 +54,34 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
     }
 
+    /**
+     * Handles {@link TenantQuotaExceededException}.
+     *
+     * @param ex      The exception.
+     * @param request The current web request.
+     * @return A {@link ResponseEntity} with HTTP 429 Too Many Requests status.
+     */
+    @ExceptionHandler(TenantQuotaExceededException.class)
+    public ResponseEntity<Object> handleTenantQuotaExceededException(TenantQuotaExceededException ex, WebRequest request) {
+        log.warn("Tenant '{}' throttled: {}", ex.getTenantId(), ex.getMessage());
+        ApiError apiError = new ApiError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), ex.getClass().getSimpleName());
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
+    /**
+     * Handles {@link RejectedExecutionException}, thrown when work arrives while the dispatcher is shutting down.
+     *
+     * @param ex      The exception.
+     * @param request The current web request.
+     * @return A {@link ResponseEntity} with HTTP 503 Service Unavailable status, so the client retries elsewhere.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException ex, WebRequest request) {
+        log.warn("Request rejected during shutdown: {}", ex.getMessage());
+        ApiError apiError = new ApiError(HttpStatus.SERVICE_UNAVAILABLE, "The service is shutting down. Please retry.", ex.getClass().getSimpleName());
+        return new ResponseEntity<>(apiError, new HttpHeaders(), apiError.getStatus());
+    }
+
     /**
      * Handles {@link MethodArgumentNotValidException}, which occurs when @Valid validation fails.
      *
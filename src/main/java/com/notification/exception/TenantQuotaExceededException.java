@@ -0,0 +1,32 @@
+package com.notification.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a tenant exceeds its dispatch quota or its queue is full.
+ * Results in an HTTP 429 Too Many Requests response.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TenantQuotaExceededException extends RuntimeException {
+
+    private final String tenantId;
+
+    /**
+     * Constructs a new TenantQuotaExceededException.
+     *
+     * @param tenantId The tenant that was throttled.
+     * @param message  The detail message.
+     */
+    public TenantQuotaExceededException(String tenantId, String message) {
+        super(message);
+        this.tenantId = tenantId;
+    }
+
+    /**
+     * @return The tenant that was throttled.
+     */
+    public String getTenantId() {
+        return tenantId;
+    }
+}
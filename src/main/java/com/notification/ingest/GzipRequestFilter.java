@@ -0,0 +1,168 @@
+package com.notification.ingest;
+
+import com.notification.config.IngestProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Inflates request bodies sent with {@code Content-Encoding: gzip} as they are read, so controllers and message
+ * converters see the plain body whatever its format. The body is never held inflated in memory; it is decompressed
+ * while Jackson parses it, and rejected as unreadable once it exceeds {@code notification.ingest.max-inflated-size}.
+ * Requests in any other coding get 415 with the accepted one in {@code Accept-Encoding} (RFC 7694).
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private final IngestProperties properties;
+
+    public GzipRequestFilter(IngestProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (ContentEncodings.isIdentity(contentEncoding)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!ContentEncodings.isGzip(contentEncoding)) {
+            response.setHeader(HttpHeaders.ACCEPT_ENCODING, ContentEncodings.ACCEPTED);
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding: " + contentEncoding);
+            return;
+        }
+        filterChain.doFilter(new InflatingRequest(request, properties.getMaxInflatedSize().toBytes()), response);
+    }
+
+    /**
+     * The request with its body inflated, and without the headers that describe the compressed body.
+     */
+    private static final class InflatingRequest extends HttpServletRequestWrapper {
+
+        private final long maxInflatedBytes;
+        private ServletInputStream body;
+
+        InflatingRequest(HttpServletRequest request, long maxInflatedBytes) {
+            super(request);
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                body = new InflatingInputStream(new LimitedInputStream(new GZIPInputStream(super.getInputStream()), maxInflatedBytes));
+            }
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isRemoved(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isRemoved(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isRemoved(name))
+                    .collect(Collectors.toList()));
+        }
+
+        @Override
+        public int getIntHeader(String name) {
+            return isRemoved(name) ? -1 : super.getIntHeader(name);
+        }
+
+        private static boolean isRemoved(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+
+    /**
+     * Blocking reads only: an inflated body cannot tell when more of it is ready without reading the compressed one.
+     */
+    private static final class InflatingInputStream extends ServletInputStream {
+
+        private final InputStream in;
+        private boolean finished;
+
+        InflatingInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = in.read(buffer, offset, length);
+            finished = n < 0;
+            return n;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Non-blocking reads of inflated request bodies are not supported");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.notification.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.notification.config.IngestProperties;
+import com.notification.dto.EmailRequest;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads {@link EmailRequest}s from SQS messages that are not plain JSON. SQS message bodies must be text, so a binary
+ * message, Smile or gzip-compressed or both, is sent base64-encoded and described by two string message attributes:
+ * <ul>
+ *     <li>{@value #CONTENT_TYPE_ATTRIBUTE}: {@code application/json} (the default) or {@code application/x-jackson-smile}</li>
+ *     <li>{@value #CONTENT_ENCODING_ATTRIBUTE}: {@code gzip}, or absent</li>
+ * </ul>
+ * A message without either attribute is plain JSON, as before. The body is decoded, inflated and parsed in one pass,
+ * without holding its decoded or inflated form in memory, and is rejected once it inflates beyond
+ * {@code notification.ingest.max-inflated-size}.
+ */
+@Component
+public class SqsMessageDecoder {
+
+    public static final String CONTENT_TYPE_ATTRIBUTE = "ContentType";
+    public static final String CONTENT_ENCODING_ATTRIBUTE = "ContentEncoding";
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final long maxInflatedBytes;
+
+    /**
+     * @param objectMapper The application's mapper, for JSON messages.
+     * @param builder      Builds the mapper for Smile messages, with the same modules and features as the JSON one.
+     * @param properties   Limits the inflated size of gzip messages.
+     */
+    public SqsMessageDecoder(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder, IngestProperties properties) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = builder.factory(new SmileFactory()).build();
+        this.maxInflatedBytes = properties.getMaxInflatedSize().toBytes();
+    }
+
+    /**
+     * @param message         The message body.
+     * @param contentType     The {@value #CONTENT_TYPE_ATTRIBUTE} message attribute, or {@code null}.
+     * @param contentEncoding The {@value #CONTENT_ENCODING_ATTRIBUTE} message attribute, or {@code null}.
+     * @throws IOException If the attributes name an unsupported format, or the body cannot be read in the one named.
+     */
+    public EmailRequest decode(String message, String contentType, String contentEncoding) throws IOException {
+        boolean smile = isSmile(contentType);
+        boolean gzip = !ContentEncodings.isIdentity(contentEncoding);
+        if (gzip && !ContentEncodings.isGzip(contentEncoding)) {
+            throw new IOException("Unsupported " + CONTENT_ENCODING_ATTRIBUTE + " '" + contentEncoding + "'; accepted: " + ContentEncodings.ACCEPTED);
+        }
+        if (!smile && !gzip) {
+            return jsonMapper.readValue(message, EmailRequest.class);
+        }
+        InputStream in = Base64.getMimeDecoder().wrap(new ByteArrayInputStream(message.getBytes(StandardCharsets.US_ASCII)));
+        if (gzip) {
+            in = new LimitedInputStream(new GZIPInputStream(in), maxInflatedBytes);
+        }
+        try (InputStream body = in) {
+            return (smile ? smileMapper : jsonMapper).readValue(body, EmailRequest.class);
+        }
+    }
+
+    private static boolean isSmile(String contentType) throws IOException {
+        if (contentType == null || contentType.isBlank()) {
+            return false;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            throw new IOException("Invalid " + CONTENT_TYPE_ATTRIBUTE + " '" + contentType + "'", e);
+        }
+        if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+            return true;
+        }
+        if (MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType) || "json".equals(mediaType.getSubtypeSuffix())) {
+            return false;
+        }
+        throw new IOException("Unsupported " + CONTENT_TYPE_ATTRIBUTE + " '" + contentType + "'; accepted: "
+                + MediaType.APPLICATION_JSON_VALUE + ", " + APPLICATION_SMILE);
+    }
+}
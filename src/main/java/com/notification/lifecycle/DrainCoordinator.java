@@ -0,0 +1,201 @@
+package com.notification.lifecycle;
+
+import com.notification.config.DrainProperties;
+import com.notification.listener.AdaptiveSqsPoller;
+import com.notification.tenant.FairTenantDispatcher;
+import io.awspring.cloud.messaging.listener.SimpleMessageListenerContainer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains in-flight work when the application stops, so a deploy does not leave messages invisible on the queue.
+ * <p>
+ * The drain runs before any bean is destroyed, in the first shutdown phase, or earlier when triggered through
+ * {@link DrainEndpoint} (e.g. from a pre-stop hook). It:
+ * <ol>
+ *     <li>marks the instance as refusing traffic and tells the SQS listener to hand back every message it has not
+ *     started on with a zero visibility timeout, so another instance receives it immediately;</li>
+ *     <li>stops the SQS pollers and listener container from receiving;</li>
+ *     <li>lets the {@link FairTenantDispatcher} finish queued and running dispatches for up to
+ *     {@code notification.drain.timeout}; dispatches still queued after that are rejected, and the listener hands
+ *     their messages back as well;</li>
+ *     <li>waits for listener threads to finish.</li>
+ * </ol>
+ * Only SQS intake stops. HTTP requests keep being accepted and dispatched, both while the web server shuts down
+ * gracefully and after a drain through the endpoint, which takes the instance out of readiness so that the load
+ * balancer stops sending them. The dispatcher's workers stop when it is destroyed, after the web server has stopped.
+ * Buffered audit records and spooled requests are flushed afterwards by their own shutdown hooks.
+ */
+@Component
+public class DrainCoordinator implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(DrainCoordinator.class);
+
+    public enum State {
+        RUNNING, DRAINING, DRAINED
+    }
+
+    private final DrainProperties properties;
+    private final FairTenantDispatcher dispatcher;
+    private final ObjectProvider<SimpleMessageListenerContainer> listenerContainer;
+    private final ObjectProvider<AdaptiveSqsPoller> adaptivePoller;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong handedBack = new AtomicLong();
+
+    private volatile boolean started;
+    private volatile State state = State.RUNNING;
+    private volatile String step = "none";
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int rejectedDispatches;
+
+    public DrainCoordinator(DrainProperties properties,
+                            FairTenantDispatcher dispatcher,
+                            ObjectProvider<SimpleMessageListenerContainer> listenerContainer,
+                            ObjectProvider<AdaptiveSqsPoller> adaptivePoller,
+                            ApplicationEventPublisher eventPublisher) {
+        this.properties = properties;
+        this.dispatcher = dispatcher;
+        this.listenerContainer = listenerContainer;
+        this.adaptivePoller = adaptivePoller;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * @return {@code true} once a drain has started; the listener then hands back messages instead of processing them.
+     */
+    public boolean isDraining() {
+        return state != State.RUNNING;
+    }
+
+    /**
+     * Called by the listener when it starts processing a message.
+     */
+    public void messageStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Called by the listener when it is done with a message, whatever the outcome.
+     */
+    public void messageFinished() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Counts a message sent and deleted; only messages finishing during the drain are counted.
+     */
+    public void recordCompleted() {
+        if (isDraining()) {
+            completed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Counts a message returned to the queue with a zero visibility timeout.
+     */
+    public void recordHandedBack() {
+        handedBack.incrementAndGet();
+    }
+
+    /**
+     * Runs the drain if it has not run yet and waits for it to finish.
+     *
+     * @return The drain status once finished.
+     */
+    public synchronized DrainStatus drain() {
+        if (state != State.RUNNING) {
+            return status();
+        }
+        startedAt = Instant.now();
+        state = State.DRAINING;
+        logger.info("Draining: {} SQS messages in flight, {} dispatches pending.", inFlight.get(), dispatcher.pending());
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+
+        step = "stopping SQS listener";
+        Thread containerStop = new Thread(() -> {
+            adaptivePoller.ifAvailable(AdaptiveSqsPoller::stop);
+            listenerContainer.ifAvailable(container -> {
+                if (container.isRunning()) {
+                    container.stop();
+                }
+            });
+        }, "drain-sqs-stop");
+        containerStop.setDaemon(true);
+        containerStop.start();
+
+        step = "finishing dispatches";
+        rejectedDispatches = dispatcher.drain(properties.getTimeout());
+
+        step = "handing back messages";
+        long deadline = System.nanoTime() + properties.getHandBackTimeout().toNanos();
+        try {
+            containerStop.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        finishedAt = Instant.now();
+        state = State.DRAINED;
+        step = inFlight.get() > 0 ? "timed out with messages in flight" : "done";
+        logger.info("Drain finished in {}: {} messages completed, {} handed back, {} dispatches rejected, {} still in flight.",
+                Duration.between(startedAt, finishedAt), completed.get(), handedBack.get(), rejectedDispatches, inFlight.get());
+        return status();
+    }
+
+    public DrainStatus status() {
+        return DrainStatus.builder()
+                .state(state)
+                .step(step)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .inFlightMessages(inFlight.get())
+                .pendingDispatches(dispatcher.pending())
+                .completedMessages(completed.get())
+                .handedBackMessages(handedBack.get())
+                .rejectedDispatches(rejectedDispatches)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        started = true;
+    }
+
+    @Override
+    public void stop() {
+        drain();
+        started = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return started;
+    }
+
+    /**
+     * Stops in the first shutdown phase, alongside graceful shutdown of the web server.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,35 @@
+package com.notification.lifecycle;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/drain}) reporting drain progress. A POST starts the drain ahead of shutdown,
+ * e.g. from a Kubernetes pre-stop hook, and returns once it has finished. It stops SQS intake and marks the instance
+ * not ready; HTTP requests that still arrive are served.
+ * <p>
+ * Nothing authenticates it, so it is not exposed over HTTP by default; the drain still runs on shutdown. Expose it
+ * only together with a management port that is not reachable from outside the pod.
+ */
+@Component
+@Endpoint(id = "drain")
+public class DrainEndpoint {
+
+    private final DrainCoordinator drainCoordinator;
+
+    public DrainEndpoint(DrainCoordinator drainCoordinator) {
+        this.drainCoordinator = drainCoordinator;
+    }
+
+    @ReadOperation
+    public DrainStatus status() {
+        return drainCoordinator.status();
+    }
+
+    @WriteOperation
+    public DrainStatus drain() {
+        return drainCoordinator.drain();
+    }
+}
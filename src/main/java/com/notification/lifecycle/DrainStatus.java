@@ -0,0 +1,50 @@
+package com.notification.lifecycle;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of the shutdown drain, reported by {@link DrainEndpoint}.
+ */
+@Value
+@Builder
+public class DrainStatus {
+
+    DrainCoordinator.State state;
+
+    /**
+     * The drain step currently running, or the last one completed.
+     */
+    String step;
+
+    Instant startedAt;
+
+    Instant finishedAt;
+
+    /**
+     * SQS messages currently being processed by the listener.
+     */
+    int inFlightMessages;
+
+    /**
+     * Dispatches queued or running in the tenant dispatcher.
+     */
+    int pendingDispatches;
+
+    /**
+     * Messages processed to completion since the drain started.
+     */
+    long completedMessages;
+
+    /**
+     * Messages returned to the queue with a zero visibility timeout since the drain started.
+     */
+    long handedBackMessages;
+
+    /**
+     * Queued dispatches rejected when the drain timed out.
+     */
+    int rejectedDispatches;
+}
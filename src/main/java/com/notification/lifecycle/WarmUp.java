@@ -0,0 +1,154 @@
+package com.notification.lifecycle;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.RefreshableNovuClient;
+import com.notification.config.WarmUpProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.novu.NovuTriggerClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.validation.Validator;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the request path up before the instance takes traffic, so the first messages do not pay for it.
+ * <p>
+ * Runs in a lifecycle phase before the web server and the SQS pollers start, which therefore wait for it; Spring
+ * Boot reports the instance ready for traffic only after they have started, so the readiness probe turns green once
+ * warm-up is done. It:
+ * <ol>
+ *     <li>opens {@code novuConnections} connections to Novu, paying for TCP and TLS handshakes up front. Both clients
+ *     that send to Novu get them: the Novu SDK client, which blocking sends lease from {@link RefreshableNovuClient}
+ *     and which is warmed up through its own trigger call, and the {@link NovuTriggerClient} used by asynchronous
+ *     sends;</li>
+ *     <li>runs {@code iterations} synthetic requests through the steps every email takes: JSON deserialization,
+ *     bean validation, mapping to a Novu trigger body and serialization of the result. This builds the Jackson
+ *     serializers and validator metadata, which are cached, and gets the code compiled by the JIT.</li>
+ * </ol>
+ * Nothing is sent. Warm-up stops at {@code timeout}, and a failing step is logged and skipped: a cold instance is
+ * better than one that does not start.
+ */
+@Component
+public class WarmUp implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUp.class);
+
+    private static final String SAMPLE_REQUEST = "{\"to\":\"warm-up@example.com\",\"cc\":[\"cc@example.com\"],"
+            + "\"subject\":\"Warm-up\",\"body\":\"<p>Warm-up</p>\",\"signature\":\"Warm-up\","
+            + "\"emailVariables\":{\"name\":\"Warm-up\",\"count\":1},\"sendAt\":\"2030-01-01T00:00:00Z\"}";
+
+    private final WarmUpProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final NovuTriggerClient triggerClient;
+    private final RefreshableNovuClient novuClient;
+
+    private volatile boolean running;
+
+    public WarmUp(WarmUpProperties properties, ObjectMapper objectMapper, Validator validator, NovuTriggerClient triggerClient,
+                  RefreshableNovuClient novuClient) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.triggerClient = triggerClient;
+        this.novuClient = novuClient;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeout().toNanos();
+        int connections = openNovuConnections(deadline);
+        int iterations = exercise(deadline);
+        logger.info("Warm-up finished in {} ms: {} Novu connections opened, {} of {} iterations run.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), connections, iterations, properties.getIterations());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server and the SQS pollers ({@code Integer.MAX_VALUE - 1}).
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2;
+    }
+
+    private int openNovuConnections(long deadline) {
+        if (properties.getNovuConnections() <= 0) {
+            return 0;
+        }
+        int opened = 0;
+        try {
+            opened += novuClient.warmUp(properties.getNovuConnections(), remaining(deadline));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return opened;
+        } catch (RuntimeException e) {
+            logger.warn("Could not open connections to Novu through the Novu SDK during warm-up: {}", e.getMessage());
+        }
+        try {
+            opened += triggerClient.warmUp(properties.getNovuConnections(), properties.getNovuPath(), remaining(deadline));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.warn("Could not open connections to Novu during warm-up: {}", e.getMessage());
+        }
+        return opened;
+    }
+
+    private static Duration remaining(long deadline) {
+        return Duration.ofNanos(Math.max(1, deadline - System.nanoTime()));
+    }
+
+    /**
+     * @return The number of iterations run before the deadline.
+     */
+    int exercise(long deadline) {
+        int iterations = 0;
+        try {
+            while (iterations < properties.getIterations() && System.nanoTime() - deadline < 0) {
+                EmailRequest request = objectMapper.readValue(SAMPLE_REQUEST, EmailRequest.class);
+                if (!validator.validate(request).isEmpty()) {
+                    throw new IllegalStateException("Warm-up request is not valid.");
+                }
+                Map<String, Object> payload = NovuTriggerClient.payload(request);
+                triggerClient.body("warm-up", request.getTo(), payload);
+                objectMapper.writeValueAsBytes(request);
+                objectMapper.writeValueAsBytes(EmailSendResult.builder()
+                        .provider("warm-up")
+                        .recipient(EmailSendResult.Recipient.builder()
+                                .address(request.getTo())
+                                .type(EmailSendResult.RecipientType.TO)
+                                .status(EmailSendResult.Status.ACCEPTED)
+                                .latency(Duration.ofMillis(iterations))
+                                .build())
+                        .latency(Duration.ofMillis(iterations))
+                        .build());
+                iterations++;
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Warm-up stopped after {} iterations: {}", iterations, e.getMessage());
+        }
+        return iterations;
+    }
+}
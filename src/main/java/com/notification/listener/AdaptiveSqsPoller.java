@@ -0,0 +1,401 @@
+package com.notification.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
+import com.notification.config.SqsPollerProperties;
+import com.notification.ingest.SqsMessageDecoder;
+import com.notification.tenant.FairTenantDispatcher;
+import com.notification.tenant.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumes the email queue with a number of pollers that follows the load, instead of the listener container's
+ * fixed concurrency.
+ * <p>
+ * Each poller long-polls for a batch and hands every message to {@link SqsEmailListener}, so processing, deferral,
+ * acknowledgment and shutdown hand-back behave exactly as with {@code @SqsListener}. Every {@code adjustInterval}
+ * a controller samples {@code ApproximateNumberOfMessages} and, through {@link PollerScalingPolicy}, adds or
+ * retires pollers and switches between a long idle wait (cheap while the queue is empty) and a short busy wait.
+ * Pollers are also shed while processing latency or the dispatcher backlog shows that the downstream providers or
+ * tenant limits, not SQS, are the bottleneck; the excess then stays in SQS rather than in memory.
+ * <p>
+ * A poller processes the messages of a standard queue's receive one after another. Until its turn comes, a
+ * {@link VisibilityHeartbeat} keeps each message invisible, so the last of a slow batch is not delivered again while
+ * it waits.
+ * <p>
+ * FIFO queues (names ending in {@code .fifo}) keep the order of each message group: messages are run on a
+ * {@link MessageGroupExecutor}, one at a time per {@code MessageGroupId} and in parallel across groups, with at most
+ * {@code maxInFlightGroups} groups in flight before the pollers stop receiving. A poller reserves room for the groups
+ * of a receive before making it and asks for no more messages than it reserved, so it waits for room with nothing in
+ * hand. Received messages are kept invisible by the same heartbeat while they wait for a worker or for the messages
+ * ahead of them in their group. If a message is not deleted (it failed, was deferred to its send time or was handed
+ * back for shutdown), the group's later messages from the same receive are made visible again rather than sent ahead
+ * of it; SQS then redelivers them in order behind it.
+ * <p>
+ * When enabled, the listener container must not also consume the queue ({@code cloud.aws.sqs.listener.auto-startup:
+ * false}). The listener container does not keep FIFO order.
+ */
+@Component
+public class AdaptiveSqsPoller implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveSqsPoller.class);
+
+    private static final double LATENCY_EWMA_ALPHA = 0.2;
+    private static final Duration GROUP_SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * SQS's default, assumed if the queue's visibility timeout cannot be read.
+     */
+    private static final int DEFAULT_VISIBILITY_TIMEOUT_SECONDS = 30;
+
+    private final ObjectProvider<AmazonSQSAsync> amazonSqs;
+    private final SqsEmailListener listener;
+    private final FairTenantDispatcher dispatcher;
+    private final SqsPollerProperties properties;
+    private final PollerScalingPolicy policy;
+    private final String queueName;
+    private final Timer processingTimer;
+    private final List<Poller> pollers = new ArrayList<>();
+
+    private volatile boolean running;
+    private volatile int waitTimeSeconds;
+    private volatile long queueDepth = -1;
+    private volatile double latencyMillis;
+    private AmazonSQSAsync sqs;
+    private String queueUrl;
+    private volatile MessageGroupExecutor groupExecutor;
+    private volatile VisibilityHeartbeat heartbeat;
+    private Thread controller;
+    private int pollerSequence;
+
+    public AdaptiveSqsPoller(ObjectProvider<AmazonSQSAsync> amazonSqs,
+                             SqsEmailListener listener,
+                             FairTenantDispatcher dispatcher,
+                             SqsPollerProperties properties,
+                             MeterRegistry meterRegistry,
+                             @Value("${cloud.aws.sqs.queue.name}") String queueName) {
+        this.amazonSqs = amazonSqs;
+        this.listener = listener;
+        this.dispatcher = dispatcher;
+        this.properties = properties;
+        this.policy = new PollerScalingPolicy(properties);
+        this.queueName = queueName;
+        this.processingTimer = Timer.builder("notification.sqs.processing").register(meterRegistry);
+        Gauge.builder("notification.sqs.pollers", this, AdaptiveSqsPoller::pollerCount).register(meterRegistry);
+        Gauge.builder("notification.sqs.queue.depth", this, poller -> poller.queueDepth).register(meterRegistry);
+        Gauge.builder("notification.sqs.wait.seconds", this, poller -> poller.waitTimeSeconds).register(meterRegistry);
+        Gauge.builder("notification.sqs.fifo.groups", this, poller -> poller.groupExecutor != null ? poller.groupExecutor.inFlightGroups() : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        sqs = amazonSqs.getIfAvailable();
+        if (sqs == null) {
+            logger.warn("Adaptive SQS poller is enabled but no SQS client is configured; not polling.");
+            return;
+        }
+        queueUrl = queueName.startsWith("https://") || queueName.startsWith("http://")
+                ? queueName
+                : sqs.getQueueUrl(queueName).getQueueUrl();
+        heartbeat = new VisibilityHeartbeat(sqs, queueUrl, visibilityTimeoutSeconds());
+        if (queueUrl.endsWith(".fifo")) {
+            groupExecutor = new MessageGroupExecutor(properties.getFifoWorkers(), properties.getMaxInFlightGroups());
+        }
+        waitTimeSeconds = policy.waitTimeSeconds(0);
+        running = true;
+        resize(policy.targetPollers(0, 0, 0, 0));
+        controller = new Thread(this::runController, "sqs-poller-control");
+        controller.setDaemon(true);
+        controller.start();
+        logger.info("Started adaptive SQS poller on {} with {} to {} pollers{}.", queueUrl, properties.getMinPollers(), properties.getMaxPollers(),
+                groupExecutor != null ? ", up to " + properties.getMaxInFlightGroups() + " message groups in flight" : "");
+    }
+
+    /**
+     * Stops receiving. Pollers finish processing the batch they hold (or hand it back while draining) and exit.
+     */
+    @Override
+    public void stop() {
+        List<Poller> stopping;
+        synchronized (pollers) {
+            if (!running) {
+                return;
+            }
+            running = false;
+            stopping = new ArrayList<>(pollers);
+            pollers.clear();
+        }
+        LockSupport.unpark(controller);
+        for (Poller poller : stopping) {
+            try {
+                // A poller may be in a long poll of up to 20 seconds before it notices.
+                poller.thread.join(TimeUnit.SECONDS.toMillis(waitTimeSeconds + 5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        MessageGroupExecutor executor = groupExecutor;
+        if (executor != null) {
+            try {
+                // While draining, queued messages are handed back as soon as they run.
+                if (!executor.shutdown(GROUP_SHUTDOWN_TIMEOUT)) {
+                    logger.warn("Message groups still in flight after {}; their messages reappear after the visibility timeout.", GROUP_SHUTDOWN_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        heartbeat.shutdown();
+        logger.info("Stopped adaptive SQS poller.");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops before the beans it calls into; the drain coordinator stops it earlier still.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1;
+    }
+
+    private int pollerCount() {
+        synchronized (pollers) {
+            return pollers.size();
+        }
+    }
+
+    private void runController() {
+        while (running) {
+            LockSupport.parkNanos(this, properties.getAdjustInterval().toNanos());
+            if (!running) {
+                return;
+            }
+            try {
+                adjust();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to sample SQS queue depth; keeping {} pollers: {}", pollerCount(), e.getMessage());
+            }
+        }
+    }
+
+    private void adjust() {
+        String depth = sqs.getQueueAttributes(new GetQueueAttributesRequest(queueUrl)
+                        .withAttributeNames(QueueAttributeName.ApproximateNumberOfMessages))
+                .getAttributes().get(QueueAttributeName.ApproximateNumberOfMessages.toString());
+        queueDepth = depth != null ? Long.parseLong(depth) : -1;
+        int current = pollerCount();
+        double backlog = dispatcher.backlogPerWorker();
+        int target = policy.targetPollers(current, queueDepth, latencyMillis, backlog);
+        waitTimeSeconds = policy.waitTimeSeconds(queueDepth);
+        if (target != current) {
+            logger.info("Scaling SQS pollers {} -> {} (depth {}, latency {} ms, dispatch backlog {} per worker).",
+                    current, target, queueDepth, Math.round(latencyMillis), String.format("%.2f", backlog));
+            resize(target);
+        }
+    }
+
+    private void resize(int target) {
+        synchronized (pollers) {
+            if (!running) {
+                return;
+            }
+            while (pollers.size() < target) {
+                Poller poller = new Poller("sqs-poller-" + pollerSequence++);
+                pollers.add(poller);
+                poller.thread.start();
+            }
+            while (pollers.size() > target) {
+                pollers.remove(pollers.size() - 1).retired = true;
+            }
+        }
+    }
+
+    private void runPoller(Poller poller) {
+        int maxMessages = Math.max(1, Math.min(10, properties.getMaxMessagesPerPoll()));
+        while (running && !poller.retired) {
+            MessageGroupExecutor executor = groupExecutor;
+            int reserved = 0;
+            if (executor != null) {
+                try {
+                    reserved = executor.reserve(maxMessages);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (IllegalStateException e) {
+                    // Stopping.
+                    return;
+                }
+            }
+            try {
+                List<Message> messages;
+                try {
+                    // Each message of a FIFO receive may start a new group, so ask for no more than were reserved.
+                    messages = receive(executor != null ? reserved : maxMessages);
+                } catch (RuntimeException e) {
+                    logger.warn("SQS receive failed on {}: {}", poller.thread.getName(), e.getMessage());
+                    LockSupport.parkNanos(this, properties.getErrorBackoff().toNanos());
+                    continue;
+                }
+                if (executor == null) {
+                    heartbeat.hold(messages);
+                    for (Message message : messages) {
+                        heartbeat.release(message);
+                        process(message);
+                    }
+                    continue;
+                }
+                // More groups may be in flight than there are workers; queued ones wait without losing visibility.
+                heartbeat.hold(messages);
+                for (Map.Entry<String, List<Message>> group : byGroup(messages).entrySet()) {
+                    List<Message> groupMessages = group.getValue();
+                    if (executor.submitReserved(group.getKey(), () -> processInOrder(groupMessages))) {
+                        reserved--;
+                    }
+                }
+            } catch (IllegalStateException e) {
+                // Stopping; unsubmitted messages reappear after their visibility timeout.
+                return;
+            } finally {
+                if (executor != null) {
+                    executor.release(reserved);
+                }
+            }
+        }
+    }
+
+    private int visibilityTimeoutSeconds() {
+        try {
+            String timeout = sqs.getQueueAttributes(new GetQueueAttributesRequest(queueUrl)
+                            .withAttributeNames(QueueAttributeName.VisibilityTimeout))
+                    .getAttributes().get(QueueAttributeName.VisibilityTimeout.toString());
+            if (timeout != null) {
+                return Integer.parseInt(timeout);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the visibility timeout of {}; assuming {} seconds: {}", queueUrl, DEFAULT_VISIBILITY_TIMEOUT_SECONDS, e.getMessage());
+        }
+        return DEFAULT_VISIBILITY_TIMEOUT_SECONDS;
+    }
+
+    private List<Message> receive(int maxMessages) {
+        return sqs.receiveMessage(new ReceiveMessageRequest(queueUrl)
+                        .withMaxNumberOfMessages(maxMessages)
+                        .withWaitTimeSeconds(waitTimeSeconds)
+                        .withAttributeNames("ApproximateFirstReceiveTimestamp", "SentTimestamp", "MessageGroupId")
+                        .withMessageAttributeNames(TenantContext.SQS_ATTRIBUTE,
+                                SqsMessageDecoder.CONTENT_TYPE_ATTRIBUTE, SqsMessageDecoder.CONTENT_ENCODING_ATTRIBUTE))
+                .getMessages();
+    }
+
+    /**
+     * @return The messages of a FIFO receive by message group, in receive order within each group.
+     */
+    static Map<String, List<Message>> byGroup(List<Message> messages) {
+        Map<String, List<Message>> groups = new LinkedHashMap<>();
+        for (Message message : messages) {
+            String group = message.getAttributes().get("MessageGroupId");
+            groups.computeIfAbsent(group != null ? group : "", key -> new ArrayList<>(1)).add(message);
+        }
+        return groups;
+    }
+
+    /**
+     * Processes messages of one group in order, up to the first one that is not deleted; the rest are made visible
+     * again so they are not sent ahead of it.
+     */
+    private void processInOrder(List<Message> messages) {
+        for (int i = 0; i < messages.size(); i++) {
+            heartbeat.release(messages.get(i));
+            if (!process(messages.get(i))) {
+                for (Message later : messages.subList(i + 1, messages.size())) {
+                    heartbeat.release(later);
+                    sqs.changeMessageVisibilityAsync(new ChangeMessageVisibilityRequest(queueUrl, later.getReceiptHandle(), 0));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the message was processed and deleted from the queue.
+     */
+    private boolean process(Message message) {
+        Map<String, MessageAttributeValue> attributes = message.getMessageAttributes();
+        String receiptHandle = message.getReceiptHandle();
+        boolean[] deleted = new boolean[1];
+        long start = System.nanoTime();
+        try {
+            listener.receiveEmailRequest(message.getBody(),
+                    message.getMessageId(),
+                    message.getAttributes().get("SentTimestamp"),
+                    message.getAttributes().get("ApproximateFirstReceiveTimestamp"),
+                    stringValue(attributes, TenantContext.SQS_ATTRIBUTE),
+                    stringValue(attributes, SqsMessageDecoder.CONTENT_TYPE_ATTRIBUTE),
+                    stringValue(attributes, SqsMessageDecoder.CONTENT_ENCODING_ATTRIBUTE),
+                    seconds -> sqs.changeMessageVisibilityAsync(new ChangeMessageVisibilityRequest(queueUrl, receiptHandle, seconds)),
+                    () -> {
+                        deleted[0] = true;
+                        return sqs.deleteMessageAsync(new DeleteMessageRequest(queueUrl, receiptHandle));
+                    });
+            return deleted[0];
+        } catch (RuntimeException e) {
+            // Already logged by the listener; the message becomes visible again after its visibility timeout.
+            return false;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            processingTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            recordLatency(elapsed / 1_000_000d);
+        }
+    }
+
+    private static String stringValue(Map<String, MessageAttributeValue> attributes, String name) {
+        MessageAttributeValue value = attributes.get(name);
+        return value != null ? value.getStringValue() : null;
+    }
+
+    private synchronized void recordLatency(double millis) {
+        latencyMillis = latencyMillis == 0 ? millis : latencyMillis + LATENCY_EWMA_ALPHA * (millis - latencyMillis);
+    }
+
+    private final class Poller {
+        private final Thread thread;
+        private volatile boolean retired;
+
+        private Poller(String name) {
+            this.thread = new Thread(() -> runPoller(this), name);
+            this.thread.setDaemon(true);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.notification.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks keyed by SQS message group: tasks of one group run one at a time, in submission order, while different
+ * groups run in parallel on a fixed pool of workers.
+ * <p>
+ * A group is in flight from its first submitted task until its queue runs empty. At most {@code maxInFlightGroups}
+ * groups are in flight or reserved. A poller {@link #reserve reserves} room for new groups before it receives, which
+ * is how a full executor stops the pollers from receiving more: waiting then costs nothing, whereas waiting with
+ * received messages in hand would keep them from every other consumer. Groups beyond the number of workers wait in
+ * the queue; the poller keeps their messages' visibility extended meanwhile.
+ * {@link #submitReserved} uses up the reservation instead of waiting, and {@link #release} returns what is left.
+ * Tasks for a group already in flight are always accepted, so a poller never waits on a group it is feeding.
+ */
+final class MessageGroupExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageGroupExecutor.class);
+
+    private final ExecutorService workers;
+    private final int maxInFlightGroups;
+
+    /**
+     * Queued tasks of each group in flight, the running one excluded. Guarded by {@code this}.
+     */
+    private final Map<String, ArrayDeque<Runnable>> groups = new HashMap<>();
+    private int reserved;
+    private boolean shutdown;
+
+    MessageGroupExecutor(int workerThreads, int maxInFlightGroups) {
+        this.maxInFlightGroups = Math.max(1, maxInFlightGroups);
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "sqs-group-" + sequence.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the task behind the group's earlier tasks, waiting first while {@code maxInFlightGroups} other groups
+     * are in flight or reserved.
+     *
+     * @throws IllegalStateException if the executor has been shut down.
+     */
+    void submit(String group, Runnable task) throws InterruptedException {
+        synchronized (this) {
+            while (!shutdown && !groups.containsKey(group) && groups.size() + reserved >= maxInFlightGroups) {
+                wait();
+            }
+            if (shutdown) {
+                throw new IllegalStateException("Message group executor is shut down.");
+            }
+            ArrayDeque<Runnable> queued = groups.get(group);
+            if (queued != null) {
+                queued.add(task);
+                return;
+            }
+            groups.put(group, new ArrayDeque<>());
+        }
+        workers.execute(() -> runGroup(group, task));
+    }
+
+    /**
+     * Waits while {@code maxInFlightGroups} groups are in flight or reserved, then reserves room for up to
+     * {@code wanted} new groups.
+     *
+     * @return The number of groups reserved, at least 1.
+     * @throws IllegalStateException if the executor has been shut down.
+     */
+    synchronized int reserve(int wanted) throws InterruptedException {
+        while (!shutdown && groups.size() + reserved >= maxInFlightGroups) {
+            wait();
+        }
+        if (shutdown) {
+            throw new IllegalStateException("Message group executor is shut down.");
+        }
+        int granted = Math.max(1, Math.min(wanted, maxInFlightGroups - groups.size() - reserved));
+        reserved += granted;
+        return granted;
+    }
+
+    /**
+     * Queues the task behind the group's earlier tasks without waiting. A new group takes one of the caller's
+     * {@link #reserve reserved} places.
+     *
+     * @return {@code true} if the task started a new group and so used up a reserved place.
+     * @throws IllegalStateException if the executor has been shut down.
+     */
+    boolean submitReserved(String group, Runnable task) {
+        synchronized (this) {
+            if (shutdown) {
+                throw new IllegalStateException("Message group executor is shut down.");
+            }
+            ArrayDeque<Runnable> queued = groups.get(group);
+            if (queued != null) {
+                queued.add(task);
+                return false;
+            }
+            groups.put(group, new ArrayDeque<>());
+            reserved = Math.max(0, reserved - 1);
+        }
+        workers.execute(() -> runGroup(group, task));
+        return true;
+    }
+
+    /**
+     * Gives back {@code places} reserved but not used.
+     */
+    synchronized void release(int places) {
+        if (places > 0) {
+            reserved = Math.max(0, reserved - places);
+            notifyAll();
+        }
+    }
+
+    synchronized int inFlightGroups() {
+        return groups.size();
+    }
+
+    /**
+     * Stops accepting tasks and waits up to {@code timeout} for the queued ones to run.
+     *
+     * @return {@code true} if every task ran.
+     */
+    boolean shutdown(Duration timeout) throws InterruptedException {
+        synchronized (this) {
+            shutdown = true;
+            notifyAll();
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (this) {
+            while (!groups.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        }
+        workers.shutdown();
+        return workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS) && inFlightGroups() == 0;
+    }
+
+    private void runGroup(String group, Runnable first) {
+        Runnable task = first;
+        while (task != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Task for message group {} failed: {}", group, e.getMessage());
+            }
+            synchronized (this) {
+                task = groups.get(group).poll();
+                if (task == null) {
+                    groups.remove(group);
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
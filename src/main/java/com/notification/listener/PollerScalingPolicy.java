@@ -0,0 +1,62 @@
+package com.notification.listener;
+
+import com.notification.config.SqsPollerProperties;
+
+/**
+ * Decides how many SQS pollers to run and how long they long-poll, from the latest queue depth, processing latency
+ * and dispatcher backlog.
+ * <p>
+ * The target follows the backlog ({@code depth / messagesPerPoller}, within the configured bounds). Scaling up is
+ * immediate so backlogs drain quickly, but is held back while latency is above target, and reversed while the
+ * dispatcher already holds more work than its workers can absorb. Scaling down removes at most half the pollers per
+ * adjustment so a momentarily empty sample does not collapse a busy consumer.
+ */
+final class PollerScalingPolicy {
+
+    private final SqsPollerProperties properties;
+
+    PollerScalingPolicy(SqsPollerProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param current        Pollers currently running.
+     * @param queueDepth     {@code ApproximateNumberOfMessages}, or a negative value if unknown.
+     * @param latencyMillis  Smoothed processing latency per message.
+     * @param dispatchBacklog Dispatches queued or running per dispatcher worker.
+     * @return The number of pollers to run.
+     */
+    int targetPollers(int current, long queueDepth, double latencyMillis, double dispatchBacklog) {
+        int min = Math.max(1, properties.getMinPollers());
+        int max = Math.max(min, properties.getMaxPollers());
+        if (queueDepth < 0) {
+            return clamp(current, min, max);
+        }
+        int target = clamp((int) Math.min(max, ceilDiv(queueDepth, Math.max(1, properties.getMessagesPerPoller()))), min, max);
+        if (dispatchBacklog > properties.getMaxDispatchBacklogPerWorker()) {
+            target = Math.min(target, current - 1);
+        } else if (latencyMillis > properties.getTargetLatency().toMillis()) {
+            target = Math.min(target, current);
+        }
+        if (target < current) {
+            target = Math.max(target, current / 2);
+        }
+        return clamp(target, min, max);
+    }
+
+    /**
+     * @return Long-poll wait in seconds for the given queue depth.
+     */
+    int waitTimeSeconds(long queueDepth) {
+        long seconds = (queueDepth == 0 ? properties.getIdleWaitTime() : properties.getBusyWaitTime()).getSeconds();
+        return (int) Math.max(0, Math.min(20, seconds));
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -1,9 +1,17 @@
 package com.notification.listener;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.ingest.SqsMessageDecoder;
+import com.notification.lifecycle.DrainCoordinator;
 import com.notification.service.EmailSenderService;
+import com.notification.tenant.TenantContext;
+import com.notification.tracing.EmailLatencyTracer;
+import com.notification.tracing.MessageTrace;
+import io.awspring.cloud.messaging.listener.Acknowledgment;
+import io.awspring.cloud.messaging.listener.SqsMessageDeletionPolicy;
+import io.awspring.cloud.messaging.listener.Visibility;
 import io.awspring.cloud.messaging.listener.annotation.SqsListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +21,14 @@ import org.springframework.stereotype.Component;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -25,9 +40,17 @@ public class SqsEmailListener {
 
     private static final Logger logger = LoggerFactory.getLogger(SqsEmailListener.class);
 
+    /**
+     * SQS caps a single visibility timeout at 12 hours. Longer deferrals are re-extended on the next receive.
+     */
+    static final int MAX_VISIBILITY_SECONDS = 12 * 60 * 60;
+
     private final EmailSenderService emailSenderService;
     private final ObjectMapper objectMapper;
     private final Validator validator;
+    private final DrainCoordinator drainCoordinator;
+    private final EmailLatencyTracer latencyTracer;
+    private final SqsMessageDecoder messageDecoder;
 
     /**
      * Constructs an SqsEmailListener.
@@ -35,30 +58,72 @@ public class SqsEmailListener {
      * @param emailSenderService Service to send emails.
      * @param objectMapper     For deserializing JSON messages from SQS.
      * @param validator        For validating the deserialized {@link EmailRequest}.
+     * @param drainCoordinator Tracks in-flight messages and signals when to hand them back during shutdown.
+     * @param latencyTracer    Records per-stage latency and traces each message through to the provider.
+     * @param messageDecoder   For messages in Smile or gzip-compressed, as flagged by their message attributes.
      */
     @Autowired
-    public SqsEmailListener(EmailSenderService emailSenderService, ObjectMapper objectMapper, Validator validator) {
+    public SqsEmailListener(EmailSenderService emailSenderService, ObjectMapper objectMapper, Validator validator,
+                            DrainCoordinator drainCoordinator, EmailLatencyTracer latencyTracer,
+                            SqsMessageDecoder messageDecoder) {
         this.emailSenderService = emailSenderService;
         this.objectMapper = objectMapper;
         this.validator = validator;
+        this.drainCoordinator = drainCoordinator;
+        this.latencyTracer = latencyTracer;
+        this.messageDecoder = messageDecoder;
     }
 
     /**
      * Listens to the configured SQS queue for incoming messages.
-     * Messages are expected to be JSON strings that can be deserialized into {@link EmailRequest}.
+     * Messages are expected to be JSON strings that can be deserialized into {@link EmailRequest}, or base64-encoded
+     * Smile or gzip as described by the {@link SqsMessageDecoder} message attributes.
+     * <p>
+     * Messages whose {@link EmailRequest#getSendAt() sendAt} lies in the future are not sent yet: their visibility
+     * timeout is extended until the send time and they are left on the queue, so SQS holds them durably and no thread
+     * sleeps. Note that each deferral counts as a receive towards the queue's redrive {@code maxReceiveCount}, and that
+     * deferrals cannot exceed the queue's message retention period.
+     * Messages are sent through {@link EmailSenderService#sendEmailAsync} and deleted only once they have been sent
+     * successfully; recipients the provider did not accept are logged, and the message is not redelivered for them.
+     * <p>
+     * While the application drains for shutdown, messages that have not been sent yet are handed back to the queue
+     * with a zero visibility timeout instead of waiting out their timeout, so another instance picks them up at once.
      *
-     * @param message        The raw message content (JSON string) from SQS.
+     * @param message        The raw message content (JSON string, or base64) from SQS.
      * @param messageId      The SQS message ID, injected from the message headers.
-     * @param approximateFirstReceiveTimestamp The approximate time the message was first received, for logging.
+     * @param sentTimestamp  The time (epoch millis) the message was sent to the queue. Used to measure queue latency.
+     * @param approximateFirstReceiveTimestamp The approximate time (epoch millis) the message was first received.
+     *                       Used as the base for {@link EmailRequest#getDelaySeconds()}.
+     * @param tenantId       The tenant the message is charged to, from the {@value TenantContext#SQS_ATTRIBUTE} message attribute.
+     * @param contentType    The format of the message, from the {@value SqsMessageDecoder#CONTENT_TYPE_ATTRIBUTE} message attribute.
+     * @param contentEncoding The compression of the message, from the {@value SqsMessageDecoder#CONTENT_ENCODING_ATTRIBUTE} message attribute.
+     * @param visibility     Handle used to defer scheduled messages by extending their visibility timeout.
+     * @param acknowledgment Handle used to delete the message once it has been processed.
      */
-    @SqsListener(value = "${cloud.aws.sqs.queue.name}", deletionPolicy = io.awspring.cloud.messaging.listener.SqsMessageDeletionPolicy.ON_SUCCESS)
+    @SqsListener(value = "${cloud.aws.sqs.queue.name}", deletionPolicy = SqsMessageDeletionPolicy.NEVER)
     public void receiveEmailRequest(String message,
                                     @Header("MessageId") String messageId, // Standard SQS message attribute
-                                    @Header(name = "ApproximateFirstReceiveTimestamp", required = false) String approximateFirstReceiveTimestamp) { // SQS attribute
-        logger.info("Received SQS message ID: {}. ApproxFirstReceiveTimestamp: {}. Payload: {}", messageId, approximateFirstReceiveTimestamp, message);
+                                    @Header(name = "SentTimestamp", required = false) String sentTimestamp, // SQS attribute
+                                    @Header(name = "ApproximateFirstReceiveTimestamp", required = false) String approximateFirstReceiveTimestamp, // SQS attribute
+                                    @Header(name = TenantContext.SQS_ATTRIBUTE, required = false) String tenantId,
+                                    @Header(name = SqsMessageDecoder.CONTENT_TYPE_ATTRIBUTE, required = false) String contentType,
+                                    @Header(name = SqsMessageDecoder.CONTENT_ENCODING_ATTRIBUTE, required = false) String contentEncoding,
+                                    Visibility visibility,
+                                    Acknowledgment acknowledgment) {
+        logger.info("Received SQS message ID: {}. ApproxFirstReceiveTimestamp: {}. Tenant: {}. Payload: {}", messageId, approximateFirstReceiveTimestamp, tenantId, message);
 
+        drainCoordinator.messageStarted();
+        if (drainCoordinator.isDraining()) {
+            handBack(messageId, visibility);
+            drainCoordinator.messageFinished();
+            return;
+        }
+        MessageTrace trace = latencyTracer.startSqsMessage(messageId, parseInstant(sentTimestamp), parseInstant(approximateFirstReceiveTimestamp));
+        TenantContext.set(tenantId);
         try {
-            EmailRequest emailRequest = objectMapper.readValue(message, EmailRequest.class);
+            EmailRequest emailRequest = contentType == null && contentEncoding == null
+                    ? objectMapper.readValue(message, EmailRequest.class)
+                    : messageDecoder.decode(message, contentType, contentEncoding);
             logger.info("Deserialized SQS message to EmailRequest for recipient: {}", emailRequest.getTo());
 
             Set<ConstraintViolation<EmailRequest>> violations = validator.validate(emailRequest);
@@ -75,21 +140,119 @@ public class SqsEmailListener {
                 // For now, we'll let it throw, assuming DLQ handles persistent bad messages.
                 throw new IllegalArgumentException("Invalid EmailRequest from SQS: " + errorMessages);
             }
+            trace.validated();
 
-            emailSenderService.sendEmail(emailRequest);
+            Instant sendAt = emailRequest.resolveSendAt(parseEpochMillis(approximateFirstReceiveTimestamp));
+            if (sendAt != null && sendAt.isAfter(Instant.now())) {
+                defer(messageId, sendAt, visibility);
+                trace.deferred();
+                return;
+            }
+            if (sendAt != null) {
+                trace.dueAt(sendAt);
+            }
+
+            EmailSendResult result;
+            try {
+                result = await(emailSenderService.sendEmailAsync(emailRequest));
+            } catch (RejectedExecutionException e) {
+                if (!drainCoordinator.isDraining()) {
+                    throw e;
+                }
+                handBack(messageId, visibility);
+                return;
+            }
+            if (!result.isFullyAccepted()) {
+                // The rest was sent; redelivering the message would send it to them again.
+                logger.warn("SQS message ID {}: provider '{}' did not accept {}.", messageId, result.getProvider(), failedRecipients(result));
+            }
+            trace.delivered();
+            acknowledgment.acknowledge();
+            drainCoordinator.recordCompleted();
             logger.info("Successfully processed SQS message ID {} and triggered email for: {}", messageId, emailRequest.getTo());
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
+            trace.failed(e);
             logger.error("Failed to deserialize SQS message ID {} into EmailRequest. Message content: {}. Error: {}", messageId, message, e.getMessage(), e);
             // This is likely a malformed message. It might need to go to a DLQ.
             // Throwing an exception will make SQS redeliver it until maxReceiveCount, then DLQ (if configured).
             throw new RuntimeException("SQS message deserialization error for messageId " + messageId, e);
         } catch (IllegalArgumentException e) {
+            trace.failed(e);
             // Validation error already logged. Rethrow to ensure SQS handles it (e.g., DLQ).
             throw e;
         } catch (Exception e) {
+            trace.failed(e);
             logger.error("Error processing SQS message ID {} for email request. Error: {}", messageId, e.getMessage(), e);
             // For other errors (e.g., EmailSendingException), rethrow so SQS can retry or DLQ.
             throw new RuntimeException("Generic error processing SQS messageId " + messageId, e);
+        } finally {
+            trace.close();
+            TenantContext.clear();
+            drainCoordinator.messageFinished();
+        }
+    }
+
+    /**
+     * Waits for an asynchronous send, rethrowing its failure as {@link EmailSenderService#sendEmail} would.
+     */
+    private static EmailSendResult await(CompletableFuture<EmailSendResult> send) {
+        try {
+            return send.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String failedRecipients(EmailSendResult result) {
+        return result.getRecipients().stream()
+                .filter(recipient -> recipient.getStatus() == EmailSendResult.Status.FAILED)
+                .map(recipient -> recipient.getAddress() + " (" + recipient.getError() + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Makes an unsent message visible again immediately, leaving it on the queue for another consumer.
+     */
+    private void handBack(String messageId, Visibility visibility) {
+        try {
+            visibility.extend(0).get(5, TimeUnit.SECONDS);
+            drainCoordinator.recordHandedBack();
+            logger.info("Handed SQS message ID {} back to the queue for shutdown.", messageId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while handing SQS message ID {} back; it reappears after its visibility timeout.", messageId);
+        } catch (Exception e) {
+            logger.warn("Could not hand SQS message ID {} back; it reappears after its visibility timeout: {}", messageId, e.getMessage());
+        }
+    }
+
+    /**
+     * Leaves a scheduled message on the queue, hidden until its send time (or the SQS maximum, whichever is sooner).
+     */
+    private void defer(String messageId, Instant sendAt, Visibility visibility) {
+        long remainingSeconds = Duration.between(Instant.now(), sendAt).toSeconds() + 1;
+        int visibilitySeconds = (int) Math.min(remainingSeconds, MAX_VISIBILITY_SECONDS);
+        visibility.extend(visibilitySeconds);
+        logger.info("SQS message ID {} is scheduled for {}. Deferred for {} seconds.", messageId, sendAt, visibilitySeconds);
+    }
+
+    private static Instant parseEpochMillis(String epochMillis) {
+        Instant instant = parseInstant(epochMillis);
+        return instant != null ? instant : Instant.now();
+    }
+
+    private static Instant parseInstant(String epochMillis) {
+        if (epochMillis != null) {
+            try {
+                return Instant.ofEpochMilli(Long.parseLong(epochMillis));
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring non-numeric timestamp '{}'.", epochMillis);
+            }
         }
+        return null;
     }
 }
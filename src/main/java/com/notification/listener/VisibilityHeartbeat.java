@@ -0,0 +1,95 @@
+package com.notification.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.Message;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps received SQS messages invisible while they wait for their turn, so that a message queued behind others of
+ * the same receive is not delivered again when its visibility timeout runs out.
+ * <p>
+ * A poller {@link #hold holds} the messages of a receive and {@link #release releases} each one as its processing
+ * starts, from which point the listener owns its visibility. Every quarter of the visibility timeout, messages held
+ * for more than half of it get the full timeout again.
+ */
+final class VisibilityHeartbeat {
+
+    private final AmazonSQSAsync sqs;
+    private final String queueUrl;
+    private final int visibilityTimeoutSeconds;
+    private final long extendAfterNanos;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * When the visibility of each held message, by receipt handle, was last set. Guarded by {@code this}.
+     */
+    private final Map<String, Long> held = new HashMap<>();
+
+    VisibilityHeartbeat(AmazonSQSAsync sqs, String queueUrl, int visibilityTimeoutSeconds) {
+        this.sqs = sqs;
+        this.queueUrl = queueUrl;
+        this.visibilityTimeoutSeconds = Math.max(1, visibilityTimeoutSeconds);
+        this.extendAfterNanos = TimeUnit.SECONDS.toNanos(this.visibilityTimeoutSeconds) / 2;
+        long periodMillis = Math.max(250, TimeUnit.SECONDS.toMillis(this.visibilityTimeoutSeconds) / 4);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sqs-visibility");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(() -> extendDue(System.nanoTime()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Keeps the messages invisible until they are released.
+     */
+    synchronized void hold(List<Message> messages) {
+        long now = System.nanoTime();
+        for (Message message : messages) {
+            held.put(message.getReceiptHandle(), now);
+        }
+    }
+
+    /**
+     * Stops extending the message's visibility; called when its processing starts or it is handed back.
+     */
+    synchronized void release(Message message) {
+        held.remove(message.getReceiptHandle());
+    }
+
+    /**
+     * @return The number of messages held.
+     */
+    synchronized int size() {
+        return held.size();
+    }
+
+    /**
+     * Resets the visibility timeout of the messages held for more than half of it. Once {@link #release} has
+     * returned no further request is made for the message, so the listener's own visibility changes are not undone.
+     */
+    synchronized void extendDue(long nowNanos) {
+        for (Map.Entry<String, Long> entry : held.entrySet()) {
+            if (nowNanos - entry.getValue() >= extendAfterNanos) {
+                entry.setValue(nowNanos);
+                sqs.changeMessageVisibilityAsync(new ChangeMessageVisibilityRequest(queueUrl, entry.getKey(), visibilityTimeoutSeconds));
+            }
+        }
+    }
+
+    /**
+     * Stops extending. Messages still held reappear once their visibility timeout runs out.
+     */
+    void shutdown() {
+        timer.shutdownNow();
+        synchronized (this) {
+            held.clear();
+        }
+    }
+}
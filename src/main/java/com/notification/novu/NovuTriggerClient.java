@@ -0,0 +1,182 @@
+package com.notification.novu;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.exception.EmailSendingException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking client for Novu's {@code POST /v1/events/trigger}, used for asynchronous sends.
+ * <p>
+ * The Novu SDK only offers blocking calls, one thread per request. This client sends triggers through the JDK
+ * {@link HttpClient}, which multiplexes requests over HTTP/2 where Novu supports it and completes the returned futures
+ * from its own small executor, so many triggers can be in flight without a thread each.
+ * <p>
+ * With {@code notification.providers.novu.hedging.enabled}, a trigger that Novu has not acknowledged within a high
+ * percentile of recent latencies is sent again, and the first acknowledgement wins (see {@link Hedger}). Both attempts
+ * carry the same {@code Idempotency-Key}, so Novu runs the workflow once even if both arrive. The attempt that loses is
+ * not aborted on Java 11, whose {@link HttpClient} keeps a cancelled exchange running; the key is what keeps it from
+ * sending the email twice.
+ */
+@Component
+public class NovuTriggerClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final EmailProviderProperties.Novu settings;
+    private final Hedger hedger;
+
+    public NovuTriggerClient(ObjectMapper objectMapper, EmailProviderProperties properties, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.settings = properties.getNovu();
+        this.hedger = new Hedger(settings.getHedging(), meterRegistry, "trigger");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(settings.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Triggers the workflow for one subscriber, identified by its email address.
+     *
+     * @param apiKey     The Novu API key.
+     * @param workflowId The workflow trigger id.
+     * @param email      The recipient, used as both subscriber id and email.
+     * @param payload    The workflow payload.
+     * @return A future completed with the Novu transaction id once Novu has acknowledged the trigger, or exceptionally
+     * with an {@link EmailSendingException} if the trigger was rejected or could not be sent.
+     */
+    public CompletableFuture<String> trigger(String apiKey, String workflowId, String email, Map<String, Object> payload) {
+        HttpRequest request;
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(stripTrailingSlash(settings.getBaseUrl()) + "/v1/events/trigger"))
+                    .timeout(settings.getRequestTimeout())
+                    .header("Authorization", "ApiKey " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body(workflowId, email, payload)));
+            if (hedger.isEnabled()) {
+                builder.header("Idempotency-Key", UUID.randomUUID().toString());
+            }
+            request = builder.build();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new EmailSendingException("Could not build Novu trigger for " + email + ": " + e.getMessage(), e));
+        }
+
+        if (hedger.isEnabled()) {
+            return hedger.call(() -> send(request, email));
+        }
+        return send(request, email);
+    }
+
+    private CompletableFuture<String> send(HttpRequest request, String email) {
+        CompletableFuture<HttpResponse<byte[]>> exchange = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        CompletableFuture<String> result = exchange.handle((response, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                throw new EmailSendingException("Error sending email via Novu to " + email + ": " + cause.getMessage(), cause);
+            }
+            return transactionId(email, response);
+        });
+        // Cancelling a dependent future does not reach the one it depends on, so cancel the exchange itself. Before
+        // Java 16 that only stops waiting for the response, and the request still reaches Novu; the Idempotency-Key
+        // makes that harmless. From Java 16 it aborts the request.
+        result.whenComplete((transactionId, error) -> {
+            if (error instanceof CancellationException) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return The JSON body of a trigger of the workflow for one subscriber (see {@link TriggerBody}).
+     */
+    public byte[] body(String workflowId, String email, Map<String, Object> payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new TriggerBody(workflowId, email, payload));
+    }
+
+    /**
+     * @return The workflow payload for an email: its variables plus subject, body and signature.
+     */
+    public static Map<String, Object> payload(EmailRequest request) {
+        Map<String, Object> payload = new HashMap<>();
+        if (request.getEmailVariables() != null) {
+            payload.putAll(request.getEmailVariables());
+        }
+        payload.put("emailSubject", request.getSubject());
+        payload.put("emailBody", request.getBody());
+        payload.put("emailSignature", request.getSignature());
+        return payload;
+    }
+
+    /**
+     * Opens connections to Novu ahead of the first trigger, so it does not pay for the TCP and TLS handshakes. Sends
+     * {@code connections} concurrent unauthenticated requests for {@code path}; any HTTP answer leaves its connection in
+     * the client's pool. Over HTTP/2 they share one connection, so more than one only helps where Novu answers over
+     * HTTP/1.1.
+     *
+     * @return The number of requests answered within {@code timeout}.
+     */
+    public int warmUp(int connections, String path, Duration timeout) throws InterruptedException {
+        URI uri = URI.create(stripTrailingSlash(settings.getBaseUrl()) + path);
+        List<CompletableFuture<HttpResponse<Void>>> calls = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            calls.add(httpClient.sendAsync(HttpRequest.newBuilder(uri).timeout(timeout).GET().build(), HttpResponse.BodyHandlers.discarding()));
+        }
+        try {
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture<?>[0])).get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            // Counted below; the connections that did open are kept.
+        }
+        int answered = 0;
+        for (CompletableFuture<HttpResponse<Void>> call : calls) {
+            if (call.isDone() && !call.isCompletedExceptionally()) {
+                answered++;
+            } else {
+                call.cancel(true);
+            }
+        }
+        return answered;
+    }
+
+    private String transactionId(String email, HttpResponse<byte[]> response) {
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(response.body()).path("data");
+        } catch (IOException e) {
+            throw new EmailSendingException("Unreadable Novu response for " + email + " (HTTP " + response.statusCode() + ").", e);
+        }
+        if (response.statusCode() / 100 != 2
+                || !data.path("acknowledged").asBoolean(false)
+                || !"triggered".equalsIgnoreCase(data.path("status").asText())) {
+            throw new EmailSendingException("Failed to trigger Novu event for email to " + email + ". HTTP " + response.statusCode()
+                    + ", status: " + data.path("status").asText("N/A"));
+        }
+        return data.path("transactionId").asText(null);
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
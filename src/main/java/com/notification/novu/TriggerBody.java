@@ -0,0 +1,65 @@
+package com.notification.novu;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The body of a trigger of a workflow for one subscriber, identified by its email address:
+ * {@code {"name":…,"to":[{"subscriberId":…,"email":…}],"payload":…}}.
+ * <p>
+ * Written by a serializer of its own, with property names encoded once, rather than built as maps of maps that the
+ * map serializer then looks up a serializer for, entry by entry. The payload is written by the serializer the mapper
+ * has for it.
+ */
+@JsonSerialize(using = TriggerBody.Serializer.class)
+final class TriggerBody {
+
+    private final String workflowId;
+    private final String email;
+    private final Map<String, Object> payload;
+
+    TriggerBody(String workflowId, String email, Map<String, Object> payload) {
+        this.workflowId = workflowId;
+        this.email = email;
+        this.payload = payload;
+    }
+
+    static final class Serializer extends StdSerializer<TriggerBody> {
+
+        private static final SerializableString NAME = new SerializedString("name");
+        private static final SerializableString TO = new SerializedString("to");
+        private static final SerializableString SUBSCRIBER_ID = new SerializedString("subscriberId");
+        private static final SerializableString EMAIL = new SerializedString("email");
+        private static final SerializableString PAYLOAD = new SerializedString("payload");
+
+        Serializer() {
+            super(TriggerBody.class);
+        }
+
+        @Override
+        public void serialize(TriggerBody body, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(body);
+            generator.writeFieldName(NAME);
+            generator.writeString(body.workflowId);
+            generator.writeFieldName(TO);
+            generator.writeStartArray(null, 1);
+            generator.writeStartObject();
+            generator.writeFieldName(SUBSCRIBER_ID);
+            generator.writeString(body.email);
+            generator.writeFieldName(EMAIL);
+            generator.writeString(body.email);
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeFieldName(PAYLOAD);
+            provider.defaultSerializeValue(body.payload, generator);
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.notification.preference;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.PreferenceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Which subscribers opted out of email, per workflow, as set in notification-config.
+ * <p>
+ * Subscribers are the recipient addresses, as in Novu. Their preferences are fetched from
+ * {@code GET /api/v1/subscribers/{subscriberId}/preferences} on first use and held for {@code ttl}, at most
+ * {@code maxCachedSubscribers} of them, the least recently used being evicted. Subscribers whose preferences changed
+ * are polled every {@code pollInterval} from {@code GET /api/v1/preferences/changes} and dropped, so an opt-out
+ * applies within seconds rather than at expiry.
+ * <p>
+ * Lookups fail open: if notification-config cannot be reached the subscriber is sent to, and is not asked about again
+ * for {@code failureTtl}, so an outage does not add a timeout to every send.
+ */
+@Component
+public class SubscriberPreferenceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriberPreferenceCache.class);
+
+    private static final String EMAIL_CHANNEL = "EMAIL";
+    private static final String ANY_WORKFLOW = "*";
+    private static final int CHANGE_PAGE_SIZE = 1000;
+
+    private final PreferenceProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Map<String, Cached> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter failures;
+
+    private volatile boolean running;
+    private Thread poller;
+    private Instant changesSince;
+
+    public SubscriberPreferenceCache(PreferenceProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.getRequestTimeout()).build();
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > properties.getMaxCachedSubscribers();
+            }
+        };
+        this.hits = Counter.builder("notification.preferences.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("notification.preferences.lookups").tag("result", "miss").register(meterRegistry);
+        this.failures = Counter.builder("notification.preferences.lookups").tag("result", "failure").register(meterRegistry);
+        Gauge.builder("notification.preferences.cached", this, SubscriberPreferenceCache::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        changesSince = Instant.now().minus(properties.getChangeOverlap());
+        running = true;
+        poller = new Thread(this::runPoller, "preference-change-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (poller != null) {
+            LockSupport.unpark(poller);
+        }
+    }
+
+    /**
+     * @param subscriberId The recipient address.
+     * @param workflowId   The Novu workflow the email is sent through.
+     * @return {@code true} if the subscriber opted out of email for that workflow, or for every workflow.
+     */
+    public boolean isOptedOut(String subscriberId, String workflowId) {
+        if (!properties.isEnabled() || subscriberId == null) {
+            return false;
+        }
+        Set<String> optedOut = optedOutWorkflows(subscriberId);
+        return !optedOut.isEmpty() && (optedOut.contains(ANY_WORKFLOW) || optedOut.contains(workflowId));
+    }
+
+    /**
+     * Drops the cached preferences of a subscriber, so the next lookup fetches them again.
+     */
+    public void invalidate(String subscriberId) {
+        synchronized (entries) {
+            entries.remove(subscriberId);
+        }
+    }
+
+    /**
+     * Caches preferences as if fetched, for tests.
+     */
+    void put(String subscriberId, Collection<Entry> preferences) {
+        synchronized (entries) {
+            entries.put(subscriberId, new Cached(emailOptOuts(preferences), System.nanoTime() + properties.getTtl().toNanos()));
+        }
+    }
+
+    private Set<String> optedOutWorkflows(String subscriberId) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Cached cached = entries.get(subscriberId);
+            if (cached != null && now - cached.expiresAtNanos < 0) {
+                hits.increment();
+                return cached.optedOut;
+            }
+        }
+        misses.increment();
+        Set<String> optedOut;
+        long ttl;
+        try {
+            optedOut = emailOptOuts(fetch("/api/v1/subscribers/" + encode(subscriberId) + "/preferences", new TypeReference<List<Entry>>() { }));
+            ttl = properties.getTtl().toNanos();
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            logger.warn("Failed to fetch preferences of {} from {}; sending to it: {}", subscriberId, properties.getSourceUrl(), e.getMessage());
+            optedOut = Set.of();
+            ttl = properties.getFailureTtl().toNanos();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Set.of();
+        }
+        synchronized (entries) {
+            entries.put(subscriberId, new Cached(optedOut, now + ttl));
+        }
+        return optedOut;
+    }
+
+    private static Set<String> emailOptOuts(Collection<Entry> preferences) {
+        Set<String> optedOut = new HashSet<>();
+        for (Entry preference : preferences) {
+            if (!preference.isEnabled() && (preference.getChannel() == null || EMAIL_CHANNEL.equals(preference.getChannel()))) {
+                optedOut.add(preference.getWorkflowId() != null ? preference.getWorkflowId() : ANY_WORKFLOW);
+            }
+        }
+        return optedOut.isEmpty() ? Set.of() : Set.copyOf(optedOut);
+    }
+
+    private void runPoller() {
+        while (running) {
+            LockSupport.parkNanos(this, properties.getPollInterval().toNanos());
+            if (!running) {
+                return;
+            }
+            try {
+                pollChanges();
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to poll preference changes from {}; cached entries expire within {}: {}",
+                        properties.getSourceUrl(), properties.getTtl(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void pollChanges() throws IOException, InterruptedException {
+        Instant since = changesSince;
+        Instant latest = null;
+        String after = "";
+        while (running) {
+            List<Change> page = fetch("/api/v1/preferences/changes?limit=" + CHANGE_PAGE_SIZE
+                    + "&since=" + encode(since.toString()) + (after.isEmpty() ? "" : "&after=" + encode(after)), new TypeReference<List<Change>>() { });
+            for (Change change : page) {
+                invalidate(change.getSubscriberId());
+                if (change.getUpdatedAt() != null && (latest == null || change.getUpdatedAt().isAfter(latest))) {
+                    latest = change.getUpdatedAt();
+                }
+            }
+            if (page.size() < CHANGE_PAGE_SIZE) {
+                break;
+            }
+            Change last = page.get(page.size() - 1);
+            since = last.getUpdatedAt();
+            after = last.getId();
+        }
+        if (latest != null) {
+            // Re-read a short window each time: a transaction may commit after rows with later timestamps were seen.
+            Instant next = latest.minus(properties.getChangeOverlap());
+            if (next.isAfter(changesSince)) {
+                changesSince = next;
+            }
+        }
+    }
+
+    private <T> T fetch(String pathAndQuery, TypeReference<T> type) throws IOException, InterruptedException {
+        URI uri = URI.create(properties.getSourceUrl() + pathAndQuery);
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(uri).timeout(properties.getRequestTimeout()).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + uri);
+        }
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * One preference of a subscriber, as returned by notification-config. A {@code null} channel means every channel.
+     */
+    @Data
+    static class Entry {
+        private String workflowId;
+        private String channel;
+        private boolean enabled = true;
+    }
+
+    @Data
+    static class Change {
+        private String id;
+        private String subscriberId;
+        private Instant updatedAt;
+    }
+
+    private static final class Cached {
+        final Set<String> optedOut;
+        final long expiresAtNanos;
+
+        Cached(Set<String> optedOut, long expiresAtNanos) {
+            this.optedOut = optedOut;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
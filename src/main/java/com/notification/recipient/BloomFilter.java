@@ -0,0 +1,77 @@
+package com.notification.recipient;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A fixed-size Bloom filter over 64-bit {@link #hash hashes}. Answers "definitely absent" or "possibly present"; the false positive rate
+ * stays near the configured target as long as no more than the expected number of entries are added.
+ * <p>
+ * Not thread-safe while being filled. Once filled it may be read from any number of threads, provided it was
+ * published safely (e.g. through a {@code volatile} field).
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries   Number of entries the filter is sized for.
+     * @param falsePositiveRate Target probability that an absent entry is reported as possibly present.
+     */
+    BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+        this.bits = new long[words];
+        this.bitCount = (long) words << 6;
+        this.hashCount = Math.max(1, Math.min(16, (int) Math.round((double) bitCount / n * Math.log(2))));
+    }
+
+    void add(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Size of the bit array in bytes.
+     */
+    long sizeInBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 avalanche step so that the high and low halves
+     * used for double hashing are independent enough.
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,45 @@
+package com.notification.recipient;
+
+import java.net.IDN;
+import java.util.Locale;
+
+/**
+ * Canonical form of email addresses, used to compare recipients and to look them up in the suppression list.
+ */
+public final class EmailAddresses {
+
+    private EmailAddresses() {
+    }
+
+    /**
+     * Trims the address and lower-cases it, converts an internationalized domain to its ASCII (punycode) form and drops
+     * a trailing dot from the domain. Local parts are lower-cased too: strictly they are case-sensitive, but no
+     * mainstream mailbox provider treats them so, and suppression entries must match however the address was typed.
+     *
+     * @return The canonical address, or {@code null} if {@code address} is {@code null} or blank.
+     */
+    public static String canonicalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String trimmed = address.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        int at = trimmed.lastIndexOf('@');
+        if (at < 0) {
+            return trimmed.toLowerCase(Locale.ROOT);
+        }
+        String local = trimmed.substring(0, at).toLowerCase(Locale.ROOT);
+        String domain = trimmed.substring(at + 1);
+        if (domain.endsWith(".")) {
+            domain = domain.substring(0, domain.length() - 1);
+        }
+        try {
+            domain = IDN.toASCII(domain, IDN.ALLOW_UNASSIGNED);
+        } catch (IllegalArgumentException e) {
+            // Not a valid IDN; compare it as typed.
+        }
+        return local + "@" + domain.toLowerCase(Locale.ROOT);
+    }
+}
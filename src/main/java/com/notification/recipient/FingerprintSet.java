@@ -0,0 +1,72 @@
+package com.notification.recipient;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * An immutable set of 64-bit fingerprints, stored sorted in a direct buffer outside the Java heap.
+ * <p>
+ * Eight bytes per entry and no per-entry objects, so millions of entries neither bloat the heap nor add to GC work.
+ * Lookups are a binary search, about 24 probes for ten million entries. The buffer is released when the set becomes
+ * unreachable.
+ */
+final class FingerprintSet {
+
+    static final FingerprintSet EMPTY = new FingerprintSet(new long[0], 0);
+
+    private final LongBuffer fingerprints;
+    private final int size;
+
+    private FingerprintSet(long[] sorted, int size) {
+        this.size = size;
+        this.fingerprints = ByteBuffer.allocateDirect(Math.max(1, size) * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+        this.fingerprints.put(sorted, 0, size);
+    }
+
+    /**
+     * Builds a set from the first {@code count} elements of {@code fingerprints}, which are sorted in place.
+     * Duplicates are dropped.
+     */
+    static FingerprintSet of(long[] fingerprints, int count) {
+        Arrays.sort(fingerprints, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || fingerprints[distinct - 1] != fingerprints[i]) {
+                fingerprints[distinct++] = fingerprints[i];
+            }
+        }
+        return distinct == 0 ? EMPTY : new FingerprintSet(fingerprints, distinct);
+    }
+
+    boolean contains(long fingerprint) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = fingerprints.get(mid);
+            if (value < fingerprint) {
+                low = mid + 1;
+            } else if (value > fingerprint) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return Off-heap memory used by the set.
+     */
+    long sizeInBytes() {
+        return (long) fingerprints.capacity() * Long.BYTES;
+    }
+}
@@ -0,0 +1,42 @@
+package com.notification.recipient;
+
+import com.notification.dto.EmailRequest;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * The recipients of an email after {@link RecipientNormalizer normalization}.
+ */
+@Value
+public class NormalizedRecipients {
+
+    /**
+     * The request with canonical, unique, unsuppressed recipients, or {@code null} if none remain.
+     */
+    EmailRequest request;
+
+    /**
+     * Canonical addresses that were dropped because they are suppressed.
+     */
+    List<String> suppressed;
+
+    /**
+     * Number of addresses dropped because they repeated an earlier recipient.
+     */
+    int duplicates;
+
+    public boolean isEmpty() {
+        return request == null;
+    }
+
+    /**
+     * @return The number of recipients left to send to.
+     */
+    public int recipientCount() {
+        if (request == null) {
+            return 0;
+        }
+        return 1 + (request.getCc() != null ? request.getCc().size() : 0) + (request.getBcc() != null ? request.getBcc().size() : 0);
+    }
+}
@@ -0,0 +1,117 @@
+package com.notification.recipient;
+
+import com.notification.dto.EmailRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reduces the to/cc/bcc lists of an email to the addresses that should actually receive it.
+ * <p>
+ * Every address is {@link EmailAddresses#canonicalize canonicalized}, then to, cc and bcc are walked once in that order
+ * with a single hash set, so an address is kept only at its first, most visible position (an address in both CC and
+ * BCC stays in CC). Suppressed addresses are dropped. If the main recipient is dropped, the first remaining CC
+ * recipient, or failing that the first BCC recipient, takes its place.
+ */
+@Component
+public class RecipientNormalizer {
+
+    private final SuppressionList suppressionList;
+    private final Counter duplicateCounter;
+    private final Counter suppressedCounter;
+
+    public RecipientNormalizer(SuppressionList suppressionList, MeterRegistry meterRegistry) {
+        this.suppressionList = suppressionList;
+        this.duplicateCounter = Counter.builder("notification.recipients.dropped").tag("reason", "duplicate").register(meterRegistry);
+        this.suppressedCounter = Counter.builder("notification.recipients.dropped").tag("reason", "suppressed").register(meterRegistry);
+    }
+
+    public NormalizedRecipients normalize(EmailRequest request) {
+        int total = 1 + size(request.getCc()) + size(request.getBcc());
+        Set<String> seen = new HashSet<>(total * 2);
+        List<String> suppressed = new ArrayList<>(0);
+        List<String> to = new ArrayList<>(1);
+        List<String> cc = new ArrayList<>(size(request.getCc()));
+        List<String> bcc = new ArrayList<>(size(request.getBcc()));
+
+        int duplicates = collect(Collections.singletonList(request.getTo()), seen, to, suppressed)
+                + collect(request.getCc(), seen, cc, suppressed)
+                + collect(request.getBcc(), seen, bcc, suppressed);
+        duplicateCounter.increment(duplicates);
+        suppressedCounter.increment(suppressed.size());
+
+        if (to.isEmpty()) {
+            if (!cc.isEmpty()) {
+                to.add(cc.remove(0));
+            } else if (!bcc.isEmpty()) {
+                to.add(bcc.remove(0));
+            } else {
+                return new NormalizedRecipients(null, suppressed, duplicates);
+            }
+        }
+        EmailRequest normalized = request.toBuilder()
+                .to(to.get(0))
+                .cc(request.getCc() == null && cc.isEmpty() ? null : cc)
+                .bcc(request.getBcc() == null && bcc.isEmpty() ? null : bcc)
+                .build();
+        return new NormalizedRecipients(normalized, suppressed, duplicates);
+    }
+
+    /**
+     * Cheap check, without metrics, for callers that want to reject an email before queueing it.
+     *
+     * @return {@code true} if every recipient of the email is suppressed, so it would not be sent to anyone.
+     */
+    public boolean isFullySuppressed(EmailRequest request) {
+        return allSuppressed(Collections.singletonList(request.getTo()))
+                && allSuppressed(request.getCc())
+                && allSuppressed(request.getBcc());
+    }
+
+    private boolean allSuppressed(List<String> addresses) {
+        if (addresses == null) {
+            return true;
+        }
+        for (String address : addresses) {
+            String canonical = EmailAddresses.canonicalize(address);
+            if (canonical != null && !suppressionList.isSuppressed(canonical)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The number of duplicates skipped.
+     */
+    private int collect(List<String> addresses, Set<String> seen, List<String> kept, List<String> suppressed) {
+        if (addresses == null) {
+            return 0;
+        }
+        int duplicates = 0;
+        for (String address : addresses) {
+            String canonical = EmailAddresses.canonicalize(address);
+            if (canonical == null) {
+                continue;
+            }
+            if (!seen.add(canonical)) {
+                duplicates++;
+            } else if (suppressionList.isSuppressed(canonical)) {
+                suppressed.add(canonical);
+            } else {
+                kept.add(canonical);
+            }
+        }
+        return duplicates;
+    }
+
+    private static int size(List<String> addresses) {
+        return addresses != null ? addresses.size() : 0;
+    }
+}
@@ -0,0 +1,324 @@
+package com.notification.recipient;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.SuppressionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Addresses that must not be emailed because they bounced or unsubscribed.
+ * <p>
+ * The list lives in the notification-config database. The whole list is loaded from its
+ * {@code GET /api/v1/suppressions} endpoint at startup and every {@code refreshInterval}; in between, additions and
+ * removals are polled every {@code pollInterval} from {@code GET /api/v1/suppressions/changes}.
+ * <p>
+ * Only a 64-bit fingerprint of each address is kept: a full load goes into a Bloom filter and a sorted
+ * {@link FingerprintSet} outside the heap, about 9.2 bytes per address in total at a 1% false positive rate. Lookups
+ * go through the Bloom filter first, which answers most of them (addresses that are not suppressed) from a few cache
+ * lines; possible hits are confirmed by a binary search of the fingerprints. Two addresses sharing a fingerprint
+ * would both be suppressed, which at ten million entries happens for about one lookup in 10<sup>12</sup>. Changes
+ * polled since the last full load are held in a small map that is consulted before both, and folded into the next
+ * full load; once more than {@code maxPendingChanges} have accumulated, that load happens straight away.
+ * <p>
+ * Until the first full load succeeds no address is suppressed, so {@link #start()} waits for it, at most
+ * {@code initialLoadTimeout}, which keeps the instance from being reported ready in the meantime.
+ * <p>
+ * A full load builds a new snapshot and swaps it in, so lookups never wait on it. If loading fails the previous
+ * snapshot stays in use.
+ */
+@Component
+public class SuppressionList {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuppressionList.class);
+
+    private final SuppressionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final CountDownLatch firstLoad = new CountDownLatch(1);
+
+    private volatile Snapshot snapshot = new Snapshot(null, FingerprintSet.EMPTY);
+    private volatile boolean running;
+    private Thread loader;
+    private Instant changesSince;
+
+    public SuppressionList(SuppressionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(properties.getRequestTimeout()).build();
+        Gauge.builder("notification.suppression.entries", this, SuppressionList::size).register(meterRegistry);
+        Gauge.builder("notification.suppression.bytes", this, list -> list.snapshot.sizeInBytes()).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        loader = new Thread(this::runLoader, "suppression-loader");
+        loader.setDaemon(true);
+        loader.start();
+        try {
+            if (!firstLoad.await(properties.getInitialLoadTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("The suppression list was not loaded from {} within {}; no address is suppressed until it is.",
+                        properties.getSourceUrl(), properties.getInitialLoadTimeout());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (loader != null) {
+            LockSupport.unpark(loader);
+        }
+    }
+
+    /**
+     * @param canonicalAddress An address in {@link EmailAddresses#canonicalize canonical} form.
+     * @return {@code true} if the address must not be emailed.
+     */
+    public boolean isSuppressed(String canonicalAddress) {
+        Snapshot current = snapshot;
+        long fingerprint = BloomFilter.hash(canonicalAddress);
+        if (!current.changes.isEmpty()) {
+            Boolean changed = current.changes.get(fingerprint);
+            if (changed != null) {
+                return changed;
+            }
+        }
+        return current.filter != null && current.filter.mightContain(fingerprint) && current.fingerprints.contains(fingerprint);
+    }
+
+    /**
+     * @return The number of suppressed addresses currently loaded, including changes since the last full load.
+     */
+    public int size() {
+        Snapshot current = snapshot;
+        int size = current.fingerprints.size();
+        for (Map.Entry<Long, Boolean> change : current.changes.entrySet()) {
+            boolean loaded = current.fingerprints.contains(change.getKey());
+            if (change.getValue() && !loaded) {
+                size++;
+            } else if (!change.getValue() && loaded) {
+                size--;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Replaces the loaded list, dropping any changes applied since the last full load. Addresses are canonicalized.
+     */
+    void replace(Collection<String> addresses) {
+        long[] fingerprints = new long[addresses.size()];
+        int count = 0;
+        for (String address : addresses) {
+            String canonical = EmailAddresses.canonicalize(address);
+            if (canonical != null) {
+                fingerprints[count++] = BloomFilter.hash(canonical);
+            }
+        }
+        snapshot = build(fingerprints, count);
+    }
+
+    /**
+     * Applies additions ({@code active}) and removals on top of the current snapshot. Applying the same change twice
+     * has no further effect, so polls may overlap.
+     */
+    void apply(Collection<Entry> changes) {
+        Map<Long, Boolean> current = snapshot.changes;
+        for (Entry change : changes) {
+            String canonical = EmailAddresses.canonicalize(change.getEmail());
+            if (canonical != null) {
+                current.put(BloomFilter.hash(canonical), change.isActive());
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} once more than {@code maxPendingChanges} changes have been applied since the last full
+     * load.
+     */
+    boolean needsFullLoad() {
+        return snapshot.changes.size() > properties.getMaxPendingChanges();
+    }
+
+    private Snapshot build(long[] fingerprints, int count) {
+        FingerprintSet set = FingerprintSet.of(fingerprints, count);
+        BloomFilter filter = new BloomFilter(set.size(), properties.getFalsePositiveRate());
+        for (int i = 0; i < set.size(); i++) {
+            // FingerprintSet.of sorted and de-duplicated the array in place.
+            filter.add(fingerprints[i]);
+        }
+        return new Snapshot(filter, set);
+    }
+
+    private void runLoader() {
+        long nextFullLoad = System.nanoTime();
+        while (running) {
+            try {
+                if (System.nanoTime() - nextFullLoad >= 0) {
+                    loadAll();
+                    nextFullLoad = System.nanoTime() + properties.getRefreshInterval().toNanos();
+                } else {
+                    pollChanges();
+                    if (needsFullLoad()) {
+                        logger.info("{} suppression changes pending; reloading the whole list early.", snapshot.changes.size());
+                        nextFullLoad = System.nanoTime();
+                        continue;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to update the suppression list from {}; keeping {} entries: {}", properties.getSourceUrl(), size(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            LockSupport.parkNanos(this, properties.getPollInterval().toNanos());
+        }
+    }
+
+    private void loadAll() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        // Changes committed while the load pages through the table are picked up by the next poll.
+        Instant since = Instant.now().minus(properties.getChangeOverlap());
+        long[] fingerprints = new long[Math.max(1024, snapshot.fingerprints.size() + 1024)];
+        int count = 0;
+        String after = "";
+        while (running) {
+            List<Entry> page = fetch("/api/v1/suppressions?limit=" + properties.getPageSize() + "&after=" + encode(after));
+            if (count + page.size() > fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, Math.max(count + page.size(), fingerprints.length * 2));
+            }
+            for (Entry entry : page) {
+                String canonical = EmailAddresses.canonicalize(entry.getEmail());
+                if (canonical != null) {
+                    fingerprints[count++] = BloomFilter.hash(canonical);
+                }
+            }
+            if (page.size() < properties.getPageSize()) {
+                break;
+            }
+            after = page.get(page.size() - 1).getEmail();
+        }
+        if (!running) {
+            return;
+        }
+        Snapshot loaded = build(fingerprints, count);
+        snapshot = loaded;
+        changesSince = since;
+        firstLoad.countDown();
+        logger.info("Loaded {} suppressed addresses in {} ms ({} KB).", loaded.fingerprints.size(),
+                (System.nanoTime() - start) / 1_000_000, loaded.sizeInBytes() / 1024);
+    }
+
+    private void pollChanges() throws IOException, InterruptedException {
+        Instant since = changesSince;
+        Instant latest = null;
+        String after = "";
+        int applied = 0;
+        while (running) {
+            List<Entry> page = fetch("/api/v1/suppressions/changes?limit=" + properties.getPageSize()
+                    + "&since=" + encode(since.toString()) + "&after=" + encode(after));
+            apply(page);
+            applied += page.size();
+            for (Entry entry : page) {
+                if (entry.getUpdatedAt() != null && (latest == null || entry.getUpdatedAt().isAfter(latest))) {
+                    latest = entry.getUpdatedAt();
+                }
+            }
+            if (needsFullLoad()) {
+                // The full load that follows reads the rest; no need to hold it in the map first.
+                break;
+            }
+            if (page.size() < properties.getPageSize()) {
+                break;
+            }
+            Entry last = page.get(page.size() - 1);
+            since = last.getUpdatedAt();
+            after = last.getEmail();
+        }
+        if (latest != null) {
+            // Re-read a short window each time: a transaction may commit after rows with later timestamps were seen.
+            Instant next = latest.minus(properties.getChangeOverlap());
+            if (next.isAfter(changesSince)) {
+                changesSince = next;
+            }
+        }
+        if (applied > 0) {
+            logger.debug("Applied {} suppression changes; {} pending until the next full load.", applied, snapshot.changes.size());
+        }
+    }
+
+    private List<Entry> fetch(String pathAndQuery) throws IOException, InterruptedException {
+        URI uri = URI.create(properties.getSourceUrl() + pathAndQuery);
+        HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(uri).timeout(properties.getRequestTimeout()).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + uri);
+        }
+        return objectMapper.readValue(response.body(), new TypeReference<List<Entry>>() { });
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One row of the suppression list, or one change to it, as returned by notification-config. Inactive entries
+     * are removals.
+     */
+    @Data
+    static class Entry {
+        private String email;
+        private String reason;
+        private boolean active = true;
+        private Instant updatedAt;
+    }
+
+    private static final class Snapshot {
+        final BloomFilter filter;
+        final FingerprintSet fingerprints;
+
+        /**
+         * Fingerprint to whether it is suppressed, for changes since this snapshot was loaded.
+         */
+        final Map<Long, Boolean> changes = new ConcurrentHashMap<>();
+
+        Snapshot(BloomFilter filter, FingerprintSet fingerprints) {
+            this.filter = filter;
+            this.fingerprints = fingerprints;
+        }
+
+        long sizeInBytes() {
+            return (filter != null ? filter.sizeInBytes() : 0) + fingerprints.sizeInBytes();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.notification.scheduling;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.dto.EmailRequest;
+import com.notification.exception.EmailSendingException;
+import com.notification.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Hands scheduled emails received over HTTP to the SQS queue consumed by
+ * {@link com.notification.listener.SqsEmailListener}, which holds them until their send time.
+ * This keeps pending sends durable without a local store or sleeping threads.
+ * <p>
+ * FIFO queues do not take per-message delays, so there the listener defers the whole wait. Each scheduled email is
+ * its own message group: the listener defers an email in steps of up to 12 hours, and in a shared group, such as the
+ * recipient's, it would hold back every later message in that group until it is sent.
+ */
+@Component
+public class ScheduledEmailPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledEmailPublisher.class);
+
+    /**
+     * SQS caps the per-message delivery delay at 15 minutes. Longer delays are completed by the listener.
+     */
+    static final int MAX_SQS_DELAY_SECONDS = 900;
+
+    private final ObjectProvider<AmazonSQSAsync> amazonSqs;
+    private final ObjectMapper objectMapper;
+    private final String queueName;
+
+    private volatile String queueUrl;
+
+    public ScheduledEmailPublisher(ObjectProvider<AmazonSQSAsync> amazonSqs,
+                                   ObjectMapper objectMapper,
+                                   @Value("${cloud.aws.sqs.queue.name}") String queueName) {
+        this.amazonSqs = amazonSqs;
+        this.objectMapper = objectMapper;
+        this.queueName = queueName;
+    }
+
+    /**
+     * Enqueues the email for delivery at {@code sendAt}.
+     *
+     * @param request  The email to send later. Its delay is resolved into an absolute {@code sendAt}.
+     * @param sendAt   The time the email is due.
+     * @param tenantId The tenant the send is charged to.
+     * @throws EmailSendingException if SQS is unavailable or the request cannot be enqueued.
+     */
+    public void schedule(EmailRequest request, Instant sendAt, String tenantId) {
+        AmazonSQSAsync sqs = amazonSqs.getIfAvailable();
+        if (sqs == null) {
+            throw new EmailSendingException("Scheduled sends require SQS, which is not enabled.");
+        }
+        request.setSendAt(sendAt);
+        request.setDelaySeconds(null);
+
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new EmailSendingException("Failed to serialize scheduled email to " + request.getTo(), e);
+        }
+        String url = resolveQueueUrl(sqs);
+        SendMessageRequest sendMessageRequest = new SendMessageRequest(url, body)
+                .addMessageAttributesEntry(TenantContext.SQS_ATTRIBUTE,
+                        new MessageAttributeValue().withDataType("String").withStringValue(tenantId));
+        if (url.endsWith(".fifo")) {
+            String id = UUID.randomUUID().toString();
+            sendMessageRequest.withMessageGroupId("scheduled-" + id)
+                    .withMessageDeduplicationId(id);
+        } else {
+            long delaySeconds = Math.max(0, Math.min(Duration.between(Instant.now(), sendAt).getSeconds(), MAX_SQS_DELAY_SECONDS));
+            sendMessageRequest.withDelaySeconds((int) delaySeconds);
+        }
+        try {
+            String messageId = sqs.sendMessage(sendMessageRequest).getMessageId();
+            logger.info("Scheduled email to {} for {} as SQS message ID {}.", request.getTo(), sendAt, messageId);
+        } catch (RuntimeException e) {
+            throw new EmailSendingException("Failed to enqueue scheduled email to " + request.getTo() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private String resolveQueueUrl(AmazonSQSAsync sqs) {
+        String url = queueUrl;
+        if (url == null) {
+            url = queueName.startsWith("https://") || queueName.startsWith("http://")
+                    ? queueName
+                    : sqs.getQueueUrl(queueName).getQueueUrl();
+            queueUrl = url;
+        }
+        return url;
+    }
+}
@@ -0,0 +1,14 @@
+package com.notification.service;
+
+/**
+ * An {@link EmailSenderService} that delivers through one concrete provider (e.g. Novu or SMTP).
+ * Providers are registered with the routing service, which picks between them based on latency and health
+ * and fails over when one of them is unavailable.
+ */
+public interface EmailProvider extends EmailSenderService {
+
+    /**
+     * @return A short, stable provider name used in configuration, logs and metrics (e.g. {@code "novu"}).
+     */
+    String getName();
+}
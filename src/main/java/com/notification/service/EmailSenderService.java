@@ -1,6 +1,12 @@
 package com.notification.service;
 
 import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for services that send emails.
@@ -15,4 +21,53 @@ public interface EmailSenderService {
      * @throws com.notification.exception.EmailSendingException if an error occurs during email dispatch.
      */
     void sendEmail(EmailRequest request);
+
+    /**
+     * Sends an email without waiting for the provider, so that callers can have many sends in flight at once.
+     * <p>
+     * The default implementation runs {@link #sendEmail} on the calling thread and reports every recipient as
+     * accepted, without transaction ids, so it only suits services that either deliver to every recipient or fail the
+     * send. Services that can lose individual recipients, or are backed by a non-blocking client, override it.
+     *
+     * @param request The {@link EmailRequest} containing all necessary information for sending the email.
+     * @return A future completed with the per-recipient outcome, or exceptionally with the same exceptions
+     * {@link #sendEmail} throws.
+     */
+    default CompletableFuture<EmailSendResult> sendEmailAsync(EmailRequest request) {
+        long start = System.nanoTime();
+        try {
+            sendEmail(request);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        EmailSendResult.EmailSendResultBuilder result = EmailSendResult.builder()
+                .provider(this instanceof EmailProvider ? ((EmailProvider) this).getName() : null)
+                .latency(latency);
+        for (EmailSendResult.Recipient recipient : acceptedRecipients(request, latency)) {
+            result.recipient(recipient);
+        }
+        return CompletableFuture.completedFuture(result.build());
+    }
+
+    private static List<EmailSendResult.Recipient> acceptedRecipients(EmailRequest request, Duration latency) {
+        List<EmailSendResult.Recipient> recipients = new ArrayList<>();
+        recipients.add(accepted(request.getTo(), EmailSendResult.RecipientType.TO, latency));
+        if (request.getCc() != null) {
+            request.getCc().forEach(cc -> recipients.add(accepted(cc, EmailSendResult.RecipientType.CC, latency)));
+        }
+        if (request.getBcc() != null) {
+            request.getBcc().forEach(bcc -> recipients.add(accepted(bcc, EmailSendResult.RecipientType.BCC, latency)));
+        }
+        return recipients;
+    }
+
+    private static EmailSendResult.Recipient accepted(String address, EmailSendResult.RecipientType type, Duration latency) {
+        return EmailSendResult.Recipient.builder()
+                .address(address)
+                .type(type)
+                .status(EmailSendResult.Status.ACCEPTED)
+                .latency(latency)
+                .build();
+    }
 }
@@ -5,37 +5,99 @@ import co.novu.api.events.responses.EventResponse; // Corrected import
 import co.novu.api.events.pojos.Subscriber; // Corrected import
 import co.novu.sdk.Novu; // Corrected import
 import co.novu.sdk.NovuConfig; // Corrected import
+import com.notification.audit.AuditRecord;
+import com.notification.audit.AuditWriter;
+import com.notification.config.EmailProviderProperties;
+import com.notification.config.RefreshableNovuClient;
 import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
 import com.notification.exception.EmailSendingException;
+import com.notification.novu.Hedger;
+import com.notification.novu.NovuTriggerClient;
+import com.notification.preference.SubscriberPreferenceCache;
+import com.notification.service.EmailProvider;
 import com.notification.service.EmailSenderService;
+import com.notification.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implementation of {@link EmailSenderService} that uses Novu to send emails.
  * This version is updated for Novu SDK `co.novu:novu-java:1.6.0`.
+ * Registered as the {@code "novu"} {@link EmailProvider} with the routing service.
+ * The client, API key and workflow id are taken from {@link RefreshableNovuClient} on every send, so a configuration
+ * refresh takes effect without a restart. Every send is recorded in the write-behind {@link AuditWriter} log.
+ * Asynchronous sends bypass the blocking SDK and go through {@link NovuTriggerClient}.
+ * Recipients who opted out of the workflow's emails ({@link SubscriberPreferenceCache}) are not triggered.
+ * With {@code notification.providers.novu.hedging.enabled}, blocking triggers are hedged too (see {@link Hedger}):
+ * each attempt runs on a bounded pool of its own while the caller waits, both carry the same transaction id, which
+ * Novu does not accept twice, and the attempt that loses is interrupted. While every thread of the pool is busy,
+ * triggers are sent on the caller's thread without a hedge.
  */
 @Service
-public class NovuEmailSenderServiceImpl implements EmailSenderService {
+public class NovuEmailSenderServiceImpl implements EmailProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(NovuEmailSenderServiceImpl.class);
 
-    private final Novu novu; // Correct SDK class
-    private final NovuConfig novuConfig; // Correct SDK class, used for API key check
+    private final RefreshableNovuClient novuClient;
+    private final NovuTriggerClient triggerClient;
+    private final AuditWriter auditWriter;
+    private final SubscriberPreferenceCache preferenceCache;
+    private final Hedger hedger;
+    private final ExecutorService hedgeExecutor;
 
-    @Value("${novu.workflow.trigger.id:default-email-workflow}")
-    private String novuWorkflowTriggerId;
+    public NovuEmailSenderServiceImpl(RefreshableNovuClient novuClient, NovuTriggerClient triggerClient, AuditWriter auditWriter,
+                                      SubscriberPreferenceCache preferenceCache, EmailProviderProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.novuClient = novuClient;
+        this.triggerClient = triggerClient;
+        this.auditWriter = auditWriter;
+        this.preferenceCache = preferenceCache;
+        this.hedger = new Hedger(properties.getNovu().getHedging(), meterRegistry, "sdk");
+        if (hedger.isEnabled()) {
+            AtomicInteger sequence = new AtomicInteger();
+            // No queue: an attempt that finds every thread busy is rejected rather than left waiting behind the others.
+            this.hedgeExecutor = new ThreadPoolExecutor(0, Math.max(1, properties.getNovu().getSdkHedgeThreads()), 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "novu-sdk-" + sequence.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        } else {
+            this.hedgeExecutor = null;
+        }
+    }
 
-    public NovuEmailSenderServiceImpl(Novu novu, NovuConfig novuConfig) { // Correct constructor params
-        this.novu = novu;
-        this.novuConfig = novuConfig;
+    @PreDestroy
+    public void stop() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdown();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "novu";
     }
 
     /**
@@ -46,18 +108,133 @@ public class NovuEmailSenderServiceImpl implements EmailSenderService {
      */
     @Override
     public void sendEmail(EmailRequest request) {
-        if (novu == null || novuConfig == null || novuConfig.getApiKey() == null || novuConfig.getApiKey().isEmpty() || "YOUR_NOVU_API_KEY".equals(novuConfig.getApiKey())) {
-            logger.error("Novu API key is not configured. Cannot send email.");
-            throw new EmailSendingException("Novu service is not configured. API key missing.");
+        long start = System.nanoTime();
+        try (RefreshableNovuClient.Lease lease = novuClient.acquire()) {
+            String transactionId = sendEmail(request, lease.getNovu(), lease.getNovuConfig(), lease.getWorkflowTriggerId());
+            audit(request, TenantContext.current(), transactionId, null, start);
+        } catch (RuntimeException e) {
+            audit(request, TenantContext.current(), null, e, start);
+            throw e;
         }
+    }
 
-        Map<String, Object> payload = new HashMap<>();
-        if (request.getEmailVariables() != null) {
-            payload.putAll(request.getEmailVariables());
+    /**
+     * Triggers the workflow over the non-blocking client: first for the main recipient, then, once Novu has accepted
+     * that, for every CC and BCC recipient at once. A send that fails on the main recipient has therefore reached no
+     * one, and a retry or failover does not deliver to the other recipients twice. The lease on the current API key
+     * and workflow is held until the last trigger completes.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @return A future that fails with {@link EmailSendingException} if the main recipient's trigger fails. CC and BCC
+     * failures do not fail the send, as with {@link #sendEmail}, but are reported in the result, as are recipients
+     * who opted out.
+     */
+    @Override
+    public CompletableFuture<EmailSendResult> sendEmailAsync(EmailRequest request) {
+        long start = System.nanoTime();
+        String tenantId = TenantContext.current();
+        RefreshableNovuClient.Lease lease = novuClient.acquire();
+        CompletableFuture<EmailSendResult> result;
+        try {
+            requireApiKey(lease.getNovu(), lease.getNovuConfig());
+            String apiKey = lease.getNovuConfig().getApiKey();
+            String workflowId = lease.getWorkflowTriggerId();
+            Map<String, Object> payload = NovuTriggerClient.payload(request);
+            logger.info("Triggering Novu event '{}' asynchronously for recipient: {}", workflowId, request.getTo());
+
+            result = trigger(apiKey, workflowId, request.getTo(), EmailSendResult.RecipientType.TO, payload, start)
+                    .thenCompose(mainRecipient -> {
+                        if (mainRecipient.getStatus() == EmailSendResult.Status.FAILED) {
+                            throw new EmailSendingException(mainRecipient.getError());
+                        }
+                        List<CompletableFuture<EmailSendResult.Recipient>> additional = new ArrayList<>();
+                        if (request.getCc() != null) {
+                            request.getCc().forEach(cc -> additional.add(trigger(apiKey, workflowId, cc, EmailSendResult.RecipientType.CC, payload, start)));
+                        }
+                        if (request.getBcc() != null) {
+                            request.getBcc().forEach(bcc -> additional.add(trigger(apiKey, workflowId, bcc, EmailSendResult.RecipientType.BCC, payload, start)));
+                        }
+                        return CompletableFuture.allOf(additional.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                            EmailSendResult.EmailSendResultBuilder builder = EmailSendResult.builder()
+                                    .provider(getName())
+                                    .transactionId(mainRecipient.getTransactionId())
+                                    .recipient(mainRecipient)
+                                    .latency(Duration.ofNanos(System.nanoTime() - start));
+                            additional.forEach(recipient -> builder.recipient(recipient.join()));
+                            return builder.build();
+                        });
+                    });
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((sendResult, error) -> {
+            lease.close();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            RuntimeException failure = cause == null || cause instanceof RuntimeException
+                    ? (RuntimeException) cause
+                    : new EmailSendingException(cause.getMessage(), cause);
+            audit(request, tenantId, sendResult != null ? sendResult.getTransactionId() : null, failure, start);
+        });
+    }
+
+    /**
+     * @return A future that always completes normally, with the recipient's status.
+     */
+    private CompletableFuture<EmailSendResult.Recipient> trigger(String apiKey, String workflowId, String email,
+                                                                 EmailSendResult.RecipientType type, Map<String, Object> payload, long startNanos) {
+        if (preferenceCache.isOptedOut(email, workflowId)) {
+            logger.info("Not triggering Novu event '{}' for {} recipient {}: opted out.", workflowId, type, email);
+            return CompletableFuture.completedFuture(EmailSendResult.Recipient.builder()
+                    .address(email)
+                    .type(type)
+                    .status(EmailSendResult.Status.OPTED_OUT)
+                    .latency(Duration.ofNanos(System.nanoTime() - startNanos))
+                    .build());
+        }
+        return triggerClient.trigger(apiKey, workflowId, email, new HashMap<>(payload))
+                .handle((transactionId, error) -> {
+                    EmailSendResult.Recipient.RecipientBuilder recipient = EmailSendResult.Recipient.builder()
+                            .address(email)
+                            .type(type)
+                            .latency(Duration.ofNanos(System.nanoTime() - startNanos));
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        logger.error("Novu event trigger failed for {} recipient {}: {}", type, email, cause.getMessage());
+                        return recipient.status(EmailSendResult.Status.FAILED).error(cause.getMessage()).build();
+                    }
+                    logger.info("Novu event triggered successfully for {} recipient {}. TransactionId: {}", type, email, transactionId);
+                    return recipient.status(EmailSendResult.Status.ACCEPTED).transactionId(transactionId).build();
+                });
+    }
+
+    private void audit(EmailRequest request, String tenantId, String transactionId, RuntimeException error, long startNanos) {
+        int recipientCount = 1 + (request.getCc() != null ? request.getCc().size() : 0) + (request.getBcc() != null ? request.getBcc().size() : 0);
+        auditWriter.record(AuditRecord.builder()
+                .occurredAt(Instant.now())
+                .tenantId(tenantId)
+                .provider(getName())
+                .recipient(request.getTo())
+                .recipientCount(recipientCount)
+                .subject(request.getSubject())
+                .transactionId(transactionId)
+                .success(error == null)
+                .error(error != null ? error.getMessage() : null)
+                .latencyMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+                .build());
+    }
+
+    /**
+     * @return The Novu transaction id of the main recipient's trigger, or {@code null} if the main recipient opted out.
+     */
+    private String sendEmail(EmailRequest request, Novu novu, NovuConfig novuConfig, String novuWorkflowTriggerId) {
+        requireApiKey(novu, novuConfig);
+        Map<String, Object> payload = NovuTriggerClient.payload(request);
+
+        if (preferenceCache.isOptedOut(request.getTo(), novuWorkflowTriggerId)) {
+            logger.info("Not triggering Novu event '{}' for recipient {}: opted out.", novuWorkflowTriggerId, request.getTo());
+            triggerForAdditionalRecipients(novu, novuWorkflowTriggerId, request, payload);
+            return null;
         }
-        payload.put("emailSubject", request.getSubject());
-        payload.put("emailBody", request.getBody());
-        payload.put("emailSignature", request.getSignature());
 
         List<Subscriber> toSubscribers = new ArrayList<>();
         Subscriber mainRecipient = new Subscriber();
@@ -72,7 +249,7 @@ public class NovuEmailSenderServiceImpl implements EmailSenderService {
 
         try {
             logger.info("Triggering Novu event '{}' for recipient: {}", novuWorkflowTriggerId, request.getTo());
-            EventResponse response = novu.triggerEvent(triggerEventRequest); // Correct response type
+            EventResponse response = triggerEvent(novu, triggerEventRequest);
 
             // Check response data carefully as per co.novu.api.events.responses.EventResponseData
             if (response == null || response.getData() == null || !Boolean.TRUE.equals(response.getData().getAcknowledged()) || !"triggered".equalsIgnoreCase(response.getData().getStatus())) {
@@ -82,12 +259,8 @@ public class NovuEmailSenderServiceImpl implements EmailSenderService {
 
             logger.info("Novu event triggered successfully for {}. TransactionId: {}", request.getTo(), response.getData().getTransactionId());
 
-            if (request.getCc() != null && !request.getCc().isEmpty()) {
-                triggerForAdditionalRecipients(request.getCc(), payload, "CC");
-            }
-            if (request.getBcc() != null && !request.getBcc().isEmpty()) {
-                triggerForAdditionalRecipients(request.getBcc(), payload, "BCC");
-            }
+            triggerForAdditionalRecipients(novu, novuWorkflowTriggerId, request, payload);
+            return response.getData().getTransactionId();
 
         } catch (Exception e) {
             logger.error("Error sending email via Novu to {}: {}", request.getTo(), e.getMessage(), e);
@@ -95,8 +268,57 @@ public class NovuEmailSenderServiceImpl implements EmailSenderService {
         }
     }
 
-    private void triggerForAdditionalRecipients(List<String> recipientEmails, Map<String, Object> basePayload, String type) {
+    /**
+     * Sends the trigger through the blocking SDK, hedged if hedging is enabled. A hedge that finds the pool full is
+     * not sent; the first attempt is then left to finish on its own.
+     */
+    private EventResponse triggerEvent(Novu novu, TriggerEventRequest triggerEventRequest) throws Exception {
+        if (hedgeExecutor == null) {
+            return novu.triggerEvent(triggerEventRequest);
+        }
+        if (triggerEventRequest.getTransactionId() == null) {
+            // Shared by both attempts, so Novu runs the workflow once even if both arrive.
+            triggerEventRequest.setTransactionId(UUID.randomUUID().toString());
+        }
+        CompletableFuture<EventResponse> call;
+        try {
+            call = hedger.call(() -> Hedger.runInterruptibly(() -> novu.triggerEvent(triggerEventRequest), hedgeExecutor));
+        } catch (RejectedExecutionException e) {
+            return novu.triggerEvent(triggerEventRequest);
+        }
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static void requireApiKey(Novu novu, NovuConfig novuConfig) {
+        if (novu == null || novuConfig == null || novuConfig.getApiKey() == null || novuConfig.getApiKey().isEmpty() || "YOUR_NOVU_API_KEY".equals(novuConfig.getApiKey())) {
+            logger.error("Novu API key is not configured. Cannot send email.");
+            throw new EmailSendingException("Novu service is not configured. API key missing.");
+        }
+    }
+
+    private void triggerForAdditionalRecipients(Novu novu, String novuWorkflowTriggerId, EmailRequest request, Map<String, Object> payload) {
+        if (request.getCc() != null && !request.getCc().isEmpty()) {
+            triggerForAdditionalRecipients(novu, novuWorkflowTriggerId, request.getCc(), payload, "CC");
+        }
+        if (request.getBcc() != null && !request.getBcc().isEmpty()) {
+            triggerForAdditionalRecipients(novu, novuWorkflowTriggerId, request.getBcc(), payload, "BCC");
+        }
+    }
+
+    private void triggerForAdditionalRecipients(Novu novu, String novuWorkflowTriggerId, List<String> recipientEmails, Map<String, Object> basePayload, String type) {
         for (String email : recipientEmails) {
+            if (preferenceCache.isOptedOut(email, novuWorkflowTriggerId)) {
+                logger.info("Not triggering Novu event '{}' for {} recipient {}: opted out.", novuWorkflowTriggerId, type, email);
+                continue;
+            }
             List<Subscriber> toSubscribers = new ArrayList<>();
             Subscriber recipient = new Subscriber(); // Correct Subscriber class
             recipient.setSubscriberId(email);
@@ -110,7 +332,7 @@ public class NovuEmailSenderServiceImpl implements EmailSenderService {
 
             try {
                 logger.info("Triggering Novu event '{}' for {} recipient: {}", novuWorkflowTriggerId, type, email);
-                EventResponse response = novu.triggerEvent(additionalTrigger); // Correct response type
+                EventResponse response = triggerEvent(novu, additionalTrigger);
 
                 if (response == null || response.getData() == null || !Boolean.TRUE.equals(response.getData().getAcknowledged()) || !"triggered".equalsIgnoreCase(response.getData().getStatus())) {
                     logger.error("Novu event trigger failed or was not acknowledged for {} recipient {}. Response: {}", type, email, response);
@@ -0,0 +1,83 @@
+package com.notification.service.impl;
+
+/**
+ * Tracks the observed latency and failure streak of one email provider.
+ * After {@code failureThreshold} consecutive failures the provider is considered unavailable for
+ * {@code openDurationNanos}. Once that window has passed it is half-open: {@link #tryAcquire} lets a single caller
+ * through as a probe and keeps the others away until the probe's outcome is recorded. A successful probe closes the
+ * circuit, a failed one opens it for another window. A probe that never reports back, because the caller was served
+ * by another provider first, is given up after {@code openDurationNanos} and the next caller probes instead.
+ */
+class ProviderHealth {
+
+    private final double latencyEwmaAlpha;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private double ewmaLatencyNanos;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+    private long probeStartedNanos;
+    private boolean probing;
+
+    ProviderHealth(double latencyEwmaAlpha, int failureThreshold, long openDurationNanos) {
+        this.latencyEwmaAlpha = latencyEwmaAlpha;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+    }
+
+    synchronized void recordSuccess(long latencyNanos) {
+        ewmaLatencyNanos = ewmaLatencyNanos == 0
+                ? latencyNanos
+                : latencyEwmaAlpha * latencyNanos + (1 - latencyEwmaAlpha) * ewmaLatencyNanos;
+        consecutiveFailures = 0;
+        openUntilNanos = 0;
+        probing = false;
+    }
+
+    synchronized void recordFailure(long nowNanos) {
+        consecutiveFailures++;
+        probing = false;
+        if (consecutiveFailures >= failureThreshold) {
+            openUntilNanos = nowNanos + openDurationNanos;
+        }
+    }
+
+    /**
+     * @return {@code true} if the circuit is closed, or its open window has passed; does not claim the probe.
+     */
+    synchronized boolean isAvailable(long nowNanos) {
+        return openUntilNanos == 0 || nowNanos - openUntilNanos >= 0;
+    }
+
+    /**
+     * Asks to send through the provider.
+     *
+     * @return {@code true} if the circuit is closed, or it is half-open and the caller is now the probe.
+     */
+    synchronized boolean tryAcquire(long nowNanos) {
+        if (openUntilNanos == 0) {
+            return true;
+        }
+        if (nowNanos - openUntilNanos < 0) {
+            return false;
+        }
+        if (probing && nowNanos - probeStartedNanos < openDurationNanos) {
+            return false;
+        }
+        probing = true;
+        probeStartedNanos = nowNanos;
+        return true;
+    }
+
+    synchronized long getOpenUntilNanos() {
+        return openUntilNanos;
+    }
+
+    /**
+     * @return The smoothed latency in milliseconds, or {@code 0} if no successful call has been observed yet.
+     */
+    synchronized double latencyMillis() {
+        return ewmaLatencyNanos / 1_000_000d;
+    }
+}
@@ -0,0 +1,211 @@
+package com.notification.service.impl;
+
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.exception.EmailSendingException;
+import com.notification.service.EmailProvider;
+import com.notification.service.EmailSenderService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link EmailSenderService} that keeps a registry of all {@link EmailProvider} beans and routes each email to one of them.
+ * <p>
+ * Available providers are chosen at random in proportion to {@code weight / latency}, so faster providers take
+ * most of the traffic while slower ones keep receiving enough to notice when they recover. If the chosen provider
+ * fails, the remaining providers are tried in order of preference, with providers that are currently out of rotation
+ * used only as a last resort. Every attempt is traced as a span named after the provider. Asynchronous sends follow the
+ * same order, moving on to the next provider when the previous one's future fails.
+ */
+@Service
+public class RoutingEmailSenderService implements EmailSenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingEmailSenderService.class);
+
+    private final List<RegisteredProvider> providers;
+    private final Tracer tracer;
+
+    public RoutingEmailSenderService(List<EmailProvider> emailProviders, EmailProviderProperties properties, MeterRegistry meterRegistry, Tracer tracer) {
+        this.tracer = tracer;
+        EmailProviderProperties.Routing routing = properties.getRouting();
+        this.providers = emailProviders.stream()
+                .map(provider -> new RegisteredProvider(provider, routing, meterRegistry))
+                .collect(Collectors.toList());
+        logger.info("Registered email providers: {}", emailProviders.stream().map(EmailProvider::getName).collect(Collectors.toList()));
+    }
+
+    /**
+     * Sends the email through the preferred provider, failing over to the others on error.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @throws EmailSendingException if every provider failed.
+     */
+    @Override
+    public void sendEmail(EmailRequest request) {
+        if (providers.isEmpty()) {
+            throw new EmailSendingException("No email providers are registered.");
+        }
+        RuntimeException lastFailure = null;
+        for (RegisteredProvider candidate : rank(System.nanoTime())) {
+            long start = System.nanoTime();
+            Span span = tracer.spanBuilder("email provider " + candidate.provider.getName())
+                    .setAttribute("email.provider", candidate.provider.getName())
+                    .startSpan();
+            try (Scope ignored = span.makeCurrent()) {
+                candidate.provider.sendEmail(request);
+                long elapsed = System.nanoTime() - start;
+                candidate.health.recordSuccess(elapsed);
+                candidate.success.record(elapsed, TimeUnit.NANOSECONDS);
+                return;
+            } catch (RuntimeException e) {
+                long now = System.nanoTime();
+                candidate.health.recordFailure(now);
+                candidate.failure.record(now - start, TimeUnit.NANOSECONDS);
+                span.recordException(e);
+                span.setStatus(StatusCode.ERROR, String.valueOf(e.getMessage()));
+                lastFailure = e;
+                logger.warn("Email provider '{}' failed for {}: {}. Trying next provider.", candidate.provider.getName(), request.getTo(), e.getMessage());
+            } finally {
+                span.end();
+            }
+        }
+        throw new EmailSendingException("All email providers failed for " + request.getTo() + ": " + lastFailure.getMessage(), lastFailure);
+    }
+
+    /**
+     * Sends the email through the preferred provider without blocking, failing over to the others on error.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @return A future completed with the delivering provider's result, or exceptionally with an
+     * {@link EmailSendingException} if every provider failed.
+     */
+    @Override
+    public CompletableFuture<EmailSendResult> sendEmailAsync(EmailRequest request) {
+        if (providers.isEmpty()) {
+            return CompletableFuture.failedFuture(new EmailSendingException("No email providers are registered."));
+        }
+        return attemptAsync(request, rank(System.nanoTime()).iterator(), null);
+    }
+
+    private CompletableFuture<EmailSendResult> attemptAsync(EmailRequest request, Iterator<RegisteredProvider> candidates, RuntimeException lastFailure) {
+        if (!candidates.hasNext()) {
+            return CompletableFuture.failedFuture(new EmailSendingException(
+                    "All email providers failed for " + request.getTo() + ": " + lastFailure.getMessage(), lastFailure));
+        }
+        RegisteredProvider candidate = candidates.next();
+        long start = System.nanoTime();
+        Span span = tracer.spanBuilder("email provider " + candidate.provider.getName())
+                .setAttribute("email.provider", candidate.provider.getName())
+                .startSpan();
+        CompletableFuture<EmailSendResult> attempt;
+        try (Scope ignored = span.makeCurrent()) {
+            attempt = candidate.provider.sendEmailAsync(request);
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        return attempt.handle((result, error) -> {
+            long now = System.nanoTime();
+            try {
+                if (error == null) {
+                    candidate.health.recordSuccess(now - start);
+                    candidate.success.record(now - start, TimeUnit.NANOSECONDS);
+                    return CompletableFuture.completedFuture(result);
+                }
+                RuntimeException failure = unwrap(error);
+                candidate.health.recordFailure(now);
+                candidate.failure.record(now - start, TimeUnit.NANOSECONDS);
+                span.recordException(failure);
+                span.setStatus(StatusCode.ERROR, String.valueOf(failure.getMessage()));
+                logger.warn("Email provider '{}' failed for {}: {}. Trying next provider.", candidate.provider.getName(), request.getTo(), failure.getMessage());
+                return attemptAsync(request, candidates, failure);
+            } finally {
+                span.end();
+            }
+        }).thenCompose(Function.identity());
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RuntimeException ? (RuntimeException) cause : new EmailSendingException(cause.getMessage(), cause);
+    }
+
+    /**
+     * Orders providers for one send: a weighted random pick among available providers first, then the other
+     * available providers by score, then unavailable providers by how soon they come back into rotation. A provider
+     * whose open window has passed counts as available for one caller at a time, its probe.
+     */
+    List<RegisteredProvider> rank(long nowNanos) {
+        List<RegisteredProvider> available = new ArrayList<>();
+        List<RegisteredProvider> unavailable = new ArrayList<>();
+        for (RegisteredProvider provider : providers) {
+            if (provider.health.tryAcquire(nowNanos)) {
+                available.add(provider);
+            } else {
+                unavailable.add(provider);
+            }
+        }
+        available.sort(Comparator.comparingDouble(RegisteredProvider::score).reversed());
+        unavailable.sort(Comparator.comparingLong(provider -> provider.health.getOpenUntilNanos()));
+
+        double total = available.stream().mapToDouble(RegisteredProvider::score).sum();
+        if (available.size() > 1 && total > 0) {
+            double pick = ThreadLocalRandom.current().nextDouble(total);
+            for (int i = 0; i < available.size(); i++) {
+                pick -= available.get(i).score();
+                if (pick < 0) {
+                    available.add(0, available.remove(i));
+                    break;
+                }
+            }
+        }
+        available.addAll(unavailable);
+        return available;
+    }
+
+    static final class RegisteredProvider {
+        private final EmailProvider provider;
+        private final ProviderHealth health;
+        private final int weight;
+        private final Timer success;
+        private final Timer failure;
+
+        private RegisteredProvider(EmailProvider provider, EmailProviderProperties.Routing routing, MeterRegistry meterRegistry) {
+            this.provider = provider;
+            this.health = new ProviderHealth(routing.getLatencyEwmaAlpha(), routing.getFailureThreshold(), routing.getOpenDuration().toNanos());
+            this.weight = Math.max(0, routing.getWeights().getOrDefault(provider.getName(), 1));
+            this.success = Timer.builder("notification.provider.latency").tag("provider", provider.getName()).tag("outcome", "success").register(meterRegistry);
+            this.failure = Timer.builder("notification.provider.latency").tag("provider", provider.getName()).tag("outcome", "failure").register(meterRegistry);
+            Gauge.builder("notification.provider.available", health, h -> h.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("provider", provider.getName())
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Routing score: configured weight divided by smoothed latency. Providers without latency data yet are
+         * scored as if they took 1 ms so that they get tried.
+         */
+        double score() {
+            return weight / Math.max(1d, health.latencyMillis());
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.notification.service.impl;
+
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.exception.EmailSendingException;
+import com.notification.service.EmailProvider;
+import com.notification.smtp.SmtpConnection;
+import com.notification.smtp.SmtpConnectionPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link EmailProvider} that delivers directly to an SMTP relay over pooled, pipelined connections.
+ * This is the low-latency path: no provider HTTP round trip and no dependency on Novu being up.
+ * Subject and body are rendered locally by substituting {@code {{name}}} placeholders from
+ * {@link EmailRequest#getEmailVariables()}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "notification.providers.smtp", name = "enabled", havingValue = "true")
+public class SmtpEmailProvider implements EmailProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpEmailProvider.class);
+
+    private static final String CRLF = "\r\n";
+
+    private final EmailProviderProperties.Smtp settings;
+    private final SmtpConnectionPool pool;
+
+    public SmtpEmailProvider(EmailProviderProperties properties) {
+        this.settings = properties.getSmtp();
+        this.pool = new SmtpConnectionPool(settings);
+    }
+
+    @Override
+    public String getName() {
+        return "smtp";
+    }
+
+    /**
+     * Sends the email as one SMTP transaction addressed to all To, Cc and Bcc recipients.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @throws EmailSendingException if the relay is unreachable or rejects the message.
+     */
+    @Override
+    public void sendEmail(EmailRequest request) {
+        send(request);
+    }
+
+    /**
+     * Sends the email as {@link #sendEmail} does, on the calling thread, and reports the recipients the relay
+     * rejected as failed.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @return A future completed with the per-recipient outcome, or exceptionally with an {@link EmailSendingException}
+     * if the relay is unreachable or rejects the message.
+     */
+    @Override
+    public CompletableFuture<EmailSendResult> sendEmailAsync(EmailRequest request) {
+        try {
+            return CompletableFuture.completedFuture(send(request));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private EmailSendResult send(EmailRequest request) {
+        long start = System.nanoTime();
+        List<String> recipients = new ArrayList<>();
+        List<EmailSendResult.RecipientType> types = new ArrayList<>();
+        recipients.add(request.getTo());
+        types.add(EmailSendResult.RecipientType.TO);
+        if (request.getCc() != null) {
+            request.getCc().forEach(cc -> {
+                recipients.add(cc);
+                types.add(EmailSendResult.RecipientType.CC);
+            });
+        }
+        if (request.getBcc() != null) {
+            request.getBcc().forEach(bcc -> {
+                recipients.add(bcc);
+                types.add(EmailSendResult.RecipientType.BCC);
+            });
+        }
+
+        SmtpConnection connection;
+        try {
+            connection = pool.borrow();
+        } catch (IOException e) {
+            throw new EmailSendingException("Error connecting to SMTP server " + settings.getHost() + ": " + e.getMessage(), e);
+        }
+        try {
+            List<String> rejected = connection.send(settings.getFrom(), recipients, buildMessage(request));
+            if (!rejected.isEmpty()) {
+                logger.warn("SMTP server rejected {} of {} recipients for email to {}: {}", rejected.size(), recipients.size(), request.getTo(), rejected);
+            }
+            logger.info("Email sent via SMTP to {} ({} recipients).", request.getTo(), recipients.size() - rejected.size());
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            Set<String> rejectedAddresses = new HashSet<>(rejected);
+            EmailSendResult.EmailSendResultBuilder result = EmailSendResult.builder().provider(getName()).latency(latency);
+            for (int i = 0; i < recipients.size(); i++) {
+                boolean accepted = !rejectedAddresses.contains(recipients.get(i));
+                result.recipient(EmailSendResult.Recipient.builder()
+                        .address(recipients.get(i))
+                        .type(types.get(i))
+                        .status(accepted ? EmailSendResult.Status.ACCEPTED : EmailSendResult.Status.FAILED)
+                        .error(accepted ? null : "Rejected by the SMTP server")
+                        .latency(latency)
+                        .build());
+            }
+            return result.build();
+        } catch (IOException e) {
+            logger.error("Error sending email via SMTP to {}: {}", request.getTo(), e.getMessage(), e);
+            throw new EmailSendingException("Error sending email via SMTP to " + request.getTo() + ": " + e.getMessage(), e);
+        } finally {
+            pool.release(connection);
+        }
+    }
+
+    String buildMessage(EmailRequest request) {
+        Map<String, Object> variables = request.getEmailVariables();
+        String subject = render(request.getSubject(), variables);
+        StringBuilder body = new StringBuilder(render(request.getBody(), variables));
+        if (request.getSignature() != null && !request.getSignature().isEmpty()) {
+            body.append(CRLF).append(CRLF).append(render(request.getSignature(), variables));
+        }
+
+        StringBuilder message = new StringBuilder(256 + body.length() * 2);
+        message.append("From: ").append(settings.getFrom()).append(CRLF);
+        message.append("To: ").append(request.getTo()).append(CRLF);
+        if (request.getCc() != null && !request.getCc().isEmpty()) {
+            message.append("Cc: ").append(String.join(", ", request.getCc())).append(CRLF);
+        }
+        message.append("Subject: ").append(encodeHeader(subject)).append(CRLF);
+        message.append("Date: ").append(DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now())).append(CRLF);
+        message.append("Message-ID: <").append(UUID.randomUUID()).append('@').append(settings.getHeloName()).append('>').append(CRLF);
+        message.append("MIME-Version: 1.0").append(CRLF);
+        message.append("Content-Type: text/plain; charset=UTF-8").append(CRLF);
+        message.append("Content-Transfer-Encoding: base64").append(CRLF);
+        message.append(CRLF);
+        message.append(Base64.getMimeEncoder().encodeToString(body.toString().getBytes(StandardCharsets.UTF_8)));
+        return message.toString();
+    }
+
+    private static String render(String template, Map<String, Object> variables) {
+        if (template == null) {
+            return "";
+        }
+        if (variables == null || variables.isEmpty() || template.indexOf("{{") < 0) {
+            return template;
+        }
+        String rendered = template;
+        for (Map.Entry<String, Object> variable : variables.entrySet()) {
+            rendered = rendered.replace("{{" + variable.getKey() + "}}", String.valueOf(variable.getValue()));
+        }
+        return rendered;
+    }
+
+    private static String encodeHeader(String value) {
+        boolean ascii = value.chars().allMatch(c -> c >= 0x20 && c < 0x7f);
+        if (ascii) {
+            return value;
+        }
+        return "=?UTF-8?B?" + Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8)) + "?=";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.close();
+    }
+}
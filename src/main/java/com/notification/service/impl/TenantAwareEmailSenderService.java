@@ -0,0 +1,122 @@
+package com.notification.service.impl;
+
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.recipient.NormalizedRecipients;
+import com.notification.recipient.RecipientNormalizer;
+import com.notification.service.EmailSenderService;
+import com.notification.tenant.FairTenantDispatcher;
+import com.notification.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * {@link EmailSenderService} that routes every send through the {@link FairTenantDispatcher},
+ * charging it to the tenant bound in {@link TenantContext}. The actual sending is delegated to the
+ * {@link RoutingEmailSenderService}, which picks a provider. Recipients are first canonicalized, de-duplicated across
+ * to/cc/bcc and checked against the suppression list by the {@link RecipientNormalizer}, so that neither the quota nor
+ * the provider is spent on them.
+ */
+@Service
+@Primary
+public class TenantAwareEmailSenderService implements EmailSenderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantAwareEmailSenderService.class);
+
+    private final EmailSenderService delegate;
+    private final FairTenantDispatcher dispatcher;
+    private final RecipientNormalizer recipientNormalizer;
+
+    public TenantAwareEmailSenderService(@Qualifier("routingEmailSenderService") EmailSenderService delegate,
+                                         FairTenantDispatcher dispatcher,
+                                         RecipientNormalizer recipientNormalizer) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+        this.recipientNormalizer = recipientNormalizer;
+    }
+
+    /**
+     * Sends the email once the tenant's turn comes up. The dispatch cost is the number of recipients left after
+     * normalization, as each one results in a separate provider call. Nothing is sent if every recipient is suppressed.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @throws com.notification.exception.TenantQuotaExceededException if the tenant is over quota.
+     */
+    @Override
+    public void sendEmail(EmailRequest request) {
+        NormalizedRecipients recipients = normalize(request);
+        if (recipients.isEmpty()) {
+            return;
+        }
+        dispatcher.dispatch(TenantContext.current(), recipients.recipientCount(), () -> delegate.sendEmail(recipients.getRequest()));
+    }
+
+    /**
+     * Starts the send once the tenant's turn comes up. The dispatcher worker stays on the send until the provider has
+     * answered, so the dispatcher's worker count bounds provider concurrency on this path as it does for
+     * {@link #sendEmail}; the caller's thread is not held.
+     *
+     * @param request The {@link EmailRequest} containing email details.
+     * @return A future completed with the provider's result, which also lists the suppressed recipients.
+     * @throws com.notification.exception.TenantQuotaExceededException if the tenant is over quota.
+     */
+    @Override
+    public CompletableFuture<EmailSendResult> sendEmailAsync(EmailRequest request) {
+        NormalizedRecipients recipients = normalize(request);
+        if (recipients.isEmpty()) {
+            return CompletableFuture.completedFuture(withSuppressed(EmailSendResult.builder().latency(Duration.ZERO).build(), recipients));
+        }
+        CompletableFuture<EmailSendResult> result = new CompletableFuture<>();
+        dispatcher.submit(TenantContext.current(), recipients.recipientCount(), () -> delegate.sendEmailAsync(recipients.getRequest())
+                        .whenComplete((sendResult, error) -> {
+                            if (error != null) {
+                                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                            } else {
+                                result.complete(withSuppressed(sendResult, recipients));
+                            }
+                        })
+                        // Holds the worker until the send completes; its outcome already went to the caller above.
+                        .handle((sendResult, error) -> null)
+                        .join())
+                .whenComplete((ignored, error) -> {
+                    // The task itself failed or was rejected before the send started.
+                    if (error != null) {
+                        result.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                    }
+                });
+        return result;
+    }
+
+    private NormalizedRecipients normalize(EmailRequest request) {
+        NormalizedRecipients recipients = recipientNormalizer.normalize(request);
+        if (recipients.isEmpty()) {
+            logger.info("Not sending email '{}': all recipients are suppressed ({}).", request.getSubject(), recipients.getSuppressed());
+        } else if (!recipients.getSuppressed().isEmpty() || recipients.getDuplicates() > 0) {
+            logger.info("Email '{}': skipped {} suppressed and {} duplicate recipients.", request.getSubject(),
+                    recipients.getSuppressed().size(), recipients.getDuplicates());
+        }
+        return recipients;
+    }
+
+    private static EmailSendResult withSuppressed(EmailSendResult result, NormalizedRecipients recipients) {
+        if (recipients.getSuppressed().isEmpty()) {
+            return result;
+        }
+        EmailSendResult.EmailSendResultBuilder builder = result.toBuilder();
+        for (String address : recipients.getSuppressed()) {
+            builder.recipient(EmailSendResult.Recipient.builder()
+                    .address(address)
+                    .status(EmailSendResult.Status.SUPPRESSED)
+                    .latency(Duration.ZERO)
+                    .build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,286 @@
+package com.notification.smtp;
+
+import com.notification.config.EmailProviderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A single client connection to an SMTP server.
+ * <p>
+ * The connection is kept open across messages so that the TCP/TLS handshake, greeting and EHLO are
+ * paid once per connection instead of once per email. When the server advertises the PIPELINING
+ * extension (RFC 2920), the whole envelope ({@code MAIL FROM}, every {@code RCPT TO} and {@code DATA})
+ * is written in a single round trip.
+ */
+public class SmtpConnection implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnection.class);
+
+    private static final String CRLF = "\r\n";
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final OutputStream out;
+    private final Set<String> extensions = new HashSet<>();
+
+    private boolean broken;
+    private long lastUsedNanos = System.nanoTime();
+
+    private SmtpConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(new BufferedInputStream(socket.getInputStream()), StandardCharsets.UTF_8));
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    /**
+     * Opens a connection, reads the greeting, negotiates extensions with EHLO and authenticates if configured.
+     *
+     * @param settings The SMTP server settings.
+     * @return A connection ready to send messages.
+     * @throws IOException if the server cannot be reached or rejects the session.
+     */
+    public static SmtpConnection open(EmailProviderProperties.Smtp settings) throws IOException {
+        Socket socket = settings.isSsl() ? SSLSocketFactory.getDefault().createSocket() : new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(settings.getHost(), settings.getPort()), (int) settings.getConnectTimeout().toMillis());
+            socket.setSoTimeout((int) settings.getReadTimeout().toMillis());
+            SmtpConnection connection = new SmtpConnection(socket);
+            connection.handshake(settings);
+            return connection;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void handshake(EmailProviderProperties.Smtp settings) throws IOException {
+        expect(readReply(), 220, "greeting");
+        writeLine("EHLO " + settings.getHeloName());
+        flush();
+        Reply ehlo = readReply();
+        expect(ehlo, 250, "EHLO");
+        for (int i = 1; i < ehlo.lines.size(); i++) {
+            extensions.add(ehlo.lines.get(i).split(" ", 2)[0].toUpperCase(Locale.ROOT));
+        }
+        if (settings.getUsername() != null && !settings.getUsername().isBlank()) {
+            String credentials = "\0" + settings.getUsername() + "\0" + (settings.getPassword() != null ? settings.getPassword() : "");
+            writeLine("AUTH PLAIN " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+            flush();
+            expect(readReply(), 235, "AUTH");
+        }
+        logger.debug("Opened SMTP connection to {}:{} (pipelining: {}).", settings.getHost(), settings.getPort(), supportsPipelining());
+    }
+
+    /**
+     * @return {@code true} if the server advertised the PIPELINING extension.
+     */
+    public boolean supportsPipelining() {
+        return extensions.contains("PIPELINING");
+    }
+
+    /**
+     * Sends one message to the given envelope recipients.
+     *
+     * @param from       Envelope sender.
+     * @param recipients Envelope recipients (To, Cc and Bcc).
+     * @param message    The full RFC 5322 message (headers and body) with CRLF line endings.
+     * @return The recipients the server rejected. Empty if all were accepted.
+     * @throws SmtpException if the server rejects the sender, all recipients, or the message.
+     * @throws IOException   on connection failure. The connection must then be discarded.
+     */
+    public List<String> send(String from, List<String> recipients, String message) throws IOException {
+        try {
+            List<String> rejected = supportsPipelining()
+                    ? sendEnvelopePipelined(from, recipients)
+                    : sendEnvelopeSequential(from, recipients);
+            writeData(message);
+            flush();
+            expect(readReply(), 250, "end of DATA");
+            lastUsedNanos = System.nanoTime();
+            return rejected;
+        } catch (SmtpException e) {
+            resetQuietly();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            broken = true;
+            throw e;
+        }
+    }
+
+    private List<String> sendEnvelopePipelined(String from, List<String> recipients) throws IOException {
+        writeLine("MAIL FROM:<" + from + ">");
+        for (String recipient : recipients) {
+            writeLine("RCPT TO:<" + recipient + ">");
+        }
+        writeLine("DATA");
+        flush();
+
+        Reply mailFrom = readReply();
+        List<String> rejected = new ArrayList<>();
+        for (String recipient : recipients) {
+            if (!readReply().isPositive()) {
+                rejected.add(recipient);
+            }
+        }
+        Reply data = readReply();
+        if (data.code == 354 && (mailFrom.code != 250 || rejected.size() == recipients.size())) {
+            // Some servers accept DATA even without a valid envelope; send an empty message terminator to get back in sync.
+            out.write(("." + CRLF).getBytes(StandardCharsets.UTF_8));
+            flush();
+            readReply();
+        }
+        expect(mailFrom, 250, "MAIL FROM");
+        if (rejected.size() == recipients.size()) {
+            throw new SmtpException(data.code, "All recipients rejected: " + rejected);
+        }
+        expect(data, 354, "DATA");
+        return rejected;
+    }
+
+    private List<String> sendEnvelopeSequential(String from, List<String> recipients) throws IOException {
+        writeLine("MAIL FROM:<" + from + ">");
+        flush();
+        expect(readReply(), 250, "MAIL FROM");
+        List<String> rejected = new ArrayList<>();
+        for (String recipient : recipients) {
+            writeLine("RCPT TO:<" + recipient + ">");
+            flush();
+            if (!readReply().isPositive()) {
+                rejected.add(recipient);
+            }
+        }
+        if (rejected.size() == recipients.size()) {
+            throw new SmtpException(550, "All recipients rejected: " + rejected);
+        }
+        writeLine("DATA");
+        flush();
+        expect(readReply(), 354, "DATA");
+        return rejected;
+    }
+
+    /**
+     * Writes the message with dot-stuffing (RFC 5321 section 4.5.2) followed by the terminating dot line.
+     */
+    private void writeData(String message) throws IOException {
+        StringBuilder data = new StringBuilder(message.length() + 16);
+        int lineStart = 0;
+        while (lineStart < message.length()) {
+            int lineEnd = message.indexOf(CRLF, lineStart);
+            String line = lineEnd < 0 ? message.substring(lineStart) : message.substring(lineStart, lineEnd);
+            if (line.startsWith(".")) {
+                data.append('.');
+            }
+            data.append(line).append(CRLF);
+            lineStart = lineEnd < 0 ? message.length() : lineEnd + CRLF.length();
+        }
+        data.append('.').append(CRLF);
+        out.write(data.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@code true} if the connection can be returned to the pool.
+     */
+    public boolean isUsable() {
+        return !broken && !socket.isClosed();
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which the connection last completed a message (or was opened).
+     */
+    public long getLastUsedNanos() {
+        return lastUsedNanos;
+    }
+
+    private void resetQuietly() {
+        try {
+            writeLine("RSET");
+            flush();
+            expect(readReply(), 250, "RSET");
+        } catch (IOException e) {
+            broken = true;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (isUsable()) {
+                writeLine("QUIT");
+                flush();
+            }
+        } catch (IOException e) {
+            logger.debug("Error sending QUIT: {}", e.getMessage());
+        } finally {
+            broken = true;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing SMTP socket: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void writeLine(String line) throws IOException {
+        out.write((line + CRLF).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void flush() throws IOException {
+        out.flush();
+    }
+
+    private Reply readReply() throws IOException {
+        List<String> lines = new ArrayList<>();
+        while (true) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IOException("SMTP connection closed by server.");
+            }
+            if (line.length() < 3) {
+                throw new IOException("Malformed SMTP reply: " + line);
+            }
+            lines.add(line.length() > 4 ? line.substring(4) : "");
+            if (line.length() == 3 || line.charAt(3) != '-') {
+                return new Reply(Integer.parseInt(line.substring(0, 3)), lines);
+            }
+        }
+    }
+
+    private static void expect(Reply reply, int expectedCode, String step) throws SmtpException {
+        if (reply.code != expectedCode) {
+            throw new SmtpException(reply.code, "Unexpected SMTP reply to " + step + ": " + reply.code + " " + String.join(" ", reply.lines));
+        }
+    }
+
+    private static final class Reply {
+        private final int code;
+        private final List<String> lines;
+
+        private Reply(int code, List<String> lines) {
+            this.code = code;
+            this.lines = lines;
+        }
+
+        private boolean isPositive() {
+            return code >= 200 && code < 300;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.notification.smtp;
+
+import com.notification.config.EmailProviderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of {@link SmtpConnection}s to one SMTP server.
+ * <p>
+ * At most {@code poolSize} connections exist at any time. Idle connections are reused in
+ * FIFO order and discarded once they have been idle longer than {@code maxIdle}, since servers
+ * commonly drop quiet sessions.
+ */
+public class SmtpConnectionPool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpConnectionPool.class);
+
+    private final EmailProviderProperties.Smtp settings;
+    private final BlockingQueue<SmtpConnection> idle;
+    private final Semaphore permits;
+    private final long maxIdleNanos;
+
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(EmailProviderProperties.Smtp settings) {
+        this.settings = settings;
+        this.idle = new LinkedBlockingQueue<>(settings.getPoolSize());
+        this.permits = new Semaphore(settings.getPoolSize(), true);
+        this.maxIdleNanos = settings.getMaxIdle().toNanos();
+    }
+
+    /**
+     * Borrows a connection, reusing an idle one where possible and opening a new one otherwise.
+     * Every borrowed connection must be handed back with {@link #release(SmtpConnection)}.
+     *
+     * @return A connection ready to send.
+     * @throws IOException if no connection became available within the borrow timeout or one could not be opened.
+     */
+    public SmtpConnection borrow() throws IOException {
+        if (closed) {
+            throw new IOException("SMTP connection pool is closed.");
+        }
+        try {
+            if (!permits.tryAcquire(settings.getBorrowTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new IOException("Timed out waiting for a pooled SMTP connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a pooled SMTP connection.", e);
+        }
+        try {
+            SmtpConnection connection;
+            while ((connection = idle.poll()) != null) {
+                if (connection.isUsable() && System.nanoTime() - connection.getLastUsedNanos() < maxIdleNanos) {
+                    return connection;
+                }
+                connection.close();
+            }
+            return SmtpConnection.open(settings);
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection. Broken connections are closed rather than pooled.
+     *
+     * @param connection The connection obtained from {@link #borrow()}.
+     */
+    public void release(SmtpConnection connection) {
+        try {
+            if (closed || !connection.isUsable() || !idle.offer(connection)) {
+                connection.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return The number of idle connections currently pooled.
+     */
+    public int idleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        SmtpConnection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+        logger.info("Closed SMTP connection pool for {}:{}.", settings.getHost(), settings.getPort());
+    }
+}
@@ -0,0 +1,34 @@
+package com.notification.smtp;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an SMTP server answers a command with an unexpected reply code.
+ */
+public class SmtpException extends IOException {
+
+    private final int replyCode;
+
+    /**
+     * @param replyCode The SMTP reply code returned by the server.
+     * @param message   The detail message, including the server's reply text.
+     */
+    public SmtpException(int replyCode, String message) {
+        super(message);
+        this.replyCode = replyCode;
+    }
+
+    /**
+     * @return The SMTP reply code returned by the server.
+     */
+    public int getReplyCode() {
+        return replyCode;
+    }
+
+    /**
+     * @return {@code true} for 4xx replies, which the server expects to be retried later.
+     */
+    public boolean isTransient() {
+        return replyCode >= 400 && replyCode < 500;
+    }
+}
@@ -0,0 +1,272 @@
+package com.notification.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.SpoolProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.exception.InvalidRequestException;
+import com.notification.service.EmailSenderService;
+import com.notification.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Keeps email requests that could not be sent in a local {@link MappedSpool} and replays them once sending works again.
+ * <p>
+ * {@link #append} writes the request and waits for the next group sync, so an accepted request survives a crash
+ * while a burst of failures costs one disk sync per {@code syncInterval} rather than one per request. A replay
+ * worker sends spooled requests in order through the {@link EmailSenderService}, under the tenant that submitted
+ * them. When a replay fails it backs off exponentially and retries the same request, so nothing is lost or
+ * reordered during an outage. Requests the service rejects as invalid are discarded. A request that still fails after
+ * {@code maxAttempts} replays, or once it is older than {@code maxAge}, is appended to {@value #DEAD_LETTER_FILE} in
+ * the spool directory and skipped, so that one request the providers keep refusing cannot hold up the rest.
+ * <p>
+ * Delivery is at-least-once: a request whose send succeeded just before a crash may be sent again after restart.
+ */
+@Component
+public class EmailSpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailSpool.class);
+
+    static final String DEAD_LETTER_FILE = "dead-letter.jsonl";
+
+    private final ObjectMapper objectMapper;
+    private final SpoolProperties properties;
+    private final EmailSenderService emailSenderService;
+    private final Counter spooled;
+    private final Counter refused;
+    private final Counter replayed;
+    private final Counter discarded;
+    private final Counter deadLettered;
+
+    private volatile MappedSpool spool;
+    private volatile boolean running;
+    private Thread syncer;
+    private Thread replayer;
+
+    public EmailSpool(ObjectMapper objectMapper, SpoolProperties properties, EmailSenderService emailSenderService, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.emailSenderService = emailSenderService;
+        this.spooled = Counter.builder("notification.spool.requests").tag("outcome", "spooled").register(meterRegistry);
+        this.refused = Counter.builder("notification.spool.requests").tag("outcome", "refused").register(meterRegistry);
+        this.replayed = Counter.builder("notification.spool.requests").tag("outcome", "replayed").register(meterRegistry);
+        this.discarded = Counter.builder("notification.spool.requests").tag("outcome", "discarded").register(meterRegistry);
+        this.deadLettered = Counter.builder("notification.spool.requests").tag("outcome", "dead-lettered").register(meterRegistry);
+        Gauge.builder("notification.spool.size", this, s -> s.spool != null ? s.spool.sizeOnDisk() : 0)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (properties.getDirectory() == null || properties.getDirectory().isBlank() || !Paths.get(properties.getDirectory()).isAbsolute()) {
+            logger.error("notification.spool.directory must be an absolute path, not '{}'; failed sends will not be spooled.", properties.getDirectory());
+            return;
+        }
+        try {
+            spool = MappedSpool.open(Paths.get(properties.getDirectory()), (int) properties.getSegmentSize().toBytes());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not open email spool in '{}'; failed sends will not be spooled: {}", properties.getDirectory(), e.getMessage(), e);
+            return;
+        }
+        running = true;
+        syncer = new Thread(this::runSyncer, "email-spool-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+        replayer = new Thread(this::runReplayer, "email-spool-replay");
+        replayer.setDaemon(true);
+        replayer.start();
+    }
+
+    /**
+     * Spools a request for later replay and waits until it is on disk.
+     *
+     * @param request  The request that could not be sent.
+     * @param tenantId The tenant to replay it for.
+     * @return {@code true} if the request is durably spooled; {@code false} if spooling is off, the spool is full or
+     *         the write failed, in which case the caller should report the original failure.
+     */
+    public boolean append(EmailRequest request, String tenantId) {
+        MappedSpool current = spool;
+        if (!running || current == null) {
+            return false;
+        }
+        if (current.sizeOnDisk() >= properties.getMaxSize().toBytes()) {
+            refused.increment();
+            logger.warn("Email spool is full ({}); not spooling email to {}.", properties.getMaxSize(), request.getTo());
+            return false;
+        }
+        try {
+            long ticket = current.append(objectMapper.writeValueAsBytes(new SpooledEmail(tenantId, Instant.now(), request)));
+            if (!current.awaitSynced(ticket, properties.getSyncTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                // The record is in the spool and will still be replayed; the client may retry and cause a duplicate.
+                refused.increment();
+                logger.error("Email spool sync did not complete within {}; reporting email to {} as failed.", properties.getSyncTimeout(), request.getTo());
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            refused.increment();
+            return false;
+        } catch (IOException | RuntimeException e) {
+            refused.increment();
+            logger.error("Failed to spool email to {}: {}", request.getTo(), e.getMessage());
+            return false;
+        }
+        spooled.increment();
+        return true;
+    }
+
+    /**
+     * Stops replaying and syncs the spool. Unreplayed requests stay on disk for the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread thread : new Thread[]{replayer, syncer}) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            spool.close();
+        } catch (IOException e) {
+            logger.error("Failed to close email spool: {}", e.getMessage());
+        }
+    }
+
+    private void runSyncer() {
+        long intervalNanos = properties.getSyncInterval().toNanos();
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            try {
+                spool.sync();
+            } catch (RuntimeException e) {
+                logger.error("Email spool sync failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void runReplayer() {
+        Duration backoff = properties.getInitialBackoff();
+        int attempts = 0;
+        while (running) {
+            byte[] payload = spool.peek();
+            if (payload == null) {
+                LockSupport.parkNanos(this, properties.getPollInterval().toNanos());
+                continue;
+            }
+            SpooledEmail email;
+            try {
+                email = objectMapper.readValue(payload, SpooledEmail.class);
+            } catch (IOException e) {
+                logger.error("Discarding unreadable spool record: {}", e.getMessage());
+                discarded.increment();
+                consume();
+                attempts = 0;
+                continue;
+            }
+            TenantContext.set(email.getTenantId());
+            try {
+                emailSenderService.sendEmail(email.getRequest());
+                replayed.increment();
+                consume();
+                attempts = 0;
+                backoff = properties.getInitialBackoff();
+                logger.info("Replayed email to {} spooled at {}.", email.getRequest().getTo(), email.getSpooledAt());
+            } catch (InvalidRequestException e) {
+                logger.error("Discarding spooled email to {}: {}", email.getRequest().getTo(), e.getMessage());
+                discarded.increment();
+                consume();
+                attempts = 0;
+            } catch (RuntimeException e) {
+                attempts++;
+                if (attempts >= properties.getMaxAttempts() || isExpired(email)) {
+                    logger.error("Giving up on spooled email to {} spooled at {} after {} attempts: {}",
+                            email.getRequest().getTo(), email.getSpooledAt(), attempts, e.getMessage());
+                    deadLetter(payload);
+                    consume();
+                    attempts = 0;
+                    backoff = properties.getInitialBackoff();
+                } else {
+                    logger.warn("Replay of spooled email to {} failed, retrying in {}: {}", email.getRequest().getTo(), backoff, e.getMessage());
+                    LockSupport.parkNanos(this, backoff.toNanos());
+                    backoff = backoff.multipliedBy(2).compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : backoff.multipliedBy(2);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private boolean isExpired(SpooledEmail email) {
+        return email.getSpooledAt() != null && email.getSpooledAt().plus(properties.getMaxAge()).isBefore(Instant.now());
+    }
+
+    /**
+     * Appends the record as one JSON line to the dead-letter file, from where it can be inspected or resubmitted.
+     */
+    private void deadLetter(byte[] payload) {
+        deadLettered.increment();
+        Path file = Paths.get(properties.getDirectory()).resolve(DEAD_LETTER_FILE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.allocate(payload.length + 1).put(payload).put((byte) '\n');
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            logger.error("Failed to write spooled email to {}; it is dropped: {}", file, e.getMessage());
+        }
+    }
+
+    private void consume() {
+        try {
+            spool.advance();
+        } catch (IOException e) {
+            logger.error("Failed to checkpoint email spool; the last record may be replayed again after restart: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A spooled request together with the tenant it was submitted for.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpooledEmail {
+        private String tenantId;
+        private Instant spooledAt;
+        private EmailRequest request;
+    }
+}
@@ -0,0 +1,380 @@
+package com.notification.spool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of opaque records in fixed-size, memory-mapped segment files.
+ * <p>
+ * Records are framed as {@code [length][crc32][payload]} and written one after another into the current segment. A
+ * record that does not fit closes the segment with a roll marker and starts the next one. An append is only a copy
+ * into the mapping; durability comes from {@link #sync()}, which the owner calls on an interval so that all appends
+ * within one interval share a single {@code msync}. Appenders that need their record on disk wait for it with
+ * {@link #awaitSynced}.
+ * <p>
+ * One consumer reads with {@link #peek()} and {@link #advance()}. Its position is persisted in a checkpoint file and
+ * segments are deleted once fully consumed. On open, the last segment is scanned and anything after the last record
+ * with a valid checksum, i.e. a write torn by a crash, is overwritten by the next append.
+ * <p>
+ * {@link #append} and {@link #sync()} are thread-safe; {@link #peek()} and {@link #advance()} must be called from a
+ * single thread.
+ */
+public class MappedSpool implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedSpool.class);
+
+    private static final int HEADER_BYTES = 8;
+    private static final int ROLL_MARKER = -1;
+    private static final int CHECKPOINT_BYTES = 12;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final FileChannel checkpoint;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object syncMonitor = new Object();
+
+    // Guarded by writeLock
+    private Segment writeSegment;
+    private int writeOffset;
+    private long appended;
+    private boolean closed;
+
+    // Guarded by syncMonitor
+    private long synced;
+
+    // End of the last complete record; the reader never reads past it.
+    private volatile Position published;
+
+    // Owned by the consumer thread
+    private Position readPosition;
+    private Position nextReadPosition;
+
+    /**
+     * Opens the spool in {@code directory}, creating it if needed, and recovers the read and write positions.
+     *
+     * @param segmentSize Size of newly created segments; existing segments keep their size.
+     */
+    public static MappedSpool open(Path directory, int segmentSize) throws IOException {
+        return new MappedSpool(directory, segmentSize);
+    }
+
+    private MappedSpool(Path directory, int segmentSize) throws IOException {
+        if (segmentSize <= HEADER_BYTES) {
+            throw new IllegalArgumentException("Segment size must exceed " + HEADER_BYTES + " bytes");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        this.checkpoint = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        Position start = readCheckpoint();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long index = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                if (index < start.segment) {
+                    Files.delete(file);
+                } else {
+                    segments.put(index, Segment.map(file, index, 0));
+                }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            writeSegment = createSegment(start.segment);
+            writeOffset = 0;
+            readPosition = new Position(start.segment, 0);
+        } else {
+            writeSegment = segments.lastEntry().getValue();
+            writeOffset = scanEnd(writeSegment);
+            readPosition = segments.firstKey() > start.segment ? new Position(segments.firstKey(), 0) : start;
+        }
+        published = new Position(writeSegment.index, writeOffset);
+        if (published.before(readPosition)) {
+            // The checkpoint points into a tail that was torn; resume from what survived.
+            readPosition = published;
+        }
+    }
+
+    /**
+     * Appends one record. The record is visible to the consumer on return but only durable once a {@link #sync()}
+     * started after this call has completed.
+     *
+     * @param payload The record; must not be empty and must fit in one segment with its header.
+     * @return A ticket to pass to {@link #awaitSynced}.
+     */
+    public long append(byte[] payload) throws IOException {
+        if (payload.length == 0 || HEADER_BYTES + payload.length > segmentSize) {
+            throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a " + segmentSize + " byte segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Spool is closed");
+            }
+            if (writeOffset + HEADER_BYTES + payload.length > writeSegment.capacity) {
+                roll();
+            }
+            ByteBuffer view = writeSegment.buffer.duplicate();
+            view.position(writeOffset);
+            view.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            writeOffset += HEADER_BYTES + payload.length;
+            published = new Position(writeSegment.index, writeOffset);
+            return ++appended;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes every record appended so far to disk and wakes appenders waiting for them.
+     */
+    public void sync() {
+        Segment segment;
+        long target;
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            segment = writeSegment;
+            target = appended;
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (syncMonitor) {
+            if (target <= synced) {
+                return;
+            }
+        }
+        // Earlier segments were forced when they were rolled, so only the current one can hold unsynced records.
+        segment.buffer.force();
+        synchronized (syncMonitor) {
+            synced = Math.max(synced, target);
+            syncMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the record identified by {@code ticket} has been synced.
+     *
+     * @return {@code false} if the timeout elapsed first.
+     */
+    public boolean awaitSynced(long ticket, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (syncMonitor) {
+            while (synced < ticket) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(syncMonitor, remainingNanos);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Returns the next unconsumed record without consuming it. Repeated calls return the same record until
+     * {@link #advance()} is called.
+     *
+     * @return The record, or {@code null} if everything appended so far has been consumed.
+     */
+    public byte[] peek() {
+        Position end = published;
+        Position position = readPosition;
+        while (position.before(end)) {
+            Segment segment = segments.get(position.segment);
+            int offset = position.offset;
+            int length = segment != null && offset + HEADER_BYTES <= segment.capacity ? segment.buffer.getInt(offset) : ROLL_MARKER;
+            if (length != ROLL_MARKER) {
+                byte[] payload = read(segment, offset, length);
+                if (payload != null) {
+                    nextReadPosition = new Position(position.segment, offset + HEADER_BYTES + length);
+                    return payload;
+                }
+                logger.warn("Skipping the rest of spool segment {} after a corrupt record at offset {}.", position.segment, offset);
+            }
+            Long next = segments.higherKey(position.segment);
+            if (next == null) {
+                return null;
+            }
+            position = new Position(next, 0);
+            readPosition = position;
+        }
+        return null;
+    }
+
+    /**
+     * Consumes the record returned by the last {@link #peek()}, persists the new position and deletes segments that
+     * have been fully consumed.
+     *
+     * @throws IOException if the checkpoint could not be written. The record is still consumed in memory but may be
+     *                     returned again after a restart.
+     */
+    public void advance() throws IOException {
+        if (nextReadPosition == null) {
+            throw new IllegalStateException("advance() called without a record from peek()");
+        }
+        readPosition = nextReadPosition;
+        nextReadPosition = null;
+        for (Map.Entry<Long, Segment> consumed : segments.headMap(readPosition.segment).entrySet()) {
+            segments.remove(consumed.getKey());
+            Files.deleteIfExists(consumed.getValue().file);
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(CHECKPOINT_BYTES).putLong(readPosition.segment).putInt(readPosition.offset);
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            checkpoint.write(bytes, bytes.position());
+        }
+        checkpoint.force(false);
+    }
+
+    /**
+     * @return Disk space taken by segments that are not yet fully consumed, in bytes.
+     */
+    public long sizeOnDisk() {
+        long size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.capacity;
+        }
+        return size;
+    }
+
+    /**
+     * Syncs outstanding appends and refuses further ones. Mappings are released when garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        sync();
+        writeLock.lock();
+        try {
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        checkpoint.close();
+    }
+
+    private void roll() throws IOException {
+        if (writeOffset + Integer.BYTES <= writeSegment.capacity) {
+            writeSegment.buffer.putInt(writeOffset, ROLL_MARKER);
+        }
+        writeSegment.buffer.force();
+        writeSegment = createSegment(writeSegment.index + 1);
+        writeOffset = 0;
+    }
+
+    private Segment createSegment(long index) throws IOException {
+        Segment segment = Segment.map(directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX)), index, segmentSize);
+        segments.put(index, segment);
+        return segment;
+    }
+
+    private Position readCheckpoint() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(CHECKPOINT_BYTES);
+        checkpoint.read(bytes, 0);
+        bytes.flip();
+        if (bytes.remaining() < CHECKPOINT_BYTES) {
+            return new Position(0, 0);
+        }
+        return new Position(bytes.getLong(), bytes.getInt());
+    }
+
+    /**
+     * Finds the end of the valid records in a segment: the first empty or corrupt header, or the full capacity if
+     * the segment was closed with a roll marker.
+     */
+    private static int scanEnd(Segment segment) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.capacity) {
+            int length = segment.buffer.getInt(offset);
+            if (length == ROLL_MARKER) {
+                return segment.capacity;
+            }
+            if (read(segment, offset, length) == null) {
+                return offset;
+            }
+            offset += HEADER_BYTES + length;
+        }
+        return segment.capacity;
+    }
+
+    private static byte[] read(Segment segment, int offset, int length) {
+        if (length <= 0 || length > segment.capacity - offset - HEADER_BYTES) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        ByteBuffer view = segment.buffer.duplicate();
+        view.position(offset + HEADER_BYTES);
+        view.get(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.buffer.getInt(offset + Integer.BYTES) ? payload : null;
+    }
+
+    private static final class Segment {
+        private final long index;
+        private final Path file;
+        private final int capacity;
+        private final MappedByteBuffer buffer;
+
+        private Segment(long index, Path file, MappedByteBuffer buffer) {
+            this.index = index;
+            this.file = file;
+            this.capacity = buffer.capacity();
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps a segment file, creating it with {@code size} bytes if it does not exist yet. A {@code size} of 0 maps
+         * an existing file at its current length.
+         */
+        private static Segment map(Path file, long index, int size) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long length = size > 0 ? size : channel.size();
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+                if (size > 0) {
+                    // Persist the new file length so the mapping survives a crash before the first sync.
+                    channel.force(true);
+                }
+                return new Segment(index, file, buffer);
+            }
+        }
+    }
+
+    private static final class Position {
+        private final long segment;
+        private final int offset;
+
+        private Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        private boolean before(Position other) {
+            return segment < other.segment || (segment == other.segment && offset < other.offset);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.notification.tracing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures where the time goes between an email request being sent to SQS and the provider acknowledging it.
+ * <p>
+ * Each stage is recorded in the {@code notification.email.latency} histogram, tagged by {@code stage}:
+ * <ul>
+ *     <li>{@code queue}: from {@code SentTimestamp} (or the scheduled send time, if later) to the first receive;</li>
+ *     <li>{@code redelivery}: from the first receive to the receive that was processed, non-zero after retries;</li>
+ *     <li>{@code validation}: from dequeue to a validated request;</li>
+ *     <li>{@code provider}: from validation to the provider's acknowledgment, including tenant dispatch;</li>
+ *     <li>{@code total}: end to end.</li>
+ * </ul>
+ * The same stages are exported as OpenTelemetry spans under one trace per message. The trace stays current while the
+ * message is processed and is carried through the tenant dispatcher, so the provider call, and the Novu HTTP request
+ * when the OpenTelemetry agent instruments it, join the same trace.
+ */
+@Component
+public class EmailLatencyTracer {
+
+    private final Tracer tracer;
+    final Timer queue;
+    final Timer redelivery;
+    final Timer validation;
+    final Timer provider;
+    final Timer total;
+
+    public EmailLatencyTracer(Tracer tracer, MeterRegistry meterRegistry) {
+        this.tracer = tracer;
+        this.queue = stage("queue", meterRegistry);
+        this.redelivery = stage("redelivery", meterRegistry);
+        this.validation = stage("validation", meterRegistry);
+        this.provider = stage("provider", meterRegistry);
+        this.total = stage("total", meterRegistry);
+    }
+
+    /**
+     * Starts the trace of an SQS message at the moment it is dequeued and makes it current on this thread until the
+     * returned trace is closed.
+     *
+     * @param messageId       The SQS message ID.
+     * @param sentAt          The message's {@code SentTimestamp}, or {@code null} if unknown.
+     * @param firstReceivedAt The message's {@code ApproximateFirstReceiveTimestamp}, or {@code null} if unknown.
+     */
+    public MessageTrace startSqsMessage(String messageId, Instant sentAt, Instant firstReceivedAt) {
+        Instant dequeuedAt = Instant.now();
+        SpanBuilder builder = tracer.spanBuilder("email delivery")
+                .setSpanKind(SpanKind.CONSUMER)
+                .setAttribute("messaging.system", "aws_sqs")
+                .setAttribute("messaging.message_id", messageId);
+        if (sentAt != null) {
+            builder.setStartTimestamp(sentAt);
+        }
+        Span root = builder.startSpan();
+        MessageTrace trace = new MessageTrace(this, root, sentAt, firstReceivedAt, dequeuedAt);
+        if (sentAt != null) {
+            Span queued = trace.childSpan("sqs queue wait").setStartTimestamp(sentAt).startSpan();
+            if (firstReceivedAt != null) {
+                queued.addEvent("first receive", firstReceivedAt);
+            }
+            queued.end(dequeuedAt);
+        }
+        return trace;
+    }
+
+    Tracer tracer() {
+        return tracer;
+    }
+
+    static void record(Timer timer, Instant from, Instant to) {
+        if (from != null && to != null) {
+            Duration elapsed = Duration.between(from, to);
+            // SQS timestamps come from another clock; clamp small negative skews.
+            timer.record(elapsed.isNegative() ? Duration.ZERO : elapsed);
+        }
+    }
+
+    private static Timer stage(String stage, MeterRegistry meterRegistry) {
+        return Timer.builder("notification.email.latency")
+                .description("Email request latency by stage, from SQS enqueue to provider acknowledgment")
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
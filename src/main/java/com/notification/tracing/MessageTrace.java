@@ -0,0 +1,95 @@
+package com.notification.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+
+import java.time.Instant;
+
+/**
+ * The trace of one SQS message, created by {@link EmailLatencyTracer#startSqsMessage}. Not thread-safe; use it from
+ * the thread that processes the message and close it when processing ends.
+ */
+public final class MessageTrace implements AutoCloseable {
+
+    private final EmailLatencyTracer latencyTracer;
+    private final Span root;
+    private final Scope scope;
+    private final Instant sentAt;
+    private final Instant firstReceivedAt;
+    private final Instant dequeuedAt;
+
+    private Instant dueAt;
+    private Instant validatedAt;
+
+    MessageTrace(EmailLatencyTracer latencyTracer, Span root, Instant sentAt, Instant firstReceivedAt, Instant dequeuedAt) {
+        this.latencyTracer = latencyTracer;
+        this.root = root;
+        this.scope = root.makeCurrent();
+        this.sentAt = sentAt;
+        this.firstReceivedAt = firstReceivedAt;
+        this.dequeuedAt = dequeuedAt;
+    }
+
+    /**
+     * Marks the request as validated.
+     */
+    public void validated() {
+        validatedAt = Instant.now();
+        childSpan("email validate").setStartTimestamp(dequeuedAt).startSpan().end(validatedAt);
+    }
+
+    /**
+     * Records that the message was scheduled for {@code dueAt}, so its time in the queue before then is not counted
+     * as queue latency.
+     */
+    public void dueAt(Instant dueAt) {
+        this.dueAt = dueAt;
+        root.setAttribute("email.due_at", dueAt.toString());
+    }
+
+    /**
+     * Records that the message was left on the queue until its scheduled time. No latency is recorded.
+     */
+    public void deferred() {
+        root.setAttribute("email.deferred", true);
+    }
+
+    /**
+     * Records the provider's acknowledgment and the latency of every stage. A scheduled message is first received,
+     * and deferred, before it is due, so its redelivery is measured from whichever is later, its first receive or its
+     * due time.
+     */
+    public void delivered() {
+        Instant ackedAt = Instant.now();
+        Instant queuedFrom = sentAt;
+        if (dueAt != null && (queuedFrom == null || dueAt.isAfter(queuedFrom))) {
+            queuedFrom = dueAt;
+        }
+        Instant firstReceive = firstReceivedAt != null ? firstReceivedAt : dequeuedAt;
+        Instant redeliveredFrom = dueAt != null && dueAt.isAfter(firstReceive) ? dueAt : firstReceive;
+        EmailLatencyTracer.record(latencyTracer.queue, queuedFrom, firstReceive);
+        EmailLatencyTracer.record(latencyTracer.redelivery, redeliveredFrom, dequeuedAt);
+        EmailLatencyTracer.record(latencyTracer.validation, dequeuedAt, validatedAt);
+        EmailLatencyTracer.record(latencyTracer.provider, validatedAt, ackedAt);
+        EmailLatencyTracer.record(latencyTracer.total, queuedFrom, ackedAt);
+        root.addEvent("provider acknowledged", ackedAt);
+    }
+
+    public void failed(Throwable error) {
+        root.recordException(error);
+        root.setStatus(StatusCode.ERROR, String.valueOf(error.getMessage()));
+    }
+
+    @Override
+    public void close() {
+        scope.close();
+        root.end();
+    }
+
+    SpanBuilder childSpan(String name) {
+        return latencyTracer.tracer().spanBuilder(name).setParent(Context.current().with(root));
+    }
+}
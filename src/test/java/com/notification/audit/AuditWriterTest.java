@@ -0,0 +1,76 @@
+package com.notification.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditWriterTest {
+
+    @TempDir
+    Path auditDirectory;
+
+    @Test
+    void stop_writesBufferedRecordsToDailyFile() throws IOException {
+        AuditProperties properties = new AuditProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(auditDirectory.toString());
+        properties.setFlushInterval(Duration.ofMinutes(1));
+        AuditWriter auditWriter = new AuditWriter(new ObjectMapper().findAndRegisterModules(), properties, new SimpleMeterRegistry());
+        auditWriter.start();
+
+        assertTrue(auditWriter.record(record("first@example.com")));
+        assertTrue(auditWriter.record(record("second@example.com")));
+        auditWriter.stop();
+
+        List<String> lines = readAll();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("first@example.com"));
+        assertTrue(lines.get(1).contains("second@example.com"));
+    }
+
+    @Test
+    void record_afterStop_isRejected() {
+        AuditProperties properties = new AuditProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(auditDirectory.toString());
+        AuditWriter auditWriter = new AuditWriter(new ObjectMapper().findAndRegisterModules(), properties, new SimpleMeterRegistry());
+        auditWriter.start();
+        auditWriter.stop();
+
+        assertFalse(auditWriter.record(record("late@example.com")));
+    }
+
+    private List<String> readAll() throws IOException {
+        try (Stream<Path> files = Files.list(auditDirectory)) {
+            List<Path> paths = files.collect(Collectors.toList());
+            assertEquals(1, paths.size());
+            return Files.readAllLines(paths.get(0));
+        }
+    }
+
+    private static AuditRecord record(String recipient) {
+        return AuditRecord.builder()
+                .occurredAt(Instant.now())
+                .tenantId("tenant-a")
+                .provider("novu")
+                .recipient(recipient)
+                .recipientCount(1)
+                .success(true)
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.notification.benchmark;
+
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.novu.NovuTriggerClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the ways the service writes its two hot JSON documents. Email requests, queued for scheduled sends and
+ * spooled to disk: the generic bean serializer with reflective getters, the same with Blackbird's generated ones, and
+ * the precompiled {@link EmailRequest.Serializer}. Novu trigger bodies: maps of maps, as they used to be built, and
+ * {@link NovuTriggerClient#body}. The variants of each are checked to write the same JSON first.
+ * <p>
+ * Not part of the regular build. Run with {@code mvn test -Dtest=SerializationBenchmark -Dbenchmark=true}; set the
+ * number of writes per round with {@code -Dbenchmark.iterations}. Time and bytes allocated per write are printed, the
+ * best of {@link #ROUNDS} rounds after as many of warm-up.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SerializationBenchmark {
+
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200_000);
+    private static final int ROUNDS = 5;
+
+    @Test
+    void emailRequestSerialization() throws Exception {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(List.of("cc1@example.com", "cc2@example.com"))
+                .subject("Your order o-1842 has shipped")
+                .body("Hello {{firstName}}, your order is on its way and should arrive within {{days}} days.")
+                .signature("The Example Shop team")
+                .emailVariables(Map.of("firstName", "Ada", "days", 3, "trackingUrl", "https://example.com/t/o-1842"))
+                .sendAt(Instant.parse("2030-01-01T09:00:00Z"))
+                .build();
+
+        ObjectMapper reflection = mapper().addMixIn(EmailRequest.class, BeanSerialized.class);
+        ObjectMapper blackbird = mapper().registerModule(new BlackbirdModule()).addMixIn(EmailRequest.class, BeanSerialized.class);
+        ObjectMapper precompiled = mapper();
+        byte[] expected = reflection.writeValueAsBytes(request);
+        assertArrayEquals(expected, blackbird.writeValueAsBytes(request));
+        assertArrayEquals(expected, precompiled.writeValueAsBytes(request));
+
+        List<Result> results = List.of(
+                measure("reflection", () -> reflection.writeValueAsBytes(request)),
+                measure("blackbird", () -> blackbird.writeValueAsBytes(request)),
+                measure("precompiled", () -> precompiled.writeValueAsBytes(request)));
+        print("Email request serialization", expected.length, results);
+    }
+
+    @Test
+    void triggerBodySerialization() throws Exception {
+        ObjectMapper objectMapper = mapper();
+        NovuTriggerClient client = new NovuTriggerClient(objectMapper, new EmailProviderProperties(), new SimpleMeterRegistry());
+        Map<String, Object> payload = new HashMap<>(Map.of("firstName", "Ada", "days", 3, "trackingUrl", "https://example.com/t/o-1842"));
+        payload.put("emailSubject", "Your order o-1842 has shipped");
+        payload.put("emailBody", "Hello {{firstName}}, your order is on its way and should arrive within {{days}} days.");
+        payload.put("emailSignature", "The Example Shop team");
+
+        byte[] expected = maps(objectMapper, payload);
+        byte[] body = client.body("order-shipped", "to@example.com", payload);
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(body));
+
+        List<Result> results = List.of(
+                measure("maps", () -> maps(objectMapper, payload)),
+                measure("precompiled", () -> client.body("order-shipped", "to@example.com", payload)));
+        print("Novu trigger body serialization", body.length, results);
+    }
+
+    /**
+     * The trigger body as it used to be built.
+     */
+    private static byte[] maps(ObjectMapper objectMapper, Map<String, Object> payload) throws Exception {
+        Map<String, Object> to = new HashMap<>();
+        to.put("subscriberId", "to@example.com");
+        to.put("email", "to@example.com");
+        Map<String, Object> body = new HashMap<>();
+        body.put("name", "order-shipped");
+        body.put("to", List.of(to));
+        body.put("payload", payload);
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Result measure(String name, Write write) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long id = Thread.currentThread().getId();
+        double bestNanos = Double.MAX_VALUE;
+        double bestBytes = Double.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < 2 * ROUNDS; round++) {
+            long allocated = threads.getThreadAllocatedBytes(id);
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += write.write().length;
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated = threads.getThreadAllocatedBytes(id) - allocated;
+            if (round >= ROUNDS) {
+                bestNanos = Math.min(bestNanos, (double) elapsed / ITERATIONS);
+                bestBytes = Math.min(bestBytes, (double) allocated / ITERATIONS);
+            }
+        }
+        if (sink == 0) {
+            throw new IllegalStateException("Nothing written");
+        }
+        return new Result(name, bestNanos, bestBytes);
+    }
+
+    private static void print(String title, int bytes, List<Result> results) {
+        System.out.printf("%n%s, %d bytes, best of %d rounds of %d writes%n", title, bytes, ROUNDS, ITERATIONS);
+        results.forEach(System.out::println);
+    }
+
+    private interface Write {
+        byte[] write() throws Exception;
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+
+    private static final class Result {
+
+        private final String serializer;
+        private final double nanosPerWrite;
+        private final double bytesPerWrite;
+
+        Result(String serializer, double nanosPerWrite, double bytesPerWrite) {
+            this.serializer = serializer;
+            this.nanosPerWrite = nanosPerWrite;
+            this.bytesPerWrite = bytesPerWrite;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %8.0f ns/write   %7.0f B allocated/write", serializer, nanosPerWrite, bytesPerWrite);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.notification.config;
+
+import co.novu.api.events.requests.TriggerEventRequest;
+import co.novu.sdk.Novu;
+import co.novu.sdk.NovuConfig;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshableNovuClientTest {
+
+    @Test
+    void swap_leavesLeasesInFlightOnTheRetiredClient() {
+        Novu first = mock(Novu.class);
+        Novu second = mock(Novu.class);
+        RefreshableNovuClient novuClient = new RefreshableNovuClient(first, new NovuConfig("key-1"), "workflow-1");
+
+        try (RefreshableNovuClient.Lease lease = novuClient.acquire()) {
+            novuClient.swap(second, new NovuConfig("key-2"), "workflow-2");
+
+            assertSame(first, lease.getNovu());
+            assertEquals("key-1", lease.getNovuConfig().getApiKey());
+            assertEquals("workflow-1", lease.getWorkflowTriggerId());
+        }
+        try (RefreshableNovuClient.Lease lease = novuClient.acquire()) {
+            assertSame(second, lease.getNovu());
+            assertEquals("workflow-2", lease.getWorkflowTriggerId());
+        }
+    }
+
+    @Test
+    void warmUp_triggersAWorkflowThatDoesNotExist_fromAsManyThreadsAsConnections() throws Exception {
+        Novu novu = mock(Novu.class);
+        CountDownLatch allStarted = new CountDownLatch(3);
+        when(novu.triggerEvent(any())).thenAnswer(invocation -> {
+            allStarted.countDown();
+            // Every call holds its thread until all have started, so each needs a connection of its own.
+            assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+            throw new IllegalStateException("workflow not found");
+        });
+        RefreshableNovuClient novuClient = new RefreshableNovuClient(novu, new NovuConfig("key"), "workflow");
+
+        assertEquals(3, novuClient.warmUp(3, Duration.ofSeconds(10)));
+
+        ArgumentCaptor<TriggerEventRequest> trigger = ArgumentCaptor.forClass(TriggerEventRequest.class);
+        verify(novu, times(3)).triggerEvent(trigger.capture());
+        trigger.getAllValues().forEach(request -> assertEquals(RefreshableNovuClient.WARM_UP_WORKFLOW, request.getName()));
+    }
+
+    @Test
+    void warmUp_withoutAnApiKey_doesNothing() throws Exception {
+        Novu novu = mock(Novu.class);
+        RefreshableNovuClient novuClient = new RefreshableNovuClient(novu, new NovuConfig("YOUR_NOVU_API_KEY"), "workflow");
+
+        assertEquals(0, novuClient.warmUp(3, Duration.ofSeconds(10)));
+        verify(novu, never()).triggerEvent(any());
+    }
+}
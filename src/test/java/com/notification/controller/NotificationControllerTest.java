@@ -1,25 +1,41 @@
 package com.notification.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.notification.dto.EmailRequest;
 import com.notification.exception.EmailSendingException;
+import com.notification.recipient.RecipientNormalizer;
+import com.notification.scheduling.ScheduledEmailPublisher;
 import com.notification.service.EmailSenderService;
+import com.notification.spool.EmailSpool;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +48,15 @@ class NotificationControllerTest {
     @MockBean
     private EmailSenderService emailSenderService;
 
+    @MockBean
+    private ScheduledEmailPublisher scheduledEmailPublisher;
+
+    @MockBean
+    private EmailSpool emailSpool;
+
+    @MockBean
+    private RecipientNormalizer recipientNormalizer;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -56,6 +81,44 @@ class NotificationControllerTest {
         verify(emailSenderService).sendEmail(any(EmailRequest.class));
     }
 
+    @Test
+    void sendEmail_futureSendAt_isScheduledInsteadOfSent() throws Exception {
+        Instant sendAt = Instant.parse("2099-01-01T09:00:00Z");
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("test@example.com")
+                .subject("Later")
+                .sendAt(sendAt)
+                .build();
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string("Email request scheduled for 2099-01-01T09:00:00Z."));
+
+        verify(scheduledEmailPublisher).schedule(any(EmailRequest.class), eq(sendAt), eq("default"));
+        verify(emailSenderService, never()).sendEmail(any(EmailRequest.class));
+    }
+
+    @Test
+    void sendEmail_futureSendAt_allRecipientsSuppressed_isNotScheduled() throws Exception {
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("bounced@example.com")
+                .subject("Later")
+                .sendAt(Instant.parse("2099-01-01T09:00:00Z"))
+                .build();
+        when(recipientNormalizer.isFullySuppressed(any(EmailRequest.class))).thenReturn(true);
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string("Email request accepted; every recipient is suppressed, nothing was scheduled."));
+
+        verify(scheduledEmailPublisher, never()).schedule(any(EmailRequest.class), any(Instant.class), anyString());
+        verify(emailSenderService, never()).sendEmail(any(EmailRequest.class));
+    }
+
     @Test
     void sendEmail_validationError_missingTo() throws Exception {
         EmailRequest emailRequest = EmailRequest.builder()
@@ -120,6 +183,58 @@ class NotificationControllerTest {
                 .andExpect(jsonPath("$.error").value("EmailSendingException"));
     }
 
+    @Test
+    void sendEmail_serviceThrowsEmailSendingException_spoolsAndAccepts() throws Exception {
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("test@example.com")
+                .subject("Outage Test")
+                .build();
+
+        doThrow(new EmailSendingException("Novu unavailable")).when(emailSenderService).sendEmail(any(EmailRequest.class));
+        when(emailSpool.append(any(EmailRequest.class), anyString())).thenReturn(true);
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string("Email request accepted and queued for delivery."));
+
+        verify(emailSpool).append(any(EmailRequest.class), eq("default"));
+    }
+
+    @Test
+    void sendEmail_dispatcherShuttingDown_spoolsAndAccepts() throws Exception {
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("test@example.com")
+                .subject("Shutdown Test")
+                .build();
+
+        doThrow(new RejectedExecutionException("Tenant dispatcher is not running.")).when(emailSenderService).sendEmail(any(EmailRequest.class));
+        when(emailSpool.append(any(EmailRequest.class), anyString())).thenReturn(true);
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string("Email request accepted and queued for delivery."));
+    }
+
+    @Test
+    void sendEmail_dispatcherShuttingDown_spoolOff_returnsServiceUnavailable() throws Exception {
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("test@example.com")
+                .subject("Shutdown Test")
+                .build();
+
+        doThrow(new RejectedExecutionException("Tenant dispatcher is not running.")).when(emailSenderService).sendEmail(any(EmailRequest.class));
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(emailRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error").value("RejectedExecutionException"));
+    }
+
     @Test
     void sendEmail_serviceThrowsUnexpectedException() throws Exception {
         EmailRequest emailRequest = EmailRequest.builder()
@@ -139,4 +254,43 @@ class NotificationControllerTest {
                 // but the controller's own try-catch block for Exception might catch it first if the service call is direct.
                 // Let's adjust the expectation based on the controller's direct catch block.
     }
+
+    @Test
+    void sendEmail_gzipSmileBody_isInflatedAndRead() throws Exception {
+        EmailRequest emailRequest = EmailRequest.builder()
+                .to("test@example.com")
+                .subject("Compressed")
+                .body("Hello World")
+                .build();
+
+        doNothing().when(emailSenderService).sendEmail(any(EmailRequest.class));
+
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType("application/x-jackson-smile")
+                        .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                        .content(gzip(new ObjectMapper(new SmileFactory()).writeValueAsBytes(emailRequest))))
+                .andExpect(status().isAccepted());
+
+        verify(emailSenderService).sendEmail(argThat(sent -> "Compressed".equals(sent.getSubject())));
+    }
+
+    @Test
+    void sendEmail_unsupportedContentEncoding_returnsUnsupportedMediaType() throws Exception {
+        mockMvc.perform(post("/api/v1/notifications/email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.CONTENT_ENCODING, "br")
+                        .content(new byte[] {1, 2, 3}))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(header().string(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        verify(emailSenderService, never()).sendEmail(any(EmailRequest.class));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
 }
@@ -0,0 +1,71 @@
+package com.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailRequestTest {
+
+    @Test
+    void serializer_writesWhatTheBeanSerializerWrites() throws Exception {
+        Map<String, Object> variables = new LinkedHashMap<>();
+        variables.put("userName", "Zoë \"Z\" O'Neil");
+        variables.put("orderNumber", 12345);
+        variables.put("items", List.of("a", "b"));
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Arrays.asList("cc@example.com", null))
+                .bcc(List.of())
+                .subject("Order shipped")
+                .body("Hello {{userName}},\n\tyour order is on its way.")
+                .signature("— The shop")
+                .emailVariables(variables)
+                .sendAt(Instant.parse("2030-01-01T09:00:00Z"))
+                .delaySeconds(30L)
+                .build();
+
+        for (ObjectMapper objectMapper : mappers()) {
+            assertEquals(beanMapper(objectMapper).writeValueAsString(request), objectMapper.writeValueAsString(request));
+            assertEquals(request, objectMapper.readValue(objectMapper.writeValueAsBytes(request), EmailRequest.class));
+        }
+    }
+
+    @Test
+    void serializer_writesNullsUnlessTheMapperLeavesThemOut() throws Exception {
+        EmailRequest request = EmailRequest.builder().to("to@example.com").build();
+
+        for (ObjectMapper objectMapper : mappers()) {
+            assertEquals(beanMapper(objectMapper).writeValueAsString(request), objectMapper.writeValueAsString(request));
+        }
+        assertEquals("{\"to\":\"to@example.com\"}", mappers().get(1).writeValueAsString(request));
+    }
+
+    private static List<ObjectMapper> mappers() {
+        return List.of(
+                new ObjectMapper().registerModule(new JavaTimeModule()).disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS),
+                new ObjectMapper().registerModule(new JavaTimeModule()).setSerializationInclusion(JsonInclude.Include.NON_NULL));
+    }
+
+    /**
+     * The same mapper, with the generic bean serializer for email requests.
+     */
+    private static ObjectMapper beanMapper(ObjectMapper objectMapper) {
+        return objectMapper.copy().addMixIn(EmailRequest.class, BeanSerialized.class);
+    }
+
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialized {
+    }
+}
@@ -0,0 +1,96 @@
+package com.notification.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.notification.config.IngestProperties;
+import com.notification.dto.EmailRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SqsMessageDecoderTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper().findAndRegisterModules();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+    private final SqsMessageDecoder decoder = decoder(new IngestProperties());
+
+    private final EmailRequest request = EmailRequest.builder()
+            .to("to@example.com")
+            .cc(List.of("cc@example.com"))
+            .subject("Your order has shipped")
+            .body("Hello {{firstName}}")
+            .emailVariables(Map.of("firstName", "Ada"))
+            .sendAt(Instant.parse("2030-01-01T09:00:00Z"))
+            .build();
+
+    @Test
+    void decode_withoutAttributes_readsPlainJson() throws IOException {
+        assertEquals(request, decoder.decode(jsonMapper.writeValueAsString(request), null, null));
+    }
+
+    @Test
+    void decode_gzipJson_isInflatedFromBase64() throws IOException {
+        String message = base64(gzip(jsonMapper.writeValueAsBytes(request)));
+
+        assertEquals(request, decoder.decode(message, null, "gzip"));
+        assertEquals(request, decoder.decode(message, "application/json; charset=UTF-8", "x-gzip"));
+    }
+
+    @Test
+    void decode_smile_isReadFromBase64() throws IOException {
+        assertEquals(request, decoder.decode(base64(smileMapper.writeValueAsBytes(request)), "application/x-jackson-smile", null));
+        assertEquals(request, decoder.decode(base64(gzip(smileMapper.writeValueAsBytes(request))), "application/x-jackson-smile", "gzip"));
+    }
+
+    @Test
+    void decode_unsupportedAttributes_throws() {
+        String message = base64(new byte[] {1, 2, 3});
+
+        assertTrue(assertThrows(IOException.class, () -> decoder.decode(message, "application/cbor", null)).getMessage().contains("ContentType"));
+        assertTrue(assertThrows(IOException.class, () -> decoder.decode(message, "not a media type", null)).getMessage().contains("ContentType"));
+        assertTrue(assertThrows(IOException.class, () -> decoder.decode(message, null, "br")).getMessage().contains("ContentEncoding"));
+    }
+
+    @Test
+    void decode_inflatingBeyondTheLimit_throws() throws IOException {
+        IngestProperties properties = new IngestProperties();
+        properties.setMaxInflatedSize(DataSize.ofBytes(64));
+        String message = base64(gzip(jsonMapper.writeValueAsBytes(request)));
+
+        IOException e = assertThrows(IOException.class, () -> decoder(properties).decode(message, null, "gzip"));
+        assertTrue(e.getMessage().contains("exceeds 64 bytes"), e.getMessage());
+    }
+
+    @Test
+    void decode_notGzip_throws() {
+        assertThrows(IOException.class, () -> decoder.decode(base64("{}".getBytes()), null, "gzip"));
+    }
+
+    private SqsMessageDecoder decoder(IngestProperties properties) {
+        return new SqsMessageDecoder(jsonMapper, new Jackson2ObjectMapperBuilder(), properties);
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+package com.notification.lifecycle;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.notification.config.EmailProviderProperties;
+import com.notification.config.RefreshableNovuClient;
+import com.notification.config.WarmUpProperties;
+import com.notification.novu.NovuTriggerClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarmUpTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final RefreshableNovuClient novuClient = mock(RefreshableNovuClient.class);
+    private WarmUpProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WarmUpProperties();
+        properties.setIterations(100);
+        properties.setNovuConnections(0);
+    }
+
+    @Test
+    void exercise_runsEveryIterationThroughTheRealPipeline() {
+        WarmUp warmUp = new WarmUp(properties, objectMapper, validator, new NovuTriggerClient(objectMapper, new EmailProviderProperties(), new SimpleMeterRegistry()), novuClient);
+
+        assertEquals(100, warmUp.exercise(System.nanoTime() + Duration.ofSeconds(30).toNanos()));
+    }
+
+    @Test
+    void exercise_stopsAtTheDeadline() {
+        WarmUp warmUp = new WarmUp(properties, objectMapper, validator, new NovuTriggerClient(objectMapper, new EmailProviderProperties(), new SimpleMeterRegistry()), novuClient);
+
+        assertEquals(0, warmUp.exercise(System.nanoTime() - 1));
+    }
+
+    @Test
+    void start_opensNovuConnections_andStartsEvenIfNovuIsUnreachable() throws Exception {
+        properties.setNovuConnections(3);
+        NovuTriggerClient triggerClient = mock(NovuTriggerClient.class);
+        when(triggerClient.warmUp(eq(3), eq("/v1/health-check"), any())).thenThrow(new IllegalArgumentException("bad URL"));
+        WarmUp warmUp = new WarmUp(properties, objectMapper, validator, triggerClient, novuClient);
+
+        warmUp.start();
+
+        assertTrue(warmUp.isRunning());
+        verify(triggerClient).warmUp(eq(3), eq("/v1/health-check"), any());
+    }
+
+    @Test
+    void start_opensConnectionsThroughTheNovuSdk_evenIfTheTriggerClientFails() throws Exception {
+        properties.setNovuConnections(3);
+        NovuTriggerClient triggerClient = mock(NovuTriggerClient.class);
+        when(novuClient.warmUp(eq(3), any())).thenThrow(new IllegalStateException("unreachable"));
+        WarmUp warmUp = new WarmUp(properties, objectMapper, validator, triggerClient, novuClient);
+
+        warmUp.start();
+
+        verify(novuClient).warmUp(eq(3), any());
+        verify(triggerClient).warmUp(eq(3), eq("/v1/health-check"), any());
+    }
+
+    @Test
+    void start_disabled_doesNothing() throws Exception {
+        properties.setEnabled(false);
+        NovuTriggerClient triggerClient = mock(NovuTriggerClient.class);
+        WarmUp warmUp = new WarmUp(properties, objectMapper, validator, triggerClient, novuClient);
+
+        warmUp.start();
+
+        assertTrue(warmUp.isRunning());
+        verify(triggerClient, never()).warmUp(anyInt(), anyString(), any());
+        verify(novuClient, never()).warmUp(anyInt(), any());
+    }
+}
@@ -0,0 +1,168 @@
+package com.notification.listener;
+
+import com.amazonaws.services.sqs.model.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageGroupExecutorTest {
+
+    private MessageGroupExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown(Duration.ofSeconds(5));
+        }
+    }
+
+    @Test
+    void runsEachGroupInOrder_oneTaskAtATime() throws Exception {
+        executor = new MessageGroupExecutor(8, 64);
+        List<List<Integer>> seen = new ArrayList<>();
+        AtomicInteger[] running = new AtomicInteger[4];
+        AtomicBoolean overlapped = new AtomicBoolean();
+        for (int group = 0; group < 4; group++) {
+            seen.add(Collections.synchronizedList(new ArrayList<>()));
+            running[group] = new AtomicInteger();
+        }
+        for (int i = 0; i < 400; i++) {
+            int group = i % 4;
+            int sequence = i;
+            executor.submit("group-" + group, () -> {
+                if (running[group].incrementAndGet() > 1) {
+                    overlapped.set(true);
+                }
+                seen.get(group).add(sequence);
+                running[group].decrementAndGet();
+            });
+        }
+
+        assertTrue(executor.shutdown(Duration.ofSeconds(10)));
+        assertFalse(overlapped.get());
+        for (int group = 0; group < 4; group++) {
+            List<Integer> sequences = seen.get(group);
+            assertEquals(100, sequences.size());
+            for (int i = 1; i < sequences.size(); i++) {
+                assertTrue(sequences.get(i - 1) < sequences.get(i));
+            }
+        }
+    }
+
+    @Test
+    void runsDifferentGroupsInParallel() throws Exception {
+        executor = new MessageGroupExecutor(4, 64);
+        CountDownLatch allStarted = new CountDownLatch(4);
+        for (int group = 0; group < 4; group++) {
+            executor.submit("group-" + group, () -> {
+                allStarted.countDown();
+                try {
+                    allStarted.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void blocksNewGroupsAtTheLimit_butAcceptsGroupsInFlight() throws Exception {
+        executor = new MessageGroupExecutor(2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit("a", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.submit("a", () -> { });
+        AtomicBoolean submitted = new AtomicBoolean();
+        Thread submitter = new Thread(() -> {
+            try {
+                executor.submit("b", () -> { });
+                submitted.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        submitter.start();
+
+        submitter.join(200);
+        assertFalse(submitted.get());
+        assertEquals(1, executor.inFlightGroups());
+
+        release.countDown();
+        submitter.join(5000);
+        assertTrue(submitted.get());
+    }
+
+    @Test
+    void reserve_waitsForRoomAtTheLimit_andSubmitReservedNeverWaits() throws Exception {
+        executor = new MessageGroupExecutor(2, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        assertEquals(2, executor.reserve(10));
+        assertTrue(executor.submitReserved("a", blocked));
+        assertFalse(executor.submitReserved("a", () -> { }));
+        executor.release(1);
+        assertEquals(1, executor.reserve(10));
+        assertTrue(executor.submitReserved("b", blocked));
+        AtomicInteger reserved = new AtomicInteger();
+        Thread poller = new Thread(() -> {
+            try {
+                reserved.set(executor.reserve(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        poller.start();
+
+        poller.join(200);
+        assertEquals(0, reserved.get());
+
+        release.countDown();
+        poller.join(5000);
+        assertTrue(reserved.get() >= 1);
+    }
+
+    @Test
+    void byGroup_keepsReceiveOrderWithinEachGroup() {
+        List<Message> messages = List.of(message("1", "alice"), message("2", "bob"), message("3", "alice"), message("4", null));
+
+        Map<String, List<Message>> groups = AdaptiveSqsPoller.byGroup(messages);
+
+        assertEquals(List.of("alice", "bob", ""), new ArrayList<>(groups.keySet()));
+        assertEquals("1", groups.get("alice").get(0).getMessageId());
+        assertEquals("3", groups.get("alice").get(1).getMessageId());
+    }
+
+    private static Message message(String id, String group) {
+        Message message = new Message().withMessageId(id);
+        if (group != null) {
+            message.addAttributesEntry("MessageGroupId", group);
+        }
+        return message;
+    }
+}
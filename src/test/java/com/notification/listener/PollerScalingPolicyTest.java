@@ -0,0 +1,54 @@
+package com.notification.listener;
+
+import com.notification.config.SqsPollerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollerScalingPolicyTest {
+
+    private PollerScalingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        SqsPollerProperties properties = new SqsPollerProperties();
+        properties.setMinPollers(1);
+        properties.setMaxPollers(32);
+        properties.setMessagesPerPoller(100);
+        properties.setTargetLatency(Duration.ofSeconds(2));
+        properties.setMaxDispatchBacklogPerWorker(2.0);
+        policy = new PollerScalingPolicy(properties);
+    }
+
+    @Test
+    void backlogScalesUpImmediately_withinMaximum() {
+        assertEquals(10, policy.targetPollers(1, 1000, 50, 0.1));
+        assertEquals(32, policy.targetPollers(1, 2_000_000, 50, 0.1));
+    }
+
+    @Test
+    void emptyQueueScalesDownByAtMostHalf_andUsesIdleWait() {
+        assertEquals(8, policy.targetPollers(16, 0, 50, 0));
+        assertEquals(1, policy.targetPollers(1, 0, 50, 0));
+        assertEquals(20, policy.waitTimeSeconds(0));
+        assertEquals(1, policy.waitTimeSeconds(500));
+    }
+
+    @Test
+    void highLatencyHoldsPollerCount() {
+        assertEquals(4, policy.targetPollers(4, 5000, 3000, 0.5));
+    }
+
+    @Test
+    void dispatcherBacklogShedsPollers() {
+        assertEquals(9, policy.targetPollers(10, 5000, 50, 3.0));
+    }
+
+    @Test
+    void unknownDepthKeepsCurrentCount() {
+        assertEquals(6, policy.targetPollers(6, -1, 50, 0));
+    }
+}
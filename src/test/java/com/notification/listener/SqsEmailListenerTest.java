@@ -2,8 +2,18 @@ package com.notification.listener;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.notification.config.IngestProperties;
 import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.ingest.SqsMessageDecoder;
+import com.notification.lifecycle.DrainCoordinator;
 import com.notification.service.EmailSenderService;
+import com.notification.tracing.EmailLatencyTracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.awspring.cloud.messaging.listener.Acknowledgment;
+import io.awspring.cloud.messaging.listener.Visibility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,17 +21,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.Path;
 import javax.validation.Validator;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -32,11 +53,27 @@ class SqsEmailListenerTest {
     private EmailSenderService emailSenderService;
 
     @Spy // Using a real ObjectMapper instance
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     @Mock
     private Validator validator;
 
+    @Mock
+    private Visibility visibility;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Mock
+    private DrainCoordinator drainCoordinator;
+
+    @Spy
+    private EmailLatencyTracer latencyTracer = new EmailLatencyTracer(OpenTelemetry.noop().getTracer("test"), new SimpleMeterRegistry());
+
+    @Spy
+    private SqsMessageDecoder messageDecoder = new SqsMessageDecoder(new ObjectMapper().findAndRegisterModules(),
+            new Jackson2ObjectMapperBuilder(), new IngestProperties());
+
     @InjectMocks
     private SqsEmailListener sqsEmailListener;
 
@@ -58,13 +95,64 @@ class SqsEmailListenerTest {
 
     @Test
     void receiveEmailRequest_success() {
-        doNothing().when(emailSenderService).sendEmail(any(EmailRequest.class));
+        when(emailSenderService.sendEmailAsync(any(EmailRequest.class))).thenReturn(accepted());
 
-        assertDoesNotThrow(() -> sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-123", "timestamp"));
+        assertDoesNotThrow(() -> sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-123", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment));
 
         verify(objectMapper).readValue(eq(validEmailRequestJson), eq(EmailRequest.class));
         verify(validator).validate(any(EmailRequest.class));
-        verify(emailSenderService).sendEmail(any(EmailRequest.class));
+        verify(emailSenderService).sendEmailAsync(any(EmailRequest.class));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void receiveEmailRequest_gzipSmileMessage_isDecodedAndSent() throws IOException {
+        when(emailSenderService.sendEmailAsync(any(EmailRequest.class))).thenReturn(accepted());
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(new ObjectMapper(new SmileFactory()).findAndRegisterModules().writeValueAsBytes(validEmailRequest));
+        }
+        String message = Base64.getEncoder().encodeToString(compressed.toByteArray());
+
+        sqsEmailListener.receiveEmailRequest(message, "msg-id-smile", null, "timestamp", "tenant-a",
+                "application/x-jackson-smile", "gzip", visibility, acknowledgment);
+
+        verify(messageDecoder).decode(message, "application/x-jackson-smile", "gzip");
+        verify(emailSenderService).sendEmailAsync(argThat(sent -> "test@example.com".equals(sent.getTo()) && "SQS Test".equals(sent.getSubject())));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void receiveEmailRequest_unsupportedContentEncoding_isNotSent() {
+        assertThrows(RuntimeException.class, () -> sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-br", null,
+                "timestamp", "tenant-a", null, "br", visibility, acknowledgment));
+
+        verify(emailSenderService, never()).sendEmailAsync(any());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void receiveEmailRequest_scheduledForLater_defersWithoutSendingOrDeleting() throws JsonProcessingException {
+        validEmailRequest.setSendAt(Instant.now().plusSeconds(3600));
+        String scheduledJson = objectMapper.writeValueAsString(validEmailRequest);
+
+        sqsEmailListener.receiveEmailRequest(scheduledJson, "msg-id-scheduled", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment);
+
+        verify(visibility).extend(intThat(seconds -> seconds > 3500 && seconds <= 3601));
+        verify(emailSenderService, never()).sendEmailAsync(any());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void receiveEmailRequest_delayBeyondSqsMaximum_defersForMaximumVisibility() throws JsonProcessingException {
+        validEmailRequest.setDelaySeconds(2L * SqsEmailListener.MAX_VISIBILITY_SECONDS);
+        String delayedJson = objectMapper.writeValueAsString(validEmailRequest);
+        String firstReceive = String.valueOf(Instant.now().toEpochMilli());
+
+        sqsEmailListener.receiveEmailRequest(delayedJson, "msg-id-delayed", null, firstReceive, "tenant-a", null, null, visibility, acknowledgment);
+
+        verify(visibility).extend(SqsEmailListener.MAX_VISIBILITY_SECONDS);
+        verify(emailSenderService, never()).sendEmailAsync(any());
     }
 
     @Test
@@ -78,10 +166,10 @@ class SqsEmailListenerTest {
         // when(objectMapper.readValue(eq(malformedJson), eq(EmailRequest.class))).thenThrow(JsonProcessingException.class);
 
         assertThrows(RuntimeException.class, () -> {
-            sqsEmailListener.receiveEmailRequest(malformedJson, "msg-id-error", "timestamp");
+            sqsEmailListener.receiveEmailRequest(malformedJson, "msg-id-error", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment);
         }, "SQS message deserialization error for messageId msg-id-error");
 
-        verify(emailSenderService, never()).sendEmail(any());
+        verify(emailSenderService, never()).sendEmailAsync(any());
     }
 
     @Test
@@ -98,24 +186,64 @@ class SqsEmailListenerTest {
         when(validator.validate(any(EmailRequest.class))).thenReturn(violations);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-validation-fail", "timestamp");
+            sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-validation-fail", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment);
         });
 
         assertTrue(exception.getMessage().contains("Invalid EmailRequest from SQS: to: must not be blank"));
-        verify(emailSenderService, never()).sendEmail(any());
+        verify(emailSenderService, never()).sendEmailAsync(any());
     }
 
     @Test
     void receiveEmailRequest_emailServiceThrowsException() {
-        doThrow(new RuntimeException("Email service failure")).when(emailSenderService).sendEmail(any(EmailRequest.class));
+        when(emailSenderService.sendEmailAsync(any(EmailRequest.class))).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service failure")));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-service-fail", "timestamp");
+            sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-service-fail", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment);
         });
 
         assertTrue(exception.getMessage().contains("Generic error processing SQS messageId msg-id-service-fail"));
         assertEquals("Email service failure", exception.getCause().getMessage());
 
-        verify(emailSenderService).sendEmail(any(EmailRequest.class));
+        verify(emailSenderService).sendEmailAsync(any(EmailRequest.class));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void receiveEmailRequest_dispatcherRejectsWhileDraining_handsMessageBack() {
+        when(drainCoordinator.isDraining()).thenReturn(false, true);
+        doThrow(new RejectedExecutionException("Tenant dispatcher is shutting down.")).when(emailSenderService).sendEmailAsync(any(EmailRequest.class));
+        doReturn(CompletableFuture.completedFuture(null)).when(visibility).extend(0);
+
+        assertDoesNotThrow(() -> sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-drain", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment));
+
+        verify(visibility).extend(0);
+        verify(acknowledgment, never()).acknowledge();
+        verify(drainCoordinator).recordHandedBack();
+        verify(drainCoordinator).messageStarted();
+        verify(drainCoordinator).messageFinished();
+    }
+
+    @Test
+    void receiveEmailRequest_providerRejectsACcRecipient_stillAcknowledges() {
+        EmailSendResult partial = EmailSendResult.builder()
+                .provider("smtp")
+                .recipient(EmailSendResult.Recipient.builder().address("test@example.com").type(EmailSendResult.RecipientType.TO)
+                        .status(EmailSendResult.Status.ACCEPTED).build())
+                .recipient(EmailSendResult.Recipient.builder().address("cc@example.com").type(EmailSendResult.RecipientType.CC)
+                        .status(EmailSendResult.Status.FAILED).error("Rejected by the SMTP server").build())
+                .build();
+        when(emailSenderService.sendEmailAsync(any(EmailRequest.class))).thenReturn(CompletableFuture.completedFuture(partial));
+
+        sqsEmailListener.receiveEmailRequest(validEmailRequestJson, "msg-id-partial", null, "timestamp", "tenant-a", null, null, visibility, acknowledgment);
+
+        verify(acknowledgment).acknowledge();
+    }
+
+    private static CompletableFuture<EmailSendResult> accepted() {
+        return CompletableFuture.completedFuture(EmailSendResult.builder()
+                .provider("novu")
+                .recipient(EmailSendResult.Recipient.builder().address("test@example.com").type(EmailSendResult.RecipientType.TO)
+                        .status(EmailSendResult.Status.ACCEPTED).build())
+                .build());
     }
 }
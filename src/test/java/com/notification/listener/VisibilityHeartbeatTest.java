@@ -0,0 +1,58 @@
+package com.notification.listener;
+
+import com.amazonaws.services.sqs.AmazonSQSAsync;
+import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class VisibilityHeartbeatTest {
+
+    private final AmazonSQSAsync sqs = mock(AmazonSQSAsync.class);
+    // Long enough that the heartbeat's own timer does not fire during a test.
+    private final VisibilityHeartbeat heartbeat = new VisibilityHeartbeat(sqs, "queue-url", 600);
+
+    @AfterEach
+    void tearDown() {
+        heartbeat.shutdown();
+    }
+
+    @Test
+    void extendDue_extendsMessagesStillWaiting_butNotThoseAlreadyStarted() {
+        Message started = message("started");
+        Message waiting = message("waiting");
+        heartbeat.hold(List.of(started, waiting));
+        heartbeat.release(started);
+
+        heartbeat.extendDue(System.nanoTime() + TimeUnit.SECONDS.toNanos(301));
+
+        ArgumentCaptor<ChangeMessageVisibilityRequest> request = ArgumentCaptor.forClass(ChangeMessageVisibilityRequest.class);
+        verify(sqs).changeMessageVisibilityAsync(request.capture());
+        assertEquals("waiting", request.getValue().getReceiptHandle());
+        assertEquals(600, request.getValue().getVisibilityTimeout());
+        assertEquals(1, heartbeat.size());
+    }
+
+    @Test
+    void extendDue_leavesMessagesAloneUntilHalfTheTimeoutHasPassed() {
+        heartbeat.hold(List.of(message("fresh")));
+
+        heartbeat.extendDue(System.nanoTime() + TimeUnit.SECONDS.toNanos(60));
+
+        verify(sqs, never()).changeMessageVisibilityAsync(any(ChangeMessageVisibilityRequest.class));
+    }
+
+    private static Message message(String receiptHandle) {
+        return new Message().withMessageId(receiptHandle).withReceiptHandle(receiptHandle);
+    }
+}
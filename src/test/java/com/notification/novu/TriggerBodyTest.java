@@ -0,0 +1,49 @@
+package com.notification.novu;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.EmailProviderProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TriggerBodyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NovuTriggerClient client = new NovuTriggerClient(objectMapper, new EmailProviderProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void body_isTheTriggerForOneSubscriber() throws Exception {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("emailSubject", "Order \"42\" shipped");
+        payload.put("emailBody", "Hello,\nyour order is on its way.");
+        payload.put("emailSignature", null);
+        payload.put("items", List.of(Map.of("sku", "A", "qty", 2)));
+
+        byte[] body = client.body("order-shipped", "to@example.com", payload);
+
+        assertEquals("{\"name\":\"order-shipped\",\"to\":[{\"subscriberId\":\"to@example.com\",\"email\":\"to@example.com\"}],"
+                        + "\"payload\":" + objectMapper.writeValueAsString(payload) + "}",
+                new String(body, StandardCharsets.UTF_8));
+        Map<String, Object> to = new HashMap<>();
+        to.put("subscriberId", "to@example.com");
+        to.put("email", "to@example.com");
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("name", "order-shipped");
+        expected.put("to", List.of(to));
+        expected.put("payload", payload);
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.readTree(body));
+    }
+
+    @Test
+    void body_writesAMissingPayloadAsNull() throws Exception {
+        assertEquals("{\"name\":\"warm-up\",\"to\":[{\"subscriberId\":\"to@example.com\",\"email\":\"to@example.com\"}],\"payload\":null}",
+                new String(client.body("warm-up", "to@example.com", null), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.notification.recipient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.SuppressionProperties;
+import com.notification.dto.EmailRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecipientNormalizerTest {
+
+    private SuppressionList suppressionList;
+    private RecipientNormalizer normalizer;
+
+    @BeforeEach
+    void setUp() {
+        SuppressionProperties properties = new SuppressionProperties();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        suppressionList = new SuppressionList(properties, new ObjectMapper(), meterRegistry);
+        normalizer = new RecipientNormalizer(suppressionList, meterRegistry);
+    }
+
+    @Test
+    void canonicalize_lowercasesTrimsAndConvertsInternationalDomains() {
+        assertEquals("john.doe@example.com", EmailAddresses.canonicalize("  John.Doe@Example.COM. "));
+        assertEquals("user@xn--mnchen-3ya.de", EmailAddresses.canonicalize("user@München.de"));
+        assertNull(EmailAddresses.canonicalize("   "));
+    }
+
+    @Test
+    void normalize_removesDuplicatesAcrossLists_keepingFirstPosition() {
+        EmailRequest request = EmailRequest.builder()
+                .to("Main@Example.com")
+                .cc(List.of("a@example.com", "MAIN@example.com", "b@example.com"))
+                .bcc(List.of("A@example.com", "c@example.com", "c@example.com"))
+                .subject("Dedup")
+                .build();
+
+        NormalizedRecipients recipients = normalizer.normalize(request);
+
+        assertEquals("main@example.com", recipients.getRequest().getTo());
+        assertEquals(List.of("a@example.com", "b@example.com"), recipients.getRequest().getCc());
+        assertEquals(List.of("c@example.com"), recipients.getRequest().getBcc());
+        assertEquals(3, recipients.getDuplicates());
+        assertEquals(4, recipients.recipientCount());
+        assertEquals("Dedup", recipients.getRequest().getSubject());
+    }
+
+    @Test
+    void normalize_dropsSuppressedRecipients_andPromotesFirstCc() {
+        suppressionList.replace(List.of("Bounced@example.com", "unsubscribed@example.com"));
+        EmailRequest request = EmailRequest.builder()
+                .to("bounced@example.com")
+                .cc(List.of("unsubscribed@example.com", "ok@example.com"))
+                .bcc(List.of("hidden@example.com"))
+                .build();
+
+        NormalizedRecipients recipients = normalizer.normalize(request);
+
+        assertEquals("ok@example.com", recipients.getRequest().getTo());
+        assertTrue(recipients.getRequest().getCc().isEmpty());
+        assertEquals(List.of("hidden@example.com"), recipients.getRequest().getBcc());
+        assertEquals(List.of("bounced@example.com", "unsubscribed@example.com"), recipients.getSuppressed());
+    }
+
+    @Test
+    void normalize_allRecipientsSuppressed_isEmpty() {
+        suppressionList.replace(List.of("only@example.com"));
+
+        NormalizedRecipients recipients = normalizer.normalize(EmailRequest.builder().to("ONLY@example.com").build());
+
+        assertTrue(recipients.isEmpty());
+        assertEquals(0, recipients.recipientCount());
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegatives_andFewFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(BloomFilter.hash("member" + i + "@example.com"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(BloomFilter.hash("member" + i + "@example.com")));
+            if (filter.mightContain(BloomFilter.hash("other" + i + "@example.com"))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertFalse(suppressionList.isSuppressed("member1@example.com"));
+    }
+}
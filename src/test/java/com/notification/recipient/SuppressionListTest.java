@@ -0,0 +1,87 @@
+package com.notification.recipient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.SuppressionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuppressionListTest {
+
+    private SuppressionList suppressionList;
+
+    @BeforeEach
+    void setUp() {
+        suppressionList = new SuppressionList(new SuppressionProperties(), new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void replace_findsEveryLoadedAddress_andNoOthers() {
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            addresses.add("member" + i + "@example.com");
+        }
+        addresses.add("MEMBER1@example.com");
+
+        suppressionList.replace(addresses);
+
+        assertEquals(50_000, suppressionList.size());
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(suppressionList.isSuppressed("member" + i + "@example.com"));
+            assertFalse(suppressionList.isSuppressed("other" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void apply_addsAndRemovesOnTopOfTheLoadedList() {
+        suppressionList.replace(List.of("bounced@example.com", "resubscribed@example.com"));
+
+        suppressionList.apply(List.of(change("New@Example.com", true), change("resubscribed@example.com", false)));
+        suppressionList.apply(List.of(change("new@example.com", true)));
+
+        assertTrue(suppressionList.isSuppressed("bounced@example.com"));
+        assertTrue(suppressionList.isSuppressed("new@example.com"));
+        assertFalse(suppressionList.isSuppressed("resubscribed@example.com"));
+        assertEquals(2, suppressionList.size());
+    }
+
+    @Test
+    void needsFullLoad_onceMoreChangesArePendingThanAllowed() {
+        SuppressionProperties properties = new SuppressionProperties();
+        properties.setMaxPendingChanges(2);
+        suppressionList = new SuppressionList(properties, new ObjectMapper(), new SimpleMeterRegistry());
+        suppressionList.replace(List.of("bounced@example.com"));
+
+        suppressionList.apply(List.of(change("one@example.com", true), change("two@example.com", true)));
+        assertFalse(suppressionList.needsFullLoad());
+        suppressionList.apply(List.of(change("three@example.com", true)));
+        assertTrue(suppressionList.needsFullLoad());
+
+        suppressionList.replace(List.of("bounced@example.com"));
+        assertFalse(suppressionList.needsFullLoad());
+    }
+
+    @Test
+    void replace_dropsChangesAppliedToThePreviousLoad() {
+        suppressionList.replace(List.of("bounced@example.com"));
+        suppressionList.apply(List.of(change("bounced@example.com", false)));
+
+        suppressionList.replace(List.of("bounced@example.com"));
+
+        assertTrue(suppressionList.isSuppressed("bounced@example.com"));
+    }
+
+    private static SuppressionList.Entry change(String email, boolean active) {
+        SuppressionList.Entry entry = new SuppressionList.Entry();
+        entry.setEmail(email);
+        entry.setActive(active);
+        return entry;
+    }
+}
@@ -8,22 +8,36 @@ import co.novu.api.events.responses.EventResponseData;
 import co.novu.sdk.Novu;
 import co.novu.sdk.NovuConfig;
 
+import com.notification.audit.AuditWriter;
+import com.notification.config.EmailProviderProperties;
+import com.notification.config.RefreshableNovuClient;
 import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
 import com.notification.exception.EmailSendingException;
+import com.notification.novu.NovuTriggerClient;
+import com.notification.preference.SubscriberPreferenceCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class NovuEmailSenderServiceImplTest {
@@ -34,6 +48,15 @@ class NovuEmailSenderServiceImplTest {
     @Mock
     private NovuConfig novuSdkConfigMock; // This is co.novu.sdk.NovuConfig
 
+    @Mock
+    private NovuTriggerClient triggerClientMock;
+
+    @Mock
+    private AuditWriter auditWriterMock;
+
+    @Mock
+    private SubscriberPreferenceCache preferenceCacheMock;
+
     private NovuEmailSenderServiceImpl novuEmailSenderService;
 
     private final String testWorkflowTriggerId = "test-workflow";
@@ -42,10 +65,10 @@ class NovuEmailSenderServiceImplTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         // Manually instantiate the service with mocked dependencies
-        novuEmailSenderService = new NovuEmailSenderServiceImpl(novuMock, novuSdkConfigMock);
+        novuEmailSenderService = new NovuEmailSenderServiceImpl(new RefreshableNovuClient(novuMock, novuSdkConfigMock, testWorkflowTriggerId), triggerClientMock, auditWriterMock, preferenceCacheMock,
+                new EmailProviderProperties(), new SimpleMeterRegistry());
 
         when(novuSdkConfigMock.getApiKey()).thenReturn("test-api-key");
-        ReflectionTestUtils.setField(novuEmailSenderService, "novuWorkflowTriggerId", testWorkflowTriggerId);
     }
 
     @Test
@@ -79,6 +102,7 @@ class NovuEmailSenderServiceImplTest {
         assertEquals("test@example.com", triggeredRequest.getTo().get(0).getSubscriberId()); // Assuming email is subscriberId
         assertEquals("Tester", triggeredRequest.getPayload().get("name"));
         assertEquals("Test Subject", triggeredRequest.getPayload().get("emailSubject"));
+        verify(auditWriterMock).record(argThat(record -> record.isSuccess() && "tx_123".equals(record.getTransactionId())));
     }
 
     @Test
@@ -130,6 +154,7 @@ class NovuEmailSenderServiceImplTest {
         });
         assertEquals("Novu service is not configured. API key missing.", exception.getMessage());
         verify(novuMock, never()).triggerEvent(any());
+        verify(auditWriterMock).record(argThat(record -> !record.isSuccess()));
     }
 
     @Test
@@ -208,6 +233,30 @@ class NovuEmailSenderServiceImplTest {
         assertEquals("Novu internal error", exception.getCause().getMessage());
     }
 
+    @Test
+    void sendEmail_afterClientSwap_usesNewClientAndWorkflow() {
+        Novu swappedNovu = mock(Novu.class);
+        NovuConfig swappedConfig = mock(NovuConfig.class);
+        when(swappedConfig.getApiKey()).thenReturn("rotated-api-key");
+        EventResponse mockResponse = new EventResponse();
+        EventResponseData responseData = new EventResponseData();
+        responseData.setStatus("triggered");
+        responseData.setAcknowledged(true);
+        mockResponse.setData(responseData);
+        when(swappedNovu.triggerEvent(any(TriggerEventRequest.class))).thenReturn(mockResponse);
+        RefreshableNovuClient novuClient = new RefreshableNovuClient(novuMock, novuSdkConfigMock, testWorkflowTriggerId);
+        NovuEmailSenderServiceImpl service = new NovuEmailSenderServiceImpl(novuClient, triggerClientMock, auditWriterMock, preferenceCacheMock,
+                new EmailProviderProperties(), new SimpleMeterRegistry());
+
+        novuClient.swap(swappedNovu, swappedConfig, "rotated-workflow");
+        service.sendEmail(EmailRequest.builder().to("test@example.com").subject("Swap").build());
+
+        ArgumentCaptor<TriggerEventRequest> captor = ArgumentCaptor.forClass(TriggerEventRequest.class);
+        verify(swappedNovu).triggerEvent(captor.capture());
+        assertEquals("rotated-workflow", captor.getValue().getName());
+        verify(novuMock, never()).triggerEvent(any());
+    }
+
     @Test
     void sendEmail_partialFailure_forCcRecipient_doesNotStopProcessing() {
         EmailRequest request = EmailRequest.builder()
@@ -240,4 +289,202 @@ class NovuEmailSenderServiceImplTest {
 
         verify(novuMock, times(3)).triggerEvent(any(TriggerEventRequest.class));
     }
+
+    @Test
+    void sendEmailAsync_triggersAllRecipients_reportsPerRecipientStatus() throws Exception {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Collections.singletonList("cc@example.com"))
+                .bcc(Collections.singletonList("bcc@example.com"))
+                .subject("Async")
+                .build();
+        when(triggerClientMock.trigger(eq("test-api-key"), eq(testWorkflowTriggerId), eq("to@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture("tx_to"));
+        when(triggerClientMock.trigger(eq("test-api-key"), eq(testWorkflowTriggerId), eq("cc@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture("tx_cc"));
+        when(triggerClientMock.trigger(eq("test-api-key"), eq(testWorkflowTriggerId), eq("bcc@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new EmailSendingException("rejected")));
+
+        EmailSendResult result = novuEmailSenderService.sendEmailAsync(request).get();
+
+        assertEquals("novu", result.getProvider());
+        assertEquals("tx_to", result.getTransactionId());
+        assertEquals(3, result.getRecipients().size());
+        assertEquals(EmailSendResult.Status.ACCEPTED, result.getRecipients().get(1).getStatus());
+        assertEquals("tx_cc", result.getRecipients().get(1).getTransactionId());
+        assertEquals(EmailSendResult.RecipientType.BCC, result.getRecipients().get(2).getType());
+        assertEquals(EmailSendResult.Status.FAILED, result.getRecipients().get(2).getStatus());
+        assertFalse(result.isFullyAccepted());
+        verify(novuMock, never()).triggerEvent(any());
+        verify(auditWriterMock).record(any());
+    }
+
+    @Test
+    void sendEmailAsync_mainRecipientRejected_failsWithEmailSendingException() {
+        EmailRequest request = EmailRequest.builder().to("to@example.com").subject("Async").build();
+        when(triggerClientMock.trigger(any(), any(), eq("to@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new EmailSendingException("rejected")));
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> novuEmailSenderService.sendEmailAsync(request).get());
+
+        assertInstanceOf(EmailSendingException.class, thrown.getCause());
+    }
+
+    @Test
+    void sendEmailAsync_mainRecipientFails_ccIsTriggeredOnlyByTheRetry() throws Exception {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Collections.singletonList("cc@example.com"))
+                .subject("Async")
+                .build();
+        when(triggerClientMock.trigger(any(), any(), eq("to@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.failedFuture(new EmailSendingException("unavailable")))
+                .thenReturn(CompletableFuture.completedFuture("tx_to"));
+        when(triggerClientMock.trigger(any(), any(), eq("cc@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture("tx_cc"));
+
+        assertThrows(ExecutionException.class, () -> novuEmailSenderService.sendEmailAsync(request).get());
+        verify(triggerClientMock, never()).trigger(any(), any(), eq("cc@example.com"), anyMap());
+
+        EmailSendResult result = novuEmailSenderService.sendEmailAsync(request).get();
+
+        assertTrue(result.isFullyAccepted());
+        verify(triggerClientMock, times(1)).trigger(any(), any(), eq("cc@example.com"), anyMap());
+    }
+
+    @Test
+    void sendEmailAsync_novuApiKeyNotConfigured_failsWithoutTriggering() {
+        when(novuSdkConfigMock.getApiKey()).thenReturn(null);
+        EmailRequest request = EmailRequest.builder().to("to@example.com").build();
+
+        CompletableFuture<EmailSendResult> result = novuEmailSenderService.sendEmailAsync(request);
+
+        assertTrue(result.isCompletedExceptionally());
+        verifyNoInteractions(triggerClientMock);
+    }
+
+    @Test
+    void sendEmail_optedOutRecipients_areNotTriggered() {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Arrays.asList("cc.in@example.com", "cc.out@example.com"))
+                .subject("Preferences")
+                .build();
+        when(preferenceCacheMock.isOptedOut("to@example.com", testWorkflowTriggerId)).thenReturn(true);
+        when(preferenceCacheMock.isOptedOut("cc.out@example.com", testWorkflowTriggerId)).thenReturn(true);
+        EventResponse response = new EventResponse();
+        EventResponseData data = new EventResponseData();
+        data.setStatus("triggered");
+        data.setAcknowledged(true);
+        response.setData(data);
+        when(novuMock.triggerEvent(any(TriggerEventRequest.class))).thenReturn(response);
+
+        novuEmailSenderService.sendEmail(request);
+
+        ArgumentCaptor<TriggerEventRequest> captor = ArgumentCaptor.forClass(TriggerEventRequest.class);
+        verify(novuMock).triggerEvent(captor.capture());
+        assertEquals("cc.in@example.com", captor.getValue().getTo().get(0).getEmail());
+    }
+
+    @Test
+    void sendEmailAsync_optedOutRecipient_isReportedWithoutTriggering() throws Exception {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .bcc(Collections.singletonList("bcc@example.com"))
+                .subject("Preferences")
+                .build();
+        when(preferenceCacheMock.isOptedOut("to@example.com", testWorkflowTriggerId)).thenReturn(true);
+        when(triggerClientMock.trigger(eq("test-api-key"), eq(testWorkflowTriggerId), eq("bcc@example.com"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture("tx_bcc"));
+
+        EmailSendResult result = novuEmailSenderService.sendEmailAsync(request).get();
+
+        assertNull(result.getTransactionId());
+        assertEquals(EmailSendResult.Status.OPTED_OUT, result.getRecipients().get(0).getStatus());
+        assertEquals(EmailSendResult.Status.ACCEPTED, result.getRecipients().get(1).getStatus());
+        assertTrue(result.isFullyAccepted());
+        verify(triggerClientMock, never()).trigger(any(), any(), eq("to@example.com"), anyMap());
+    }
+
+    @Test
+    void sendEmail_hedgingEnabled_slowTriggerIsSentAgainWithTheSameTransactionId_andTheLoserInterrupted() throws Exception {
+        EmailProviderProperties properties = new EmailProviderProperties();
+        properties.getNovu().getHedging().setEnabled(true);
+        properties.getNovu().getHedging().setSamples(1);
+        properties.getNovu().getHedging().setMinDelay(Duration.ofMillis(1));
+        properties.getNovu().getHedging().setMaxDelay(Duration.ofMillis(20));
+        properties.getNovu().getHedging().setBudget(1);
+        NovuEmailSenderServiceImpl service = new NovuEmailSenderServiceImpl(new RefreshableNovuClient(novuMock, novuSdkConfigMock, testWorkflowTriggerId),
+                triggerClientMock, auditWriterMock, preferenceCacheMock, properties, new SimpleMeterRegistry());
+        EventResponse response = new EventResponse();
+        EventResponseData data = new EventResponseData();
+        data.setStatus("triggered");
+        data.setAcknowledged(true);
+        response.setData(data);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch slowInterrupted = new CountDownLatch(1);
+        when(novuMock.triggerEvent(any(TriggerEventRequest.class))).thenAnswer(invocation -> {
+            if (calls.incrementAndGet() == 2) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    slowInterrupted.countDown();
+                }
+            }
+            return response;
+        });
+        try {
+            // The first send records the latency the hedge delay is taken from.
+            service.sendEmail(EmailRequest.builder().to("first@example.com").subject("Hedge").build());
+
+            long start = System.nanoTime();
+            service.sendEmail(EmailRequest.builder().to("second@example.com").subject("Hedge").build());
+
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(4));
+            assertTrue(slowInterrupted.await(5, TimeUnit.SECONDS));
+            ArgumentCaptor<TriggerEventRequest> captor = ArgumentCaptor.forClass(TriggerEventRequest.class);
+            verify(novuMock, times(3)).triggerEvent(captor.capture());
+            assertNotNull(captor.getAllValues().get(1).getTransactionId());
+            assertEquals(captor.getAllValues().get(1).getTransactionId(), captor.getAllValues().get(2).getTransactionId());
+        } finally {
+            service.stop();
+        }
+    }
+
+    @Test
+    void sendEmail_hedgingEnabled_allHedgeThreadsBusy_sendsOnTheCallersThread() throws Exception {
+        EmailProviderProperties properties = new EmailProviderProperties();
+        properties.getNovu().getHedging().setEnabled(true);
+        properties.getNovu().setSdkHedgeThreads(1);
+        NovuEmailSenderServiceImpl service = new NovuEmailSenderServiceImpl(new RefreshableNovuClient(novuMock, novuSdkConfigMock, testWorkflowTriggerId),
+                triggerClientMock, auditWriterMock, preferenceCacheMock, properties, new SimpleMeterRegistry());
+        EventResponse response = new EventResponse();
+        EventResponseData data = new EventResponseData();
+        data.setStatus("triggered");
+        data.setAcknowledged(true);
+        response.setData(data);
+        CountDownLatch firstRunning = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(novuMock.triggerEvent(any(TriggerEventRequest.class))).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().startsWith("novu-sdk-")) {
+                firstRunning.countDown();
+                releaseFirst.await(5, TimeUnit.SECONDS);
+            }
+            return response;
+        });
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> service.sendEmail(EmailRequest.builder().to("first@example.com").subject("Busy").build()));
+        try {
+            assertTrue(firstRunning.await(5, TimeUnit.SECONDS));
+
+            // The only hedge thread is taken, so this one is sent directly rather than waiting for it.
+            service.sendEmail(EmailRequest.builder().to("second@example.com").subject("Busy").build());
+
+            releaseFirst.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            verify(novuMock, times(2)).triggerEvent(any(TriggerEventRequest.class));
+        } finally {
+            releaseFirst.countDown();
+            service.stop();
+        }
+    }
 }
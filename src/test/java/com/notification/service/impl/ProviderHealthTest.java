@@ -0,0 +1,68 @@
+package com.notification.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProviderHealthTest {
+
+    private static final long OPEN = TimeUnit.SECONDS.toNanos(30);
+
+    @Test
+    void tryAcquire_afterTheOpenWindow_letsOneOfTwoConcurrentCallersProbe() throws Exception {
+        ProviderHealth health = new ProviderHealth(0.2, 1, OPEN);
+        health.recordFailure(0);
+        long afterWindow = OPEN + 1;
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Boolean> caller = () -> {
+            start.await();
+            return health.tryAcquire(afterWindow);
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = callers.submit(caller);
+            Future<Boolean> second = callers.submit(caller);
+            start.countDown();
+
+            assertNotEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void tryAcquire_probeOutcome_closesOrReopensTheCircuit() {
+        ProviderHealth health = new ProviderHealth(0.2, 1, OPEN);
+        health.recordFailure(0);
+        assertFalse(health.tryAcquire(OPEN - 1));
+
+        assertTrue(health.tryAcquire(OPEN));
+        health.recordFailure(OPEN + 10);
+        assertFalse(health.tryAcquire(OPEN + 11));
+
+        assertTrue(health.tryAcquire(2 * OPEN + 10));
+        assertFalse(health.tryAcquire(2 * OPEN + 11));
+        health.recordSuccess(1_000_000);
+        assertTrue(health.tryAcquire(2 * OPEN + 12));
+        assertTrue(health.tryAcquire(2 * OPEN + 13));
+    }
+
+    @Test
+    void tryAcquire_probeThatNeverReports_isGivenUpAfterTheOpenDuration() {
+        ProviderHealth health = new ProviderHealth(0.2, 1, OPEN);
+        health.recordFailure(0);
+
+        assertTrue(health.tryAcquire(OPEN));
+        assertFalse(health.tryAcquire(2 * OPEN - 1));
+        assertTrue(health.tryAcquire(2 * OPEN));
+    }
+}
@@ -0,0 +1,93 @@
+package com.notification.service.impl;
+
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.exception.EmailSendingException;
+import com.notification.service.EmailProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingEmailSenderServiceTest {
+
+    @Mock
+    private EmailProvider novuProvider;
+
+    @Mock
+    private EmailProvider smtpProvider;
+
+    private EmailProviderProperties properties;
+    private EmailRequest request;
+
+    @BeforeEach
+    void setUp() {
+        when(novuProvider.getName()).thenReturn("novu");
+        when(smtpProvider.getName()).thenReturn("smtp");
+        properties = new EmailProviderProperties();
+        properties.getRouting().setFailureThreshold(1);
+        properties.getRouting().setOpenDuration(Duration.ofMinutes(5));
+        // Route everything to Novu first while it is healthy.
+        properties.getRouting().getWeights().put("smtp", 0);
+        request = EmailRequest.builder().to("test@example.com").subject("Routing").build();
+    }
+
+    @Test
+    void sendEmail_preferredProviderFails_failsOverToNextProvider() {
+        doThrow(new EmailSendingException("Novu unavailable")).when(novuProvider).sendEmail(any(EmailRequest.class));
+        RoutingEmailSenderService routingService = new RoutingEmailSenderService(List.of(novuProvider, smtpProvider), properties, new SimpleMeterRegistry(), OpenTelemetry.noop().getTracer("test"));
+
+        routingService.sendEmail(request);
+
+        verify(novuProvider).sendEmail(request);
+        verify(smtpProvider).sendEmail(request);
+    }
+
+    @Test
+    void sendEmail_failedProviderOutOfRotation_isTriedLast() {
+        doThrow(new EmailSendingException("Novu unavailable")).when(novuProvider).sendEmail(any(EmailRequest.class));
+        RoutingEmailSenderService routingService = new RoutingEmailSenderService(List.of(novuProvider, smtpProvider), properties, new SimpleMeterRegistry(), OpenTelemetry.noop().getTracer("test"));
+
+        routingService.sendEmail(request);
+        clearInvocations(novuProvider, smtpProvider);
+        routingService.sendEmail(request);
+
+        // Novu tripped its circuit on the first failure, so the second send goes straight to SMTP.
+        verify(smtpProvider).sendEmail(request);
+        verify(novuProvider, never()).sendEmail(any());
+    }
+
+    @Test
+    void sendEmail_allProvidersFail_throwsEmailSendingException() {
+        doThrow(new EmailSendingException("Novu unavailable")).when(novuProvider).sendEmail(any(EmailRequest.class));
+        doThrow(new EmailSendingException("SMTP unavailable")).when(smtpProvider).sendEmail(any(EmailRequest.class));
+        RoutingEmailSenderService routingService = new RoutingEmailSenderService(List.of(novuProvider, smtpProvider), properties, new SimpleMeterRegistry(), OpenTelemetry.noop().getTracer("test"));
+
+        assertThrows(EmailSendingException.class, () -> routingService.sendEmail(request));
+    }
+
+    @Test
+    void sendEmailAsync_preferredProviderFails_failsOverToNextProvider() {
+        EmailSendResult smtpResult = EmailSendResult.builder().provider("smtp").build();
+        when(novuProvider.sendEmailAsync(request)).thenReturn(CompletableFuture.failedFuture(new EmailSendingException("Novu unavailable")));
+        when(smtpProvider.sendEmailAsync(request)).thenReturn(CompletableFuture.completedFuture(smtpResult));
+        RoutingEmailSenderService routingService = new RoutingEmailSenderService(List.of(novuProvider, smtpProvider), properties, new SimpleMeterRegistry(), OpenTelemetry.noop().getTracer("test"));
+
+        assertEquals(smtpResult, routingService.sendEmailAsync(request).join());
+        verify(novuProvider, never()).sendEmail(any());
+    }
+}
@@ -0,0 +1,223 @@
+package com.notification.service.impl;
+
+import com.notification.config.EmailProviderProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.exception.EmailSendingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SmtpEmailProviderTest {
+
+    private LocalSmtpStub smtpStub;
+    private SmtpEmailProvider smtpEmailProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtpStub = new LocalSmtpStub();
+        EmailProviderProperties properties = new EmailProviderProperties();
+        properties.getSmtp().setEnabled(true);
+        properties.getSmtp().setHost("localhost");
+        properties.getSmtp().setPort(smtpStub.getPort());
+        properties.getSmtp().setFrom("sender@example.com");
+        properties.getSmtp().setPoolSize(2);
+        smtpEmailProvider = new SmtpEmailProvider(properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtpEmailProvider.shutdown();
+        smtpStub.close();
+    }
+
+    @Test
+    void sendEmail_sendsOneTransactionForAllRecipientsOverPooledConnection() {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Collections.singletonList("cc@example.com"))
+                .bcc(Collections.singletonList("bcc@example.com"))
+                .subject("Hello {{name}}")
+                .body("Body for {{name}}")
+                .emailVariables(Map.of("name", "Tester"))
+                .build();
+
+        smtpEmailProvider.sendEmail(request);
+        smtpEmailProvider.sendEmail(request);
+
+        assertEquals(1, smtpStub.connections.get());
+        assertEquals(2, smtpStub.messages.size());
+        assertEquals(List.of("to@example.com", "cc@example.com", "bcc@example.com"), smtpStub.recipients.subList(0, 3));
+        String message = smtpStub.messages.get(0);
+        assertTrue(message.contains("Subject: Hello Tester"));
+        assertTrue(message.contains("Cc: cc@example.com"));
+        assertFalse(message.contains("bcc@example.com"));
+    }
+
+    @Test
+    void sendEmail_rejectedCcRecipient_stillDeliversToOthers() {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(Collections.singletonList("reject@example.com"))
+                .subject("Partial")
+                .build();
+
+        smtpEmailProvider.sendEmail(request);
+
+        assertEquals(1, smtpStub.messages.size());
+    }
+
+    @Test
+    void sendEmailAsync_rejectedCcRecipient_isReportedAsFailed() {
+        EmailRequest request = EmailRequest.builder()
+                .to("to@example.com")
+                .cc(List.of("reject@example.com"))
+                .bcc(List.of("bcc@example.com"))
+                .subject("Partial")
+                .build();
+
+        EmailSendResult result = smtpEmailProvider.sendEmailAsync(request).join();
+
+        assertEquals("smtp", result.getProvider());
+        assertFalse(result.isFullyAccepted());
+        assertEquals(List.of(EmailSendResult.Status.ACCEPTED, EmailSendResult.Status.FAILED, EmailSendResult.Status.ACCEPTED),
+                result.getRecipients().stream().map(EmailSendResult.Recipient::getStatus).collect(Collectors.toList()));
+        assertEquals(List.of(EmailSendResult.RecipientType.TO, EmailSendResult.RecipientType.CC, EmailSendResult.RecipientType.BCC),
+                result.getRecipients().stream().map(EmailSendResult.Recipient::getType).collect(Collectors.toList()));
+    }
+
+    @Test
+    void sendEmail_allRecipientsRejected_throwsEmailSendingException() {
+        EmailRequest request = EmailRequest.builder().to("reject@example.com").subject("Rejected").build();
+
+        assertThrows(EmailSendingException.class, () -> smtpEmailProvider.sendEmail(request));
+        assertTrue(smtpStub.messages.isEmpty());
+    }
+
+    @Test
+    void sendEmail_serverUnreachable_throwsEmailSendingException() throws IOException {
+        smtpStub.close();
+        EmailProviderProperties properties = new EmailProviderProperties();
+        properties.getSmtp().setPort(smtpStub.getPort());
+        SmtpEmailProvider unreachable = new SmtpEmailProvider(properties);
+
+        assertThrows(EmailSendingException.class,
+                () -> unreachable.sendEmail(EmailRequest.builder().to("to@example.com").build()));
+        unreachable.shutdown();
+    }
+
+    /**
+     * Minimal SMTP server advertising PIPELINING. Rejects any recipient containing "reject".
+     */
+    private static class LocalSmtpStub implements AutoCloseable {
+
+        private final ServerSocket serverSocket = new ServerSocket(0);
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> recipients = new CopyOnWriteArrayList<>();
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        LocalSmtpStub() throws IOException {
+            Thread acceptor = new Thread(this::acceptLoop, "smtp-stub");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "smtp-stub-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                OutputStream out = socket.getOutputStream();
+                reply(out, "220 stub ESMTP");
+                List<String> accepted = new ArrayList<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO")) {
+                        reply(out, "250-stub\r\n250-PIPELINING\r\n250 8BITMIME");
+                    } else if (command.startsWith("MAIL FROM")) {
+                        accepted.clear();
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT TO")) {
+                        String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        if (address.contains("reject")) {
+                            reply(out, "550 No such user");
+                        } else {
+                            accepted.add(address);
+                            reply(out, "250 OK");
+                        }
+                    } else if (command.equals("DATA")) {
+                        if (accepted.isEmpty()) {
+                            reply(out, "554 No valid recipients");
+                            continue;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder message = new StringBuilder();
+                        while (!(line = in.readLine()).equals(".")) {
+                            message.append(line).append("\r\n");
+                        }
+                        recipients.addAll(accepted);
+                        messages.add(message.toString());
+                        reply(out, "250 Queued");
+                    } else if (command.equals("RSET")) {
+                        accepted.clear();
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "502 Not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // Session ended
+            }
+        }
+
+        private static void reply(OutputStream out, String reply) throws IOException {
+            out.write((reply + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
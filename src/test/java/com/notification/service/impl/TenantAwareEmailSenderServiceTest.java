@@ -0,0 +1,79 @@
+package com.notification.service.impl;
+
+import com.notification.config.TenantDispatchProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.dto.EmailSendResult;
+import com.notification.recipient.NormalizedRecipients;
+import com.notification.recipient.RecipientNormalizer;
+import com.notification.service.EmailSenderService;
+import com.notification.tenant.FairTenantDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TenantAwareEmailSenderServiceTest {
+
+    @Mock
+    private EmailSenderService delegate;
+
+    @Mock
+    private RecipientNormalizer recipientNormalizer;
+
+    private FairTenantDispatcher dispatcher;
+    private TenantAwareEmailSenderService senderService;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new FairTenantDispatcher(new TenantDispatchProperties(), new SimpleMeterRegistry());
+        dispatcher.start();
+        senderService = new TenantAwareEmailSenderService(delegate, dispatcher, recipientNormalizer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void sendEmailAsync_holdsTheDispatcherSlotUntilTheProviderAnswers() throws Exception {
+        EmailRequest request = EmailRequest.builder().to("to@example.com").subject("Subject").build();
+        when(recipientNormalizer.normalize(request)).thenReturn(new NormalizedRecipients(request, Collections.emptyList(), 0));
+        CompletableFuture<EmailSendResult> providerAnswer = new CompletableFuture<>();
+        when(delegate.sendEmailAsync(any(EmailRequest.class))).thenReturn(providerAnswer);
+
+        CompletableFuture<EmailSendResult> result = senderService.sendEmailAsync(request);
+
+        verify(delegate, timeout(5000)).sendEmailAsync(request);
+        Thread.sleep(50);
+        assertEquals(1, dispatcher.pending());
+        assertFalse(result.isDone());
+
+        EmailSendResult sent = EmailSendResult.builder().provider("novu").latency(Duration.ZERO).build();
+        providerAnswer.complete(sent);
+
+        assertSame(sent, result.get(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (dispatcher.pending() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, dispatcher.pending());
+    }
+}
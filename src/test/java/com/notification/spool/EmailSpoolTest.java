@@ -0,0 +1,103 @@
+package com.notification.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.config.SpoolProperties;
+import com.notification.dto.EmailRequest;
+import com.notification.exception.EmailSendingException;
+import com.notification.service.EmailSenderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EmailSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private EmailSenderService emailSenderService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void replay_failingPastMaxAttempts_movesTheRequestToTheDeadLetterFile() throws Exception {
+        SpoolProperties properties = properties();
+        properties.setMaxAttempts(3);
+        doThrow(new EmailSendingException("provider down")).when(emailSenderService).sendEmail(any(EmailRequest.class));
+        EmailSpool spool = new EmailSpool(objectMapper, properties, emailSenderService, meterRegistry);
+        spool.start();
+        try {
+            assertTrue(spool.append(request("stuck@example.com"), "tenant-a"));
+
+            verify(emailSenderService, timeout(5000).times(3)).sendEmail(any(EmailRequest.class));
+            List<String> deadLetters = awaitDeadLetters();
+            assertEquals(1, deadLetters.size());
+            EmailSpool.SpooledEmail email = objectMapper.readValue(deadLetters.get(0), EmailSpool.SpooledEmail.class);
+            assertEquals("stuck@example.com", email.getRequest().getTo());
+            assertEquals("tenant-a", email.getTenantId());
+            assertEquals(1.0, meterRegistry.get("notification.spool.requests").tag("outcome", "dead-lettered").counter().count());
+            Thread.sleep(50);
+            verify(emailSenderService, times(3)).sendEmail(any(EmailRequest.class));
+        } finally {
+            spool.stop();
+        }
+    }
+
+    @Test
+    void start_withRelativeDirectory_leavesSpoolingOff() {
+        SpoolProperties properties = properties();
+        properties.setDirectory("spool");
+        EmailSpool spool = new EmailSpool(objectMapper, properties, emailSenderService, meterRegistry);
+        spool.start();
+
+        assertFalse(spool.append(request("to@example.com"), "tenant-a"));
+    }
+
+    private SpoolProperties properties() {
+        SpoolProperties properties = new SpoolProperties();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(64));
+        properties.setPollInterval(Duration.ofMillis(5));
+        properties.setInitialBackoff(Duration.ofMillis(1));
+        properties.setMaxBackoff(Duration.ofMillis(5));
+        return properties;
+    }
+
+    private List<String> awaitDeadLetters() throws IOException, InterruptedException {
+        Path file = directory.resolve(EmailSpool.DEAD_LETTER_FILE);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (Files.exists(file) && Files.readString(file).endsWith("\n")) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        return Files.readAllLines(file);
+    }
+
+    private static EmailRequest request(String to) {
+        return EmailRequest.builder().to(to).subject("Subject").body("Body").build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.notification.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void peekAndAdvance_returnRecordsInOrder_andResumeFromCheckpointAfterReopen() throws IOException {
+        try (MappedSpool spool = MappedSpool.open(directory, 4096)) {
+            spool.append(bytes("first"));
+            spool.append(bytes("second"));
+            spool.append(bytes("third"));
+
+            assertEquals("first", text(spool.peek()));
+            assertEquals("first", text(spool.peek()));
+            spool.advance();
+            assertEquals("second", text(spool.peek()));
+            spool.advance();
+        }
+
+        try (MappedSpool reopened = MappedSpool.open(directory, 4096)) {
+            assertEquals("third", text(reopened.peek()));
+            reopened.advance();
+            assertNull(reopened.peek());
+
+            reopened.append(bytes("fourth"));
+            assertEquals("fourth", text(reopened.peek()));
+        }
+    }
+
+    @Test
+    void append_rollsToNewSegment_andConsumedSegmentsAreDeleted() throws IOException {
+        try (MappedSpool spool = MappedSpool.open(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                spool.append(bytes("record-" + i + "-padding-padding"));
+            }
+            assertTrue(segmentCount() > 1);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("record-" + i + "-padding-padding", text(spool.peek()));
+                spool.advance();
+            }
+            assertNull(spool.peek());
+            assertEquals(1, segmentCount());
+        }
+    }
+
+    @Test
+    void open_ignoresTornRecordAtTail() throws IOException {
+        try (MappedSpool spool = MappedSpool.open(directory, 4096)) {
+            spool.append(bytes("complete"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(file -> file.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        // A header whose payload never made it to disk: right length, wrong checksum.
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(5).putInt(12345).flip(), 8 + "complete".length());
+        }
+
+        try (MappedSpool reopened = MappedSpool.open(directory, 4096)) {
+            assertEquals("complete", text(reopened.peek()));
+            reopened.advance();
+            assertNull(reopened.peek());
+
+            reopened.append(bytes("next"));
+            assertEquals("next", text(reopened.peek()));
+        }
+    }
+
+    @Test
+    void awaitSynced_waitsForSync() throws Exception {
+        try (MappedSpool spool = MappedSpool.open(directory, 4096)) {
+            long ticket = spool.append(bytes("durable"));
+
+            assertFalse(spool.awaitSynced(ticket, 10, TimeUnit.MILLISECONDS));
+            spool.sync();
+            assertTrue(spool.awaitSynced(ticket, 10, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String text(byte[] bytes) {
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.notification.tenant;
+
+import com.notification.config.TenantDispatchProperties;
+import com.notification.exception.TenantQuotaExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FairTenantDispatcherTest {
+
+    private TenantDispatchProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private FairTenantDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenantDispatchProperties();
+        properties.setWorkerThreads(1);
+        properties.setQuantum(1);
+        properties.getDefaults().setBurst(100);
+        properties.getDefaults().setRatePerSecond(100);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new FairTenantDispatcher(properties, meterRegistry);
+        dispatcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+    }
+
+    @Test
+    void backloggedTenantDoesNotStarveOthers() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        dispatcher.submit("blocker", 1, () -> awaitQuietly(blockWorker));
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            String label = "a" + i;
+            futures.add(dispatcher.submit("tenant-a", 1, () -> order.add(label)));
+        }
+        for (int i = 1; i <= 2; i++) {
+            String label = "b" + i;
+            futures.add(dispatcher.submit("tenant-b", 1, () -> order.add(label)));
+        }
+        blockWorker.countDown();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("a1", "b1", "a2", "b2", "a3", "a4"), order);
+        assertEquals(4.0, meterRegistry.counter("notification.tenant.dispatched", "tenant", "tenant-a").count());
+    }
+
+    @Test
+    void tenantOverQuotaIsRejected() {
+        TenantDispatchProperties.Quota quota = new TenantDispatchProperties.Quota();
+        quota.setBurst(2);
+        quota.setRatePerSecond(0.001);
+        properties.getQuotas().put("tenant-limited", quota);
+
+        dispatcher.dispatch("tenant-limited", 2, () -> { });
+
+        TenantQuotaExceededException exception = assertThrows(TenantQuotaExceededException.class,
+                () -> dispatcher.dispatch("tenant-limited", 1, () -> { }));
+        assertEquals("tenant-limited", exception.getTenantId());
+        assertEquals(1.0, meterRegistry.counter("notification.tenant.rejected", "tenant", "tenant-limited", "reason", "rate").count());
+    }
+
+    @Test
+    void dispatchCostingMoreThanTheBurstTakesTheWholeBurst() {
+        TenantDispatchProperties.Quota quota = new TenantDispatchProperties.Quota();
+        quota.setBurst(5);
+        quota.setRatePerSecond(0.001);
+        properties.getQuotas().put("tenant-bulk", quota);
+
+        dispatcher.dispatch("tenant-bulk", 50, () -> { });
+
+        assertThrows(TenantQuotaExceededException.class, () -> dispatcher.dispatch("tenant-bulk", 1, () -> { }));
+    }
+
+    @Test
+    void workRejectedForAFullQueueDoesNotTakeTokens() throws Exception {
+        TenantDispatchProperties.Quota quota = new TenantDispatchProperties.Quota();
+        quota.setBurst(3);
+        quota.setRatePerSecond(0.001);
+        properties.getQuotas().put("tenant-queued", quota);
+        properties.setMaxQueuedPerTenant(1);
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        dispatcher.submit("blocker", 1, () -> awaitQuietly(blockWorker));
+
+        CompletableFuture<Void> queued;
+        try {
+            queued = dispatcher.submit("tenant-queued", 1, () -> { });
+            for (int i = 0; i < 3; i++) {
+                assertThrows(TenantQuotaExceededException.class, () -> dispatcher.submit("tenant-queued", 1, () -> { }));
+            }
+        } finally {
+            blockWorker.countDown();
+        }
+        queued.get(5, TimeUnit.SECONDS);
+
+        // Two of the three tokens are left.
+        dispatcher.dispatch("tenant-queued", 1, () -> { });
+        dispatcher.dispatch("tenant-queued", 1, () -> { });
+        assertEquals(0.0, meterRegistry.counter("notification.tenant.rejected", "tenant", "tenant-queued", "reason", "rate").count());
+        assertEquals(3.0, meterRegistry.counter("notification.tenant.rejected", "tenant", "tenant-queued", "reason", "queue-full").count());
+    }
+
+    @Test
+    void reconfigureAppliesNewQuotaToExistingTenant() {
+        dispatcher.dispatch("tenant-a", 1, () -> { });
+
+        properties.getDefaults().setBurst(1);
+        properties.getDefaults().setRatePerSecond(0.001);
+        dispatcher.reconfigure();
+
+        dispatcher.dispatch("tenant-a", 1, () -> { });
+        assertThrows(TenantQuotaExceededException.class, () -> dispatcher.dispatch("tenant-a", 1, () -> { }));
+    }
+
+    @Test
+    void reconfigureAddsWorkersWithoutRestart() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        dispatcher.submit("blocker", 1, () -> awaitQuietly(blockWorker));
+
+        properties.setWorkerThreads(2);
+        dispatcher.reconfigure();
+
+        try {
+            dispatcher.submit("tenant-a", 1, () -> { }).get(5, TimeUnit.SECONDS);
+        } finally {
+            blockWorker.countDown();
+        }
+    }
+
+    @Test
+    void taskFailureIsPropagatedToCaller() {
+        assertThrows(IllegalStateException.class,
+                () -> dispatcher.dispatch("tenant-a", 1, () -> { throw new IllegalStateException("boom"); }));
+    }
+
+    @Test
+    void drainFinishesQueuedWorkAndKeepsAcceptingNewWork() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        dispatcher.submit("blocker", 1, () -> awaitQuietly(blockWorker));
+        CompletableFuture<Void> queued = dispatcher.submit("tenant-a", 1, () -> { });
+
+        CompletableFuture<Integer> rejected = CompletableFuture.supplyAsync(() -> dispatcher.drain(Duration.ofSeconds(5)));
+        Thread.sleep(50);
+        CompletableFuture<Void> submittedWhileDraining = dispatcher.submit("tenant-a", 1, () -> { });
+        blockWorker.countDown();
+
+        assertEquals(0, rejected.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.isDone() && !queued.isCompletedExceptionally());
+        submittedWhileDraining.get(5, TimeUnit.SECONDS);
+        dispatcher.submit("tenant-a", 1, () -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void drainTimeoutRejectsQueuedWork() throws Exception {
+        CountDownLatch blockWorker = new CountDownLatch(1);
+        dispatcher.submit("blocker", 1, () -> awaitQuietly(blockWorker));
+        CompletableFuture<Void> queued = dispatcher.submit("tenant-a", 1, () -> { });
+
+        try {
+            assertEquals(1, dispatcher.drain(Duration.ofMillis(100)));
+        } finally {
+            blockWorker.countDown();
+        }
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+        dispatcher.submit("tenant-a", 1, () -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
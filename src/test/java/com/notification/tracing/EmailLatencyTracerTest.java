@@ -0,0 +1,85 @@
+package com.notification.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailLatencyTracerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailLatencyTracer latencyTracer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        latencyTracer = new EmailLatencyTracer(OpenTelemetry.noop().getTracer("test"), meterRegistry);
+    }
+
+    @Test
+    void delivered_recordsEveryStage() {
+        Instant sentAt = Instant.now().minusSeconds(5);
+        Instant firstReceivedAt = Instant.now().minusSeconds(2);
+
+        try (MessageTrace trace = latencyTracer.startSqsMessage("msg-1", sentAt, firstReceivedAt)) {
+            trace.validated();
+            trace.delivered();
+        }
+
+        assertSeconds("queue", 3);
+        assertSeconds("redelivery", 2);
+        assertSeconds("total", 5);
+        assertEquals(1, meterRegistry.get("notification.email.latency").tag("stage", "validation").timer().count());
+        assertEquals(1, meterRegistry.get("notification.email.latency").tag("stage", "provider").timer().count());
+    }
+
+    @Test
+    void delivered_scheduledMessage_measuresQueueFromDueTime() {
+        Instant sentAt = Instant.now().minusSeconds(3600);
+
+        try (MessageTrace trace = latencyTracer.startSqsMessage("msg-2", sentAt, null)) {
+            trace.validated();
+            trace.dueAt(Instant.now().minusSeconds(1));
+            trace.delivered();
+        }
+
+        assertSeconds("total", 1);
+    }
+
+    @Test
+    void delivered_scheduledMessageReceivedBeforeItWasDue_measuresRedeliveryFromDueTime() {
+        Instant sentAt = Instant.now().minusSeconds(3600);
+        Instant firstReceivedAt = Instant.now().minusSeconds(3599);
+
+        try (MessageTrace trace = latencyTracer.startSqsMessage("msg-4", sentAt, firstReceivedAt)) {
+            trace.validated();
+            trace.dueAt(Instant.now().minusSeconds(2));
+            trace.delivered();
+        }
+
+        assertSeconds("queue", 0);
+        assertSeconds("redelivery", 2);
+        assertSeconds("total", 2);
+    }
+
+    @Test
+    void deferred_recordsNoLatency() {
+        try (MessageTrace trace = latencyTracer.startSqsMessage("msg-3", Instant.now().minusSeconds(10), null)) {
+            trace.validated();
+            trace.deferred();
+        }
+
+        assertEquals(0, meterRegistry.get("notification.email.latency").tag("stage", "total").timer().count());
+    }
+
+    private void assertSeconds(String stage, double expected) {
+        double seconds = meterRegistry.get("notification.email.latency").tag("stage", stage).timer().totalTime(TimeUnit.SECONDS);
+        assertTrue(Math.abs(seconds - expected) < 0.5, stage + " took " + seconds + "s, expected about " + expected + "s");
+    }
+}